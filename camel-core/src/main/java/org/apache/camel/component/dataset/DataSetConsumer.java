@@ -17,6 +17,7 @@
 package org.apache.camel.component.dataset;
 
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.camel.CamelContext;
 import org.apache.camel.Exchange;
@@ -36,6 +37,7 @@ public class DataSetConsumer extends DefaultConsumer {
     private DataSetEndpoint endpoint;
     private Processor reporter;
     private ExecutorService executorService;
+    private final LatencyHistogram latencyHistogram = new LatencyHistogram();
 
     public DataSetConsumer(DataSetEndpoint endpoint, Processor processor) {
         super(endpoint, processor);
@@ -52,6 +54,7 @@ public class DataSetConsumer extends DefaultConsumer {
         }
         final DataSet dataSet = endpoint.getDataSet();
         final long preloadSize = endpoint.getPreloadSize();
+        latencyHistogram.reset();
 
         sendMessages(0, preloadSize);
         executorService = camelContext.getExecutorServiceManager().newSingleThreadExecutor(this, endpoint.getEndpointUri());
@@ -67,7 +70,14 @@ public class DataSetConsumer extends DefaultConsumer {
                     }
                 }
 
-                sendMessages(preloadSize, dataSet.getSize());
+                if (endpoint.getProduceRate() > 0) {
+                    sendMessagesAtRate(preloadSize, dataSet.getSize());
+                } else {
+                    sendMessages(preloadSize, dataSet.getSize());
+                }
+
+                String id = getRoute() != null ? getRoute().getId() : URISupport.sanitizeUri(endpoint.getEndpointUri());
+                log.info("Route: {} sent messages with latency: {}", id, latencyHistogram);
             }
         });
     }
@@ -86,7 +96,10 @@ public class DataSetConsumer extends DefaultConsumer {
         try {
             for (long i = startIndex; i < endIndex; i++) {
                 Exchange exchange = endpoint.createExchange(i);
+                long start = System.nanoTime();
                 getProcessor().process(exchange);
+                // the next message is deliberately only sent after this one, so the service time is the latency
+                latencyHistogram.recordValue(System.nanoTime() - start);
 
                 try {
                     long delay = endpoint.getProduceDelay();
@@ -106,6 +119,58 @@ public class DataSetConsumer extends DefaultConsumer {
         }
     }
 
+    /**
+     * Sends the messages at the produce rate of the endpoint. The send time of each message is scheduled up front,
+     * and the latency is measured from the scheduled time, so waiting for slow messages is included in the latency
+     * of the messages that should have been sent in the meantime. This corrects for coordinated omission, so the
+     * latencies are recorded as is.
+     */
+    protected void sendMessagesAtRate(long startIndex, long endIndex) {
+        long start = System.nanoTime();
+        try {
+            for (long i = startIndex; i < endIndex; i++) {
+                long scheduled = start + scheduledTime(i - startIndex, endpoint.getProduceRate(), endpoint.getRampUpTime());
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+
+                Exchange exchange = endpoint.createExchange(i);
+                getProcessor().process(exchange);
+                latencyHistogram.recordValue(System.nanoTime() - scheduled);
+
+                if (reporter != null) {
+                    reporter.process(exchange);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            handleException(e);
+        }
+    }
+
+    /**
+     * Gets the time in nanos, relative to the start, the n'th message should be sent at the given rate,
+     * where the rate is linearly increased from zero during the ramp up time.
+     */
+    static long scheduledTime(long n, long rate, long rampUpTime) {
+        double perNano = rate / (double) TimeUnit.SECONDS.toNanos(1);
+        long ramp = TimeUnit.MILLISECONDS.toNanos(rampUpTime);
+        if (ramp > 0 && n < perNano * ramp / 2) {
+            // during ramp up the number of messages sent at time t is rate * t^2 / (2 * ramp)
+            return Math.round(Math.sqrt(2.0 * ramp * n / perNano));
+        }
+        return Math.round(n / perNano + ramp / 2.0);
+    }
+
+    /**
+     * Gets the latencies of the messages sent by this consumer.
+     */
+    public LatencyHistogram getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
     protected ThroughputLogger createReporter() {
         // must sanitize uri to avoid logging sensitive information
         String uri = URISupport.sanitizeUri(endpoint.getEndpointUri());
@@ -54,6 +54,10 @@ public class DataSetEndpoint extends MockEndpoint implements Service {
     private int minRate;
     @UriParam(label = "consumer", defaultValue = "3")
     private long produceDelay = 3;
+    @UriParam(label = "consumer", defaultValue = "0")
+    private long produceRate;
+    @UriParam(label = "consumer", defaultValue = "0")
+    private long rampUpTime;
     @UriParam(label = "producer", defaultValue = "0")
     private long consumeDelay;
     @UriParam(label = "consumer", defaultValue = "0")
@@ -200,6 +204,32 @@ public class DataSetEndpoint extends MockEndpoint implements Service {
         this.produceDelay = produceDelay;
     }
 
+    public long getProduceRate() {
+        return produceRate;
+    }
+
+    /**
+     * The number of messages per second the consumer should send. The send time of each message is scheduled
+     * up front at a constant rate. The messages are sent one at a time by a single thread, so a message which
+     * is slow to route delays the messages after it. The latency of each message is measured from the time it was
+     * scheduled to be sent, so such delays are included in the latencies instead of being omitted.
+     * When set then produceDelay is not used.
+     */
+    public void setProduceRate(long produceRate) {
+        this.produceRate = produceRate;
+    }
+
+    public long getRampUpTime() {
+        return rampUpTime;
+    }
+
+    /**
+     * Time period in millis to linearly ramp up the rate from zero to the produceRate.
+     */
+    public void setRampUpTime(long rampUpTime) {
+        this.rampUpTime = rampUpTime;
+    }
+
     public long getInitialDelay() {
         return initialDelay;
     }
@@ -45,12 +45,12 @@ public class DirectBlockingProducer extends DefaultAsyncProducer {
     }
 
     public void process(Exchange exchange) throws Exception {
-        getConsumer(exchange).getProcessor().process(exchange);
+        endpoint.getConsumerProcessor(getConsumer(exchange), exchange).process(exchange);
     }
 
     public boolean process(Exchange exchange, AsyncCallback callback) {
         try {
-            return getConsumer(exchange).getAsyncProcessor().process(exchange, callback);
+            return endpoint.getConsumerProcessor(getConsumer(exchange), exchange).process(exchange, callback);
         } catch (Exception e) {
             exchange.setException(e);
             callback.done(true);
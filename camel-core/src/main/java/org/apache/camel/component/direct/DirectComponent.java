@@ -39,6 +39,7 @@ public class DirectComponent extends UriEndpointComponent {
     private boolean block;
     @Metadata(defaultValue = "30000")
     private long timeout = 30000L;
+    private boolean inline;
 
     public DirectComponent() {
         super(DirectEndpoint.class);
@@ -48,6 +49,7 @@ public class DirectComponent extends UriEndpointComponent {
         DirectEndpoint endpoint = new DirectEndpoint(uri, this, consumers);
         endpoint.setBlock(block);
         endpoint.setTimeout(timeout);
+        endpoint.setInline(inline);
         setProperties(endpoint, parameters);
         return endpoint;
     }
@@ -81,4 +83,16 @@ public class DirectComponent extends UriEndpointComponent {
     public void setTimeout(long timeout) {
         this.timeout = timeout;
     }
+
+    public boolean isInline() {
+        return inline;
+    }
+
+    /**
+     * Whether producers should route exchanges directly into the processors of the consumer route,
+     * when the exchange is already being routed, bypassing the route level services of the consumer route.
+     */
+    public void setInline(boolean inline) {
+        this.inline = inline;
+    }
 }
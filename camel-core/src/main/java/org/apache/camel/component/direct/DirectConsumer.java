@@ -16,6 +16,7 @@
  */
 package org.apache.camel.component.direct;
 
+import org.apache.camel.AsyncProcessor;
 import org.apache.camel.Endpoint;
 import org.apache.camel.Processor;
 import org.apache.camel.ShutdownRunningTask;
@@ -32,6 +33,7 @@ import org.apache.camel.spi.ShutdownAware;
 public class DirectConsumer extends DefaultConsumer implements ShutdownAware, Suspendable {
 
     private DirectEndpoint endpoint;
+    private volatile DirectInlineProcessor inlineProcessor;
 
     public DirectConsumer(Endpoint endpoint, Processor processor) {
         super(endpoint, processor);
@@ -43,8 +45,23 @@ public class DirectConsumer extends DefaultConsumer implements ShutdownAware, Su
         return (DirectEndpoint) super.getEndpoint();
     }
 
+    /**
+     * Gets the processor which routes directly into the processors of the route, used by producers
+     * which have <tt>inline</tt> enabled.
+     *
+     * @return the processor, or <tt>null</tt> if the route cannot be inlined
+     */
+    public AsyncProcessor getInlineProcessor() {
+        return inlineProcessor;
+    }
+
     @Override
     protected void doStart() throws Exception {
+        // resolve the inline processor before the consumer is added so producers can use it
+        if (inlineProcessor == null) {
+            inlineProcessor = DirectInlineProcessor.newInstance(getProcessor());
+        }
+
         // add consumer to endpoint
         boolean existing = this == endpoint.getConsumer();
         if (!existing && endpoint.hasConsumer(this)) {
@@ -19,8 +19,10 @@ package org.apache.camel.component.direct;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.camel.AsyncProcessor;
 import org.apache.camel.Component;
 import org.apache.camel.Consumer;
+import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
 import org.apache.camel.Producer;
 import org.apache.camel.impl.DefaultEndpoint;
@@ -39,6 +41,7 @@ import org.apache.camel.util.ObjectHelper;
 public class DirectEndpoint extends DefaultEndpoint {
 
     private volatile Map<String, DirectConsumer> consumers;
+    private String key;
 
     @UriPath(description = "Name of direct endpoint") @Metadata(required = "true")
     private String name;
@@ -49,6 +52,8 @@ public class DirectEndpoint extends DefaultEndpoint {
     private long timeout = 30000L;
     @UriParam(label = "producer")
     private boolean failIfNoConsumers = true;
+    @UriParam(label = "producer,advanced")
+    private boolean inline;
 
     public DirectEndpoint() {
         this.consumers = new HashMap<String, DirectConsumer>();
@@ -101,6 +106,24 @@ public class DirectEndpoint extends DefaultEndpoint {
         return consumers.get(key);
     }
 
+    /**
+     * Gets the processor of the consumer to route the exchange to.
+     *
+     * @param consumer the consumer
+     * @param exchange the exchange
+     * @return the inline processor of the consumer if inline is enabled and the exchange is already
+     *         routed in a unit of work, otherwise the processor of the consumer
+     */
+    protected AsyncProcessor getConsumerProcessor(DirectConsumer consumer, Exchange exchange) {
+        if (inline && exchange.getUnitOfWork() != null) {
+            AsyncProcessor answer = consumer.getInlineProcessor();
+            if (answer != null) {
+                return answer;
+            }
+        }
+        return consumer.getAsyncProcessor();
+    }
+
     public boolean isBlock() {
         return block;
     }
@@ -137,12 +160,32 @@ public class DirectEndpoint extends DefaultEndpoint {
         this.failIfNoConsumers = failIfNoConsumers;
     }
 
+    public boolean isInline() {
+        return inline;
+    }
+
+    /**
+     * Whether the producer should route the exchange directly into the processors of the consumer route,
+     * when the exchange is already being routed. The exchange then continues in the unit of work of the caller,
+     * and is still tracked as inflight in the consumer route. The JMX route statistics and the before and after
+     * route callbacks of the unit of work are bypassed for the consumer route. This shortens the call path when
+     * chaining many direct routes. Routes which have route policies, or route level advices such as stream
+     * caching or message history, are never inlined.
+     */
+    public void setInline(boolean inline) {
+        this.inline = inline;
+    }
+
     protected String getKey() {
-        String uri = getEndpointUri();
-        if (uri.indexOf('?') != -1) {
-            return ObjectHelper.before(uri, "?");
-        } else {
-            return uri;
+        // the endpoint uri does not change so the key can be computed once
+        if (key == null) {
+            String uri = getEndpointUri();
+            if (uri.indexOf('?') != -1) {
+                key = ObjectHelper.before(uri, "?");
+            } else {
+                key = uri;
+            }
         }
+        return key;
     }
 }
@@ -0,0 +1,136 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.direct;
+
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.AsyncProcessor;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.processor.CamelInternalProcessor;
+import org.apache.camel.spi.RouteContext;
+import org.apache.camel.spi.UnitOfWork;
+import org.apache.camel.util.AsyncProcessorConverterHelper;
+import org.apache.camel.util.AsyncProcessorHelper;
+
+/**
+ * Processor used by the direct producer when <tt>inline</tt> is enabled, which calls the processors of the
+ * target route directly, bypassing the route level {@link CamelInternalProcessor} advices.
+ * <p/>
+ * The exchange is routed in the {@link UnitOfWork} of the caller. The route context is pushed and popped,
+ * so the route is known while routing (eg for error handling), and the exchange is tracked as inflight in the
+ * route, so graceful shutdown waits for it. The advices which are skipped are the route level JMX statistics
+ * and the before and after route callbacks of the unit of work.
+ * <p/>
+ * The advices of the processors in the route, such as stream caching, message history, tracing and debugging,
+ * are not affected. A route which has any of these advices at the route level, or has route policies, is never inlined.
+ */
+public class DirectInlineProcessor implements AsyncProcessor {
+
+    private static final Class<?>[] NOT_INLINED_ADVICES = {
+        CamelInternalProcessor.RoutePolicyAdvice.class,
+        CamelInternalProcessor.StreamCachingAdvice.class,
+        CamelInternalProcessor.MessageHistoryAdvice.class,
+        CamelInternalProcessor.BacklogTracerAdvice.class,
+        CamelInternalProcessor.BacklogDebuggerAdvice.class,
+        CamelInternalProcessor.DelayerAdvice.class
+    };
+
+    private final AsyncProcessor processor;
+    private final RouteContext routeContext;
+    private final CamelInternalProcessor.RouteInflightRepositoryAdvice inflightAdvice;
+
+    public DirectInlineProcessor(Processor processor, RouteContext routeContext) {
+        this(processor, routeContext, null);
+    }
+
+    public DirectInlineProcessor(Processor processor, RouteContext routeContext, CamelInternalProcessor.RouteInflightRepositoryAdvice inflightAdvice) {
+        this.processor = AsyncProcessorConverterHelper.convert(processor);
+        this.routeContext = routeContext;
+        this.inflightAdvice = inflightAdvice;
+    }
+
+    /**
+     * Creates the inline processor for the given route processor.
+     *
+     * @param processor the processor of the route, which is the consumer processor
+     * @return the inline processor, or <tt>null</tt> if the route cannot be inlined
+     */
+    public static DirectInlineProcessor newInstance(Processor processor) {
+        if (!(processor instanceof CamelInternalProcessor)) {
+            return null;
+        }
+        CamelInternalProcessor internal = (CamelInternalProcessor) processor;
+        if (internal.getProcessor() == null) {
+            return null;
+        }
+        // route policies must be able to act on every exchange, and the other advices must not be skipped,
+        // so those routes cannot be inlined
+        for (Class<?> type : NOT_INLINED_ADVICES) {
+            if (internal.getAdvice(type) != null) {
+                return null;
+            }
+        }
+        CamelInternalProcessor.UnitOfWorkProcessorAdvice advice = internal.getAdvice(CamelInternalProcessor.UnitOfWorkProcessorAdvice.class);
+        if (advice == null || advice.getRouteContext() == null) {
+            return null;
+        }
+        return new DirectInlineProcessor(internal.getProcessor(), advice.getRouteContext(),
+                internal.getAdvice(CamelInternalProcessor.RouteInflightRepositoryAdvice.class));
+    }
+
+    public void process(Exchange exchange) throws Exception {
+        AsyncProcessorHelper.process(this, exchange);
+    }
+
+    public boolean process(final Exchange exchange, final AsyncCallback callback) {
+        if (inflightAdvice != null) {
+            try {
+                inflightAdvice.before(exchange);
+            } catch (Exception e) {
+                exchange.setException(e);
+                callback.done(true);
+                return true;
+            }
+        }
+
+        final UnitOfWork uow = exchange.getUnitOfWork();
+        uow.pushRouteContext(routeContext);
+        return processor.process(exchange, new AsyncCallback() {
+            public void done(boolean doneSync) {
+                try {
+                    uow.popRouteContext();
+                    if (inflightAdvice != null) {
+                        inflightAdvice.after(exchange, null);
+                    }
+                } catch (Exception e) {
+                    exchange.setException(e);
+                } finally {
+                    callback.done(doneSync);
+                }
+            }
+        });
+    }
+
+    public RouteContext getRouteContext() {
+        return routeContext;
+    }
+
+    @Override
+    public String toString() {
+        return "DirectInline[" + processor + "]";
+    }
+}
@@ -37,19 +37,21 @@ public class DirectProducer extends DefaultAsyncProducer {
     }
 
     public void process(Exchange exchange) throws Exception {
-        if (endpoint.getConsumer() == null) {
+        DirectConsumer consumer = endpoint.getConsumer();
+        if (consumer == null) {
             if (endpoint.isFailIfNoConsumers()) {
                 throw new DirectConsumerNotAvailableException("No consumers available on endpoint: " + endpoint, exchange);
             } else {
                 LOG.debug("message ignored, no consumers available on endpoint: {}", endpoint);
             }
         } else {
-            endpoint.getConsumer().getProcessor().process(exchange);
+            endpoint.getConsumerProcessor(consumer, exchange).process(exchange);
         }
     }
 
     public boolean process(Exchange exchange, AsyncCallback callback) {
-        if (endpoint.getConsumer() == null) {
+        DirectConsumer consumer = endpoint.getConsumer();
+        if (consumer == null) {
             if (endpoint.isFailIfNoConsumers()) {
                 // indicate its done synchronously
                 exchange.setException(new DirectConsumerNotAvailableException("No consumers available on endpoint: " + endpoint, exchange));
@@ -59,7 +61,7 @@ public class DirectProducer extends DefaultAsyncProducer {
             callback.done(true);
             return true;
         } else {
-            return endpoint.getConsumer().getAsyncProcessor().process(exchange, callback);
+            return endpoint.getConsumerProcessor(consumer, exchange).process(exchange, callback);
         }
     }
 
@@ -74,12 +74,12 @@ public class DirectVmComponent extends UriEndpointComponent {
     }
 
     public DirectVmConsumer getConsumer(DirectVmEndpoint endpoint) {
-        String key = getConsumerKey(endpoint.getEndpointUri());
+        String key = endpoint.getKey();
         return CONSUMERS.get(key);
     }
 
     public void addConsumer(DirectVmEndpoint endpoint, DirectVmConsumer consumer) {
-        String key = getConsumerKey(endpoint.getEndpointUri());
+        String key = endpoint.getKey();
         DirectVmConsumer existing = CONSUMERS.putIfAbsent(key, consumer);
         if (existing != null) {
             String contextId = existing.getEndpoint().getCamelContext().getName();
@@ -88,11 +88,11 @@ public class DirectVmComponent extends UriEndpointComponent {
     }
 
     public void removeConsumer(DirectVmEndpoint endpoint, DirectVmConsumer consumer) {
-        String key = getConsumerKey(endpoint.getEndpointUri());
+        String key = endpoint.getKey();
         CONSUMERS.remove(key);
     }
 
-    private static String getConsumerKey(String uri) {
+    static String getConsumerKey(String uri) {
         if (uri.contains("?")) {
             // strip parameters
             uri = uri.substring(0, uri.indexOf('?'));
@@ -36,6 +36,8 @@ import org.apache.camel.spi.UriPath;
 @UriEndpoint(scheme = "direct-vm", title = "Direct VM", syntax = "direct-vm:name", consumerClass = DirectConsumer.class, label = "core,endpoint")
 public class DirectVmEndpoint extends DefaultEndpoint implements AsyncEndpoint {
 
+    private String key;
+
     @UriPath(description = "Name of direct-vm endpoint") @Metadata(required = "true")
     private String name;
 
@@ -142,4 +144,11 @@ public class DirectVmEndpoint extends DefaultEndpoint implements AsyncEndpoint {
         this.propagateProperties = propagateProperties;
     }
 
+    String getKey() {
+        // the endpoint uri does not change so the key can be computed once
+        if (key == null) {
+            key = DirectVmComponent.getConsumerKey(getEndpointUri());
+        }
+        return key;
+    }
 }
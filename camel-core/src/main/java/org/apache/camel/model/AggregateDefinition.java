@@ -100,6 +100,10 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
     private Long completionInterval;
     @XmlAttribute
     private Long completionTimeout;
+    @XmlAttribute @Metadata(defaultValue = "1000")
+    private Long completionTimeoutCheckerInterval;
+    @XmlAttribute
+    private Boolean completionTimeoutTimingWheel;
     @XmlAttribute
     private Boolean completionFromBatchConsumer;
     @XmlAttribute
@@ -238,6 +242,12 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         if (getCompletionTimeout() != null) {
             answer.setCompletionTimeout(getCompletionTimeout());
         }
+        if (getCompletionTimeoutCheckerInterval() != null) {
+            answer.setCompletionTimeoutCheckerInterval(getCompletionTimeoutCheckerInterval());
+        }
+        if (getCompletionTimeoutTimingWheel() != null) {
+            answer.setCompletionTimeoutTimingWheel(getCompletionTimeoutTimingWheel());
+        }
         if (getCompletionInterval() != null) {
             answer.setCompletionInterval(getCompletionInterval());
         }
@@ -484,6 +494,22 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         this.completionTimeout = completionTimeout;
     }
 
+    public Long getCompletionTimeoutCheckerInterval() {
+        return completionTimeoutCheckerInterval;
+    }
+
+    public void setCompletionTimeoutCheckerInterval(Long completionTimeoutCheckerInterval) {
+        this.completionTimeoutCheckerInterval = completionTimeoutCheckerInterval;
+    }
+
+    public Boolean getCompletionTimeoutTimingWheel() {
+        return completionTimeoutTimingWheel;
+    }
+
+    public void setCompletionTimeoutTimingWheel(Boolean completionTimeoutTimingWheel) {
+        this.completionTimeoutTimingWheel = completionTimeoutTimingWheel;
+    }
+
     public ExpressionSubElementDefinition getCompletionPredicate() {
         return completionPredicate;
     }
@@ -779,6 +805,35 @@ public class AggregateDefinition extends ProcessorDefinition<AggregateDefinition
         return this;
     }
 
+    /**
+     * Interval in millis that is used by the background task that checks for timeouts (<tt>org.apache.camel.TimeoutMap</tt>).
+     * <p/>
+     * By default the timeout checker runs every second. The timeout is an approximation and there is no guarantee that
+     * a timeout is triggered exactly after the timeout value. It is not recommended to use very low timeout values
+     * or checker intervals.
+     *
+     * @param completionTimeoutCheckerInterval  the interval in millis, must be a positive value
+     * @return the builder
+     */
+    public AggregateDefinition completionTimeoutCheckerInterval(long completionTimeoutCheckerInterval) {
+        setCompletionTimeoutCheckerInterval(completionTimeoutCheckerInterval);
+        return this;
+    }
+
+    /**
+     * Uses a timing wheel to keep track of the completion timeouts.
+     * <p/>
+     * By default the timeout checker scans all the aggregated groups every time it runs, which gets slower
+     * the more groups are in progress. With a timing wheel the groups are kept in buckets by the time they
+     * timeout at, so the checker only visits the groups which are due to timeout.
+     *
+     * @return the builder
+     */
+    public AggregateDefinition completionTimeoutTimingWheel() {
+        setCompletionTimeoutTimingWheel(true);
+        return this;
+    }
+
     /**
      * Sets the aggregate strategy to use
      *
@@ -38,6 +38,8 @@ import org.apache.camel.spi.Metadata;
 public class HL7DataFormat extends DataFormatDefinition {
     @XmlAttribute @Metadata(defaultValue = "true")
     private Boolean validate;
+    @XmlAttribute
+    private Boolean lazy;
     @XmlTransient
     private Object parser;
 
@@ -63,6 +65,19 @@ public class HL7DataFormat extends DataFormatDefinition {
         this.validate = validate;
     }
 
+    public Boolean getLazy() {
+        return lazy;
+    }
+
+    /**
+     * Whether to unmarshal to a lazily parsed message, which only indexes the segments and parses
+     * the HL7 message on demand. The original text is written on marshal if the message was not parsed.
+     * The message is then only validated when it is parsed.
+     */
+    public void setLazy(Boolean lazy) {
+        this.lazy = lazy;
+    }
+
     public Object getParser() {
         return parser;
     }
@@ -80,6 +95,9 @@ public class HL7DataFormat extends DataFormatDefinition {
             setProperty(camelContext, dataFormat, "parser", getParser());
         }
         setProperty(camelContext, dataFormat, "validate", isValidate());
+        if (getLazy() != null) {
+            setProperty(camelContext, dataFormat, "lazy", getLazy());
+        }
     }
 
 }
\ No newline at end of file
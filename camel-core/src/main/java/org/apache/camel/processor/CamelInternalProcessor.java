@@ -614,6 +614,10 @@ public class CamelInternalProcessor extends DelegateAsyncProcessor {
             this.routeContext = routeContext;
         }
 
+        public RouteContext getRouteContext() {
+            return routeContext;
+        }
+
         @Override
         public UnitOfWork before(Exchange exchange) throws Exception {
             // if the exchange doesn't have from route id set, then set it if it originated
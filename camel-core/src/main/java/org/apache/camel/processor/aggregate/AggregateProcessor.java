@@ -56,6 +56,7 @@ import org.apache.camel.spi.ShutdownAware;
 import org.apache.camel.spi.ShutdownPrepared;
 import org.apache.camel.spi.Synchronization;
 import org.apache.camel.support.DefaultTimeoutMap;
+import org.apache.camel.support.HashedWheelTimeoutMap;
 import org.apache.camel.support.LoggingExceptionHandler;
 import org.apache.camel.support.ServiceSupport;
 import org.apache.camel.util.AsyncProcessorHelper;
@@ -199,6 +200,8 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
     private Predicate completionPredicate;
     private long completionTimeout;
     private Expression completionTimeoutExpression;
+    private long completionTimeoutCheckerInterval = 1000L;
+    private boolean completionTimeoutTimingWheel;
     private long completionInterval;
     private int completionSize;
     private Expression completionSizeExpression;
@@ -861,6 +864,22 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         this.completionTimeout = completionTimeout;
     }
 
+    public long getCompletionTimeoutCheckerInterval() {
+        return completionTimeoutCheckerInterval;
+    }
+
+    public void setCompletionTimeoutCheckerInterval(long completionTimeoutCheckerInterval) {
+        this.completionTimeoutCheckerInterval = completionTimeoutCheckerInterval;
+    }
+
+    public boolean isCompletionTimeoutTimingWheel() {
+        return completionTimeoutTimingWheel;
+    }
+
+    public void setCompletionTimeoutTimingWheel(boolean completionTimeoutTimingWheel) {
+        this.completionTimeoutTimingWheel = completionTimeoutTimingWheel;
+    }
+
     public Expression getCompletionTimeoutExpression() {
         return completionTimeoutExpression;
     }
@@ -1083,38 +1102,73 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
 
         @Override
         public boolean onEviction(String key, String exchangeId) {
-            log.debug("Completion timeout triggered for correlation key: {}", key);
+            return onCompletionTimeout(key, exchangeId);
+        }
+    }
 
-            boolean inProgress = inProgressCompleteExchanges.contains(exchangeId);
-            if (inProgress) {
-                LOG.trace("Aggregated exchange with id: {} is already in progress.", exchangeId);
-                return true;
-            }
+    /**
+     * Background task that looks for aggregated exchanges which is triggered by completion timeouts,
+     * using a timing wheel so the timeout checker only visits the entries which are due to timeout.
+     */
+    private final class AggregationTimingWheelTimeoutMap extends HashedWheelTimeoutMap<String, String> {
 
-            // get the aggregated exchange
-            boolean evictionStolen = false;
-            Exchange answer = aggregationRepository.get(camelContext, key);
-            if (answer == null) {
-                evictionStolen = true;
-            } else {
-                // indicate it was completed by timeout
-                answer.setProperty(Exchange.AGGREGATED_COMPLETED_BY, "timeout");
-                try {
-                    answer = onCompletion(key, answer, answer, true);
-                    if (answer != null) {
-                        onSubmitCompletion(key, answer);
-                    }
-                } catch (OptimisticLockingAggregationRepository.OptimisticLockingException e) {
-                    evictionStolen = true;
+        private AggregationTimingWheelTimeoutMap(ScheduledExecutorService executor, long tickDuration) {
+            super(executor, tickDuration);
+        }
+
+        @Override
+        public void purge() {
+            // must acquire the shared aggregation lock to be able to purge
+            if (!optimisticLocking) {
+                lock.lock();
+            }
+            try {
+                super.purge();
+            } finally {
+                if (!optimisticLocking) {
+                    lock.unlock();
                 }
             }
+        }
 
-            if (optimisticLocking && evictionStolen) {
-                LOG.debug("Another Camel instance has already successfully correlated or processed this timeout eviction "
-                          + "for exchange with id: {} and correlation id: {}", exchangeId, key);
-            }
+        @Override
+        public boolean onEviction(String key, String exchangeId) {
+            return onCompletionTimeout(key, exchangeId);
+        }
+    }
+
+    private boolean onCompletionTimeout(String key, String exchangeId) {
+        LOG.debug("Completion timeout triggered for correlation key: {}", key);
+
+        boolean inProgress = inProgressCompleteExchanges.contains(exchangeId);
+        if (inProgress) {
+            LOG.trace("Aggregated exchange with id: {} is already in progress.", exchangeId);
             return true;
         }
+
+        // get the aggregated exchange
+        boolean evictionStolen = false;
+        Exchange answer = aggregationRepository.get(camelContext, key);
+        if (answer == null) {
+            evictionStolen = true;
+        } else {
+            // indicate it was completed by timeout
+            answer.setProperty(Exchange.AGGREGATED_COMPLETED_BY, "timeout");
+            try {
+                answer = onCompletion(key, answer, answer, true);
+                if (answer != null) {
+                    onSubmitCompletion(key, answer);
+                }
+            } catch (OptimisticLockingAggregationRepository.OptimisticLockingException e) {
+                evictionStolen = true;
+            }
+        }
+
+        if (optimisticLocking && evictionStolen) {
+            LOG.debug("Another Camel instance has already successfully correlated or processed this timeout eviction "
+                      + "for exchange with id: {} and correlation id: {}", exchangeId, key);
+        }
+        return true;
     }
 
     /**
@@ -1352,6 +1406,9 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
         if (getCompletionInterval() > 0 && getCompletionTimeout() > 0) {
             throw new IllegalArgumentException("Only one of completionInterval or completionTimeout can be used, not both.");
         }
+        if (getCompletionTimeoutCheckerInterval() <= 0) {
+            throw new IllegalArgumentException("Option completionTimeoutCheckerInterval must be a positive number, was: " + getCompletionTimeoutCheckerInterval());
+        }
         if (getCompletionInterval() > 0) {
             LOG.info("Using CompletionInterval to run every " + getCompletionInterval() + " millis.");
             if (getTimeoutCheckerExecutorService() == null) {
@@ -1369,8 +1426,12 @@ public class AggregateProcessor extends ServiceSupport implements AsyncProcessor
                 setTimeoutCheckerExecutorService(camelContext.getExecutorServiceManager().newScheduledThreadPool(this, AGGREGATE_TIMEOUT_CHECKER, 1));
                 shutdownTimeoutCheckerExecutorService = true;
             }
-            // check for timed out aggregated messages once every second
-            timeoutMap = new AggregationTimeoutMap(getTimeoutCheckerExecutorService(), 1000L);
+            // check for timed out aggregated messages once every second (by default)
+            if (isCompletionTimeoutTimingWheel()) {
+                timeoutMap = new AggregationTimingWheelTimeoutMap(getTimeoutCheckerExecutorService(), getCompletionTimeoutCheckerInterval());
+            } else {
+                timeoutMap = new AggregationTimeoutMap(getTimeoutCheckerExecutorService(), getCompletionTimeoutCheckerInterval());
+            }
             // fill in existing timeout values from the aggregation repository, for example if a restart occurred, then we
             // need to re-establish the timeout map so timeout can trigger
             restoreTimeoutMapFromAggregationRepository();
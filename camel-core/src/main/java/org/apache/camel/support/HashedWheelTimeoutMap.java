@@ -0,0 +1,481 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.camel.TimeoutMap;
+import org.apache.camel.util.ObjectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link TimeoutMap} which uses a hierarchical hashed timing wheel to keep track of when the entries expire.
+ * <p/>
+ * Unlike {@link DefaultTimeoutMap} this implementation does not need to scan all the entries while holding a lock
+ * when purging. The lookup, put and remove operations do not take any lock, and an entry is put into the bucket of the wheel
+ * for the tick it expires at, so the purge task only visits the entries in the buckets of the ticks which has elapsed.
+ * <p/>
+ * The wheel has a number of levels, where each bucket at a level spans a full rotation of the level below.
+ * Entries which expire further ahead than the lowest level can hold are kept in the bucket of a higher level,
+ * and are moved down a level when the wheel below has turned a full round. Entries which expire beyond the range of
+ * the highest level are revisited each time the highest level turns a full round.
+ * <p/>
+ * The entries are expired with the precision of the tick duration, which is the interval the purge task is scheduled
+ * with, using the given {@link java.util.concurrent.ScheduledExecutorService}.
+ * You must invoke {@link #start()} to startup the timeout map, before its ready to be used.
+ * And you must invoke {@link #stop()} to stop the map when no longer in use.
+ *
+ * @version
+ */
+public class HashedWheelTimeoutMap<K, V> extends ServiceSupport implements TimeoutMap<K, V>, Runnable {
+
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+    public static final int DEFAULT_LEVELS = 3;
+
+    protected final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final ConcurrentMap<K, WheelEntry<K, V>> map = new ConcurrentHashMap<K, WheelEntry<K, V>>();
+    private final Queue<WheelEntry<K, V>> pendingEntries = new ConcurrentLinkedQueue<WheelEntry<K, V>>();
+    private final Queue<WheelEntry<K, V>> cancelledEntries = new ConcurrentLinkedQueue<WheelEntry<K, V>>();
+    // only one thread at any time is allowed to advance the wheel
+    private final AtomicBoolean ticking = new AtomicBoolean();
+    private final ScheduledExecutorService executor;
+    private final long tickDuration;
+    private final Bucket<K, V>[][] wheels;
+    private final int bits;
+    private final int mask;
+    private volatile ScheduledFuture<?> future;
+    private long startTime;
+    private long tick;
+
+    public HashedWheelTimeoutMap(ScheduledExecutorService executor) {
+        this(executor, 1000);
+    }
+
+    public HashedWheelTimeoutMap(ScheduledExecutorService executor, long tickDuration) {
+        this(executor, tickDuration, DEFAULT_WHEEL_SIZE);
+    }
+
+    public HashedWheelTimeoutMap(ScheduledExecutorService executor, long tickDuration, int wheelSize) {
+        this(executor, tickDuration, wheelSize, DEFAULT_LEVELS);
+    }
+
+    @SuppressWarnings("unchecked")
+    public HashedWheelTimeoutMap(ScheduledExecutorService executor, long tickDuration, int wheelSize, int levels) {
+        ObjectHelper.notNull(executor, "ScheduledExecutorService");
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("TickDuration must be positive, was " + tickDuration);
+        }
+        if (wheelSize <= 0) {
+            throw new IllegalArgumentException("WheelSize must be positive, was " + wheelSize);
+        }
+        if (levels <= 0) {
+            throw new IllegalArgumentException("Levels must be positive, was " + levels);
+        }
+        this.executor = executor;
+        this.tickDuration = tickDuration;
+
+        // use a power of two so we can use a mask to find the bucket
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.bits = Integer.numberOfTrailingZeros(size);
+        if (bits * levels >= Long.SIZE - 1) {
+            throw new IllegalArgumentException("WheelSize " + size + " with " + levels + " levels exceeds the range of the wheel");
+        }
+        this.mask = size - 1;
+        this.wheels = new Bucket[levels][size];
+        for (int level = 0; level < levels; level++) {
+            for (int i = 0; i < size; i++) {
+                wheels[level][i] = new Bucket<K, V>();
+            }
+        }
+    }
+
+    public V get(K key) {
+        WheelEntry<K, V> entry = map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        // the entry is moved to its new bucket when the purge task visits the current bucket
+        entry.deadline = currentTime() + entry.timeout;
+        return entry.value;
+    }
+
+    public V put(K key, V value, long timeoutMillis) {
+        WheelEntry<K, V> entry = new WheelEntry<K, V>(key, value, timeoutMillis, currentTime() + timeoutMillis);
+        WheelEntry<K, V> old = map.put(key, entry);
+        pendingEntries.add(entry);
+        if (old != null) {
+            cancel(old);
+            return old.value;
+        }
+        return null;
+    }
+
+    public V putIfAbsent(K key, V value, long timeoutMillis) {
+        WheelEntry<K, V> entry = new WheelEntry<K, V>(key, value, timeoutMillis, currentTime() + timeoutMillis);
+        WheelEntry<K, V> old = map.putIfAbsent(key, entry);
+        if (old != null) {
+            return old.value;
+        }
+        pendingEntries.add(entry);
+        return null;
+    }
+
+    public V remove(K key) {
+        WheelEntry<K, V> entry = map.remove(key);
+        if (entry != null) {
+            cancel(entry);
+            return entry.value;
+        }
+        return null;
+    }
+
+    public Object[] getKeys() {
+        Set<K> keySet = map.keySet();
+        Object[] keys = new Object[keySet.size()];
+        return keySet.toArray(keys);
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * A hook to allow derivations to avoid evicting the current entry
+     */
+    protected boolean isValidForEviction(TimeoutMapEntry<K, V> entry) {
+        return true;
+    }
+
+    public boolean onEviction(K key, V value) {
+        return true;
+    }
+
+    /**
+     * The timer task which advances the wheel and expires the timed out entries
+     */
+    public void run() {
+        // only run if allowed
+        if (!isRunAllowed()) {
+            log.trace("Purge task not allowed to run");
+            return;
+        }
+
+        log.trace("Running purge task to see if any entries has been timed out");
+        try {
+            purge();
+        } catch (Throwable t) {
+            // must catch and log exception otherwise the executor will now schedule next run
+            log.warn("Exception occurred during purge task. This exception will be ignored.", t);
+        }
+    }
+
+    public void purge() {
+        if (!ticking.compareAndSet(false, true)) {
+            // another thread is already advancing the wheel
+            return;
+        }
+        try {
+            long now = currentTime();
+
+            removeCancelledEntries();
+
+            // process all the ticks which has elapsed
+            while (startTime + (tick + 1) * tickDuration <= now) {
+                transferPendingEntries();
+                cascade();
+
+                List<WheelEntry<K, V>> expired = new ArrayList<WheelEntry<K, V>>();
+                List<WheelEntry<K, V>> reschedule = new ArrayList<WheelEntry<K, V>>();
+                expireBucket(wheels[0][(int) (tick & mask)], now, expired, reschedule);
+                tick++;
+
+                for (WheelEntry<K, V> entry : reschedule) {
+                    schedule(entry);
+                }
+                if (!expired.isEmpty()) {
+                    evict(expired, now);
+                }
+            }
+        } finally {
+            ticking.set(false);
+        }
+    }
+
+    // Properties
+    // -------------------------------------------------------------------------
+
+    public long getTickDuration() {
+        return tickDuration;
+    }
+
+    public int getWheelSize() {
+        return mask + 1;
+    }
+
+    public int getLevels() {
+        return wheels.length;
+    }
+
+    public ScheduledExecutorService getExecutor() {
+        return executor;
+    }
+
+    // Implementation methods
+    // -------------------------------------------------------------------------
+
+    private void cancel(WheelEntry<K, V> entry) {
+        entry.cancelled = true;
+        cancelledEntries.add(entry);
+    }
+
+    private void removeCancelledEntries() {
+        WheelEntry<K, V> entry;
+        while ((entry = cancelledEntries.poll()) != null) {
+            if (entry.bucket != null) {
+                entry.bucket.remove(entry);
+            }
+        }
+    }
+
+    private void transferPendingEntries() {
+        WheelEntry<K, V> entry;
+        while ((entry = pendingEntries.poll()) != null) {
+            if (!entry.cancelled) {
+                schedule(entry);
+            }
+        }
+    }
+
+    /**
+     * Adds the entry to the bucket of the tick it expires at, at the lowest level of the wheel which can hold it
+     */
+    private void schedule(WheelEntry<K, V> entry) {
+        long expireTick = (entry.deadline - startTime) / tickDuration;
+        if (expireTick < tick) {
+            // already expired so expire it on the next tick
+            expireTick = tick;
+        }
+        long delta = expireTick - tick;
+        int level = 0;
+        while (level < wheels.length - 1 && delta >= 1L << (bits * (level + 1))) {
+            level++;
+        }
+        int index = (int) ((expireTick >> (bits * level)) & mask);
+        wheels[level][index].add(entry);
+    }
+
+    /**
+     * Moves the entries of the higher levels down, when the level below has turned a full round
+     */
+    private void cascade() {
+        for (int level = 1; level < wheels.length && (tick & ((1L << (bits * level)) - 1)) == 0; level++) {
+            Bucket<K, V> bucket = wheels[level][(int) ((tick >> (bits * level)) & mask)];
+            // detach the entries first, as some of them may be added to the same bucket again
+            WheelEntry<K, V> entry = bucket.head;
+            bucket.clear();
+            while (entry != null) {
+                WheelEntry<K, V> next = entry.next;
+                entry.prev = null;
+                entry.next = null;
+                entry.bucket = null;
+                if (!entry.cancelled) {
+                    schedule(entry);
+                }
+                entry = next;
+            }
+        }
+    }
+
+    private void expireBucket(Bucket<K, V> bucket, long now, List<WheelEntry<K, V>> expired, List<WheelEntry<K, V>> reschedule) {
+        WheelEntry<K, V> entry = bucket.head;
+        while (entry != null) {
+            WheelEntry<K, V> next = entry.next;
+            bucket.remove(entry);
+            if (!entry.cancelled) {
+                if (entry.deadline > now) {
+                    // the entry has been accessed so its deadline has been extended,
+                    // or it expires beyond the range of the highest level in a later round
+                    reschedule.add(entry);
+                } else {
+                    expired.add(entry);
+                }
+            }
+            entry = next;
+        }
+    }
+
+    private void evict(List<WheelEntry<K, V>> expired, long now) {
+        // sort according to the expired time so we got the first expired first
+        Collections.sort(expired, new Comparator<WheelEntry<K, V>>() {
+            public int compare(WheelEntry<K, V> a, WheelEntry<K, V> b) {
+                long diff = a.deadline - b.deadline;
+                if (diff == 0) {
+                    return 0;
+                }
+                return diff > 0 ? 1 : -1;
+            }
+        });
+
+        for (WheelEntry<K, V> entry : expired) {
+            // the entry may have been removed or replaced in the meantime
+            if (entry.cancelled || map.get(entry.key) != entry) {
+                continue;
+            }
+
+            if (!isValidForEviction(createTimeoutMapEntry(entry))) {
+                // check again on the next tick
+                entry.deadline = now;
+                schedule(entry);
+                continue;
+            }
+
+            boolean evict = false;
+            try {
+                log.debug("Evicting inactive entry ID: {}", entry.key);
+                evict = onEviction(entry.key, entry.value);
+            } catch (Throwable t) {
+                log.warn("Exception happened during eviction of entry ID {}, won't evict and will continue trying: {}", entry.key, t);
+            }
+
+            if (evict) {
+                map.remove(entry.key, entry);
+            } else {
+                // the eviction was vetoed so check again on the next tick
+                entry.deadline = now;
+                schedule(entry);
+            }
+        }
+    }
+
+    private TimeoutMapEntry<K, V> createTimeoutMapEntry(WheelEntry<K, V> entry) {
+        TimeoutMapEntry<K, V> answer = new TimeoutMapEntry<K, V>(entry.key, entry.value, entry.timeout);
+        answer.setExpireTime(entry.deadline);
+        return answer;
+    }
+
+    protected long currentTime() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        if (executor.isShutdown()) {
+            throw new IllegalStateException("The ScheduledExecutorService is shutdown");
+        }
+        startTime = currentTime();
+        tick = 0;
+        future = executor.scheduleAtFixedRate(this, tickDuration, tickDuration, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (future != null) {
+            future.cancel(false);
+            future = null;
+        }
+        // clear map and wheel if we stop
+        map.clear();
+        pendingEntries.clear();
+        cancelledEntries.clear();
+        for (Bucket<K, V>[] wheel : wheels) {
+            for (Bucket<K, V> bucket : wheel) {
+                bucket.clear();
+            }
+        }
+    }
+
+    /**
+     * A bucket in the wheel which is a doubly linked list of the entries, so entries can be removed in constant time.
+     * The buckets are only accessed by the thread advancing the wheel.
+     */
+    private static final class Bucket<K, V> {
+        private WheelEntry<K, V> head;
+        private WheelEntry<K, V> tail;
+
+        void add(WheelEntry<K, V> entry) {
+            entry.bucket = this;
+            if (head == null) {
+                head = entry;
+                tail = entry;
+            } else {
+                tail.next = entry;
+                entry.prev = tail;
+                tail = entry;
+            }
+        }
+
+        void remove(WheelEntry<K, V> entry) {
+            if (entry.bucket != this) {
+                return;
+            }
+            if (entry.prev != null) {
+                entry.prev.next = entry.next;
+            } else {
+                head = entry.next;
+            }
+            if (entry.next != null) {
+                entry.next.prev = entry.prev;
+            } else {
+                tail = entry.prev;
+            }
+            entry.prev = null;
+            entry.next = null;
+            entry.bucket = null;
+        }
+
+        void clear() {
+            head = null;
+            tail = null;
+        }
+    }
+
+    private static final class WheelEntry<K, V> {
+        private final K key;
+        private final V value;
+        private final long timeout;
+        private volatile long deadline;
+        private volatile boolean cancelled;
+        // the following are only accessed by the thread advancing the wheel
+        private Bucket<K, V> bucket;
+        private WheelEntry<K, V> prev;
+        private WheelEntry<K, V> next;
+
+        WheelEntry(K key, V value, long timeout, long deadline) {
+            this.key = key;
+            this.value = value;
+            this.timeout = timeout;
+            this.deadline = deadline;
+        }
+    }
+}
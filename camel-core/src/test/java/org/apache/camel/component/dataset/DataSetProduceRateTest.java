@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.dataset;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import javax.naming.Context;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+
+/**
+ * Tests sending a DataSet at a given rate and recording the latencies.
+ */
+public class DataSetProduceRateTest extends ContextTestSupport {
+
+    private SimpleDataSet dataSet = new SimpleDataSet(20);
+    private String uri = "dataset:foo?produceRate=200&initialDelay=0";
+
+    public void testProduceRate() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(20);
+
+        assertMockEndpointsSatisfied();
+
+        // 20 messages at 200 per second are sent during at least 95 millis
+        Date first = mock.getReceivedExchanges().get(0).getProperty(Exchange.CREATED_TIMESTAMP, Date.class);
+        Date last = mock.getReceivedExchanges().get(19).getProperty(Exchange.CREATED_TIMESTAMP, Date.class);
+        long taken = last.getTime() - first.getTime();
+        assertTrue("Should take at least 90 millis, was: " + taken, taken >= 90);
+
+        DataSetConsumer consumer = (DataSetConsumer) context.getRoute("rate").getConsumer();
+        LatencyHistogram histogram = consumer.getLatencyHistogram();
+        // the latency of the last message is recorded after it has been routed to the mock
+        for (int i = 0; i < 50 && histogram.getTotalCount() < 20; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(20, histogram.getTotalCount());
+        assertTrue(histogram.getValueAtPercentile(50) <= histogram.getValueAtPercentile(99));
+        assertTrue(histogram.getValueAtPercentile(99) <= histogram.getMaxValue());
+    }
+
+    public void testScheduledTime() throws Exception {
+        // constant rate
+        assertEquals(0, DataSetConsumer.scheduledTime(0, 100, 0));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(10), DataSetConsumer.scheduledTime(1, 100, 0));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), DataSetConsumer.scheduledTime(100, 100, 0));
+
+        // ramp up to 100 per second during 1 second, which sends 50 messages during the ramp up
+        assertEquals(TimeUnit.SECONDS.toNanos(1), DataSetConsumer.scheduledTime(50, 100, 1000));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), DataSetConsumer.scheduledTime(12, 100, 1000), TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1500), DataSetConsumer.scheduledTime(100, 100, 1000));
+    }
+
+    public void testLatencyHistogram() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.recordValue(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        assertEquals(1000, histogram.getTotalCount());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(1), histogram.getMinValue());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(1000), histogram.getMaxValue());
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(500), histogram.getValueAtPercentile(50), TimeUnit.MICROSECONDS.toNanos(10));
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(990), histogram.getValueAtPercentile(99), TimeUnit.MICROSECONDS.toNanos(20));
+    }
+
+    @Override
+    protected Context createJndiContext() throws Exception {
+        Context context = super.createJndiContext();
+        context.bind("foo", dataSet);
+        return context;
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            public void configure() throws Exception {
+                from(uri).routeId("rate").to("mock:result");
+            }
+        };
+    }
+
+}
@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.direct;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+
+/**
+ * Unit test for direct producers with inline enabled.
+ */
+public class DirectInlineTest extends ContextTestSupport {
+
+    public void testInline() throws Exception {
+        getMockEndpoint("mock:inline").expectedBodiesReceived("Hello World");
+        getMockEndpoint("mock:inline").expectedHeaderReceived("route", "inline-b");
+        getMockEndpoint("mock:normal").expectedBodiesReceived("Hello World");
+        getMockEndpoint("mock:normal").expectedHeaderReceived("route", "normal-b");
+
+        template.sendBody("direct:inline", "Hello World");
+        template.sendBody("direct:normal", "Hello World");
+
+        assertMockEndpointsSatisfied();
+
+        // the inlined exchange is still tracked as inflight in the route, so graceful shutdown waits for it
+        assertEquals(1, getMockEndpoint("mock:inline").getReceivedExchanges().get(0).getIn().getHeader("inflight"));
+        assertEquals(1, getMockEndpoint("mock:normal").getReceivedExchanges().get(0).getIn().getHeader("inflight"));
+    }
+
+    public void testInlineFailure() throws Exception {
+        getMockEndpoint("mock:error").expectedBodiesReceived("Kaboom");
+        getMockEndpoint("mock:error").expectedHeaderReceived("route", "fail");
+
+        template.sendBody("direct:try", "Kaboom");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            public void configure() throws Exception {
+                final Processor inflight = new Processor() {
+                    public void process(Exchange exchange) throws Exception {
+                        String routeId = exchange.getUnitOfWork().getRouteContext().getRoute().getId();
+                        exchange.getIn().setHeader("inflight", context.getInflightRepository().size(routeId));
+                        exchange.getIn().setHeader("route", routeId);
+                    }
+                };
+
+                from("direct:inline").to("direct:inline-a?inline=true");
+                from("direct:inline-a").routeId("inline-a").to("direct:inline-b?inline=true");
+                from("direct:inline-b").routeId("inline-b").process(inflight).to("mock:inline");
+
+                from("direct:normal").to("direct:normal-a");
+                from("direct:normal-a").routeId("normal-a").to("direct:normal-b");
+                from("direct:normal-b").routeId("normal-b").process(inflight).to("mock:normal");
+
+                from("direct:try")
+                    .doTry()
+                        .to("direct:fail?inline=true")
+                    .doCatch(IllegalArgumentException.class)
+                        .to("mock:error")
+                    .end();
+                from("direct:fail").routeId("fail")
+                    .process(new Processor() {
+                        public void process(Exchange exchange) throws Exception {
+                            exchange.getIn().setHeader("route", exchange.getUnitOfWork().getRouteContext().getRoute().getId());
+                        }
+                    })
+                    .throwException(new IllegalArgumentException("Forced"));
+            }
+        };
+    }
+
+}
@@ -0,0 +1,75 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregator;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Processor;
+import org.apache.camel.processor.BodyInAggregatingStrategy;
+import org.apache.camel.processor.SendProcessor;
+import org.apache.camel.processor.aggregate.AggregateProcessor;
+
+/**
+ * @version 
+ */
+public class AggregateTimeoutCheckerIntervalTest extends ContextTestSupport {
+
+    private ExecutorService executorService;
+
+    @Override
+    public boolean isUseRouteBuilder() {
+        return false;
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        executorService = Executors.newSingleThreadExecutor();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        executorService.shutdownNow();
+        super.tearDown();
+    }
+
+    public void testZeroTimeoutCheckerInterval() throws Exception {
+        doTestInvalidTimeoutCheckerInterval(0);
+    }
+
+    public void testNegativeTimeoutCheckerInterval() throws Exception {
+        doTestInvalidTimeoutCheckerInterval(-1);
+    }
+
+    private void doTestInvalidTimeoutCheckerInterval(long interval) throws Exception {
+        Processor done = new SendProcessor(context.getEndpoint("mock:result"));
+
+        AggregateProcessor ap = new AggregateProcessor(context, done, header("id"), new BodyInAggregatingStrategy(), executorService, true);
+        ap.setCompletionTimeout(1000);
+        ap.setCompletionTimeoutCheckerInterval(interval);
+
+        try {
+            ap.start();
+            fail("Should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Option completionTimeoutCheckerInterval must be a positive number, was: " + interval, e.getMessage());
+        }
+    }
+
+}
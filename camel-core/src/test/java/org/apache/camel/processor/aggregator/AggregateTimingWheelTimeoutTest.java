@@ -0,0 +1,87 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.camel.ContextTestSupport;
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.processor.BodyInAggregatingStrategy;
+
+/**
+ * @version
+ */
+public class AggregateTimingWheelTimeoutTest extends ContextTestSupport {
+
+    public void testAggregateTimingWheelTimeout() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:aggregated");
+        mock.expectedBodiesReceived("C+D", "A+B", "E");
+        mock.allMessages().exchangeProperty(Exchange.AGGREGATED_COMPLETED_BY).isEqualTo("timeout");
+
+        send("A", 1, 800);
+        send("C", 2, 400);
+        send("B", 1, 800);
+        send("D", 2, 400);
+        send("E", 3, 1200);
+
+        assertMockEndpointsSatisfied();
+    }
+
+    public void testAggregateTimingWheelCompletedBeforeTimeout() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:aggregated");
+        mock.expectedBodiesReceived("A+B+C");
+        mock.message(0).exchangeProperty(Exchange.AGGREGATED_COMPLETED_BY).isEqualTo("size");
+
+        send("A", 1, 800);
+        send("B", 1, 800);
+        send("C", 1, 800);
+
+        assertMockEndpointsSatisfied();
+
+        // should not timeout afterwards
+        mock.reset();
+        mock.expectedMessageCount(0);
+        mock.assertIsSatisfied(1500);
+    }
+
+    private void send(String body, int id, long timeout) {
+        Map<String, Object> headers = new HashMap<String, Object>();
+        headers.put("id", id);
+        headers.put("timeout", timeout);
+        template.sendBodyAndHeaders("direct:start", body, headers);
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .aggregate(header("id"), new BodyInAggregatingStrategy())
+                        .completionSize(3)
+                        // the groups timeout after a different number of millis
+                        .completionTimeout(header("timeout"))
+                        .completionTimeoutCheckerInterval(100)
+                        .completionTimeoutTimingWheel()
+                        .to("mock:aggregated");
+            }
+        };
+    }
+}
@@ -0,0 +1,313 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import junit.framework.TestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @version 
+ */
+public class HashedWheelTimeoutMapTest extends TestCase {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HashedWheelTimeoutMapTest.class);
+    private ScheduledExecutorService executor = new ScheduledThreadPoolExecutor(1);
+
+    public void testHashedWheelTimeoutMap() throws Exception {
+        HashedWheelTimeoutMap<?, ?> map = new HashedWheelTimeoutMap<Object, Object>(executor);
+        map.start();
+        assertTrue(map.currentTime() > 0);
+        assertEquals(1000, map.getTickDuration());
+        assertEquals(HashedWheelTimeoutMap.DEFAULT_WHEEL_SIZE, map.getWheelSize());
+        assertEquals(HashedWheelTimeoutMap.DEFAULT_LEVELS, map.getLevels());
+
+        assertEquals(0, map.size());
+
+        map.stop();
+    }
+
+    public void testWheelSizePowerOfTwo() throws Exception {
+        HashedWheelTimeoutMap<?, ?> map = new HashedWheelTimeoutMap<Object, Object>(executor, 100, 100);
+        assertEquals(128, map.getWheelSize());
+    }
+
+    public void testHashedWheelTimeoutMapPurge() throws Exception {
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<String, Integer>(executor, 20);
+        map.start();
+
+        map.put("A", 123, 50);
+        assertEquals(1, map.size());
+
+        Thread.sleep(250);
+        if (map.size() > 0) {
+            LOG.warn("Waiting extra due slow CI box");
+            Thread.sleep(1000);
+        }
+
+        assertEquals(0, map.size());
+
+        map.stop();
+    }
+
+    public void testHashedWheelTimeoutMapGetRemove() throws Exception {
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<String, Integer>(executor, 20);
+        map.start();
+
+        map.put("A", 123, 50);
+        assertEquals(1, map.size());
+
+        assertEquals(123, (int)map.get("A"));
+
+        Object old = map.remove("A");
+        assertEquals(123, old);
+        assertEquals(null, map.get("A"));
+        assertEquals(0, map.size());
+
+        map.stop();
+    }
+
+    public void testPutIfAbsent() throws Exception {
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<String, Integer>(executor, 20);
+        map.start();
+
+        assertNull(map.putIfAbsent("A", 1, 5000));
+        assertEquals(1, (int) map.putIfAbsent("A", 2, 5000));
+        assertEquals(1, (int) map.get("A"));
+
+        Object[] keys = map.getKeys();
+        assertEquals(1, keys.length);
+        assertEquals("A", keys[0]);
+
+        map.stop();
+    }
+
+    public void testRemovedNotEvicted() throws Exception {
+        final List<String> keys = new ArrayList<String>();
+
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<String, Integer>(executor, 20) {
+            @Override
+            public boolean onEviction(String key, Integer value) {
+                keys.add(key);
+                return true;
+            }
+        };
+        map.start();
+
+        map.put("A", 1, 50);
+        map.put("B", 2, 50);
+        map.remove("A");
+        // replaced so the old entry must not be evicted
+        map.put("B", 3, 5000);
+
+        Thread.sleep(250);
+        map.purge();
+
+        assertTrue(keys.isEmpty());
+        assertEquals(1, map.size());
+        assertEquals(3, (int) map.get("B"));
+
+        map.stop();
+    }
+
+    public void testExpiredInCorrectOrder() throws Exception {
+        final List<String> keys = new ArrayList<String>();
+        final List<Integer> values = new ArrayList<Integer>();
+
+        // use a tick which is longer than the timeouts so they are all expired in the same tick
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<String, Integer>(executor, 100) {
+            @Override
+            public boolean onEviction(String key, Integer value) {
+                keys.add(key);
+                values.add(value);
+                return true;
+            }
+        };
+        map.start();
+        assertEquals(0, map.size());
+
+        map.put("A", 1, 50);
+        map.put("B", 2, 30);
+        map.put("C", 3, 40);
+        map.put("D", 4, 20);
+        map.put("E", 5, 40);
+        // is not expired
+        map.put("F", 6, 800);
+
+        Thread.sleep(250);
+
+        // force purge
+        map.purge();
+
+        assertEquals("D", keys.get(0));
+        assertEquals(4, values.get(0).intValue());
+        assertEquals("B", keys.get(1));
+        assertEquals(2, values.get(1).intValue());
+        assertEquals("C", keys.get(2));
+        assertEquals(3, values.get(2).intValue());
+        assertEquals("E", keys.get(3));
+        assertEquals(5, values.get(3).intValue());
+        assertEquals("A", keys.get(4));
+        assertEquals(1, values.get(4).intValue());
+
+        assertEquals(1, map.size());
+
+        map.stop();
+    }
+
+    public void testExpiredNotEvicted() throws Exception {
+        final List<String> keys = new ArrayList<String>();
+
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<String, Integer>(executor, 20) {
+            @Override
+            public boolean onEviction(String key, Integer value) {
+                // do not evict special key
+                if ("gold".equals(key)) {
+                    return false;
+                }
+                keys.add(key);
+                return true;
+            }
+        };
+        map.start();
+
+        map.put("A", 1, 50);
+        map.put("gold", 9, 50);
+
+        Thread.sleep(250);
+        map.purge();
+
+        assertEquals(1, keys.size());
+        assertEquals("A", keys.get(0));
+
+        // and keep the gold in the map
+        assertEquals(1, map.size());
+        assertEquals(Integer.valueOf(9), map.get("gold"));
+
+        map.stop();
+    }
+
+    public void testTimeoutLongerThanWheel() throws Exception {
+        // the wheel is only 4 x 20 millis so the entry has to go around the wheel several times
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<String, Integer>(executor, 20, 4);
+        map.start();
+
+        map.put("A", 1, 300);
+
+        Thread.sleep(150);
+        map.purge();
+        assertEquals(1, map.size());
+
+        Thread.sleep(400);
+        if (map.size() > 0) {
+            LOG.warn("Waiting extra due slow CI box");
+            Thread.sleep(1000);
+        }
+        assertEquals(0, map.size());
+
+        map.stop();
+    }
+
+    public void testHierarchicalWheel() throws Exception {
+        final List<String> keys = new ArrayList<String>();
+
+        // each level of the wheel is only 4 buckets so the entries are moved down the levels before they expire,
+        // and the last entry is beyond the range of the highest level
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<String, Integer>(executor, 10, 4, 2) {
+            @Override
+            public boolean onEviction(String key, Integer value) {
+                keys.add(key);
+                return true;
+            }
+        };
+        map.start();
+
+        map.put("A", 1, 30);
+        map.put("B", 2, 100);
+        map.put("C", 3, 500);
+        map.put("D", 4, 900);
+
+        Thread.sleep(250);
+        map.purge();
+        assertEquals(2, map.size());
+        assertEquals(2, keys.size());
+        assertEquals("A", keys.get(0));
+        assertEquals("B", keys.get(1));
+
+        Thread.sleep(1000);
+        if (map.size() > 0) {
+            LOG.warn("Waiting extra due slow CI box");
+            Thread.sleep(1000);
+        }
+        assertEquals(0, map.size());
+        assertEquals(4, keys.size());
+        assertEquals("C", keys.get(2));
+        assertEquals("D", keys.get(3));
+
+        map.stop();
+    }
+
+    public void testInvalidLevels() throws Exception {
+        try {
+            new HashedWheelTimeoutMap<Object, Object>(executor, 100, 512, 0);
+            fail("Should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        try {
+            new HashedWheelTimeoutMap<Object, Object>(executor, 100, 512, 10);
+            fail("Should have thrown exception");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    public void testHashedWheelTimeoutMapStopStart() throws Exception {
+        HashedWheelTimeoutMap<String, Integer> map = new HashedWheelTimeoutMap<String, Integer>(executor, 20);
+        map.start();
+        map.put("A", 1, 500);
+
+        assertEquals(1, map.size());
+        map.stop();
+
+        assertEquals(0, map.size());
+        map.put("A", 1, 50);
+
+        // should not timeout as the scheduler doesn't run
+        Thread.sleep(250);
+        assertEquals(1, map.size());
+
+        // start and wait for scheduler to purge
+        map.start();
+        Thread.sleep(250);
+        if (map.size() > 0) {
+            LOG.warn("Waiting extra due slow CI box");
+            Thread.sleep(1000);
+        }
+        // now it should be gone
+        assertEquals(0, map.size());
+
+        map.stop();
+    }
+
+}
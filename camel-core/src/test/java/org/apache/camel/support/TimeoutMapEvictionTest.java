@@ -0,0 +1,187 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.support;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import junit.framework.TestCase;
+import org.apache.camel.TimeoutMap;
+import org.apache.camel.util.ServiceHelper;
+
+/**
+ * Runs the same eviction scenarios against {@link DefaultTimeoutMap} and {@link HashedWheelTimeoutMap}
+ * to verify they evict the entries the same way.
+ *
+ * @version
+ */
+public class TimeoutMapEvictionTest extends TestCase {
+
+    private ScheduledExecutorService executor = new ScheduledThreadPoolExecutor(1);
+    // keys which are not valid for eviction
+    private final Set<String> invalid = new CopyOnWriteArraySet<String>();
+    // keys which vetoes their eviction
+    private final Set<String> vetoed = new CopyOnWriteArraySet<String>();
+    private final List<String> evicted = new CopyOnWriteArrayList<String>();
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        invalid.clear();
+        vetoed.clear();
+        evicted.clear();
+    }
+
+    public void testDefaultTimeoutMapIsValidForEviction() throws Exception {
+        doTestIsValidForEviction(createDefaultTimeoutMap());
+    }
+
+    public void testHashedWheelTimeoutMapIsValidForEviction() throws Exception {
+        doTestIsValidForEviction(createHashedWheelTimeoutMap());
+    }
+
+    public void testDefaultTimeoutMapEvictionVetoed() throws Exception {
+        doTestEvictionVetoed(createDefaultTimeoutMap());
+    }
+
+    public void testHashedWheelTimeoutMapEvictionVetoed() throws Exception {
+        doTestEvictionVetoed(createHashedWheelTimeoutMap());
+    }
+
+    public void testDefaultTimeoutMapGetExtendsTimeout() throws Exception {
+        doTestGetExtendsTimeout(createDefaultTimeoutMap());
+    }
+
+    public void testHashedWheelTimeoutMapGetExtendsTimeout() throws Exception {
+        doTestGetExtendsTimeout(createHashedWheelTimeoutMap());
+    }
+
+    private void doTestIsValidForEviction(TimeoutMap<String, Integer> map) throws Exception {
+        ServiceHelper.startService(map);
+
+        invalid.add("gold");
+        map.put("A", 1, 50);
+        map.put("gold", 9, 50);
+
+        Thread.sleep(250);
+        map.purge();
+
+        // the gold is not valid for eviction so onEviction is not called for it
+        assertEquals(1, evicted.size());
+        assertEquals("A", evicted.get(0));
+        assertEquals(1, map.size());
+        assertEquals(Integer.valueOf(9), map.get("gold"));
+
+        // and once it is valid then it is evicted
+        invalid.clear();
+        Thread.sleep(250);
+        map.purge();
+
+        assertEquals(2, evicted.size());
+        assertEquals("gold", evicted.get(1));
+        assertEquals(0, map.size());
+
+        ServiceHelper.stopService(map);
+    }
+
+    private void doTestEvictionVetoed(TimeoutMap<String, Integer> map) throws Exception {
+        ServiceHelper.startService(map);
+
+        vetoed.add("gold");
+        map.put("gold", 9, 50);
+
+        Thread.sleep(250);
+        map.purge();
+
+        assertTrue(evicted.isEmpty());
+        assertEquals(1, map.size());
+
+        // the vetoed entry is offered for eviction again
+        vetoed.clear();
+        Thread.sleep(250);
+        map.purge();
+
+        assertEquals(1, evicted.size());
+        assertEquals("gold", evicted.get(0));
+        assertEquals(0, map.size());
+
+        ServiceHelper.stopService(map);
+    }
+
+    private void doTestGetExtendsTimeout(TimeoutMap<String, Integer> map) throws Exception {
+        ServiceHelper.startService(map);
+
+        map.put("A", 1, 300);
+
+        Thread.sleep(200);
+        // accessing the entry resets its timeout
+        assertEquals(Integer.valueOf(1), map.get("A"));
+
+        Thread.sleep(200);
+        map.purge();
+        assertTrue(evicted.isEmpty());
+        assertEquals(1, map.size());
+
+        Thread.sleep(400);
+        map.purge();
+        assertEquals(1, evicted.size());
+        assertEquals(0, map.size());
+
+        ServiceHelper.stopService(map);
+    }
+
+    private TimeoutMap<String, Integer> createDefaultTimeoutMap() {
+        return new DefaultTimeoutMap<String, Integer>(executor, 20) {
+            @Override
+            protected boolean isValidForEviction(TimeoutMapEntry<String, Integer> entry) {
+                return !invalid.contains(entry.getKey());
+            }
+
+            @Override
+            public boolean onEviction(String key, Integer value) {
+                return evict(key);
+            }
+        };
+    }
+
+    private TimeoutMap<String, Integer> createHashedWheelTimeoutMap() {
+        return new HashedWheelTimeoutMap<String, Integer>(executor, 20) {
+            @Override
+            protected boolean isValidForEviction(TimeoutMapEntry<String, Integer> entry) {
+                return !invalid.contains(entry.getKey());
+            }
+
+            @Override
+            public boolean onEviction(String key, Integer value) {
+                return evict(key);
+            }
+        };
+    }
+
+    private boolean evict(String key) {
+        if (vetoed.contains(key)) {
+            return false;
+        }
+        evicted.add(key);
+        return true;
+    }
+
+}
@@ -16,18 +16,33 @@
  */
 package org.apache.camel.component.aws.kinesis;
 
+import java.math.BigInteger;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import com.amazonaws.services.kinesis.AmazonKinesis;
 import com.amazonaws.services.kinesis.model.DescribeStreamRequest;
 import com.amazonaws.services.kinesis.model.DescribeStreamResult;
+import com.amazonaws.services.kinesis.model.ExpiredIteratorException;
 import com.amazonaws.services.kinesis.model.GetRecordsRequest;
 import com.amazonaws.services.kinesis.model.GetRecordsResult;
 import com.amazonaws.services.kinesis.model.GetShardIteratorRequest;
 import com.amazonaws.services.kinesis.model.GetShardIteratorResult;
 import com.amazonaws.services.kinesis.model.Record;
+import com.amazonaws.services.kinesis.model.Shard;
 import com.amazonaws.services.kinesis.model.ShardIteratorType;
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.Exchange;
@@ -38,17 +53,55 @@ import org.apache.camel.util.ObjectHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Consumer which polls records from Amazon Kinesis.
+ * <p/>
+ * By default a single shard is polled. When parallel shards is enabled, the shards of the stream are polled
+ * concurrently, each with its own shard iterator on each poll, and the sequence number of each shard up to which
+ * all the records were processed successfully is tracked as checkpoint, which is used to resume the shard when its
+ * iterator expires or the consumer is restarted. The checkpoint is not moved past a record which failed, so the record
+ * is consumed again when the shard is resumed. A child shard created by a reshard is only polled once its parent shards have been
+ * read to their end, so the records of a partition key are still processed in order.
+ */
 public class KinesisConsumer extends ScheduledBatchPollingConsumer {
     private static final Logger LOG = LoggerFactory.getLogger(KinesisConsumer.class);
 
     private String currentShardIterator;
 
+    private final Map<String, ShardConsumer> shardConsumers = new LinkedHashMap<>();
+    private final Set<String> closedShards = new HashSet<>();
+    private final Map<String, String> checkpoints = new HashMap<>();
+    private ExecutorService shardExecutor;
+
     public KinesisConsumer(KinesisEndpoint endpoint, Processor processor) {
         super(endpoint, processor);
     }
 
+    @Override
+    protected void doStart() throws Exception {
+        if (isParallelShards()) {
+            shardExecutor = getEndpoint().getCamelContext().getExecutorServiceManager().newCachedThreadPool(this, "KinesisShardConsumer");
+        }
+        super.doStart();
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        super.doStop();
+        if (shardExecutor != null) {
+            getEndpoint().getCamelContext().getExecutorServiceManager().shutdownNow(shardExecutor);
+            shardExecutor = null;
+        }
+        // the shards are resumed from their checkpoints when started again
+        shardConsumers.clear();
+    }
+
     @Override
     protected int poll() throws Exception {
+        if (isParallelShards()) {
+            return pollShards();
+        }
+
         GetRecordsRequest req = new GetRecordsRequest()
                 .withShardIterator(getShardItertor())
                 .withLimit(getEndpoint().getMaxResultsPerRequest());
@@ -85,6 +138,117 @@ public class KinesisConsumer extends ScheduledBatchPollingConsumer {
         return processedExchanges;
     }
 
+    private int pollShards() throws Exception {
+        if (shardConsumers.isEmpty()) {
+            refreshShards(true);
+        }
+
+        List<Future<Integer>> polls = new ArrayList<>(shardConsumers.size());
+        for (ShardConsumer shardConsumer : shardConsumers.values()) {
+            polls.add(shardExecutor.submit(shardConsumer));
+        }
+
+        int processedExchangeCount = 0;
+        for (Future<Integer> poll : polls) {
+            try {
+                processedExchangeCount += poll.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof Exception ? (Exception) cause : e;
+            }
+        }
+
+        // a shard is closed when it has been split or merged, so look for its child shards
+        boolean closed = false;
+        for (Iterator<ShardConsumer> it = shardConsumers.values().iterator(); it.hasNext();) {
+            ShardConsumer shardConsumer = it.next();
+            if (shardConsumer.isClosed()) {
+                LOG.debug("Shard {} is closed", shardConsumer.shardId);
+                closedShards.add(shardConsumer.shardId);
+                it.remove();
+                closed = true;
+            }
+        }
+        if (closed) {
+            refreshShards(false);
+        }
+
+        return processedExchangeCount;
+    }
+
+    private void refreshShards(boolean initial) {
+        List<Shard> shards = new ArrayList<>();
+        String exclusiveStartShardId = null;
+        boolean hasMoreShards = true;
+        while (hasMoreShards) {
+            DescribeStreamRequest req = new DescribeStreamRequest()
+                    .withStreamName(getEndpoint().getStreamName())
+                    .withExclusiveStartShardId(exclusiveStartShardId);
+            DescribeStreamResult res = getClient().describeStream(req);
+            for (Shard shard : res.getStreamDescription().getShards()) {
+                shards.add(shard);
+                exclusiveStartShardId = shard.getShardId();
+            }
+            hasMoreShards = Boolean.TRUE.equals(res.getStreamDescription().getHasMoreShards());
+        }
+
+        Set<String> shardIds = new HashSet<>();
+        for (Shard shard : shards) {
+            shardIds.add(shard.getShardId());
+            if (initial && isClosed(shard) && ShardIteratorType.LATEST.equals(getEndpoint().getIteratorType())) {
+                // a closed shard has no records after the latest, so its child shards can be read right away
+                closedShards.add(shard.getShardId());
+            }
+        }
+
+        for (Shard shard : shards) {
+            String shardId = shard.getShardId();
+            if (shardConsumers.containsKey(shardId) || closedShards.contains(shardId)) {
+                continue;
+            }
+            // a child shard is only read when its parents have been read to their end, to keep the records
+            // of each partition key in order after a reshard, like the Kinesis Client Library does
+            if (!isParentDone(shard.getParentShardId(), shardIds) || !isParentDone(shard.getAdjacentParentShardId(), shardIds)) {
+                LOG.debug("Shard {} is waiting for its parent shards to be closed", shardId);
+                continue;
+            }
+            // the shards created after the consumer started are read from their beginning so no record is lost
+            LOG.debug("Consuming shard {}", shardId);
+            shardConsumers.put(shardId, new ShardConsumer(shardId, initial));
+        }
+    }
+
+    private boolean isParentDone(String parentShardId, Set<String> shardIds) {
+        // a parent which is no longer listed has expired from the stream, so it has no records left to read
+        return parentShardId == null || closedShards.contains(parentShardId) || !shardIds.contains(parentShardId);
+    }
+
+    private static boolean isClosed(Shard shard) {
+        return shard.getSequenceNumberRange() != null && shard.getSequenceNumberRange().getEndingSequenceNumber() != null;
+    }
+
+    private void checkpoint(String shardId, String sequenceNumber) {
+        synchronized (checkpoints) {
+            String current = checkpoints.get(shardId);
+            if (current == null || new BigInteger(current).compareTo(new BigInteger(sequenceNumber)) < 0) {
+                checkpoints.put(shardId, sequenceNumber);
+            }
+        }
+    }
+
+    /**
+     * Gets the sequence number up to which all the records of each shard were processed successfully, when consuming the shards in parallel.
+     */
+    public Map<String, String> getCheckpoints() {
+        synchronized (checkpoints) {
+            return Collections.unmodifiableMap(new HashMap<>(checkpoints));
+        }
+    }
+
+    private boolean isParallelShards() {
+        return getEndpoint().isParallelShards() && getEndpoint().getShardId().isEmpty();
+    }
+
     private AmazonKinesis getClient() {
         return getEndpoint().getClient();
     }
@@ -139,4 +303,136 @@ public class KinesisConsumer extends ScheduledBatchPollingConsumer {
                 && (getEndpoint().getIteratorType().equals(ShardIteratorType.AFTER_SEQUENCE_NUMBER)
                     || getEndpoint().getIteratorType().equals(ShardIteratorType.AT_SEQUENCE_NUMBER));
     }
+
+    /**
+     * Polls a single shard with its own shard iterator, and processes its records in order.
+     */
+    private final class ShardConsumer implements Callable<Integer> {
+
+        private final String shardId;
+        private final boolean initial;
+        private String shardIterator;
+        private boolean closed;
+        // the records which are being processed in order, with null while in progress or whether it succeeded
+        private final Map<String, Boolean> inProgress = new LinkedHashMap<>();
+        private boolean failed;
+
+        ShardConsumer(String shardId, boolean initial) {
+            this.shardId = shardId;
+            this.initial = initial;
+        }
+
+        @Override
+        public Integer call() throws Exception {
+            if (shardIterator == null) {
+                shardIterator = obtainShardIterator();
+            }
+
+            GetRecordsResult result;
+            try {
+                result = getRecords();
+            } catch (ExpiredIteratorException e) {
+                LOG.debug("Shard iterator of shard {} expired, resuming from its checkpoint", shardId);
+                shardIterator = obtainShardIterator();
+                result = getRecords();
+            }
+
+            int processedExchanges = 0;
+            for (Record record : result.getRecords()) {
+                final Exchange exchange = getEndpoint().createExchange(record);
+                final String sequenceNumber = record.getSequenceNumber();
+                exchange.getIn().setHeader(KinesisConstants.SHARD_ID, shardId);
+
+                synchronized (inProgress) {
+                    // after a failure the checkpoint stays put, so there is no need to track the records
+                    if (!failed) {
+                        inProgress.put(sequenceNumber, null);
+                    }
+                }
+
+                LOG.trace("Processing exchange [{}] started.", exchange);
+                getAsyncProcessor().process(exchange, new AsyncCallback() {
+                    @Override
+                    public void done(boolean doneSync) {
+                        recordDone(sequenceNumber, exchange.getException() == null);
+                        LOG.trace("Processing exchange [{}] done.", exchange);
+                    }
+                });
+                processedExchanges++;
+            }
+
+            shardIterator = result.getNextShardIterator();
+            closed = shardIterator == null;
+            return processedExchanges;
+        }
+
+        boolean isClosed() {
+            return closed;
+        }
+
+        /**
+         * Moves the checkpoint past the records which are done, up to the first record still in progress.
+         * When a record failed the checkpoint is not moved any further, until the shard is resumed from it.
+         */
+        private void recordDone(String sequenceNumber, boolean success) {
+            synchronized (inProgress) {
+                if (failed || !inProgress.containsKey(sequenceNumber)) {
+                    return;
+                }
+                inProgress.put(sequenceNumber, success);
+
+                Iterator<Map.Entry<String, Boolean>> it = inProgress.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<String, Boolean> entry = it.next();
+                    if (entry.getValue() == null) {
+                        break;
+                    } else if (entry.getValue()) {
+                        checkpoint(shardId, entry.getKey());
+                        it.remove();
+                    } else {
+                        LOG.debug("Record {} of shard {} failed, not moving the checkpoint past it", entry.getKey(), shardId);
+                        failed = true;
+                        inProgress.clear();
+                        break;
+                    }
+                }
+            }
+        }
+
+        private GetRecordsResult getRecords() {
+            GetRecordsRequest req = new GetRecordsRequest()
+                    .withShardIterator(shardIterator)
+                    .withLimit(getEndpoint().getMaxResultsPerRequest());
+            return getClient().getRecords(req);
+        }
+
+        private String obtainShardIterator() {
+            GetShardIteratorRequest req = new GetShardIteratorRequest()
+                    .withStreamName(getEndpoint().getStreamName())
+                    .withShardId(shardId);
+
+            // the records after the checkpoint are consumed again
+            synchronized (inProgress) {
+                inProgress.clear();
+                failed = false;
+            }
+
+            String checkpoint;
+            synchronized (checkpoints) {
+                checkpoint = checkpoints.get(shardId);
+            }
+            if (checkpoint != null) {
+                req.withShardIteratorType(ShardIteratorType.AFTER_SEQUENCE_NUMBER).withStartingSequenceNumber(checkpoint);
+            } else if (initial) {
+                req.withShardIteratorType(getEndpoint().getIteratorType());
+                if (hasSequenceNumber()) {
+                    req.withStartingSequenceNumber(getEndpoint().getSequenceNumber());
+                }
+            } else {
+                req.withShardIteratorType(ShardIteratorType.TRIM_HORIZON);
+            }
+
+            return getClient().getShardIterator(req).getShardIterator();
+        }
+    }
 }
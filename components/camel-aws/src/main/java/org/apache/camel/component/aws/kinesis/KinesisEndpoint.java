@@ -49,6 +49,18 @@ public class KinesisEndpoint extends ScheduledPollEndpoint {
     private String shardId = "";
     @UriParam(label = "consumer", description = "The sequence number to start polling from")
     private String sequenceNumber = "";
+    @UriParam(label = "consumer", description = "Whether to consume all the shards of the stream in parallel, using one shard iterator"
+            + " per shard and tracking the sequence number up to which the records of each shard were processed successfully as checkpoint")
+    private boolean parallelShards;
+    @UriParam(label = "producer", description = "The maximum number of records to send together with PutRecords (up to 500)."
+            + " The default value 0 sends each record with its own PutRecord request")
+    private int putRecordsBatchSize;
+    @UriParam(label = "producer", description = "The interval in millis at which a PutRecords batch that is not yet full is sent."
+            + " Must be a positive value when putRecordsBatchSize is set", defaultValue = "100")
+    private long putRecordsBatchTimeout = 100;
+    @UriParam(label = "producer", description = "The number of times the records which failed in a PutRecords request are retried."
+            + " The retries are scheduled with a delay starting at 100 millis, which doubles on each retry up to 5 seconds", defaultValue = "3")
+    private int putRecordsMaxRetries = 3;
 
     public KinesisEndpoint(String uri, String streamName, KinesisComponent component) {
         super(uri, component);
@@ -143,4 +155,36 @@ public class KinesisEndpoint extends ScheduledPollEndpoint {
         this.sequenceNumber = sequenceNumber;
     }
 
+    public boolean isParallelShards() {
+        return parallelShards;
+    }
+
+    public void setParallelShards(boolean parallelShards) {
+        this.parallelShards = parallelShards;
+    }
+
+    public int getPutRecordsBatchSize() {
+        return putRecordsBatchSize;
+    }
+
+    public void setPutRecordsBatchSize(int putRecordsBatchSize) {
+        this.putRecordsBatchSize = putRecordsBatchSize;
+    }
+
+    public long getPutRecordsBatchTimeout() {
+        return putRecordsBatchTimeout;
+    }
+
+    public void setPutRecordsBatchTimeout(long putRecordsBatchTimeout) {
+        this.putRecordsBatchTimeout = putRecordsBatchTimeout;
+    }
+
+    public int getPutRecordsMaxRetries() {
+        return putRecordsMaxRetries;
+    }
+
+    public void setPutRecordsMaxRetries(int putRecordsMaxRetries) {
+        this.putRecordsMaxRetries = putRecordsMaxRetries;
+    }
+
 }
@@ -17,16 +17,52 @@
 package org.apache.camel.component.aws.kinesis;
 
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+import com.amazonaws.AmazonServiceException;
 import com.amazonaws.services.kinesis.model.PutRecordRequest;
 import com.amazonaws.services.kinesis.model.PutRecordResult;
+import com.amazonaws.services.kinesis.model.PutRecordsRequest;
+import com.amazonaws.services.kinesis.model.PutRecordsRequestEntry;
+import com.amazonaws.services.kinesis.model.PutRecordsResult;
+import com.amazonaws.services.kinesis.model.PutRecordsResultEntry;
+import org.apache.camel.AsyncCallback;
 import org.apache.camel.Exchange;
 import org.apache.camel.Message;
-import org.apache.camel.impl.DefaultProducer;
+import org.apache.camel.impl.DefaultAsyncProducer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import static org.apache.camel.component.aws.common.AwsExchangeUtil.getMessageForResponse;
 
-public class KinesisProducer extends DefaultProducer {
+/**
+ * Producer which sends records to Amazon Kinesis.
+ * <p/>
+ * When a PutRecords batch size is configured, the records are buffered and sent together with PutRecords
+ * when the batch is full, the size limit of a request is reached, or the batch timeout elapses.
+ * The records which failed are retried on their own after a delay, without blocking the caller,
+ * so each exchange is completed asynchronously with the outcome of its own record. Records with a sequence number for ordering are always sent with PutRecord,
+ * as PutRecords does not support it.
+ */
+public class KinesisProducer extends DefaultAsyncProducer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KinesisProducer.class);
+
+    // the limits of a PutRecords request
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final long MAX_BATCH_BYTES = 5 * 1024 * 1024;
+    // the delay before the first retry of the failed records, which doubles on each retry up to the max delay
+    private static final long RETRY_DELAY = 100;
+    private static final long MAX_RETRY_DELAY = 5000;
+
+    private final List<PendingRecord> pendingRecords = new ArrayList<>();
+    private long pendingBytes;
+    private ScheduledExecutorService batchExecutor;
 
     public KinesisProducer(KinesisEndpoint endpoint) {
         super(endpoint);
@@ -38,12 +74,59 @@ public class KinesisProducer extends DefaultProducer {
     }
 
     @Override
-    public void process(Exchange exchange) throws Exception {
-        PutRecordRequest request = createRequest(exchange);
-        PutRecordResult putRecordResult = getEndpoint().getClient().putRecord(request);
-        Message message = getMessageForResponse(exchange);
-        message.setHeader(KinesisConstants.SEQUENCE_NUMBER, putRecordResult.getSequenceNumber());
-        message.setHeader(KinesisConstants.SHARD_ID, putRecordResult.getShardId());
+    public boolean process(Exchange exchange, AsyncCallback callback) {
+        try {
+            if (getEndpoint().getPutRecordsBatchSize() > 0 && exchange.getIn().getHeader(KinesisConstants.SEQUENCE_NUMBER) == null) {
+                addPendingRecord(new PendingRecord(exchange, callback, createRequestEntry(exchange)));
+                return false;
+            }
+
+            PutRecordRequest request = createRequest(exchange);
+            PutRecordResult putRecordResult = getEndpoint().getClient().putRecord(request);
+            Message message = getMessageForResponse(exchange);
+            message.setHeader(KinesisConstants.SEQUENCE_NUMBER, putRecordResult.getSequenceNumber());
+            message.setHeader(KinesisConstants.SHARD_ID, putRecordResult.getShardId());
+        } catch (Exception e) {
+            exchange.setException(e);
+        }
+
+        callback.done(true);
+        return true;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        int batchSize = getEndpoint().getPutRecordsBatchSize();
+        if (batchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("The putRecordsBatchSize must be at most " + MAX_BATCH_SIZE + ", was: " + batchSize);
+        }
+        long timeout = getEndpoint().getPutRecordsBatchTimeout();
+        if (batchSize > 0 && timeout <= 0) {
+            // a batch that is not full would otherwise only be sent when the producer is stopped
+            throw new IllegalArgumentException("The putRecordsBatchTimeout must be a positive value when putRecordsBatchSize is set, was: " + timeout);
+        }
+        if (batchSize > 0) {
+            batchExecutor = getEndpoint().getCamelContext().getExecutorServiceManager().newSingleThreadScheduledExecutor(this, "KinesisPutRecords");
+            batchExecutor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    flushPendingRecords();
+                }
+            }, timeout, timeout, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        // send the remaining records so no exchange is left waiting
+        flushPendingRecords();
+        if (batchExecutor != null) {
+            // waits for the scheduled retries
+            getEndpoint().getCamelContext().getExecutorServiceManager().shutdownGraceful(batchExecutor);
+            batchExecutor = null;
+        }
+        super.doStop();
     }
 
     private PutRecordRequest createRequest(Exchange exchange) {
@@ -60,4 +143,139 @@ public class KinesisProducer extends DefaultProducer {
         }
         return putRecordRequest;
     }
+
+    private PutRecordsRequestEntry createRequestEntry(Exchange exchange) {
+        ByteBuffer body = exchange.getIn().getBody(ByteBuffer.class);
+        Object partitionKey = exchange.getIn().getHeader(KinesisConstants.PARTITION_KEY);
+
+        return new PutRecordsRequestEntry()
+                .withData(body)
+                .withPartitionKey(partitionKey.toString());
+    }
+
+    private void addPendingRecord(PendingRecord record) {
+        List<List<PendingRecord>> batches = new ArrayList<>(2);
+        synchronized (pendingRecords) {
+            // the request must stay within the size limit, so send what is pending first
+            if (!pendingRecords.isEmpty() && pendingBytes + record.size > MAX_BATCH_BYTES) {
+                batches.add(drainPendingRecords());
+            }
+            pendingRecords.add(record);
+            pendingBytes += record.size;
+            if (pendingRecords.size() >= getEndpoint().getPutRecordsBatchSize()) {
+                batches.add(drainPendingRecords());
+            }
+        }
+        for (List<PendingRecord> batch : batches) {
+            putRecords(batch);
+        }
+    }
+
+    private void flushPendingRecords() {
+        List<PendingRecord> batch;
+        synchronized (pendingRecords) {
+            if (pendingRecords.isEmpty()) {
+                return;
+            }
+            batch = drainPendingRecords();
+        }
+        putRecords(batch);
+    }
+
+    private List<PendingRecord> drainPendingRecords() {
+        List<PendingRecord> batch = new ArrayList<>(pendingRecords);
+        pendingRecords.clear();
+        pendingBytes = 0;
+        return batch;
+    }
+
+    private void putRecords(List<PendingRecord> records) {
+        putRecords(records, 0);
+    }
+
+    private void putRecords(List<PendingRecord> records, final int attempt) {
+        List<PutRecordsRequestEntry> entries = new ArrayList<>(records.size());
+        for (PendingRecord record : records) {
+            entries.add(record.entry);
+        }
+
+        PutRecordsResult result;
+        try {
+            LOG.trace("Putting {} records (attempt {})...", entries.size(), attempt + 1);
+            result = getEndpoint().getClient().putRecords(new PutRecordsRequest()
+                    .withStreamName(getEndpoint().getStreamName())
+                    .withRecords(entries));
+        } catch (Exception e) {
+            failRecords(records, e);
+            return;
+        }
+
+        // the result entries are in the same order as the request entries
+        final List<PendingRecord> failed = new ArrayList<>();
+        for (int i = 0; i < records.size(); i++) {
+            PendingRecord record = records.get(i);
+            PutRecordsResultEntry entry = result.getRecords().get(i);
+            if (entry.getErrorCode() == null) {
+                Message message = getMessageForResponse(record.exchange);
+                message.setHeader(KinesisConstants.SEQUENCE_NUMBER, entry.getSequenceNumber());
+                message.setHeader(KinesisConstants.SHARD_ID, entry.getShardId());
+                record.callback.done(false);
+            } else if (attempt < getEndpoint().getPutRecordsMaxRetries()) {
+                failed.add(record);
+            } else {
+                AmazonServiceException cause = new AmazonServiceException(entry.getErrorMessage());
+                cause.setErrorCode(entry.getErrorCode());
+                record.exchange.setException(cause);
+                record.callback.done(false);
+            }
+        }
+        if (failed.isEmpty()) {
+            return;
+        }
+
+        // retry later from the batch thread, so the caller is not blocked while waiting
+        long delay = Math.min(RETRY_DELAY << Math.min(attempt, 16), MAX_RETRY_DELAY);
+        LOG.debug("Retrying {} of {} records which failed to be put in {} millis", new Object[]{failed.size(), records.size(), delay});
+        ScheduledExecutorService executor = batchExecutor;
+        if (executor == null) {
+            failRecords(failed, new RejectedExecutionException("The producer is stopped"));
+            return;
+        }
+        try {
+            executor.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    putRecords(failed, attempt + 1);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // the producer is stopping
+            failRecords(failed, e);
+        }
+    }
+
+    private static void failRecords(List<PendingRecord> records, Exception cause) {
+        for (PendingRecord record : records) {
+            record.exchange.setException(cause);
+            record.callback.done(false);
+        }
+    }
+
+    /**
+     * A record waiting in a PutRecords batch, which completes its exchange with the outcome of the record.
+     */
+    private static final class PendingRecord {
+
+        private final Exchange exchange;
+        private final AsyncCallback callback;
+        private final PutRecordsRequestEntry entry;
+        private final long size;
+
+        PendingRecord(Exchange exchange, AsyncCallback callback, PutRecordsRequestEntry entry) {
+            this.exchange = exchange;
+            this.callback = callback;
+            this.entry = entry;
+            this.size = entry.getData().remaining() + entry.getPartitionKey().getBytes(StandardCharsets.UTF_8).length;
+        }
+    }
 }
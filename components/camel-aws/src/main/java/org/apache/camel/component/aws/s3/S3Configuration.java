@@ -42,8 +42,12 @@ public class S3Configuration implements Cloneable {
     private boolean deleteAfterWrite;
     @UriParam(label = "producer")
     private boolean multiPartUpload;
-    @UriParam(label = "producer", defaultValue = "" + 25 * 1024 * 1024)
+    @UriParam(defaultValue = "" + 25 * 1024 * 1024)
     private long partSize = 25 * 1024 * 1024;
+    @UriParam(label = "producer", defaultValue = "1")
+    private int multiPartUploadConcurrency = 1;
+    @UriParam(label = "consumer", defaultValue = "1")
+    private int rangedDownloadConcurrency = 1;
     @UriParam
     private String amazonS3Endpoint;
     @UriParam
@@ -65,11 +69,37 @@ public class S3Configuration implements Cloneable {
 
     /**
      * *Camel 2.15.0*: Setup the partSize which is used in multi part upload, the default size is 25M.
+     * The consumer uses the same size for the byte ranges of a ranged download.
      */
     public void setPartSize(long partSize) {
         this.partSize = partSize;
     }
 
+    public int getMultiPartUploadConcurrency() {
+        return multiPartUploadConcurrency;
+    }
+
+    /**
+     * The number of parts uploaded in parallel when using multi part upload.
+     * The default value 1 uploads the parts one after the other.
+     */
+    public void setMultiPartUploadConcurrency(int multiPartUploadConcurrency) {
+        this.multiPartUploadConcurrency = multiPartUploadConcurrency;
+    }
+
+    public int getRangedDownloadConcurrency() {
+        return rangedDownloadConcurrency;
+    }
+
+    /**
+     * The number of byte ranges downloaded in parallel for objects larger than the `partSize`.
+     * The ranges are written to a temporary file which is used as the message body, and deleted when the exchange is done.
+     * The default value 1 downloads the objects as a single stream. Only used when `includeBody` is enabled.
+     */
+    public void setRangedDownloadConcurrency(int rangedDownloadConcurrency) {
+        this.rangedDownloadConcurrency = rangedDownloadConcurrency;
+    }
+
     public boolean isMultiPartUpload() {
         return multiPartUpload;
     }
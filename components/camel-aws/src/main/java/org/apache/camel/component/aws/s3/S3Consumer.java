@@ -16,15 +16,28 @@
  */
 package org.apache.camel.component.aws.s3;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
 import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 
@@ -34,7 +47,10 @@ import org.apache.camel.NoFactoryAvailableException;
 import org.apache.camel.Processor;
 import org.apache.camel.impl.ScheduledBatchPollingConsumer;
 import org.apache.camel.spi.Synchronization;
+import org.apache.camel.support.SynchronizationAdapter;
 import org.apache.camel.util.CastUtils;
+import org.apache.camel.util.FileUtil;
+import org.apache.camel.util.IOHelper;
 import org.apache.camel.util.ObjectHelper;
 import org.apache.camel.util.URISupport;
 import org.slf4j.Logger;
@@ -49,11 +65,31 @@ public class S3Consumer extends ScheduledBatchPollingConsumer {
     private static final Logger LOG = LoggerFactory.getLogger(S3Consumer.class);
     private String marker;
     private transient String s3ConsumerToString;
+    private ExecutorService downloadExecutorService;
 
     public S3Consumer(S3Endpoint endpoint, Processor processor) throws NoFactoryAvailableException {
         super(endpoint, processor);
     }
 
+    @Override
+    protected void doStart() throws Exception {
+        int concurrency = getConfiguration().getRangedDownloadConcurrency();
+        if (getConfiguration().isIncludeBody() && concurrency > 1) {
+            downloadExecutorService = getEndpoint().getCamelContext().getExecutorServiceManager()
+                    .newFixedThreadPool(this, "AWS S3 RangedDownload", concurrency);
+        }
+        super.doStart();
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        super.doStop();
+        if (downloadExecutorService != null) {
+            getEndpoint().getCamelContext().getExecutorServiceManager().shutdownNow(downloadExecutorService);
+            downloadExecutorService = null;
+        }
+    }
+
     @Override
     protected int poll() throws Exception {
         // must reset for each poll
@@ -67,7 +103,13 @@ public class S3Consumer extends ScheduledBatchPollingConsumer {
         if (fileName != null) {
             LOG.trace("Getting object in bucket [{}] with file name [{}]...", bucketName, fileName);
 
-            S3Object s3Object = getAmazonS3Client().getObject(new GetObjectRequest(bucketName, fileName));
+            S3Object s3Object;
+            if (downloadExecutorService != null) {
+                ObjectMetadata objectMetadata = getAmazonS3Client().getObjectMetadata(bucketName, fileName);
+                s3Object = getObject(bucketName, fileName, objectMetadata.getContentLength());
+            } else {
+                s3Object = getAmazonS3Client().getObject(new GetObjectRequest(bucketName, fileName));
+            }
             exchanges = createExchanges(s3Object);
         } else {
             LOG.trace("Queueing objects in bucket [{}]...", bucketName);
@@ -103,7 +145,7 @@ public class S3Consumer extends ScheduledBatchPollingConsumer {
     
     protected Queue<Exchange> createExchanges(S3Object s3Object) {
         Queue<Exchange> answer = new LinkedList<Exchange>();
-        Exchange exchange = getEndpoint().createExchange(s3Object);
+        Exchange exchange = createExchange(s3Object);
         answer.add(exchange);
         return answer;
     }
@@ -115,13 +157,133 @@ public class S3Consumer extends ScheduledBatchPollingConsumer {
         
         Queue<Exchange> answer = new LinkedList<Exchange>();
         for (S3ObjectSummary s3ObjectSummary : s3ObjectSummaries) {
-            S3Object s3Object = getAmazonS3Client().getObject(s3ObjectSummary.getBucketName(), s3ObjectSummary.getKey());
-            Exchange exchange = getEndpoint().createExchange(s3Object);
+            S3Object s3Object = getObject(s3ObjectSummary.getBucketName(), s3ObjectSummary.getKey(), s3ObjectSummary.getSize());
+            Exchange exchange = createExchange(s3Object);
             answer.add(exchange);
         }
 
         return answer;
     }
+
+    private Exchange createExchange(S3Object s3Object) {
+        Exchange exchange = getEndpoint().createExchange(s3Object);
+        if (s3Object instanceof DownloadedS3Object) {
+            // the body is backed by a temporary file which must be removed when the exchange is done
+            final DownloadedS3Object downloaded = (DownloadedS3Object) s3Object;
+            exchange.addOnCompletion(new SynchronizationAdapter() {
+                @Override
+                public void onDone(Exchange exchange) {
+                    IOHelper.close(downloaded.getObjectContent());
+                    FileUtil.deleteFile(downloaded.getFile());
+                }
+            });
+        }
+        return exchange;
+    }
+
+    /**
+     * Gets the object, using parallel ranged downloads if enabled and the object is larger than the part size.
+     */
+    protected S3Object getObject(String bucketName, String key, long size) {
+        if (downloadExecutorService == null || size <= getConfiguration().getPartSize()) {
+            return getAmazonS3Client().getObject(bucketName, key);
+        }
+
+        try {
+            return downloadInRanges(bucketName, key);
+        } catch (IOException e) {
+            throw new AmazonClientException("Error downloading object " + key + " from bucket " + bucketName, e);
+        }
+    }
+
+    private S3Object downloadInRanges(final String bucketName, final String key) throws IOException {
+        // all the ranges must belong to the same version of the object
+        final ObjectMetadata objectMetadata = getAmazonS3Client().getObjectMetadata(bucketName, key);
+        final long contentLength = objectMetadata.getContentLength();
+        final long partSize = getConfiguration().getPartSize();
+
+        File file = File.createTempFile("camel-s3-", ".tmp");
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        List<Future<Void>> pendingRanges = new ArrayList<Future<Void>>();
+        boolean success = false;
+        try {
+            raf.setLength(contentLength);
+            final FileChannel channel = raf.getChannel();
+
+            LOG.trace("Downloading object [{}] from bucket [{}] in {} byte ranges...", new Object[]{key, bucketName, partSize});
+            for (long start = 0; start < contentLength; start += partSize) {
+                final long rangeStart = start;
+                final long rangeEnd = Math.min(start + partSize, contentLength) - 1;
+                pendingRanges.add(downloadExecutorService.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        downloadRange(channel, bucketName, key, objectMetadata.getETag(), rangeStart, rangeEnd);
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> pendingRange : pendingRanges) {
+                pendingRange.get();
+            }
+            success = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmazonClientException("Interrupted while downloading object " + key, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof AmazonClientException) {
+                throw (AmazonClientException) cause;
+            }
+            throw new AmazonClientException("Error downloading object " + key + " from bucket " + bucketName, cause);
+        } finally {
+            IOHelper.close(raf);
+            if (!success) {
+                for (Future<Void> pendingRange : pendingRanges) {
+                    pendingRange.cancel(true);
+                }
+                FileUtil.deleteFile(file);
+            }
+        }
+
+        DownloadedS3Object answer = new DownloadedS3Object(file);
+        answer.setBucketName(bucketName);
+        answer.setKey(key);
+        answer.setObjectMetadata(objectMetadata);
+        answer.setObjectContent(new FileInputStream(file));
+        return answer;
+    }
+
+    private void downloadRange(FileChannel channel, String bucketName, String key, String eTag, long start, long end) throws IOException {
+        GetObjectRequest request = new GetObjectRequest(bucketName, key).withRange(start, end);
+        if (eTag != null) {
+            request.withMatchingETagConstraint(eTag);
+        }
+
+        S3Object range = getAmazonS3Client().getObject(request);
+        if (range == null) {
+            throw new AmazonClientException("Object " + key + " in bucket " + bucketName + " was modified during the download");
+        }
+
+        InputStream is = range.getObjectContent();
+        try {
+            byte[] buffer = new byte[IOHelper.DEFAULT_BUFFER_SIZE];
+            long position = start;
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                // positional writes do not change the position of the channel, so the ranges can be written concurrently
+                ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                while (byteBuffer.hasRemaining()) {
+                    position += channel.write(byteBuffer, position);
+                }
+            }
+            if (position != end + 1) {
+                throw new AmazonClientException("Received " + (position - start) + " bytes for range " + start + "-" + end + " of object " + key);
+            }
+        } finally {
+            IOHelper.close(is);
+            IOHelper.close(range);
+        }
+    }
     
     public int processBatch(Queue<Object> exchanges) throws Exception {
         int total = exchanges.size();
@@ -221,4 +383,20 @@ public class S3Consumer extends ScheduledBatchPollingConsumer {
         }
         return s3ConsumerToString;
     }
-}
\ No newline at end of file
+
+    /**
+     * An object downloaded in ranges into a temporary file.
+     */
+    private static final class DownloadedS3Object extends S3Object {
+
+        private final File file;
+
+        DownloadedS3Object(File file) {
+            this.file = file;
+        }
+
+        File getFile() {
+            return file;
+        }
+    }
+}
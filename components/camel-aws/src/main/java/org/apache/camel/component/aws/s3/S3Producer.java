@@ -23,6 +23,10 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import com.amazonaws.services.cloudfront.model.InvalidArgumentException;
 import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
@@ -38,6 +42,7 @@ import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.PutObjectResult;
 import com.amazonaws.services.s3.model.StorageClass;
 import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
 import org.apache.camel.Endpoint;
 import org.apache.camel.Exchange;
 import org.apache.camel.Message;
@@ -61,11 +66,30 @@ public class S3Producer extends DefaultProducer {
     private static final Logger LOG = LoggerFactory.getLogger(S3Producer.class);
 
     private transient String s3ProducerToString;
+    private ExecutorService uploadExecutorService;
     
     public S3Producer(final Endpoint endpoint) {
         super(endpoint);
     }
 
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        int concurrency = getConfiguration().getMultiPartUploadConcurrency();
+        if (getConfiguration().isMultiPartUpload() && concurrency > 1) {
+            uploadExecutorService = getEndpoint().getCamelContext().getExecutorServiceManager()
+                    .newFixedThreadPool(this, "AWS S3 MultiPartUpload", concurrency);
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (uploadExecutorService != null) {
+            getEndpoint().getCamelContext().getExecutorServiceManager().shutdownNow(uploadExecutorService);
+            uploadExecutorService = null;
+        }
+        super.doStop();
+    }
 
     @Override
     public void process(final Exchange exchange) throws Exception {
@@ -127,22 +151,42 @@ public class S3Producer extends DefaultProducer {
         long filePosition = 0;
 
 
+        // the parts are uploaded on the executor when concurrency is enabled, and collected in part order afterwards
+        final List<Future<PartETag>> pendingParts = new ArrayList<Future<PartETag>>();
+
         try {
             for (int part = 1; filePosition < contentLength; part++) {
                 partSize = Math.min(partSize, contentLength - filePosition);
 
-                UploadPartRequest uploadRequest = new UploadPartRequest()
+                // the client reads each part from its own offset of the file, so parts can be uploaded in parallel
+                final UploadPartRequest uploadRequest = new UploadPartRequest()
                         .withBucketName(getConfiguration().getBucketName()).withKey(keyName)
                         .withUploadId(initResponse.getUploadId()).withPartNumber(part)
                         .withFileOffset(filePosition)
                         .withFile(filePayload)
                         .withPartSize(partSize);
 
-                LOG.trace("Uploading part [{}] for {}", part, keyName);
-                partETags.add(getEndpoint().getS3Client().uploadPart(uploadRequest).getPartETag());
+                if (uploadExecutorService != null) {
+                    pendingParts.add(uploadExecutorService.submit(new Callable<PartETag>() {
+                        @Override
+                        public PartETag call() throws Exception {
+                            return uploadPart(uploadRequest).getPartETag();
+                        }
+                    }));
+                } else {
+                    partETags.add(uploadPart(uploadRequest).getPartETag());
+                }
 
                 filePosition += partSize;
             }
+            for (Future<PartETag> pendingPart : pendingParts) {
+                try {
+                    partETags.add(pendingPart.get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    throw cause instanceof Exception ? (Exception) cause : e;
+                }
+            }
             CompleteMultipartUploadRequest compRequest = new
                     CompleteMultipartUploadRequest(getConfiguration().getBucketName(),
                     keyName,
@@ -152,6 +196,9 @@ public class S3Producer extends DefaultProducer {
             uploadResult = getEndpoint().getS3Client().completeMultipartUpload(compRequest);
 
         } catch (Exception e) {
+            for (Future<PartETag> pendingPart : pendingParts) {
+                pendingPart.cancel(true);
+            }
             getEndpoint().getS3Client().abortMultipartUpload(new AbortMultipartUploadRequest(
                     getConfiguration().getBucketName(), keyName, initResponse.getUploadId()));
             throw e;
@@ -168,6 +215,11 @@ public class S3Producer extends DefaultProducer {
         }
     }
 
+    private UploadPartResult uploadPart(UploadPartRequest uploadRequest) {
+        LOG.trace("Uploading part [{}] for {}", uploadRequest.getPartNumber(), uploadRequest.getKey());
+        return getEndpoint().getS3Client().uploadPart(uploadRequest);
+    }
+
     public void processSingleOp(final Exchange exchange) throws Exception {
 
         ObjectMetadata objectMetadata = determineMetadata(exchange);
@@ -61,10 +61,16 @@ public class SqsConfiguration {
     private boolean extendMessageVisibility;
     @UriParam(label = "consumer", defaultValue = "1")
     private int concurrentConsumers = 1;
+    @UriParam(label = "consumer")
+    private boolean batchDelete;
 
     // producer properties
     @UriParam(label = "producer")
     private Integer delaySeconds;
+    @UriParam(label = "producer")
+    private int sendBatchSize;
+    @UriParam(label = "producer", defaultValue = "100")
+    private long sendBatchTimeout = 100;
 
     // queue properties
     @UriParam(label = "queue")
@@ -308,6 +314,44 @@ public class SqsConfiguration {
         this.deleteIfFiltered = deleteIfFiltered;
     }
 
+    public boolean isBatchDelete() {
+        return batchDelete;
+    }
+
+    /**
+     * If enabled then the processed messages are deleted in batches of up to 10 messages using DeleteMessageBatch,
+     * instead of one DeleteMessage call per message. The pending deletes are sent when the batch is full,
+     * and at the start and the end of each poll.
+     */
+    public void setBatchDelete(boolean batchDelete) {
+        this.batchDelete = batchDelete;
+    }
+
+    public int getSendBatchSize() {
+        return sendBatchSize;
+    }
+
+    /**
+     * The maximum number of messages (up to 10) to send together using SendMessageBatch.
+     * The exchanges are buffered until the batch is full or the sendBatchTimeout elapses, and each exchange
+     * is completed with the outcome of its own entry in the batch. The default value 0 sends each message on its own.
+     */
+    public void setSendBatchSize(int sendBatchSize) {
+        this.sendBatchSize = sendBatchSize;
+    }
+
+    public long getSendBatchTimeout() {
+        return sendBatchTimeout;
+    }
+
+    /**
+     * The interval in millis at which a batch that is not yet full is sent, when sendBatchSize is enabled.
+     * Must be a positive value when sendBatchSize is enabled.
+     */
+    public void setSendBatchTimeout(long sendBatchTimeout) {
+        this.sendBatchTimeout = sendBatchTimeout;
+    }
+
     public String getRegion() {
         return region;
     }
@@ -16,6 +16,7 @@
  */
 package org.apache.camel.component.aws.sqs;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
@@ -26,8 +27,13 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
 import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
 import com.amazonaws.services.sqs.model.ChangeMessageVisibilityRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
 import com.amazonaws.services.sqs.model.DeleteMessageRequest;
 import com.amazonaws.services.sqs.model.Message;
 import com.amazonaws.services.sqs.model.MessageNotInflightException;
@@ -59,6 +65,9 @@ import org.slf4j.LoggerFactory;
 public class SqsConsumer extends ScheduledBatchPollingConsumer {
     
     private static final Logger LOG = LoggerFactory.getLogger(SqsConsumer.class);
+    // the maximum number of entries in a DeleteMessageBatch request
+    private static final int MAX_BATCH_SIZE = 10;
+    private final List<Exchange> pendingDeletes = new ArrayList<Exchange>();
     private ScheduledExecutorService scheduledExecutor;
     private transient String sqsConsumerToString;
     private Collection<String> attributeNames;
@@ -82,6 +91,9 @@ public class SqsConsumer extends ScheduledBatchPollingConsumer {
         // must reset for each poll
         shutdownRunningTask = null;
         pendingExchanges = 0;
+
+        // delete the messages which were completed since the last poll
+        flushPendingDeletes();
         
         ReceiveMessageRequest request = new ReceiveMessageRequest(getQueueUrl());
         request.setMaxNumberOfMessages(getMaxMessagesPerPoll() > 0 ? getMaxMessagesPerPoll() : null);
@@ -111,7 +123,11 @@ public class SqsConsumer extends ScheduledBatchPollingConsumer {
         }
         
         Queue<Exchange> exchanges = createExchanges(messageResult.getMessages());
-        return processBatch(CastUtils.cast(exchanges));
+        int total = processBatch(CastUtils.cast(exchanges));
+
+        // the exchanges which were processed synchronously can be deleted right away
+        flushPendingDeletes();
+        return total;
     }
 
     public void reConnectToQueue() {
@@ -228,6 +244,12 @@ public class SqsConsumer extends ScheduledBatchPollingConsumer {
         try {
 
             if (shouldDelete(exchange)) {
+                if (getConfiguration().isBatchDelete()) {
+                    // the message is deleted together with other messages later
+                    addPendingDelete(exchange);
+                    return;
+                }
+
                 String receiptHandle = exchange.getIn().getHeader(SqsConstants.RECEIPT_HANDLE, String.class);
                 DeleteMessageRequest deleteRequest = new DeleteMessageRequest(getQueueUrl(), receiptHandle);
 
@@ -242,6 +264,61 @@ public class SqsConsumer extends ScheduledBatchPollingConsumer {
         }
     }
 
+    private void addPendingDelete(Exchange exchange) {
+        List<Exchange> batch = null;
+        synchronized (pendingDeletes) {
+            pendingDeletes.add(exchange);
+            if (pendingDeletes.size() >= MAX_BATCH_SIZE) {
+                batch = new ArrayList<Exchange>(pendingDeletes);
+                pendingDeletes.clear();
+            }
+        }
+        if (batch != null) {
+            deleteMessages(batch);
+        }
+    }
+
+    /**
+     * Deletes the messages of the completed exchanges which are waiting to be deleted in a batch.
+     */
+    protected void flushPendingDeletes() {
+        List<Exchange> batch;
+        synchronized (pendingDeletes) {
+            if (pendingDeletes.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<Exchange>(pendingDeletes);
+            pendingDeletes.clear();
+        }
+        deleteMessages(batch);
+    }
+
+    private void deleteMessages(List<Exchange> exchanges) {
+        List<DeleteMessageBatchRequestEntry> entries = new ArrayList<DeleteMessageBatchRequestEntry>(exchanges.size());
+        for (int i = 0; i < exchanges.size(); i++) {
+            // the entry id is the index of the exchange so the failures can be mapped back
+            String receiptHandle = exchanges.get(i).getIn().getHeader(SqsConstants.RECEIPT_HANDLE, String.class);
+            entries.add(new DeleteMessageBatchRequestEntry(Integer.toString(i), receiptHandle));
+        }
+
+        try {
+            LOG.trace("Deleting {} messages in batch...", entries.size());
+
+            DeleteMessageBatchResult result = getClient().deleteMessageBatch(new DeleteMessageBatchRequest(getQueueUrl(), entries));
+
+            LOG.trace("Deleted {} messages in batch", result.getSuccessful().size());
+
+            for (BatchResultErrorEntry error : result.getFailed()) {
+                AmazonServiceException cause = new AmazonServiceException(error.getMessage());
+                cause.setErrorCode(error.getCode());
+                Exchange exchange = exchanges.get(Integer.parseInt(error.getId()));
+                getExceptionHandler().handleException("Error occurred during deleting message. This exception is ignored.", exchange, cause);
+            }
+        } catch (AmazonClientException e) {
+            getExceptionHandler().handleException("Error occurred during deleting " + entries.size() + " messages. This exception is ignored.", e);
+        }
+    }
+
     private boolean shouldDelete(Exchange exchange) {
         return getConfiguration().isDeleteAfterRead()
                 && (getConfiguration().isDeleteIfFiltered()
@@ -298,6 +375,12 @@ public class SqsConsumer extends ScheduledBatchPollingConsumer {
         }
     }
 
+    @Override
+    protected void doStop() throws Exception {
+        super.doStop();
+        flushPendingDeletes();
+    }
+
     @Override
     protected void doShutdown() throws Exception {
         super.doShutdown();
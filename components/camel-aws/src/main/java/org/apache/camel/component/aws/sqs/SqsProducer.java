@@ -17,18 +17,29 @@
 package org.apache.camel.component.aws.sqs;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+import com.amazonaws.AmazonServiceException;
 import com.amazonaws.services.sqs.AmazonSQS;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
 import com.amazonaws.services.sqs.model.MessageAttributeValue;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchResultEntry;
 import com.amazonaws.services.sqs.model.SendMessageRequest;
 import com.amazonaws.services.sqs.model.SendMessageResult;
+import org.apache.camel.AsyncCallback;
 import org.apache.camel.Exchange;
 import org.apache.camel.Message;
 import org.apache.camel.NoFactoryAvailableException;
-import org.apache.camel.impl.DefaultProducer;
+import org.apache.camel.impl.DefaultAsyncProducer;
 import org.apache.camel.spi.HeaderFilterStrategy;
 import org.apache.camel.util.URISupport;
 import org.slf4j.Logger;
@@ -39,33 +50,153 @@ import static org.apache.camel.component.aws.common.AwsExchangeUtil.getMessageFo
 /**
  * A Producer which sends messages to the Amazon Web Service Simple Queue Service
  * <a href="http://aws.amazon.com/sqs/">AWS SQS</a>
- * 
+ * <p/>
+ * When a send batch size is configured, the exchanges are buffered and sent together using SendMessageBatch,
+ * and each exchange is completed asynchronously with the outcome of its own entry in the batch.
  */
-public class SqsProducer extends DefaultProducer {
+public class SqsProducer extends DefaultAsyncProducer {
     
     private static final Logger LOG = LoggerFactory.getLogger(SqsProducer.class);
+    // the maximum number of entries in a SendMessageBatch request
+    private static final int MAX_BATCH_SIZE = 10;
     
     private transient String sqsProducerToString;
+    private final List<PendingSend> pendingSends = new ArrayList<PendingSend>();
+    private ScheduledExecutorService sendBatchExecutor;
 
     public SqsProducer(SqsEndpoint endpoint) throws NoFactoryAvailableException {
         super(endpoint);
     }
 
-    public void process(Exchange exchange) throws Exception {
-        String body = exchange.getIn().getBody(String.class);
-        SendMessageRequest request = new SendMessageRequest(getQueueUrl(), body);
-        request.setMessageAttributes(translateAttributes(exchange.getIn().getHeaders(), exchange));
-        addDelay(request, exchange);
-
-        LOG.trace("Sending request [{}] from exchange [{}]...", request, exchange);
-        
-        SendMessageResult result = getClient().sendMessage(request);
-        
-        LOG.trace("Received result [{}]", result);
-        
-        Message message = getMessageForResponse(exchange);
-        message.setHeader(SqsConstants.MESSAGE_ID, result.getMessageId());
-        message.setHeader(SqsConstants.MD5_OF_BODY, result.getMD5OfMessageBody());
+    @Override
+    public boolean process(Exchange exchange, AsyncCallback callback) {
+        try {
+            String body = exchange.getIn().getBody(String.class);
+            SendMessageRequest request = new SendMessageRequest(getQueueUrl(), body);
+            request.setMessageAttributes(translateAttributes(exchange.getIn().getHeaders(), exchange));
+            addDelay(request, exchange);
+
+            if (getConfiguration().getSendBatchSize() > 0) {
+                addPendingSend(new PendingSend(exchange, callback, request));
+                return false;
+            }
+
+            LOG.trace("Sending request [{}] from exchange [{}]...", request, exchange);
+
+            SendMessageResult result = getClient().sendMessage(request);
+
+            LOG.trace("Received result [{}]", result);
+
+            Message message = getMessageForResponse(exchange);
+            message.setHeader(SqsConstants.MESSAGE_ID, result.getMessageId());
+            message.setHeader(SqsConstants.MD5_OF_BODY, result.getMD5OfMessageBody());
+        } catch (Exception e) {
+            exchange.setException(e);
+        }
+
+        callback.done(true);
+        return true;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        int sendBatchSize = getConfiguration().getSendBatchSize();
+        if (sendBatchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("The sendBatchSize must be at most " + MAX_BATCH_SIZE + ", was: " + sendBatchSize);
+        }
+        long timeout = getConfiguration().getSendBatchTimeout();
+        if (sendBatchSize > 0 && timeout <= 0) {
+            // a batch that is not full would otherwise only be sent when the producer is stopped
+            throw new IllegalArgumentException("The sendBatchTimeout must be a positive value when sendBatchSize is set, was: " + timeout);
+        }
+        if (sendBatchSize > 0) {
+            sendBatchExecutor = getEndpoint().getCamelContext().getExecutorServiceManager().newSingleThreadScheduledExecutor(this, "SqsSendBatch");
+            sendBatchExecutor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    flushPendingSends();
+                }
+            }, timeout, timeout, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (sendBatchExecutor != null) {
+            getEndpoint().getCamelContext().getExecutorServiceManager().shutdownGraceful(sendBatchExecutor);
+            sendBatchExecutor = null;
+        }
+        // send the remaining messages so no exchange is left waiting
+        flushPendingSends();
+        super.doStop();
+    }
+
+    private void addPendingSend(PendingSend send) {
+        List<PendingSend> batch = null;
+        synchronized (pendingSends) {
+            pendingSends.add(send);
+            if (pendingSends.size() >= getConfiguration().getSendBatchSize()) {
+                batch = new ArrayList<PendingSend>(pendingSends);
+                pendingSends.clear();
+            }
+        }
+        if (batch != null) {
+            sendMessages(batch);
+        }
+    }
+
+    private void flushPendingSends() {
+        List<PendingSend> batch;
+        synchronized (pendingSends) {
+            if (pendingSends.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<PendingSend>(pendingSends);
+            pendingSends.clear();
+        }
+        sendMessages(batch);
+    }
+
+    private void sendMessages(List<PendingSend> sends) {
+        List<SendMessageBatchRequestEntry> entries = new ArrayList<SendMessageBatchRequestEntry>(sends.size());
+        for (int i = 0; i < sends.size(); i++) {
+            // the entry id is the index of the exchange so the results can be mapped back
+            SendMessageRequest request = sends.get(i).request;
+            entries.add(new SendMessageBatchRequestEntry(Integer.toString(i), request.getMessageBody())
+                    .withMessageAttributes(request.getMessageAttributes())
+                    .withDelaySeconds(request.getDelaySeconds()));
+        }
+
+        SendMessageBatchResult result;
+        try {
+            LOG.trace("Sending batch of {} messages...", entries.size());
+            result = getClient().sendMessageBatch(new SendMessageBatchRequest(getQueueUrl(), entries));
+        } catch (Exception e) {
+            for (PendingSend send : sends) {
+                send.exchange.setException(e);
+                send.callback.done(false);
+            }
+            return;
+        }
+
+        LOG.trace("Sent batch with {} successful and {} failed messages", result.getSuccessful().size(), result.getFailed().size());
+
+        for (SendMessageBatchResultEntry entry : result.getSuccessful()) {
+            PendingSend send = sends.get(Integer.parseInt(entry.getId()));
+            Message message = getMessageForResponse(send.exchange);
+            message.setHeader(SqsConstants.MESSAGE_ID, entry.getMessageId());
+            message.setHeader(SqsConstants.MD5_OF_BODY, entry.getMD5OfMessageBody());
+            send.callback.done(false);
+        }
+        for (BatchResultErrorEntry error : result.getFailed()) {
+            PendingSend send = sends.get(Integer.parseInt(error.getId()));
+            AmazonServiceException cause = new AmazonServiceException(error.getMessage());
+            cause.setErrorCode(error.getCode());
+            cause.setErrorType(error.isSenderFault() ? AmazonServiceException.ErrorType.Client : AmazonServiceException.ErrorType.Service);
+            send.exchange.setException(cause);
+            send.callback.done(false);
+        }
     }
 
     private void addDelay(SendMessageRequest request, Exchange exchange) {
@@ -82,6 +213,10 @@ public class SqsProducer extends DefaultProducer {
         request.setDelaySeconds(delayValue == null ? Integer.valueOf(0) : delayValue);
     }
     
+    protected SqsConfiguration getConfiguration() {
+        return getEndpoint().getConfiguration();
+    }
+
     protected AmazonSQS getClient() {
         return getEndpoint().getClient();
     }
@@ -128,4 +263,20 @@ public class SqsProducer extends DefaultProducer {
         }
         return result;
     }
+
+    /**
+     * A message waiting in a send batch, which completes its exchange with the outcome of its entry.
+     */
+    private static final class PendingSend {
+
+        private final Exchange exchange;
+        private final AsyncCallback callback;
+        private final SendMessageRequest request;
+
+        PendingSend(Exchange exchange, AsyncCallback callback, SendMessageRequest request) {
+            this.exchange = exchange;
+            this.callback = callback;
+            this.request = request;
+        }
+    }
 }
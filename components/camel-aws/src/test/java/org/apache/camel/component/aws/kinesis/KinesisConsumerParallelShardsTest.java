@@ -0,0 +1,266 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.aws.kinesis;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.amazonaws.services.kinesis.AmazonKinesis;
+import com.amazonaws.services.kinesis.model.DescribeStreamRequest;
+import com.amazonaws.services.kinesis.model.DescribeStreamResult;
+import com.amazonaws.services.kinesis.model.ExpiredIteratorException;
+import com.amazonaws.services.kinesis.model.GetRecordsRequest;
+import com.amazonaws.services.kinesis.model.GetRecordsResult;
+import com.amazonaws.services.kinesis.model.GetShardIteratorRequest;
+import com.amazonaws.services.kinesis.model.GetShardIteratorResult;
+import com.amazonaws.services.kinesis.model.Record;
+import com.amazonaws.services.kinesis.model.SequenceNumberRange;
+import com.amazonaws.services.kinesis.model.Shard;
+import com.amazonaws.services.kinesis.model.ShardIteratorType;
+import com.amazonaws.services.kinesis.model.StreamDescription;
+import org.apache.camel.AsyncCallback;
+import org.apache.camel.AsyncProcessor;
+import org.apache.camel.CamelContext;
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultCamelContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class KinesisConsumerParallelShardsTest {
+
+    @Mock
+    private AmazonKinesis kinesisClient;
+    @Mock
+    private AsyncProcessor processor;
+
+    private final CamelContext context = new DefaultCamelContext();
+    private final KinesisComponent component = new KinesisComponent(context);
+
+    // the result of the next GetRecords request for each shard iterator
+    private final Map<String, Object> records = new ConcurrentHashMap<>();
+
+    private KinesisConsumer undertest;
+
+    @Before
+    public void setup() throws Exception {
+        KinesisEndpoint endpoint = new KinesisEndpoint("aws-kinesis://streamName", "streamName", component);
+        endpoint.setAmazonKinesisClient(kinesisClient);
+        endpoint.setIteratorType(ShardIteratorType.LATEST);
+        endpoint.setMaxResultsPerRequest(10);
+        endpoint.setParallelShards(true);
+        undertest = new KinesisConsumer(endpoint, processor);
+        undertest.setStartScheduler(false);
+
+        describeShards("shard-0", "shard-1");
+        when(kinesisClient.getShardIterator(any(GetShardIteratorRequest.class))).thenAnswer(new Answer<GetShardIteratorResult>() {
+            @Override
+            public GetShardIteratorResult answer(InvocationOnMock invocation) throws Throwable {
+                GetShardIteratorRequest request = (GetShardIteratorRequest) invocation.getArguments()[0];
+                return new GetShardIteratorResult().withShardIterator(request.getShardId() + "-iterator");
+            }
+        });
+        when(kinesisClient.getRecords(any(GetRecordsRequest.class))).thenAnswer(new Answer<GetRecordsResult>() {
+            @Override
+            public GetRecordsResult answer(InvocationOnMock invocation) throws Throwable {
+                String shardIterator = ((GetRecordsRequest) invocation.getArguments()[0]).getShardIterator();
+                Object result = records.remove(shardIterator);
+                if (result instanceof RuntimeException) {
+                    throw (RuntimeException) result;
+                }
+                return result != null ? (GetRecordsResult) result : new GetRecordsResult().withNextShardIterator(shardIterator);
+            }
+        });
+        doAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) throws Throwable {
+                ((AsyncCallback) invocation.getArguments()[1]).done(true);
+                return true;
+            }
+        }).when(processor).process(any(Exchange.class), any(AsyncCallback.class));
+
+        undertest.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        undertest.stop();
+    }
+
+    @Test
+    public void itPollsEveryShardWithItsOwnIterator() throws Exception {
+        records.put("shard-0-iterator", result("shard-0-next", "1", "2"));
+        records.put("shard-1-iterator", result("shard-1-next", "3"));
+
+        assertThat(undertest.poll(), is(3));
+
+        final ArgumentCaptor<GetShardIteratorRequest> getShardIteratorReqCap = ArgumentCaptor.forClass(GetShardIteratorRequest.class);
+        verify(kinesisClient, times(2)).getShardIterator(getShardIteratorReqCap.capture());
+        assertThat(getShardIteratorReqCap.getAllValues().get(0).getShardIteratorType(), is("LATEST"));
+        assertThat(undertest.getCheckpoints().get("shard-0"), is("2"));
+        assertThat(undertest.getCheckpoints().get("shard-1"), is("3"));
+
+        final ArgumentCaptor<Exchange> exchangeCaptor = ArgumentCaptor.forClass(Exchange.class);
+        verify(processor, times(3)).process(exchangeCaptor.capture(), any(AsyncCallback.class));
+
+        // the next poll continues with the next shard iterators
+        records.put("shard-0-next", result("shard-0-next", "4"));
+        assertThat(undertest.poll(), is(1));
+        assertThat(undertest.getCheckpoints().get("shard-0"), is("4"));
+        verify(kinesisClient, times(1)).describeStream(any(DescribeStreamRequest.class));
+    }
+
+    @Test
+    public void itResumesFromTheCheckpointWhenTheIteratorExpires() throws Exception {
+        records.put("shard-0-iterator", result("shard-0-next", "1", "2"));
+        undertest.poll();
+
+        records.put("shard-0-next", new ExpiredIteratorException("expired"));
+        records.put("shard-0-iterator", result("shard-0-next", "3"));
+        assertThat(undertest.poll(), is(1));
+
+        final ArgumentCaptor<GetShardIteratorRequest> getShardIteratorReqCap = ArgumentCaptor.forClass(GetShardIteratorRequest.class);
+        verify(kinesisClient, times(3)).getShardIterator(getShardIteratorReqCap.capture());
+        GetShardIteratorRequest resumed = getShardIteratorReqCap.getAllValues().get(2);
+        assertThat(resumed.getShardId(), is("shard-0"));
+        assertThat(resumed.getShardIteratorType(), is("AFTER_SEQUENCE_NUMBER"));
+        assertThat(resumed.getStartingSequenceNumber(), is("2"));
+    }
+
+    @Test
+    public void itDoesNotCheckpointPastAFailedRecord() throws Exception {
+        doAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) throws Throwable {
+                Exchange exchange = (Exchange) invocation.getArguments()[0];
+                if ("2".equals(exchange.getIn().getHeader(KinesisConstants.SEQUENCE_NUMBER))) {
+                    exchange.setException(new IllegalStateException("Forced"));
+                }
+                ((AsyncCallback) invocation.getArguments()[1]).done(true);
+                return true;
+            }
+        }).when(processor).process(any(Exchange.class), any(AsyncCallback.class));
+
+        records.put("shard-0-iterator", result("shard-0-next", "1", "2", "3"));
+        assertThat(undertest.poll(), is(3));
+        assertThat(undertest.getCheckpoints().get("shard-0"), is("1"));
+
+        // the later records do not move the checkpoint either
+        records.put("shard-0-next", result("shard-0-next", "4"));
+        assertThat(undertest.poll(), is(1));
+        assertThat(undertest.getCheckpoints().get("shard-0"), is("1"));
+
+        // when resumed the failed record is consumed again
+        records.put("shard-0-next", new ExpiredIteratorException("expired"));
+        records.put("shard-0-iterator", result("shard-0-next", "2", "3"));
+        undertest.poll();
+        final ArgumentCaptor<GetShardIteratorRequest> getShardIteratorReqCap = ArgumentCaptor.forClass(GetShardIteratorRequest.class);
+        verify(kinesisClient, times(3)).getShardIterator(getShardIteratorReqCap.capture());
+        assertThat(getShardIteratorReqCap.getAllValues().get(2).getStartingSequenceNumber(), is("1"));
+    }
+
+    @Test
+    public void itReadsTheChildShardsWhenAShardIsClosed() throws Exception {
+        undertest.poll();
+
+        // the shard is split, so its iterator ends and the child shard is listed
+        describeShards("shard-0", "shard-1", "shard-2");
+        records.put("shard-0-iterator", result(null, "1"));
+        assertThat(undertest.poll(), is(1));
+
+        records.put("shard-2-iterator", result("shard-2-next", "2"));
+        assertThat(undertest.poll(), is(1));
+
+        final ArgumentCaptor<GetShardIteratorRequest> getShardIteratorReqCap = ArgumentCaptor.forClass(GetShardIteratorRequest.class);
+        verify(kinesisClient, times(3)).getShardIterator(getShardIteratorReqCap.capture());
+        GetShardIteratorRequest child = getShardIteratorReqCap.getAllValues().get(2);
+        assertThat(child.getShardId(), is("shard-2"));
+        assertThat(child.getShardIteratorType(), is("TRIM_HORIZON"));
+        assertThat(child.getStartingSequenceNumber(), nullValue());
+    }
+
+    @Test
+    public void itReadsAChildShardOnlyWhenItsParentIsClosed() throws Exception {
+        undertest.poll();
+
+        // both shards are split, but only the iterator of shard-0 has ended so far
+        describeShards(closedShard("shard-0", null), closedShard("shard-1", null),
+            new Shard().withShardId("shard-2").withParentShardId("shard-0"),
+            new Shard().withShardId("shard-3").withParentShardId("shard-1"));
+        records.put("shard-0-iterator", result(null, "1"));
+        assertThat(undertest.poll(), is(1));
+
+        records.put("shard-2-iterator", result("shard-2-next", "2"));
+        records.put("shard-3-iterator", result("shard-3-next", "3"));
+        assertThat(undertest.poll(), is(1));
+
+        // shard-3 must not be read while its parent shard-1 is still being read
+        final ArgumentCaptor<GetShardIteratorRequest> getShardIteratorReqCap = ArgumentCaptor.forClass(GetShardIteratorRequest.class);
+        verify(kinesisClient, times(3)).getShardIterator(getShardIteratorReqCap.capture());
+        assertThat(getShardIteratorReqCap.getAllValues().get(2).getShardId(), is("shard-2"));
+
+        // when shard-1 is closed its child is read
+        records.put("shard-1-iterator", result(null));
+        undertest.poll();
+        assertThat(undertest.poll(), is(1));
+        verify(kinesisClient, times(4)).getShardIterator(getShardIteratorReqCap.capture());
+        assertThat(getShardIteratorReqCap.getValue().getShardId(), is("shard-3"));
+    }
+
+    private void describeShards(String... shardIds) {
+        Shard[] shards = new Shard[shardIds.length];
+        for (int i = 0; i < shardIds.length; i++) {
+            shards[i] = new Shard().withShardId(shardIds[i]);
+        }
+        describeShards(shards);
+    }
+
+    private void describeShards(Shard... shards) {
+        StreamDescription description = new StreamDescription().withHasMoreShards(false).withShards(shards);
+        when(kinesisClient.describeStream(any(DescribeStreamRequest.class)))
+            .thenReturn(new DescribeStreamResult().withStreamDescription(description));
+    }
+
+    private static Shard closedShard(String shardId, String parentShardId) {
+        return new Shard().withShardId(shardId).withParentShardId(parentShardId)
+            .withSequenceNumberRange(new SequenceNumberRange().withStartingSequenceNumber("0").withEndingSequenceNumber("100"));
+    }
+
+    private static GetRecordsResult result(String nextShardIterator, String... sequenceNumbers) {
+        GetRecordsResult result = new GetRecordsResult().withNextShardIterator(nextShardIterator);
+        for (String sequenceNumber : sequenceNumbers) {
+            result.withRecords(new Record().withSequenceNumber(sequenceNumber));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.aws.kinesis;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.kinesis.AmazonKinesis;
+import com.amazonaws.services.kinesis.model.PutRecordsRequest;
+import com.amazonaws.services.kinesis.model.PutRecordsRequestEntry;
+import com.amazonaws.services.kinesis.model.PutRecordsResult;
+import com.amazonaws.services.kinesis.model.PutRecordsResultEntry;
+import org.apache.camel.Exchange;
+import org.apache.camel.Producer;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.JndiRegistry;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class KinesisProducerPutRecordsTest extends CamelTestSupport {
+
+    private final AmazonKinesis kinesisClient = mock(AmazonKinesis.class);
+    private final List<String> putRecords = new ArrayList<>();
+
+    @Test
+    public void itPutsTheRecordsInBatchesAndRetriesTheFailedRecords() throws Exception {
+        when(kinesisClient.putRecords(any(PutRecordsRequest.class))).thenAnswer(new Answer<PutRecordsResult>() {
+            @Override
+            public PutRecordsResult answer(InvocationOnMock invocation) throws Throwable {
+                PutRecordsRequest request = (PutRecordsRequest) invocation.getArguments()[0];
+                PutRecordsResult result = new PutRecordsResult();
+                int failed = 0;
+                for (PutRecordsRequestEntry entry : request.getRecords()) {
+                    String body = new String(entry.getData().array());
+                    // the record is throttled the first time it is put
+                    if (body.equals("Throttled") && !putRecords.contains(body)) {
+                        result.withRecords(new PutRecordsResultEntry().withErrorCode("ProvisionedThroughputExceededException"));
+                        failed++;
+                    } else {
+                        result.withRecords(new PutRecordsResultEntry().withSequenceNumber("seq-" + body).withShardId("shard-0"));
+                    }
+                    putRecords.add(body);
+                }
+                return result.withFailedRecordCount(failed);
+            }
+        });
+
+        List<Future<Exchange>> replies = new ArrayList<>();
+        replies.add(send("A"));
+        replies.add(send("Throttled"));
+        replies.add(send("B"));
+        replies.add(send("C"));
+
+        for (Future<Exchange> reply : replies) {
+            assertNull(reply.get().getException());
+        }
+        assertEquals("seq-Throttled", replies.get(1).get().getIn().getHeader(KinesisConstants.SEQUENCE_NUMBER));
+        assertEquals("shard-0", replies.get(3).get().getIn().getHeader(KinesisConstants.SHARD_ID));
+
+        // a full batch of 3 with one failed record retried on its own, and the last record sent after the timeout
+        ArgumentCaptor<PutRecordsRequest> capture = ArgumentCaptor.forClass(PutRecordsRequest.class);
+        verify(kinesisClient, times(3)).putRecords(capture.capture());
+        assertEquals(3, capture.getAllValues().get(0).getRecords().size());
+        assertEquals(1, capture.getAllValues().get(1).getRecords().size());
+        assertEquals("streamName", capture.getAllValues().get(1).getStreamName());
+        assertEquals(1, capture.getAllValues().get(2).getRecords().size());
+    }
+
+    @Test
+    public void itFailsTheRecordWhenTheRetriesAreExhausted() throws Exception {
+        when(kinesisClient.putRecords(any(PutRecordsRequest.class))).thenAnswer(new Answer<PutRecordsResult>() {
+            @Override
+            public PutRecordsResult answer(InvocationOnMock invocation) throws Throwable {
+                PutRecordsRequest request = (PutRecordsRequest) invocation.getArguments()[0];
+                PutRecordsResult result = new PutRecordsResult();
+                for (PutRecordsRequestEntry entry : request.getRecords()) {
+                    result.withRecords(new PutRecordsResultEntry().withErrorCode("InternalFailure").withErrorMessage("Forced"));
+                }
+                return result;
+            }
+        });
+
+        Exchange exchange = send("A").get();
+
+        AmazonServiceException cause = assertIsInstanceOf(AmazonServiceException.class, exchange.getException());
+        assertEquals("InternalFailure", cause.getErrorCode());
+        // the first attempt and 2 retries
+        verify(kinesisClient, times(3)).putRecords(any(PutRecordsRequest.class));
+    }
+
+    @Test
+    public void itRejectsABatchSizeWithoutABatchTimeout() throws Exception {
+        Producer producer = context.getEndpoint("aws-kinesis://streamName?amazonKinesisClient=#kinesisClient"
+            + "&putRecordsBatchSize=3&putRecordsBatchTimeout=0").createProducer();
+        try {
+            producer.start();
+            fail("Should have thrown an exception");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("The putRecordsBatchTimeout must be a positive value"));
+        }
+    }
+
+    private Future<Exchange> send(String body) {
+        Exchange exchange = createExchangeWithBody(body.getBytes());
+        exchange.getIn().setHeader(KinesisConstants.PARTITION_KEY, "partition");
+        return template.asyncSend("direct:start", exchange);
+    }
+
+    @Override
+    protected JndiRegistry createRegistry() throws Exception {
+        JndiRegistry registry = super.createRegistry();
+        registry.bind("kinesisClient", kinesisClient);
+        return registry;
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .to("aws-kinesis://streamName?amazonKinesisClient=#kinesisClient"
+                        + "&putRecordsBatchSize=3&putRecordsBatchTimeout=300&putRecordsMaxRetries=2");
+            }
+        };
+    }
+}
@@ -83,6 +83,9 @@ public class AmazonS3ClientMock extends AmazonS3Client {
     
     List<S3Object> objects = new CopyOnWriteArrayList<S3Object>();
     List<PutObjectRequest> putObjectRequests = new CopyOnWriteArrayList<PutObjectRequest>();
+    List<UploadPartRequest> uploadPartRequests = new CopyOnWriteArrayList<UploadPartRequest>();
+    List<CompleteMultipartUploadRequest> completeMultipartUploadRequests = new CopyOnWriteArrayList<CompleteMultipartUploadRequest>();
+    List<AbortMultipartUploadRequest> abortMultipartUploadRequests = new CopyOnWriteArrayList<AbortMultipartUploadRequest>();
     
     private boolean nonExistingBucketCreated;
     
@@ -142,6 +145,7 @@ public class AmazonS3ClientMock extends AmazonS3Client {
             S3ObjectSummary s3ObjectSummary = new S3ObjectSummary();
             s3ObjectSummary.setBucketName(objects.get(index).getBucketName());
             s3ObjectSummary.setKey(objects.get(index).getKey());
+            s3ObjectSummary.setSize(objects.get(index).getObjectMetadata().getContentLength());
             
             objectListing.getObjectSummaries().add(s3ObjectSummary);
         }
@@ -426,17 +430,25 @@ public class AmazonS3ClientMock extends AmazonS3Client {
 
     @Override
     public void abortMultipartUpload(AbortMultipartUploadRequest abortMultipartUploadRequest) throws AmazonClientException, AmazonServiceException {
-        throw new UnsupportedOperationException();
+        abortMultipartUploadRequests.add(abortMultipartUploadRequest);
     }
 
     @Override
     public CompleteMultipartUploadResult completeMultipartUpload(CompleteMultipartUploadRequest completeMultipartUploadRequest) throws AmazonClientException, AmazonServiceException {
-        throw new UnsupportedOperationException();
+        completeMultipartUploadRequests.add(completeMultipartUploadRequest);
+
+        CompleteMultipartUploadResult completeMultipartUploadResult = new CompleteMultipartUploadResult();
+        completeMultipartUploadResult.setETag("3a5c8b1ad448bca04584ecb55b836264");
+        return completeMultipartUploadResult;
     }
 
     @Override
     public InitiateMultipartUploadResult initiateMultipartUpload(InitiateMultipartUploadRequest initiateMultipartUploadRequest) throws AmazonClientException, AmazonServiceException {
-        throw new UnsupportedOperationException();
+        InitiateMultipartUploadResult initiateMultipartUploadResult = new InitiateMultipartUploadResult();
+        initiateMultipartUploadResult.setBucketName(initiateMultipartUploadRequest.getBucketName());
+        initiateMultipartUploadResult.setKey(initiateMultipartUploadRequest.getKey());
+        initiateMultipartUploadResult.setUploadId("myUploadId");
+        return initiateMultipartUploadResult;
     }
 
     @Override
@@ -451,7 +463,12 @@ public class AmazonS3ClientMock extends AmazonS3Client {
 
     @Override
     public UploadPartResult uploadPart(UploadPartRequest uploadPartRequest) throws AmazonClientException, AmazonServiceException {
-        throw new UnsupportedOperationException();
+        uploadPartRequests.add(uploadPartRequest);
+
+        UploadPartResult uploadPartResult = new UploadPartResult();
+        uploadPartResult.setPartNumber(uploadPartRequest.getPartNumber());
+        uploadPartResult.setETag("etag-" + uploadPartRequest.getPartNumber());
+        return uploadPartResult;
     }
 
     @Override
@@ -0,0 +1,164 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.aws.s3;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3Object;
+
+import org.apache.camel.EndpointInject;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.impl.JndiRegistry;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.Test;
+
+public class S3ConsumerRangedDownloadTest extends CamelTestSupport {
+
+    private static final int PART_SIZE = 1024;
+
+    @EndpointInject(uri = "mock:result")
+    private MockEndpoint result;
+
+    private final List<long[]> ranges = new CopyOnWriteArrayList<long[]>();
+    private final List<File> bodyFiles = new CopyOnWriteArrayList<File>();
+
+    private byte[] content;
+
+    @Test
+    public void testDownloadLargeObjectInRanges() throws Exception {
+        result.expectedMessageCount(2);
+
+        assertMockEndpointsSatisfied();
+
+        Exchange large = result.getExchanges().get(0);
+        assertEquals("large", large.getIn().getHeader(S3Constants.KEY));
+        assertEquals((long) content.length, large.getIn().getHeader(S3Constants.CONTENT_LENGTH));
+        assertEquals("myETag", large.getIn().getHeader(S3Constants.E_TAG));
+        assertTrue(Arrays.equals(content, large.getIn().getBody(byte[].class)));
+
+        // 7 full ranges and the remainder
+        assertEquals(8, ranges.size());
+        for (long[] range : ranges) {
+            assertEquals(0, range[0] % PART_SIZE);
+            assertEquals(Math.min(range[0] + PART_SIZE, content.length) - 1, range[1]);
+        }
+
+        // the small object is not split into ranges
+        Exchange small = result.getExchanges().get(1);
+        assertEquals("small", small.getIn().getHeader(S3Constants.KEY));
+        assertEquals("Hello World", small.getIn().getBody(String.class));
+
+        // the temporary file is deleted when the exchange is done
+        assertEquals(1, bodyFiles.size());
+        assertFalse(bodyFiles.get(0).exists());
+    }
+
+    @Override
+    protected JndiRegistry createRegistry() throws Exception {
+        JndiRegistry registry = super.createRegistry();
+
+        content = new byte[PART_SIZE * 7 + 100];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+
+        AmazonS3ClientMock client = new AmazonS3ClientMock() {
+            @Override
+            public ObjectMetadata getObjectMetadata(String bucketName, String key) throws AmazonClientException, AmazonServiceException {
+                return getObject(bucketName, key).getObjectMetadata();
+            }
+
+            @Override
+            public S3Object getObject(GetObjectRequest getObjectRequest) throws AmazonClientException, AmazonServiceException {
+                long[] range = getObjectRequest.getRange();
+                if (range == null) {
+                    return super.getObject(getObjectRequest);
+                }
+                assertEquals("large", getObjectRequest.getKey());
+                assertEquals(Arrays.asList("myETag"), getObjectRequest.getMatchingETagConstraints());
+                ranges.add(range);
+
+                S3Object s3Object = new S3Object();
+                s3Object.setObjectContent(new ByteArrayInputStream(content, (int) range[0], (int) (range[1] - range[0] + 1)));
+                return s3Object;
+            }
+
+            @Override
+            public void deleteObject(String bucketName, String key) throws AmazonClientException, AmazonServiceException {
+                objects.remove(getObject(bucketName, key));
+            }
+        };
+        client.objects.add(createObject("large", content));
+        client.objects.add(createObject("small", "Hello World".getBytes()));
+        registry.bind("amazonS3Client", client);
+
+        return registry;
+    }
+
+    private static File[] tempFiles() {
+        return new File(System.getProperty("java.io.tmpdir")).listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.startsWith("camel-s3-");
+            }
+        });
+    }
+
+    private static S3Object createObject(String key, byte[] data) {
+        S3Object s3Object = new S3Object();
+        s3Object.setBucketName("mycamelbucket");
+        s3Object.setKey(key);
+        s3Object.getObjectMetadata().setContentLength(data.length);
+        s3Object.getObjectMetadata().setHeader("ETag", "myETag");
+        s3Object.setObjectContent(new ByteArrayInputStream(data));
+        return s3Object;
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("aws-s3://mycamelbucket?amazonS3Client=#amazonS3Client&partSize=" + PART_SIZE
+                        + "&rangedDownloadConcurrency=4&delay=50&maxMessagesPerPoll=5")
+                    .process(new Processor() {
+                        @Override
+                        public void process(Exchange exchange) throws Exception {
+                            // keep the body in memory as the backing file is deleted after the exchange
+                            if ("large".equals(exchange.getIn().getHeader(S3Constants.KEY))) {
+                                bodyFiles.addAll(Arrays.asList(tempFiles()));
+                            }
+                            exchange.getIn().setBody(exchange.getIn().getBody(byte[].class));
+                        }
+                    })
+                    .to("mock:result");
+            }
+        };
+    }
+}
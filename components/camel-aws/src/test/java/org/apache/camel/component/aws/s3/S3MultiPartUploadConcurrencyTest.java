@@ -0,0 +1,163 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.aws.s3;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+
+import org.apache.camel.CamelExecutionException;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.JndiRegistry;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.apache.camel.util.FileUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class S3MultiPartUploadConcurrencyTest extends CamelTestSupport {
+
+    private static final int PART_SIZE = 1024;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private volatile int failingPart;
+
+    private AmazonS3ClientMock client;
+    private File testFile;
+    private byte[] content;
+
+    @Before
+    public void setup() throws Exception {
+        content = new byte[PART_SIZE * 7 + 100];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+
+        testFile = FileUtil.createTempFile("test", "file");
+        FileOutputStream fos = new FileOutputStream(testFile);
+        fos.write(content);
+        fos.close();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        super.tearDown();
+
+        FileUtil.deleteFile(testFile);
+    }
+
+    @Test
+    public void testUploadPartsInParallel() throws Exception {
+        template.sendBodyAndHeader("direct:start", testFile, S3Constants.KEY, "CamelUnitTest");
+
+        assertEquals(8, client.uploadPartRequests.size());
+        assertTrue("The parts should be uploaded concurrently", maxActive.get() > 1);
+        assertTrue(maxActive.get() <= 4);
+
+        // the parts must be completed in part order, whatever order they were uploaded in
+        CompleteMultipartUploadRequest completeRequest = client.completeMultipartUploadRequests.get(0);
+        List<PartETag> partETags = completeRequest.getPartETags();
+        assertEquals(8, partETags.size());
+        for (int i = 0; i < partETags.size(); i++) {
+            assertEquals(i + 1, partETags.get(i).getPartNumber());
+            assertEquals("etag-" + (i + 1), partETags.get(i).getETag());
+        }
+        assertEquals(0, client.abortMultipartUploadRequests.size());
+    }
+
+    @Test
+    public void testAbortWhenPartFails() throws Exception {
+        failingPart = 3;
+        try {
+            template.sendBodyAndHeader("direct:start", testFile, S3Constants.KEY, "CamelUnitTest");
+            fail("Should have thrown an exception");
+        } catch (CamelExecutionException e) {
+            assertIsInstanceOf(AmazonServiceException.class, e.getCause());
+        }
+
+        assertEquals(1, client.abortMultipartUploadRequests.size());
+        assertEquals(0, client.completeMultipartUploadRequests.size());
+    }
+
+    @Override
+    protected JndiRegistry createRegistry() throws Exception {
+        JndiRegistry registry = super.createRegistry();
+
+        client = new AmazonS3ClientMock() {
+            @Override
+            public UploadPartResult uploadPart(UploadPartRequest uploadPartRequest) throws AmazonClientException, AmazonServiceException {
+                int current = active.incrementAndGet();
+                try {
+                    maxActive.set(Math.max(maxActive.get(), current));
+                    if (uploadPartRequest.getPartNumber() == failingPart) {
+                        throw new AmazonServiceException("Forced");
+                    }
+                    assertPartContent(uploadPartRequest);
+                    Thread.sleep(50);
+                    return super.uploadPart(uploadPartRequest);
+                } catch (InterruptedException e) {
+                    throw new AmazonClientException(e);
+                } finally {
+                    active.decrementAndGet();
+                }
+            }
+        };
+        registry.bind("amazonS3Client", client);
+
+        return registry;
+    }
+
+    private void assertPartContent(UploadPartRequest uploadPartRequest) {
+        byte[] part = new byte[(int) uploadPartRequest.getPartSize()];
+        try {
+            RandomAccessFile raf = new RandomAccessFile(uploadPartRequest.getFile(), "r");
+            try {
+                raf.seek(uploadPartRequest.getFileOffset());
+                raf.readFully(part);
+            } finally {
+                raf.close();
+            }
+        } catch (Exception e) {
+            throw new AmazonClientException(e);
+        }
+        int offset = (int) uploadPartRequest.getFileOffset();
+        assertTrue(Arrays.equals(Arrays.copyOfRange(content, offset, offset + part.length), part));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .to("aws-s3://mycamelbucket?amazonS3Client=#amazonS3Client&multiPartUpload=true"
+                        + "&partSize=" + PART_SIZE + "&multiPartUploadConcurrency=4");
+            }
+        };
+    }
+}
@@ -36,12 +36,20 @@ import com.amazonaws.services.sqs.model.ChangeMessageVisibilityRequest;
 import com.amazonaws.services.sqs.model.ChangeMessageVisibilityResult;
 import com.amazonaws.services.sqs.model.CreateQueueRequest;
 import com.amazonaws.services.sqs.model.CreateQueueResult;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResult;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchResultEntry;
 import com.amazonaws.services.sqs.model.DeleteMessageRequest;
 import com.amazonaws.services.sqs.model.DeleteMessageResult;
 import com.amazonaws.services.sqs.model.ListQueuesResult;
 import com.amazonaws.services.sqs.model.Message;
 import com.amazonaws.services.sqs.model.ReceiveMessageRequest;
 import com.amazonaws.services.sqs.model.ReceiveMessageResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+import com.amazonaws.services.sqs.model.SendMessageBatchResultEntry;
 import com.amazonaws.services.sqs.model.SendMessageRequest;
 import com.amazonaws.services.sqs.model.SendMessageResult;
 import com.amazonaws.services.sqs.model.SetQueueAttributesRequest;
@@ -52,6 +60,9 @@ public class AmazonSQSClientMock extends AmazonSQSClient {
     List<Message> messages = new ArrayList<Message>();
     Map<String, Map<String, String>> queueAttributes = new HashMap<String, Map<String, String>>();
     List<ChangeMessageVisibilityRequest> changeMessageVisibilityRequests = new CopyOnWriteArrayList<ChangeMessageVisibilityRequest>();
+    List<DeleteMessageRequest> deleteMessageRequests = new CopyOnWriteArrayList<DeleteMessageRequest>();
+    List<DeleteMessageBatchRequest> deleteMessageBatchRequests = new CopyOnWriteArrayList<DeleteMessageBatchRequest>();
+    List<SendMessageBatchRequest> sendMessageBatchRequests = new CopyOnWriteArrayList<SendMessageBatchRequest>();
     private Map<String, CreateQueueRequest> queues = new LinkedHashMap<String, CreateQueueRequest>();
     private Map<String, ScheduledFuture> inFlight = new LinkedHashMap<String, ScheduledFuture>();
     private ScheduledExecutorService scheduler;
@@ -94,6 +105,21 @@ public class AmazonSQSClientMock extends AmazonSQSClient {
         return result;
     }
 
+    @Override
+    public SendMessageBatchResult sendMessageBatch(SendMessageBatchRequest sendMessageBatchRequest) throws AmazonServiceException, AmazonClientException {
+        sendMessageBatchRequests.add(sendMessageBatchRequest);
+
+        SendMessageBatchResult result = new SendMessageBatchResult();
+        for (SendMessageBatchRequestEntry entry : sendMessageBatchRequest.getEntries()) {
+            SendMessageResult sendMessageResult = sendMessage(new SendMessageRequest(sendMessageBatchRequest.getQueueUrl(), entry.getMessageBody()));
+            result.getSuccessful().add(new SendMessageBatchResultEntry()
+                    .withId(entry.getId())
+                    .withMessageId(sendMessageResult.getMessageId())
+                    .withMD5OfMessageBody(sendMessageResult.getMD5OfMessageBody()));
+        }
+        return result;
+    }
+
     @Override
     public ReceiveMessageResult receiveMessage(ReceiveMessageRequest receiveMessageRequest) throws AmazonServiceException, AmazonClientException {
         Integer maxNumberOfMessages = receiveMessageRequest.getMaxNumberOfMessages() != null ? receiveMessageRequest.getMaxNumberOfMessages() : Integer.MAX_VALUE;
@@ -155,6 +181,7 @@ public class AmazonSQSClientMock extends AmazonSQSClient {
 
     @Override
     public DeleteMessageResult deleteMessage(DeleteMessageRequest deleteMessageRequest) throws AmazonClientException {
+        deleteMessageRequests.add(deleteMessageRequest);
         String receiptHandle = deleteMessageRequest.getReceiptHandle();
         if (inFlight.containsKey(receiptHandle)) {
             ScheduledFuture inFlightTask = inFlight.get(receiptHandle);
@@ -163,6 +190,21 @@ public class AmazonSQSClientMock extends AmazonSQSClient {
         return new DeleteMessageResult();
     }
 
+    @Override
+    public DeleteMessageBatchResult deleteMessageBatch(DeleteMessageBatchRequest deleteMessageBatchRequest) throws AmazonClientException {
+        deleteMessageBatchRequests.add(deleteMessageBatchRequest);
+
+        DeleteMessageBatchResult result = new DeleteMessageBatchResult();
+        for (DeleteMessageBatchRequestEntry entry : deleteMessageBatchRequest.getEntries()) {
+            ScheduledFuture inFlightTask = inFlight.get(entry.getReceiptHandle());
+            if (inFlightTask != null) {
+                inFlightTask.cancel(true);
+            }
+            result.getSuccessful().add(new DeleteMessageBatchResultEntry().withId(entry.getId()));
+        }
+        return result;
+    }
+
     @Override
     public SetQueueAttributesResult setQueueAttributes(SetQueueAttributesRequest setQueueAttributesRequest) throws AmazonServiceException, AmazonClientException {
         synchronized (queueAttributes) {
@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.aws.sqs;
+
+import java.util.List;
+
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequest;
+import com.amazonaws.services.sqs.model.DeleteMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.Message;
+
+import org.apache.camel.EndpointInject;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.impl.JndiRegistry;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.Test;
+
+public class SqsConsumerBatchDeleteTest extends CamelTestSupport {
+
+    @EndpointInject(uri = "mock:result")
+    private MockEndpoint mock;
+
+    private AmazonSQSClientMock clientMock;
+
+    @Test
+    public void deleteInBatches() throws Exception {
+        mock.expectedMessageCount(13);
+        assertMockEndpointsSatisfied();
+
+        // wait for the pending deletes of the last poll to be flushed
+        for (int i = 0; i < 50 && countDeleted() < 13; i++) {
+            Thread.sleep(100);
+        }
+
+        assertEquals(0, clientMock.deleteMessageRequests.size());
+        assertEquals(13, countDeleted());
+
+        List<DeleteMessageBatchRequest> batches = clientMock.deleteMessageBatchRequests;
+        assertEquals(10, batches.get(0).getEntries().size());
+        assertEquals(3, batches.get(1).getEntries().size());
+
+        DeleteMessageBatchRequestEntry entry = batches.get(1).getEntries().get(2);
+        assertEquals("2", entry.getId());
+        assertEquals("receipt-12", entry.getReceiptHandle());
+    }
+
+    private int countDeleted() {
+        int count = 0;
+        for (DeleteMessageBatchRequest batch : clientMock.deleteMessageBatchRequests) {
+            count += batch.getEntries().size();
+        }
+        return count;
+    }
+
+    @Override
+    protected JndiRegistry createRegistry() throws Exception {
+        JndiRegistry registry = super.createRegistry();
+
+        clientMock = new AmazonSQSClientMock();
+        for (int counter = 0; counter < 13; counter++) {
+            Message message = new Message();
+            message.setBody("Message " + counter);
+            message.setMD5OfBody("6a1559560f67c5e7a7d5d838bf0272ee");
+            message.setMessageId("f6fb6f99-5eb2-4be4-9b15-144774141458");
+            message.setReceiptHandle("receipt-" + counter);
+
+            clientMock.messages.add(message);
+        }
+
+        registry.bind("amazonSQSClient", clientMock);
+
+        return registry;
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("aws-sqs://MyQueue?amazonSQSClient=#amazonSQSClient&batchDelete=true&maxMessagesPerPoll=20")
+                    .to("mock:result");
+            }
+        };
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.aws.sqs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.sqs.model.BatchResultErrorEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequest;
+import com.amazonaws.services.sqs.model.SendMessageBatchRequestEntry;
+import com.amazonaws.services.sqs.model.SendMessageBatchResult;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Producer;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.impl.JndiRegistry;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.Test;
+
+public class SqsProducerBatchSendTest extends CamelTestSupport {
+
+    private AmazonSQSClientMock clientMock;
+
+    @Test
+    public void sendInBatches() throws Exception {
+        List<Future<Exchange>> replies = new ArrayList<Future<Exchange>>();
+        for (int i = 0; i < 7; i++) {
+            replies.add(template.asyncSend("direct:start", createExchangeWithBody("Message " + i)));
+        }
+
+        for (Future<Exchange> reply : replies) {
+            Exchange exchange = reply.get();
+            assertNull(exchange.getException());
+            assertEquals("f6fb6f99-5eb2-4be4-9b15-144774141458", exchange.getIn().getHeader(SqsConstants.MESSAGE_ID));
+        }
+
+        // a full batch of 5, and the remaining 2 sent after the timeout
+        List<SendMessageBatchRequest> batches = clientMock.sendMessageBatchRequests;
+        assertEquals(2, batches.size());
+        assertEquals(5, batches.get(0).getEntries().size());
+        assertEquals(2, batches.get(1).getEntries().size());
+        assertEquals(7, clientMock.messages.size());
+    }
+
+    @Test
+    public void failedEntryFailsItsExchange() throws Exception {
+        List<Future<Exchange>> replies = new ArrayList<Future<Exchange>>();
+        for (int i = 0; i < 5; i++) {
+            replies.add(template.asyncSend("direct:start", createExchangeWithBody(i == 3 ? "Fail" : "Message " + i)));
+        }
+
+        for (int i = 0; i < replies.size(); i++) {
+            Exchange exchange = replies.get(i).get();
+            if (i == 3) {
+                AmazonServiceException cause = assertIsInstanceOf(AmazonServiceException.class, exchange.getException());
+                assertEquals("InvalidMessageContents", cause.getErrorCode());
+            } else {
+                assertNull(exchange.getException());
+            }
+        }
+        assertEquals(4, clientMock.messages.size());
+    }
+
+    @Test
+    public void sendBatchSizeRequiresTimeout() throws Exception {
+        Producer producer = context.getEndpoint("aws-sqs://MyQueue?amazonSQSClient=#amazonSQSClient&sendBatchSize=5&sendBatchTimeout=0").createProducer();
+        try {
+            producer.start();
+            fail("Should have thrown an exception");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().startsWith("The sendBatchTimeout must be a positive value"));
+        }
+    }
+
+    @Override
+    protected JndiRegistry createRegistry() throws Exception {
+        JndiRegistry registry = super.createRegistry();
+
+        clientMock = new AmazonSQSClientMock() {
+            @Override
+            public SendMessageBatchResult sendMessageBatch(SendMessageBatchRequest sendMessageBatchRequest) throws AmazonServiceException, AmazonClientException {
+                List<SendMessageBatchRequestEntry> entries = new ArrayList<SendMessageBatchRequestEntry>();
+                List<BatchResultErrorEntry> failed = new ArrayList<BatchResultErrorEntry>();
+                for (SendMessageBatchRequestEntry entry : sendMessageBatchRequest.getEntries()) {
+                    if ("Fail".equals(entry.getMessageBody())) {
+                        failed.add(new BatchResultErrorEntry().withId(entry.getId()).withCode("InvalidMessageContents").withSenderFault(true));
+                    } else {
+                        entries.add(entry);
+                    }
+                }
+                SendMessageBatchResult result = super.sendMessageBatch(new SendMessageBatchRequest(sendMessageBatchRequest.getQueueUrl(), entries));
+                result.getFailed().addAll(failed);
+                return result;
+            }
+        };
+        registry.bind("amazonSQSClient", clientMock);
+
+        return registry;
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .to("aws-sqs://MyQueue?amazonSQSClient=#amazonSQSClient&sendBatchSize=5&sendBatchTimeout=500");
+            }
+        };
+    }
+}
@@ -0,0 +1,308 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.dataformat.bindy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.Map;
+
+import org.apache.camel.dataformat.bindy.annotation.BindyConverter;
+import org.apache.camel.dataformat.bindy.annotation.DataField;
+import org.apache.camel.dataformat.bindy.format.FormatException;
+import org.apache.camel.dataformat.bindy.util.ConverterUtils;
+
+/**
+ * The BindyFixedLengthBinder binds the data of fixed length records to the POJOs, and exports the data of the POJOs
+ * to fixed length records, for the model of a {@link BindyFixedLengthFactory}.
+ * <p/>
+ * The fields of the model are compiled once by the factory into method handles, and the binder creates the
+ * format of each field only once instead of for each record. As the formats are not thread safe, a binder must
+ * only be used by a single thread at a time.
+ */
+public class BindyFixedLengthBinder {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final BindyFixedLengthFactory factory;
+    private final CompiledField[] fields;
+    private final Format<?>[] formats;
+    private final int numberMandatoryFields;
+    private final int totalFields;
+
+    BindyFixedLengthBinder(BindyFixedLengthFactory factory, CompiledField[] fields, FormatFactory formatFactory,
+                           int numberMandatoryFields, int totalFields) throws Exception {
+        this.factory = factory;
+        this.fields = fields;
+        this.numberMandatoryFields = numberMandatoryFields;
+        this.totalFields = totalFields;
+        this.formats = new Format<?>[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            formats[i] = formatFactory.getFormat(fields[i].formattingOptions);
+        }
+    }
+
+    /**
+     * Compiles the given annotated fields, sorted by their position, into method handles
+     *
+     * @param annotatedFields the annotated fields sorted by their position
+     * @param locale          the locale used to format the fields
+     * @return the compiled fields
+     */
+    static CompiledField[] compile(Collection<Field> annotatedFields, String locale) throws IllegalAccessException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        CompiledField[] answer = new CompiledField[annotatedFields.size()];
+        int i = 0;
+        for (Field field : annotatedFields) {
+            field.setAccessible(true);
+            DataField dataField = field.getAnnotation(DataField.class);
+            answer[i++] = new CompiledField(field, dataField,
+                    lookup.unreflectGetter(field).asType(GETTER_TYPE),
+                    lookup.unreflectSetter(field).asType(SETTER_TYPE),
+                    ConverterUtils.convert(dataField, field.getType(), field.getAnnotation(BindyConverter.class), locale));
+        }
+        // resolve the fields holding the length of the other fields
+        for (CompiledField compiled : answer) {
+            if (compiled.dataField.lengthPos() != 0) {
+                for (int j = 0; j < answer.length; j++) {
+                    if (answer[j].dataField.pos() == compiled.dataField.lengthPos()) {
+                        compiled.lengthIndex = j;
+                    }
+                }
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Binds the data of the fixed length record to the model
+     *
+     * @param record the fixed length record
+     * @param model  the POJOs of the model
+     * @param line   the line number of the record
+     */
+    public void bind(String record, Map<String, Object> model, int line) throws Exception {
+        int pos = 1;
+        int counterMandatoryFields = 0;
+        int offset = 1;
+
+        for (int i = 0; i < fields.length; i++) {
+            CompiledField compiled = fields[i];
+            DataField dataField = compiled.dataField;
+            int length = dataField.length();
+            String delimiter = dataField.delimiter();
+            String token;
+
+            if (length == 0 && dataField.lengthPos() != 0) {
+                if (compiled.lengthIndex < 0) {
+                    throw new IllegalArgumentException("No field is defined at the length position of the field : " + dataField.toString());
+                }
+                CompiledField lengthField = fields[compiled.lengthIndex];
+                Object lengthObj;
+                try {
+                    lengthObj = lengthField.getter.invokeExact(model.get(lengthField.className));
+                } catch (Throwable t) {
+                    throw wrap(t);
+                }
+                length = ((Integer) lengthObj).intValue();
+            }
+
+            // skip ahead if the expected position is greater than the offset
+            if (dataField.pos() > offset) {
+                offset = dataField.pos();
+            }
+
+            if (length > 0) {
+                token = record.substring(offset - 1, offset + length - 1);
+                offset += length;
+            } else if (!delimiter.equals("")) {
+                token = record.substring(offset - 1, record.indexOf(delimiter, offset - 1));
+                // include the delimiter in the offset calculation
+                offset += token.length() + 1;
+            } else {
+                // defined as a zero-length field
+                token = "";
+            }
+
+            if (dataField.trim()) {
+                token = token.trim();
+            }
+
+            if (dataField.required()) {
+                ++counterMandatoryFields;
+                if (token.equals("")) {
+                    throw new IllegalArgumentException("The mandatory field defined at the position " + pos
+                                                       + " is empty for the line: " + line);
+                }
+            }
+
+            Object value;
+            if (!token.equals("")) {
+                try {
+                    value = formats[i].parse(token);
+                } catch (FormatException ie) {
+                    throw new IllegalArgumentException(ie.getMessage() + ", position: " + offset + ", line: " + line, ie);
+                } catch (Exception e) {
+                    throw new IllegalArgumentException("Parsing error detected for field defined at the position/offset: " + offset + ", line: " + line, e);
+                }
+            } else {
+                value = BindyAbstractFactory.getDefaultValueForPrimitive(compiled.type);
+            }
+
+            try {
+                compiled.setter.invokeExact(model.get(compiled.className), value);
+            } catch (Throwable t) {
+                throw wrap(t);
+            }
+
+            ++pos;
+        }
+
+        // check for unmapped non-whitespace data at the end of the line
+        if (offset <= record.length() && !(record.substring(offset - 1, record.length())).trim().equals("") && !factory.isIgnoreTrailingChars()) {
+            throw new IllegalArgumentException("Unexpected / unmapped characters found at the end of the fixed-length record at line : " + line);
+        }
+
+        if (pos < totalFields) {
+            throw new IllegalArgumentException("Some fields are missing (optional or mandatory), line: " + line);
+        }
+
+        if (counterMandatoryFields < numberMandatoryFields) {
+            throw new IllegalArgumentException("Some mandatory fields are missing, line: " + line);
+        }
+    }
+
+    /**
+     * Exports the data of the model to a fixed length record
+     *
+     * @param model the POJOs of the model
+     * @return the fixed length record
+     */
+    public String unbind(Map<String, Object> model) throws Exception {
+        StringBuilder buffer = new StringBuilder();
+        String[] results = new String[fields.length];
+
+        for (int i = 0; i < fields.length; i++) {
+            CompiledField compiled = fields[i];
+            Object obj = model.get(compiled.className);
+            if (obj == null) {
+                continue;
+            }
+            DataField dataField = compiled.dataField;
+
+            Object value;
+            try {
+                value = compiled.getter.invokeExact(obj);
+            } catch (Throwable t) {
+                throw wrap(t);
+            }
+
+            String result = factory.formatString(formats[i], value);
+
+            // trim if enabled
+            if (dataField.trim()) {
+                result = result.trim();
+            }
+
+            int fieldLength = dataField.length();
+            if (fieldLength == 0 && dataField.lengthPos() > 0 && compiled.lengthIndex >= 0) {
+                fieldLength = Integer.valueOf(results[compiled.lengthIndex]);
+            }
+
+            if (fieldLength <= 0 && dataField.delimiter().equals("") && dataField.lengthPos() == 0) {
+                throw new IllegalArgumentException("Either a delimiter value or length for the field: "
+                        + compiled.name + " is mandatory.");
+            }
+
+            if (!dataField.delimiter().equals("")) {
+                result = result + dataField.delimiter();
+            } else if (result.length() < fieldLength) {
+                // No padding defined for the field so we use the padding defined for the Record
+                char padChar = dataField.paddingChar() == 0 ? factory.paddingchar() : dataField.paddingChar();
+                String align = dataField.align();
+                StringBuilder temp = new StringBuilder(fieldLength);
+                if (align.contains("R")) {
+                    pad(temp, padChar, fieldLength - result.length());
+                    temp.append(result);
+                } else if (align.contains("L")) {
+                    temp.append(result);
+                    pad(temp, padChar, fieldLength - result.length());
+                } else {
+                    throw new IllegalArgumentException("Alignment for the field: " + compiled.name
+                            + " must be equal to R for RIGHT or L for LEFT");
+                }
+                result = temp.toString();
+            } else if (result.length() > fieldLength) {
+                // is clipped enabled? if so clip the field
+                if (dataField.clip()) {
+                    result = result.substring(0, fieldLength);
+                } else {
+                    throw new IllegalArgumentException("Length for the " + compiled.name
+                            + " must not be larger than allowed, was: " + result.length() + ", allowed: " + fieldLength);
+                }
+            }
+
+            results[i] = result;
+            buffer.append(result);
+        }
+
+        return buffer.toString();
+    }
+
+    private static void pad(StringBuilder buffer, char pad, int size) {
+        for (int i = 0; i < size; i++) {
+            buffer.append(pad);
+        }
+    }
+
+    private static Exception wrap(Throwable t) {
+        if (t instanceof Exception) {
+            return (Exception) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return new IllegalStateException(t);
+    }
+
+    /**
+     * An annotated field of the model, compiled into method handles
+     */
+    static final class CompiledField {
+        private final String name;
+        private final String className;
+        private final Class<?> type;
+        private final DataField dataField;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+        private final FormattingOptions formattingOptions;
+        private int lengthIndex = -1;
+
+        private CompiledField(Field field, DataField dataField, MethodHandle getter, MethodHandle setter,
+                              FormattingOptions formattingOptions) {
+            this.name = field.getName();
+            this.className = field.getDeclaringClass().getName();
+            this.type = field.getType();
+            this.dataField = dataField;
+            this.getter = getter;
+            this.setter = setter;
+            this.formattingOptions = formattingOptions;
+        }
+    }
+}
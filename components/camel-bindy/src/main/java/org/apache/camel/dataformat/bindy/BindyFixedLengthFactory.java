@@ -68,6 +68,8 @@ public class BindyFixedLengthFactory extends BindyAbstractFactory implements Bin
     private Class<?> header;
     private Class<?> footer;
 
+    private volatile BindyFixedLengthBinder.CompiledField[] compiledFields;
+
     public BindyFixedLengthFactory(Class<?> type) throws Exception {
         super(type);
 
@@ -287,6 +289,20 @@ public class BindyFixedLengthFactory extends BindyAbstractFactory implements Bin
 
     }
 
+    /**
+     * Creates a binder which binds and exports the fixed length records without reflection. The annotated fields
+     * are compiled into method handles the first time, and the binder creates the formats of the fields once.
+     * As the formats are not thread safe, the binder must only be used by a single thread at a time.
+     */
+    public BindyFixedLengthBinder createBinder() throws Exception {
+        BindyFixedLengthBinder.CompiledField[] fields = compiledFields;
+        if (fields == null) {
+            fields = BindyFixedLengthBinder.compile(annotatedFields.values(), getLocale());
+            compiledFields = fields;
+        }
+        return new BindyFixedLengthBinder(this, fields, formatFactory, numberMandatoryFields, totalFields);
+    }
+
     @Override
     public String unbind(Map<String, Object> model) throws Exception {
 
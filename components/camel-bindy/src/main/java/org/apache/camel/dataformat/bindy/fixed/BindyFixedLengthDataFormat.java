@@ -26,11 +26,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.dataformat.bindy.BindyAbstractDataFormat;
 import org.apache.camel.dataformat.bindy.BindyAbstractFactory;
+import org.apache.camel.dataformat.bindy.BindyFixedLengthBinder;
 import org.apache.camel.dataformat.bindy.BindyFixedLengthFactory;
 import org.apache.camel.dataformat.bindy.FormatFactory;
 import org.apache.camel.dataformat.bindy.util.ConverterUtils;
@@ -50,9 +54,13 @@ public class BindyFixedLengthDataFormat extends BindyAbstractDataFormat {
     public static final String CAMEL_BINDY_FIXED_LENGTH_FOOTER = "CamelBindyFixedLengthFooter";
 
     private static final Logger LOG = LoggerFactory.getLogger(BindyFixedLengthDataFormat.class);
+    private static final int MIN_UNMARSHAL_BATCH_SIZE = 100;
     
     private BindyFixedLengthFactory headerFactory;
     private BindyFixedLengthFactory footerFactory;
+    private boolean compiled;
+    private int unmarshalConcurrency = 1;
+    private ExecutorService executorService;
     
     public BindyFixedLengthDataFormat() {
     }
@@ -65,6 +73,32 @@ public class BindyFixedLengthDataFormat extends BindyAbstractDataFormat {
     public String getDataFormatName() {
         return "bindy-fixed";
     }
+
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * Whether to bind and export the records with a binder compiled once from the model, which accesses the
+     * fields with method handles and creates the format of each field once per message, instead of using
+     * reflection and creating the formats for each record.
+     */
+    public void setCompiled(boolean compiled) {
+        this.compiled = compiled;
+    }
+
+    public int getUnmarshalConcurrency() {
+        return unmarshalConcurrency;
+    }
+
+    /**
+     * Number of threads used to bind the records when unmarshalling. The records are read sequentially,
+     * and then bound in parallel in batches, keeping the order of the records. Default is 1 which binds the
+     * records in the calling thread.
+     */
+    public void setUnmarshalConcurrency(int unmarshalConcurrency) {
+        this.unmarshalConcurrency = unmarshalConcurrency;
+    }
     
     @SuppressWarnings("unchecked")
     public void marshal(Exchange exchange, Object body, OutputStream outputStream) throws Exception {
@@ -105,6 +139,8 @@ public class BindyFixedLengthDataFormat extends BindyAbstractDataFormat {
             models.add(models.size(), footerRow);
         }
 
+        BindyFixedLengthBinder binder = compiled ? factory.createBinder() : null;
+
         int row = 0;
         for (Map<String, Object> model : models) {
             row++;
@@ -138,7 +174,7 @@ public class BindyFixedLengthDataFormat extends BindyAbstractDataFormat {
             
             if (result == null) {
                 // marshal as a normal / default row
-                result = factory.unbind(model);
+                result = binder != null ? binder.unbind(model) : factory.unbind(model);
             }
             
             byte[] bytes = exchange.getContext().getTypeConverter().convertTo(byte[].class, exchange, result);
@@ -192,6 +228,11 @@ public class BindyFixedLengthDataFormat extends BindyAbstractDataFormat {
 
         AtomicInteger count = new AtomicInteger(0);
 
+        // the records are either bound as they are read, or collected and bound in parallel
+        BindyFixedLengthBinder binder = compiled ? factory.createBinder() : null;
+        List<String> lines = executorService != null ? new ArrayList<String>() : null;
+        List<Integer> lineNumbers = executorService != null ? new ArrayList<Integer>() : null;
+
         try {
 
             // Parse the header if it exists
@@ -215,11 +256,16 @@ public class BindyFixedLengthDataFormat extends BindyAbstractDataFormat {
 
             // Parse the main file content
             while (thisLine != null && nextLine != null) {
-                
-                model = createModel(factory, thisLine, count.intValue());
 
-                // Add objects graph to the list
-                models.add(model);
+                if (lines != null) {
+                    lines.add(thisLine);
+                    lineNumbers.add(count.intValue());
+                } else {
+                    model = createModel(factory, binder, thisLine, count.intValue());
+
+                    // Add objects graph to the list
+                    models.add(model);
+                }
 
                 thisLine = nextLine;
                 nextLine = getNextNonEmptyLine(scanner, count);
@@ -233,12 +279,19 @@ public class BindyFixedLengthDataFormat extends BindyAbstractDataFormat {
                         Map<String, Object> footerObjMap = createModel(footerFactory, thisLine, count.intValue());
                         exchange.getOut().setHeader(CAMEL_BINDY_FIXED_LENGTH_FOOTER, footerObjMap);
                     }
+                } else if (lines != null) {
+                    lines.add(thisLine);
+                    lineNumbers.add(count.intValue());
                 } else {
-                    model = createModel(factory, thisLine, count.intValue());
+                    model = createModel(factory, binder, thisLine, count.intValue());
                     models.add(model);
                 }
             }
 
+            if (lines != null && !lines.isEmpty()) {
+                models = createModels(factory, lines, lineNumbers);
+            }
+
             // BigIntegerFormatFactory if models list is empty or not
             // If this is the case (correspond to an empty stream, ...)
             if (models.size() == 0) {
@@ -268,7 +321,50 @@ public class BindyFixedLengthDataFormat extends BindyAbstractDataFormat {
         }
     }
 
+    /**
+     * Binds the records in parallel in batches, and returns the models in the order of the records
+     */
+    private List<Map<String, Object>> createModels(final BindyFixedLengthFactory factory, final List<String> lines,
+                                                   final List<Integer> lineNumbers) throws Exception {
+        int batchSize = Math.max(MIN_UNMARSHAL_BATCH_SIZE, (lines.size() + unmarshalConcurrency - 1) / unmarshalConcurrency);
+
+        List<Future<List<Map<String, Object>>>> futures = new ArrayList<Future<List<Map<String, Object>>>>();
+        for (int start = 0; start < lines.size(); start += batchSize) {
+            final int from = start;
+            final int to = Math.min(start + batchSize, lines.size());
+            futures.add(executorService.submit(() -> {
+                // each batch uses its own binder as the formats are not thread safe
+                BindyFixedLengthBinder binder = compiled ? factory.createBinder() : null;
+                List<Map<String, Object>> answer = new ArrayList<Map<String, Object>>(to - from);
+                for (int i = from; i < to; i++) {
+                    answer.add(createModel(factory, binder, lines.get(i), lineNumbers.get(i)));
+                }
+                return answer;
+            }));
+        }
+
+        List<Map<String, Object>> models = new ArrayList<Map<String, Object>>(lines.size());
+        try {
+            for (Future<List<Map<String, Object>>> future : futures) {
+                models.addAll(future.get());
+            }
+        } catch (ExecutionException e) {
+            for (Future<List<Map<String, Object>>> future : futures) {
+                future.cancel(true);
+            }
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+        return models;
+    }
+
     protected Map<String, Object> createModel(BindyFixedLengthFactory factory, String line, int count) throws Exception {
+        return createModel(factory, null, line, count);
+    }
+
+    protected Map<String, Object> createModel(BindyFixedLengthFactory factory, BindyFixedLengthBinder binder, String line, int count) throws Exception {
         // Check if the record length corresponds to the parameter
         // provided in the @FixedLengthRecord
         if (factory.recordLength() > 0) {
@@ -282,7 +378,11 @@ public class BindyFixedLengthDataFormat extends BindyAbstractDataFormat {
         Map<String, Object> model = factory.factory();
         
         // Bind data from Fixed record with model classes
-        factory.bind(line, model, count);
+        if (binder != null) {
+            binder.bind(line, model, count);
+        } else {
+            factory.bind(line, model, count);
+        }
 
         // Link objects together
         factory.link(model);
@@ -312,4 +412,22 @@ public class BindyFixedLengthDataFormat extends BindyAbstractDataFormat {
         return factory;
     }
     
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        if (unmarshalConcurrency > 1 && executorService == null && getCamelContext() != null) {
+            executorService = getCamelContext().getExecutorServiceManager()
+                    .newFixedThreadPool(this, "BindyFixedLengthUnmarshal", unmarshalConcurrency);
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (executorService != null) {
+            getCamelContext().getExecutorServiceManager().shutdownNow(executorService);
+            executorService = null;
+        }
+        super.doStop();
+    }
+
 }
@@ -0,0 +1,172 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.dataformat.bindy.fixed.compiled;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.camel.CamelExecutionException;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.dataformat.bindy.annotation.DataField;
+import org.apache.camel.dataformat.bindy.annotation.FixedLengthRecord;
+import org.apache.camel.dataformat.bindy.fixed.BindyFixedLengthDataFormat;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.Test;
+
+/**
+ * This test validates the marshalling / unmarshalling of fixed length records with a compiled binder,
+ * and the unmarshalling of the records in parallel.
+ */
+public class BindyFixedLengthCompiledTest extends CamelTestSupport {
+
+    private static final int RECORDS = 1000;
+
+    @Test
+    public void testUnmarshallInParallel() throws Exception {
+        List<?> orders = template.requestBody("direct:unmarshall", createRecords(), List.class);
+
+        assertEquals(RECORDS, orders.size());
+        for (int i = 0; i < RECORDS; i++) {
+            Order order = (Order) orders.get(i);
+            assertEquals(i, order.getOrderNr());
+            assertEquals("Name" + i, order.getName());
+            assertEquals(5, order.getCodeLen());
+            assertEquals("ABCDE", order.getCode());
+            assertEquals(new BigDecimal("12.50"), order.getAmount());
+        }
+    }
+
+    @Test
+    public void testMarshallSameAsReflection() throws Exception {
+        List<Order> orders = new ArrayList<Order>();
+        for (int i = 0; i < 10; i++) {
+            Order order = new Order();
+            order.setOrderNr(i);
+            order.setName("Name" + i);
+            order.setCodeLen(5);
+            order.setCode("ABCDE");
+            order.setAmount(new BigDecimal("12.50"));
+            orders.add(order);
+        }
+
+        String compiled = template.requestBody("direct:marshall", orders, String.class);
+        String reflective = template.requestBody("direct:marshall-reflection", orders, String.class);
+
+        assertEquals(createRecords().substring(0, compiled.length()), compiled);
+        assertEquals(reflective, compiled);
+    }
+
+    @Test
+    public void testUnmarshallInParallelFailure() throws Exception {
+        String records = createRecords().replace("0500Name500", "05X0Name500");
+        try {
+            template.requestBody("direct:unmarshall", records, List.class);
+            fail("Should have thrown an exception");
+        } catch (CamelExecutionException e) {
+            assertIsInstanceOf(IllegalArgumentException.class, e.getCause());
+        }
+    }
+
+    private static String createRecords() {
+        StringBuilder records = new StringBuilder();
+        for (int i = 0; i < RECORDS; i++) {
+            records.append(String.format("%04d", i)).append("Name").append(i).append("^05ABCDE0000012.50\r\n");
+        }
+        return records.toString();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                BindyFixedLengthDataFormat compiled = new BindyFixedLengthDataFormat(Order.class);
+                compiled.setCompiled(true);
+                compiled.setUnmarshalConcurrency(4);
+
+                from("direct:unmarshall")
+                    .unmarshal(compiled);
+
+                from("direct:marshall")
+                    .marshal(compiled);
+
+                from("direct:marshall-reflection")
+                    .marshal(new BindyFixedLengthDataFormat(Order.class));
+            }
+        };
+    }
+
+    @FixedLengthRecord
+    public static class Order {
+
+        @DataField(pos = 1, length = 4, align = "R", paddingChar = '0')
+        private int orderNr;
+
+        @DataField(pos = 2, delimiter = "^")
+        private String name;
+
+        @DataField(pos = 3, length = 2, align = "R", paddingChar = '0')
+        private int codeLen;
+
+        @DataField(pos = 4, lengthPos = 3)
+        private String code;
+
+        @DataField(pos = 5, length = 10, precision = 2, align = "R", paddingChar = '0')
+        private BigDecimal amount;
+
+        public int getOrderNr() {
+            return orderNr;
+        }
+
+        public void setOrderNr(int orderNr) {
+            this.orderNr = orderNr;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getCodeLen() {
+            return codeLen;
+        }
+
+        public void setCodeLen(int codeLen) {
+            this.codeLen = codeLen;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public void setCode(String code) {
+            this.code = code;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigDecimal amount) {
+            this.amount = amount;
+        }
+    }
+}
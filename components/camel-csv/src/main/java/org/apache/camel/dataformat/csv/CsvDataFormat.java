@@ -62,6 +62,8 @@ public class CsvDataFormat extends ServiceSupport implements DataFormat, DataFor
     private boolean lazyLoad;
     private boolean useMaps;
     private CsvRecordConverter<?> recordConverter;
+    private String[] columns;
+    private boolean reuseRecords;
 
     private volatile CsvMarshaller marshaller;
     private volatile CsvUnmarshaller unmarshaller;
@@ -680,6 +682,53 @@ public class CsvDataFormat extends ServiceSupport implements DataFormat, DataFor
         return this;
     }
 
+    /**
+     * Gets the columns to unmarshal. If {@code null} then all the columns are unmarshalled.
+     *
+     * @return Columns to unmarshal
+     */
+    public String[] getColumns() {
+        return columns;
+    }
+
+    /**
+     * Sets the columns to unmarshal, so the records only contain the selected columns in the given order.
+     * A column is selected by its header name, or by its zero-based index. If {@code null} then all the columns are
+     * unmarshalled.
+     * <p/>
+     * The columns are not applied when a record converter is used, as it receives the whole record.
+     *
+     * @param columns Columns to unmarshal
+     * @return Current {@code CsvDataFormat}, fluent API
+     */
+    public CsvDataFormat setColumns(String... columns) {
+        this.columns = columns;
+        return this;
+    }
+
+    /**
+     * Indicates whether or not the lazy loading unmarshalling reuses the same list or map for all the records.
+     *
+     * @return {@code true} for reusing the records, {@code false} otherwise
+     */
+    public boolean isReuseRecords() {
+        return reuseRecords;
+    }
+
+    /**
+     * Sets whether or not the lazy loading unmarshalling reuses the same list or map for all the records, instead of
+     * creating one for each record. A record is then only valid until the next one is read, which is the case when the
+     * records are split with streaming and without parallel processing, and the records are not kept by an aggregation.
+     * It is only used with lazy loading and when no record converter is used.
+     *
+     * @param reuseRecords {@code true} for reusing the records, {@code false} otherwise
+     * @return Current {@code CsvDataFormat}, fluent API
+     */
+    public CsvDataFormat setReuseRecords(boolean reuseRecords) {
+        this.reuseRecords = reuseRecords;
+        return this;
+    }
+
     //endregion
 
 }
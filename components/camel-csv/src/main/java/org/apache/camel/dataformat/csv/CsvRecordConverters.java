@@ -17,6 +17,7 @@
 package org.apache.camel.dataformat.csv;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -71,4 +72,83 @@ final class CsvRecordConverters {
             return record.toMap();
         }
     }
+
+    /**
+     * Returns a converter that transforms the selected columns of the CSV record into a list.
+     * A column which is missing in the record is converted into {@code null}.
+     *
+     * @param columns Indexes of the columns to select, or {@code null} for all the columns
+     * @param reuse   Whether or not the same list is returned for all the records
+     * @return converter that transforms the selected columns of the CSV record into a list
+     */
+    public static CsvRecordConverter<List<String>> listConverter(int[] columns, boolean reuse) {
+        return new ProjectedListCsvRecordConverter(columns, reuse);
+    }
+
+    private static final class ProjectedListCsvRecordConverter implements CsvRecordConverter<List<String>> {
+        private final int[] columns;
+        private final List<String> reused;
+
+        private ProjectedListCsvRecordConverter(int[] columns, boolean reuse) {
+            this.columns = columns;
+            this.reused = reuse ? new ArrayList<String>() : null;
+        }
+
+        @Override
+        public List<String> convertRecord(CSVRecord record) {
+            int size = columns != null ? columns.length : record.size();
+            List<String> answer;
+            if (reused != null) {
+                answer = reused;
+                answer.clear();
+            } else {
+                answer = new ArrayList<String>(size);
+            }
+            for (int i = 0; i < size; i++) {
+                int column = columns != null ? columns[i] : i;
+                answer.add(column < record.size() ? record.get(column) : null);
+            }
+            return answer;
+        }
+    }
+
+    /**
+     * Returns a converter that transforms the selected columns of the CSV record into a map.
+     * A column which is missing in the record is converted into {@code null}.
+     *
+     * @param names   Names of the columns to select, used as keys of the map
+     * @param columns Indexes of the columns to select
+     * @param reuse   Whether or not the same map is returned for all the records
+     * @return converter that transforms the selected columns of the CSV record into a map
+     */
+    public static CsvRecordConverter<Map<String, String>> mapConverter(String[] names, int[] columns, boolean reuse) {
+        return new ProjectedMapCsvRecordConverter(names, columns, reuse);
+    }
+
+    private static final class ProjectedMapCsvRecordConverter implements CsvRecordConverter<Map<String, String>> {
+        private final String[] names;
+        private final int[] columns;
+        private final Map<String, String> reused;
+
+        private ProjectedMapCsvRecordConverter(String[] names, int[] columns, boolean reuse) {
+            this.names = names;
+            this.columns = columns;
+            this.reused = reuse ? new LinkedHashMap<String, String>(names.length * 2) : null;
+        }
+
+        @Override
+        public Map<String, String> convertRecord(CSVRecord record) {
+            Map<String, String> answer;
+            if (reused != null) {
+                answer = reused;
+                answer.clear();
+            } else {
+                answer = new LinkedHashMap<String, String>(names.length * 2);
+            }
+            for (int i = 0; i < columns.length; i++) {
+                answer.put(names[i], columns[i] < record.size() ? record.get(columns[i]) : null);
+            }
+            return answer;
+        }
+    }
 }
@@ -24,6 +24,7 @@ import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.util.IOHelper;
@@ -37,10 +38,16 @@ import org.apache.commons.csv.CSVRecord;
 abstract class CsvUnmarshaller {
     protected final CSVFormat format;
     protected final CsvRecordConverter<?> converter;
+    private final boolean customConverter;
+    private final boolean useMaps;
+    private final String[] columns;
 
     private CsvUnmarshaller(CSVFormat format, CsvDataFormat dataFormat) {
         this.format = format;
         this.converter = extractConverter(dataFormat);
+        this.customConverter = dataFormat.getRecordConverter() != null;
+        this.useMaps = dataFormat.isUseMaps();
+        this.columns = dataFormat.getColumns();
     }
 
     public static CsvUnmarshaller create(CSVFormat format, CsvDataFormat dataFormat) {
@@ -79,6 +86,63 @@ abstract class CsvUnmarshaller {
         }
     }
 
+    /**
+     * Gets the converter for the records of the given parser, which only keeps the selected columns.
+     *
+     * @param parser CSV parser, used for resolving the columns from the header
+     * @param reuse  Whether or not the converter can reuse the same list or map for all the records
+     * @return Converter for the records of the parser
+     */
+    protected CsvRecordConverter<?> getConverter(CSVParser parser, boolean reuse) {
+        if (customConverter || (columns == null && !reuse)) {
+            return converter;
+        }
+
+        Map<String, Integer> headerMap = parser.getHeaderMap();
+        String[] header = new String[headerMap != null ? headerMap.size() : 0];
+        if (headerMap != null) {
+            for (Map.Entry<String, Integer> entry : headerMap.entrySet()) {
+                header[entry.getValue()] = entry.getKey();
+            }
+        }
+
+        int[] indexes = null;
+        if (columns != null) {
+            indexes = new int[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                indexes[i] = resolveColumn(columns[i], headerMap);
+            }
+        }
+
+        if (!useMaps) {
+            return CsvRecordConverters.listConverter(indexes, reuse);
+        }
+
+        if (indexes == null) {
+            indexes = new int[header.length];
+            for (int i = 0; i < indexes.length; i++) {
+                indexes[i] = i;
+            }
+        }
+        String[] names = new String[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            names[i] = indexes[i] < header.length ? header[indexes[i]] : columns[i];
+        }
+        return CsvRecordConverters.mapConverter(names, indexes, reuse);
+    }
+
+    private static int resolveColumn(String column, Map<String, Integer> headerMap) {
+        Integer index = headerMap != null ? headerMap.get(column) : null;
+        if (index != null) {
+            return index;
+        }
+        try {
+            return Integer.parseInt(column);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("The CSV column " + column + " is neither in the header nor an index");
+        }
+    }
+
     //region Implementations
 
     /**
@@ -92,7 +156,7 @@ abstract class CsvUnmarshaller {
         public Object unmarshal(Exchange exchange, InputStream inputStream) throws IOException {
             CSVParser parser = new CSVParser(new InputStreamReader(inputStream, IOHelper.getCharsetName(exchange)), format);
             try {
-                return asList(parser.iterator(), converter);
+                return asList(parser.iterator(), getConverter(parser, false));
             } finally {
                 IOHelper.close(parser);
             }
@@ -112,9 +176,11 @@ abstract class CsvUnmarshaller {
      */
     @SuppressWarnings("unchecked")
     private static final class StreamCsvUnmarshaller extends CsvUnmarshaller {
+        private final boolean reuseRecords;
 
         private StreamCsvUnmarshaller(CSVFormat format, CsvDataFormat dataFormat) {
             super(format, dataFormat);
+            this.reuseRecords = dataFormat.isReuseRecords();
         }
 
         @Override
@@ -123,7 +189,7 @@ abstract class CsvUnmarshaller {
             try {
                 reader = new InputStreamReader(inputStream, IOHelper.getCharsetName(exchange));
                 CSVParser parser = new CSVParser(reader, format);
-                CsvIterator answer = new CsvIterator(parser, converter);
+                CsvIterator answer = new CsvIterator(parser, getConverter(parser, reuseRecords));
                 // add to UoW so we can close the iterator so it can release any resources
                 exchange.addOnCompletion(new CsvUnmarshalOnCompletion(answer));
                 return answer;
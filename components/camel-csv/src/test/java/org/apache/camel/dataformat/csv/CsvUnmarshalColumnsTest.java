@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.dataformat.csv;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.camel.CamelExecutionException;
+import org.apache.camel.EndpointInject;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.Test;
+
+import static org.apache.camel.dataformat.csv.TestUtils.asMap;
+
+/**
+ * This class tests the unmarshalling of selected columns and the reuse of the records
+ */
+public class CsvUnmarshalColumnsTest extends CamelTestSupport {
+    private static final String CSV_SAMPLE = "A,B,C\r1,2,3\rone,two,three";
+
+    @EndpointInject(uri = "mock:output")
+    MockEndpoint output;
+
+    @EndpointInject(uri = "mock:line")
+    MockEndpoint line;
+
+    @Test
+    public void shouldSelectColumnsByIndex() throws Exception {
+        output.expectedMessageCount(1);
+
+        template.sendBody("direct:index", CSV_SAMPLE);
+        output.assertIsSatisfied();
+
+        List<?> body = assertIsInstanceOf(List.class, output.getExchanges().get(0).getIn().getBody());
+        assertEquals(3, body.size());
+        assertEquals(Arrays.asList("C", "A"), body.get(0));
+        assertEquals(Arrays.asList("3", "1"), body.get(1));
+        assertEquals(Arrays.asList("three", "one"), body.get(2));
+    }
+
+    @Test
+    public void shouldSelectColumnsByName() throws Exception {
+        output.expectedMessageCount(1);
+
+        template.sendBody("direct:name", CSV_SAMPLE);
+        output.assertIsSatisfied();
+
+        List<?> body = assertIsInstanceOf(List.class, output.getExchanges().get(0).getIn().getBody());
+        assertEquals(2, body.size());
+        assertEquals(asMap("C", "3", "A", "1"), body.get(0));
+        assertEquals(asMap("C", "three", "A", "one"), body.get(1));
+    }
+
+    @Test
+    public void shouldReuseRecords() throws Exception {
+        line.expectedBodiesReceived("[B]", "[2]", "[two]");
+
+        template.sendBody("direct:reuse", CSV_SAMPLE);
+        line.assertIsSatisfied();
+    }
+
+    @Test
+    public void shouldReuseMaps() throws Exception {
+        line.expectedMessageCount(2);
+
+        template.sendBody("direct:reuse_map", CSV_SAMPLE);
+        line.assertIsSatisfied();
+
+        // the same map is reused, so only the last record remains
+        Map<?, ?> map1 = line.getExchanges().get(0).getIn().getBody(Map.class);
+        Map<?, ?> map2 = line.getExchanges().get(1).getIn().getBody(Map.class);
+        assertSame(map1, map2);
+        assertEquals(asMap("A", "one", "B", "two", "C", "three"), map2);
+    }
+
+    @Test
+    public void shouldFailOnUnknownColumn() throws Exception {
+        try {
+            template.sendBody("direct:unknown", CSV_SAMPLE);
+            fail("Should have thrown an exception");
+        } catch (CamelExecutionException e) {
+            assertIsInstanceOf(IllegalArgumentException.class, e.getCause());
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                // Select columns by index
+                from("direct:index")
+                        .unmarshal(new CsvDataFormat().setColumns("2", "0"))
+                        .to("mock:output");
+
+                // Select columns by name
+                from("direct:name")
+                        .unmarshal(new CsvDataFormat().setUseMaps(true).setColumns("C", "A"))
+                        .to("mock:output");
+
+                // Lazy load and reuse the records
+                from("direct:reuse")
+                        .unmarshal(new CsvDataFormat().setLazyLoad(true).setReuseRecords(true).setColumns("1"))
+                        .split().body().streaming()
+                            .convertBodyTo(String.class)
+                            .to("mock:line");
+
+                // Lazy load and reuse the maps
+                from("direct:reuse_map")
+                        .unmarshal(new CsvDataFormat().setLazyLoad(true).setUseMaps(true).setReuseRecords(true))
+                        .split().body().streaming()
+                            .to("mock:line");
+
+                // Unknown column
+                from("direct:unknown")
+                        .unmarshal(new CsvDataFormat().setUseMaps(true).setColumns("D"))
+                        .to("mock:output");
+            }
+        };
+    }
+}
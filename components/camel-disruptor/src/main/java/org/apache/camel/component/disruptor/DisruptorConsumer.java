@@ -16,7 +16,9 @@
  */
 package org.apache.camel.component.disruptor;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.apache.camel.AsyncCallback;
@@ -26,6 +28,7 @@ import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
 import org.apache.camel.ShutdownRunningTask;
 import org.apache.camel.Suspendable;
+import org.apache.camel.impl.DefaultExchange;
 import org.apache.camel.spi.ExceptionHandler;
 import org.apache.camel.spi.ShutdownAware;
 import org.apache.camel.spi.Synchronization;
@@ -98,8 +101,13 @@ public class DisruptorConsumer extends ServiceSupport implements Consumer, Suspe
     Set<LifecycleAwareExchangeEventHandler> createEventHandlers(final int concurrentConsumers) {
         final Set<LifecycleAwareExchangeEventHandler> eventHandlers = new HashSet<LifecycleAwareExchangeEventHandler>();
 
+        final int batchSize = getEndpoint().getBatchSize();
         for (int i = 0; i < concurrentConsumers; ++i) {
-            eventHandlers.add(new ConsumerEventHandler(i, concurrentConsumers));
+            if (batchSize > 0) {
+                eventHandlers.add(new BatchingConsumerEventHandler(i, concurrentConsumers, batchSize));
+            } else {
+                eventHandlers.add(new ConsumerEventHandler(i, concurrentConsumers));
+            }
         }
 
         return eventHandlers;
@@ -137,12 +145,15 @@ public class DisruptorConsumer extends ServiceSupport implements Consumer, Suspe
         return newExchange;
     }
 
+    private static boolean isIgnored(final Exchange exchange) {
+        return exchange.hasProperties() && exchange.getProperties().containsKey(DisruptorEndpoint.DISRUPTOR_IGNORE_EXCHANGE);
+    }
+
     private void process(final SynchronizedExchange synchronizedExchange) {
         try {
             Exchange exchange = synchronizedExchange.getExchange();
 
-            final boolean ignore = exchange.hasProperties() && exchange
-                    .getProperties().containsKey(DisruptorEndpoint.DISRUPTOR_IGNORE_EXCHANGE);
+            final boolean ignore = isIgnored(exchange);
             if (ignore) {
                 // Property was set and it was set to true, so don't process Exchange.
                 LOGGER.trace("Ignoring exchange {}", exchange);
@@ -186,6 +197,70 @@ public class DisruptorConsumer extends ServiceSupport implements Consumer, Suspe
         }
     }
 
+    private void processBatch(final List<SynchronizedExchange> synchronizedExchanges) {
+        final List<SynchronizedExchange> batch = new ArrayList<SynchronizedExchange>(synchronizedExchanges.size());
+        final List<Exchange> results = new ArrayList<Exchange>(synchronizedExchanges.size());
+        try {
+            for (SynchronizedExchange synchronizedExchange : synchronizedExchanges) {
+                Exchange exchange = synchronizedExchange.getExchange();
+                if (isIgnored(exchange)) {
+                    LOGGER.trace("Ignoring exchange {}", exchange);
+                } else {
+                    batch.add(synchronizedExchange);
+                    results.add(prepareExchange(exchange));
+                }
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            final int size = results.size();
+            for (int i = 0; i < size; i++) {
+                Exchange result = results.get(i);
+                result.setProperty(Exchange.BATCH_INDEX, i);
+                result.setProperty(Exchange.BATCH_SIZE, size);
+                result.setProperty(Exchange.BATCH_COMPLETE, i == size - 1);
+            }
+
+            // the grouped exchange holds the exchanges in the same way as the GroupedExchangeAggregationStrategy
+            final Exchange grouped = new DefaultExchange(endpoint.getCamelContext());
+            grouped.setFromEndpoint(endpoint);
+            grouped.setProperty(Exchange.GROUPED_EXCHANGE, results);
+            grouped.setProperty(Exchange.BATCH_SIZE, size);
+            grouped.getIn().setBody(results);
+
+            // synchronize each of the original exchanges when the grouped exchange is complete,
+            // see the process method for why this is done using a synchronization
+            grouped.addOnCompletion(new Synchronization() {
+                @Override
+                public void onComplete(Exchange exchange) {
+                    consumed(batch, results, null);
+                }
+
+                @Override
+                public void onFailure(Exchange exchange) {
+                    consumed(batch, results, exchange.getException());
+                }
+            });
+
+            processor.process(grouped, NOOP_ASYNC_CALLBACK);
+
+        } catch (Exception e) {
+            getExceptionHandler().handleException("Error processing batch of " + synchronizedExchanges.size() + " exchanges", e);
+        }
+    }
+
+    private static void consumed(final List<SynchronizedExchange> batch, final List<Exchange> results, final Exception cause) {
+        for (int i = 0; i < batch.size(); i++) {
+            Exchange result = results.get(i);
+            // the grouped exchange failed so let each of the exchanges fail, unless they already have
+            if (cause != null && result.getException() == null) {
+                result.setException(cause);
+            }
+            batch.get(i).consumed(result);
+        }
+    }
+
     /**
      * Implementation of the {@link LifecycleAwareExchangeEventHandler} interface that passes all Exchanges to the
      * {@link Processor} registered at this {@link DisruptorConsumer}.
@@ -215,4 +290,45 @@ public class DisruptorConsumer extends ServiceSupport implements Consumer, Suspe
         }
 
     }
+
+    /**
+     * Implementation of the {@link LifecycleAwareExchangeEventHandler} interface that groups the Exchanges into a
+     * single Exchange which is passed to the {@link Processor} registered at this {@link DisruptorConsumer}.
+     * <p/>
+     * The Disruptor hands over all the events which are available to the event handler in a batch, and flags the
+     * last event of that batch. The Exchanges are grouped until the end of such a batch, or until the batch size
+     * is reached, so an Exchange is never held back waiting for more Exchanges to arrive.
+     */
+    private class BatchingConsumerEventHandler extends AbstractLifecycleAwareExchangeEventHandler {
+
+        private final int ordinal;
+
+        private final int concurrentConsumers;
+
+        private final int batchSize;
+
+        private final List<SynchronizedExchange> batch = new ArrayList<SynchronizedExchange>();
+
+        BatchingConsumerEventHandler(final int ordinal, final int concurrentConsumers, final int batchSize) {
+            this.ordinal = ordinal;
+            this.concurrentConsumers = concurrentConsumers;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public void onEvent(final ExchangeEvent event, final long sequence, final boolean endOfBatch) throws Exception {
+            // see ConsumerEventHandler for how the events are divided amongst the event handlers
+            if (sequence % concurrentConsumers == ordinal) {
+                batch.add(event.getSynchronizedExchange());
+            }
+
+            // the end of the batch may be an event for another event handler, so check for every event
+            if (!batch.isEmpty() && (endOfBatch || batch.size() >= batchSize)) {
+                List<SynchronizedExchange> exchanges = new ArrayList<SynchronizedExchange>(batch);
+                batch.clear();
+                processBatch(exchanges);
+            }
+        }
+
+    }
 }
@@ -76,6 +76,8 @@ public class DisruptorEndpoint extends DefaultEndpoint implements AsyncEndpoint,
     private DisruptorWaitStrategy waitStrategy;
     @UriParam(label = "producer", defaultValue = "Multi")
     private DisruptorProducerType producerType;
+    @UriParam(label = "consumer")
+    private int batchSize;
 
     public DisruptorEndpoint(final String endpointUri, final Component component,
                              final DisruptorReference disruptorReference, final int concurrentConsumers,
@@ -230,6 +232,23 @@ public class DisruptorEndpoint extends DefaultEndpoint implements AsyncEndpoint,
         this.producerType = producerType;
     }
 
+    @ManagedAttribute(description = "Maximum number of exchanges the consumer groups into a single exchange")
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * To let the consumer group the exchanges into a single exchange, which has a {@link java.util.List} of the
+     * grouped exchanges as message body. The consumer groups the exchanges it can take from the ringbuffer without
+     * waiting, up to this maximum number of exchanges, so a single exchange is routed as soon as the producers are idle.
+     * The grouped exchanges are also stored as the {@link Exchange#GROUPED_EXCHANGE} property.
+     * This allows the route to send the exchanges in bulk, for example to a database.
+     * Is by default disabled.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
     @Override
     public boolean isSingleton() {
         return true;
@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.disruptor;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.CamelExecutionException;
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.Test;
+
+/**
+ * Tests that a Disruptor consumer with a batch size groups the exchanges into a single exchange.
+ */
+public class DisruptorBatchConsumerTest extends CamelTestSupport {
+
+    private final CountDownLatch firstBatch = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<Integer>();
+
+    @Test
+    public void testBatchUntilEndOfBatchOrBatchSize() throws Exception {
+        getMockEndpoint("mock:result").expectedMessageCount(3);
+
+        template.sendBody("disruptor:foo?batchSize=5", "A");
+        // the consumer is now blocked while processing the first batch
+        assertTrue(firstBatch.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 8; i++) {
+            template.sendBody("disruptor:foo?batchSize=5", "B" + i);
+        }
+        release.countDown();
+
+        assertMockEndpointsSatisfied();
+
+        // the pending exchanges are grouped up to the batch size
+        assertEquals(3, batchSizes.size());
+        assertEquals(1, batchSizes.get(0).intValue());
+        assertEquals(5, batchSizes.get(1).intValue());
+        assertEquals(3, batchSizes.get(2).intValue());
+
+        Exchange last = getMockEndpoint("mock:result").getReceivedExchanges().get(2);
+        List<?> grouped = last.getProperty(Exchange.GROUPED_EXCHANGE, List.class);
+        assertEquals(3, grouped.size());
+        Exchange exchange = (Exchange) grouped.get(2);
+        assertEquals("B7", exchange.getIn().getBody());
+        assertEquals(2, exchange.getProperty(Exchange.BATCH_INDEX));
+        assertEquals(Boolean.TRUE, exchange.getProperty(Exchange.BATCH_COMPLETE));
+    }
+
+    @Test
+    public void testBatchInOut() throws Exception {
+        String out = template.requestBody("disruptor:bar?batchSize=10", "World", String.class);
+        assertEquals("Bye World", out);
+    }
+
+    @Test
+    public void testBatchFailure() throws Exception {
+        try {
+            template.requestBody("disruptor:baz?batchSize=10", "World", String.class);
+            fail("Should have thrown an exception");
+        } catch (CamelExecutionException e) {
+            assertIsInstanceOf(IllegalArgumentException.class, e.getCause());
+            assertEquals("Forced", e.getCause().getMessage());
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("disruptor:foo?batchSize=5")
+                    .process(new Processor() {
+                        @Override
+                        public void process(Exchange exchange) throws Exception {
+                            batchSizes.add(exchange.getIn().getBody(List.class).size());
+                            firstBatch.countDown();
+                            release.await(5, TimeUnit.SECONDS);
+                        }
+                    })
+                    .to("mock:result");
+
+                from("disruptor:bar?batchSize=10")
+                    .process(new Processor() {
+                        @Override
+                        public void process(Exchange exchange) throws Exception {
+                            List<?> exchanges = exchange.getIn().getBody(List.class);
+                            for (Object grouped : exchanges) {
+                                Exchange reply = (Exchange) grouped;
+                                reply.getOut().setBody("Bye " + reply.getIn().getBody(String.class));
+                            }
+                        }
+                    });
+
+                from("disruptor:baz?batchSize=10")
+                    .throwException(new IllegalArgumentException("Forced"));
+            }
+        };
+    }
+}
@@ -53,6 +53,16 @@ public class ElasticsearchConfiguration {
     private Boolean clientTransportSniff = true;
     @UriParam(defaultValue = "/usr/share/elasticsearch")
     private String pathHome = "/usr/share/elasticsearch";
+    @UriParam(label = "producer")
+    private boolean bulk;
+    @UriParam(label = "producer", defaultValue = "1000")
+    private int bulkActions = 1000;
+    @UriParam(label = "producer", defaultValue = "5242880")
+    private long bulkSize = 5 * 1024 * 1024;
+    @UriParam(label = "producer", defaultValue = "1000")
+    private long bulkFlushInterval = 1000;
+    @UriParam(label = "producer", defaultValue = "1")
+    private int bulkConcurrentRequests = 1;
 
     /**
      * Name of cluster or use local for local mode
@@ -191,4 +201,62 @@ public class ElasticsearchConfiguration {
 	public void setPathHome(String pathHome) {
 		this.pathHome = pathHome;
 	}
+
+    /**
+     * Whether INDEX, UPDATE and DELETE operations are collected by a BulkProcessor and sent in bulk requests.
+     * Each exchange is completed when the response of its own item in the bulk request is received.
+     */
+    public boolean isBulk() {
+        return bulk;
+    }
+
+    public void setBulk(boolean bulk) {
+        this.bulk = bulk;
+    }
+
+    /**
+     * The number of operations after which a bulk request is sent (defaults to 1000), or -1 to disable
+     */
+    public int getBulkActions() {
+        return bulkActions;
+    }
+
+    public void setBulkActions(int bulkActions) {
+        this.bulkActions = bulkActions;
+    }
+
+    /**
+     * The size in bytes of the operations after which a bulk request is sent (defaults to 5mb), or -1 to disable
+     */
+    public long getBulkSize() {
+        return bulkSize;
+    }
+
+    public void setBulkSize(long bulkSize) {
+        this.bulkSize = bulkSize;
+    }
+
+    /**
+     * The interval in millis after which a bulk request is sent regardless of the number or size of the operations
+     * (defaults to 1000), or 0 to disable
+     */
+    public long getBulkFlushInterval() {
+        return bulkFlushInterval;
+    }
+
+    public void setBulkFlushInterval(long bulkFlushInterval) {
+        this.bulkFlushInterval = bulkFlushInterval;
+    }
+
+    /**
+     * The number of bulk requests which may be in flight while new operations are collected (defaults to 1).
+     * When 0 the bulk requests are sent by the thread which adds the operation which fills the bulk request.
+     */
+    public int getBulkConcurrentRequests() {
+        return bulkConcurrentRequests;
+    }
+
+    public void setBulkConcurrentRequests(int bulkConcurrentRequests) {
+        this.bulkConcurrentRequests = bulkConcurrentRequests;
+    }
 }
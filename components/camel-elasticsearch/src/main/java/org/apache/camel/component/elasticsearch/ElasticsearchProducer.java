@@ -18,12 +18,17 @@ package org.apache.camel.component.elasticsearch;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.camel.AsyncCallback;
 import org.apache.camel.Exchange;
 import org.apache.camel.Message;
-import org.apache.camel.impl.DefaultProducer;
+import org.apache.camel.impl.DefaultAsyncProducer;
+import org.elasticsearch.action.ActionRequest;
 import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkProcessor;
 import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
 import org.elasticsearch.action.delete.DeleteRequest;
 import org.elasticsearch.action.exists.ExistsRequest;
 import org.elasticsearch.action.get.GetRequest;
@@ -33,11 +38,18 @@ import org.elasticsearch.action.search.MultiSearchRequest;
 import org.elasticsearch.action.search.SearchRequest;
 import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.client.Client;
+import org.elasticsearch.common.unit.ByteSizeValue;
+import org.elasticsearch.common.unit.TimeValue;
 
 /**
  * Represents an Elasticsearch producer.
+ * <p/>
+ * In bulk mode the INDEX, UPDATE and DELETE operations are added to a {@link BulkProcessor}, and each exchange
+ * is completed asynchronously when the response of its item in the bulk request is received.
  */
-public class ElasticsearchProducer extends DefaultProducer {
+public class ElasticsearchProducer extends DefaultAsyncProducer {
+
+    private BulkProcessor bulkProcessor;
 
     public ElasticsearchProducer(ElasticsearchEndpoint endpoint) {
         super(endpoint);
@@ -94,7 +106,18 @@ public class ElasticsearchProducer extends DefaultProducer {
         return operationConfig;
     }
 
-    public void process(Exchange exchange) throws Exception {
+    @Override
+    public boolean process(Exchange exchange, AsyncCallback callback) {
+        try {
+            return processOperation(exchange, callback);
+        } catch (Exception e) {
+            exchange.setException(e);
+            callback.done(true);
+            return true;
+        }
+    }
+
+    private boolean processOperation(Exchange exchange, AsyncCallback callback) throws Exception {
         // 2. Index and type will be set by:
         // a. If the incoming body is already an action request
         // b. If the body is not an action request we will use headers if they
@@ -132,7 +155,21 @@ public class ElasticsearchProducer extends DefaultProducer {
         }
 
         Client client = getEndpoint().getClient();
-        if (ElasticsearchConstants.OPERATION_INDEX.equals(operation)) {
+        if (bulkProcessor != null && isBulkOperation(operation)) {
+            ActionRequest<?> request;
+            if (ElasticsearchConstants.OPERATION_INDEX.equals(operation)) {
+                request = message.getMandatoryBody(IndexRequest.class);
+            } else if (ElasticsearchConstants.OPERATION_UPDATE.equals(operation)) {
+                request = message.getMandatoryBody(UpdateRequest.class);
+            } else {
+                request = message.getMandatoryBody(DeleteRequest.class);
+            }
+            removeConfigHeaders(message, configIndexName, configIndexType, configConsistencyLevel);
+
+            // the exchange is completed by the bulk listener when the response for its item is received
+            bulkProcessor.add(request, new BulkItemCallback(exchange, operation, callback));
+            return false;
+        } else if (ElasticsearchConstants.OPERATION_INDEX.equals(operation)) {
             IndexRequest indexRequest = message.getBody(IndexRequest.class);
             message.setBody(client.index(indexRequest).actionGet().getId());
         } else if (ElasticsearchConstants.OPERATION_UPDATE.equals(operation)) {
@@ -178,6 +215,13 @@ public class ElasticsearchProducer extends DefaultProducer {
         // sending the same message (index request, for example) to multiple
         // elasticsearch endpoints would have the effect overriding any
         // subsequent endpoint index/type with the first endpoint index/type.
+        removeConfigHeaders(message, configIndexName, configIndexType, configConsistencyLevel);
+
+        callback.done(true);
+        return true;
+    }
+
+    private static void removeConfigHeaders(Message message, boolean configIndexName, boolean configIndexType, boolean configConsistencyLevel) {
         if (configIndexName) {
             message.removeHeader(ElasticsearchConstants.PARAM_INDEX_NAME);
         }
@@ -189,6 +233,100 @@ public class ElasticsearchProducer extends DefaultProducer {
         if (configConsistencyLevel) {
             message.removeHeader(ElasticsearchConstants.PARAM_CONSISTENCY_LEVEL);
         }
+    }
+
+    private static boolean isBulkOperation(String operation) {
+        return ElasticsearchConstants.OPERATION_INDEX.equals(operation)
+                || ElasticsearchConstants.OPERATION_UPDATE.equals(operation)
+                || ElasticsearchConstants.OPERATION_DELETE.equals(operation);
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+
+        ElasticsearchConfiguration config = getEndpoint().getConfig();
+        if (config.isBulk()) {
+            BulkProcessor.Builder builder = BulkProcessor.builder(getEndpoint().getClient(), new BulkItemListener())
+                    .setName(getEndpoint().getEndpointKey())
+                    .setBulkActions(config.getBulkActions())
+                    .setBulkSize(new ByteSizeValue(config.getBulkSize()))
+                    .setConcurrentRequests(config.getBulkConcurrentRequests());
+            if (config.getBulkFlushInterval() > 0) {
+                builder.setFlushInterval(TimeValue.timeValueMillis(config.getBulkFlushInterval()));
+            }
+            bulkProcessor = builder.build();
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (bulkProcessor != null) {
+            // sends the pending operations and waits for the in flight bulk requests to complete
+            if (!bulkProcessor.awaitClose(30, TimeUnit.SECONDS)) {
+                log.warn("Timeout waiting for the in flight bulk requests to complete on endpoint: {}", getEndpoint());
+            }
+            bulkProcessor = null;
+        }
+        super.doStop();
+    }
+
+    /**
+     * Completes the exchange of an operation in a bulk request.
+     */
+    private static final class BulkItemCallback {
+
+        private final Exchange exchange;
+        private final String operation;
+        private final AsyncCallback callback;
+
+        BulkItemCallback(Exchange exchange, String operation, AsyncCallback callback) {
+            this.exchange = exchange;
+            this.operation = operation;
+            this.callback = callback;
+        }
+
+        void done(BulkItemResponse response) {
+            if (response.isFailed()) {
+                Throwable cause = response.getFailure().getCause();
+                exchange.setException(cause != null ? cause : new IllegalStateException(response.getFailureMessage()));
+            } else if (ElasticsearchConstants.OPERATION_DELETE.equals(operation)) {
+                exchange.getIn().setBody(response.getResponse());
+            } else {
+                exchange.getIn().setBody(response.getId());
+            }
+            callback.done(false);
+        }
 
+        void failed(Throwable cause) {
+            exchange.setException(cause);
+            callback.done(false);
+        }
+    }
+
+    /**
+     * Dispatches the responses of a bulk request to the exchanges of its items.
+     */
+    private static final class BulkItemListener implements BulkProcessor.Listener {
+
+        @Override
+        public void beforeBulk(long executionId, BulkRequest request) {
+            // noop
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, BulkResponse response) {
+            List<Object> payloads = request.payloads();
+            for (BulkItemResponse item : response.getItems()) {
+                ((BulkItemCallback) payloads.get(item.getItemId())).done(item);
+            }
+        }
+
+        @Override
+        public void afterBulk(long executionId, BulkRequest request, Throwable failure) {
+            for (Object payload : request.payloads()) {
+                ((BulkItemCallback) payload).failed(failure);
+            }
+        }
     }
 }
@@ -0,0 +1,87 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.elasticsearch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.CamelExecutionException;
+import org.apache.camel.builder.RouteBuilder;
+import org.elasticsearch.action.get.GetResponse;
+import org.elasticsearch.index.engine.DocumentMissingException;
+import org.junit.Test;
+
+public class ElasticsearchBulkProcessorTest extends ElasticsearchBaseTest {
+
+    @Test
+    public void testIndexInBulk() throws Exception {
+        List<Future<String>> futures = new ArrayList<Future<String>>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(template.asyncRequestBody("direct:index", createIndexedData(String.valueOf(i)), String.class));
+        }
+
+        // the 10th document fills the bulk request, so all the exchanges are completed without waiting for the flush interval
+        for (Future<String> future : futures) {
+            String id = future.get(10, TimeUnit.SECONDS);
+            assertNotNull("id should be set", id);
+
+            Map<String, Object> headers = new HashMap<String, Object>();
+            headers.put(ElasticsearchConstants.PARAM_OPERATION, ElasticsearchConstants.OPERATION_GET_BY_ID);
+            GetResponse response = template.requestBodyAndHeaders("direct:get", id, headers, GetResponse.class);
+            assertTrue("document should exist", response.isExists());
+        }
+    }
+
+    @Test
+    public void testFlushInterval() throws Exception {
+        String id = template.requestBody("direct:flush", createIndexedData(), String.class);
+        assertNotNull("id should be set", id);
+    }
+
+    @Test
+    public void testItemFailure() throws Exception {
+        Map<String, Object> headers = new HashMap<String, Object>();
+        headers.put(ElasticsearchConstants.PARAM_INDEX_ID, "missing");
+        try {
+            template.requestBodyAndHeaders("direct:update", createIndexedData(), headers, String.class);
+            fail("Should have thrown an exception");
+        } catch (CamelExecutionException e) {
+            assertIsInstanceOf(DocumentMissingException.class, e.getCause());
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() {
+                from("direct:index")
+                    .to("elasticsearch://local?operation=INDEX&indexName=twitter&indexType=tweet&bulk=true&bulkActions=10&bulkFlushInterval=0");
+                from("direct:flush")
+                    .to("elasticsearch://local?operation=INDEX&indexName=twitter&indexType=tweet&bulk=true&bulkFlushInterval=100");
+                from("direct:update")
+                    .to("elasticsearch://local?operation=UPDATE&indexName=twitter&indexType=tweet&bulk=true&bulkActions=1");
+                from("direct:get")
+                    .to("elasticsearch://local?indexName=twitter&indexType=tweet");
+            }
+        };
+    }
+}
@@ -100,6 +100,19 @@ public enum HL7Charset {
         return getCharsetName(msh18, defaultCharsetName);
     }
 
+    /**
+     * Returns the charset to be used for marshalling lazily parsed HL7 messages. If MSH-18 is empty,
+     * the charset configured in Camel's charset properties/headers is returned.
+     *
+     * @param message lazily parsed HL7 message
+     * @param exchange Exchange
+     * @return Java charset name
+     */
+    public static String getCharsetName(HL7LazyMessage message, Exchange exchange) throws HL7Exception {
+        String defaultCharsetName = IOHelper.getCharsetName(exchange);
+        return getCharsetName(message.get("MSH-18"), defaultCharsetName);
+    }
+
     /**
      * Returns the charset to be used for unmarshalling HL7 messages. If MSH-18 is empty,
      * the temporary charset name is returned.
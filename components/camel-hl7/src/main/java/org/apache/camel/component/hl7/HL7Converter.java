@@ -16,6 +16,8 @@
  */
 package org.apache.camel.component.hl7;
 
+import java.io.UnsupportedEncodingException;
+
 import ca.uhn.hl7v2.DefaultHapiContext;
 import ca.uhn.hl7v2.HL7Exception;
 import ca.uhn.hl7v2.HapiContext;
@@ -24,6 +26,8 @@ import ca.uhn.hl7v2.parser.Parser;
 import ca.uhn.hl7v2.validation.ValidationContext;
 import ca.uhn.hl7v2.validation.impl.ValidationContextFactory;
 import org.apache.camel.Converter;
+import org.apache.camel.Exchange;
+import org.apache.camel.util.IOHelper;
 
 /**
  * HL7 converters.
@@ -57,6 +61,36 @@ public final class HL7Converter {
         return parse(new String(body), DEFAULT_CONTEXT.getGenericParser());
     }
 
+    @Converter
+    public static HL7LazyMessage toLazyMessage(String body) {
+        return new HL7LazyMessage(body);
+    }
+
+    @Converter
+    public static HL7LazyMessage toLazyMessage(byte[] body, Exchange exchange) throws UnsupportedEncodingException, HL7Exception {
+        String charsetName = HL7Charset.getCharsetName(body, IOHelper.getCharsetName(exchange));
+        return new HL7LazyMessage(body, charsetName, null);
+    }
+
+    @Converter
+    public static Message toMessage(HL7LazyMessage body) throws HL7Exception {
+        return body.getMessage();
+    }
+
+    @Converter
+    public static String toString(HL7LazyMessage body) throws HL7Exception {
+        return body.encode();
+    }
+
+    @Converter
+    public static byte[] toByteArray(HL7LazyMessage body, Exchange exchange) throws HL7Exception, UnsupportedEncodingException {
+        return body.encode().getBytes(HL7Charset.getCharsetName(body, exchange));
+    }
+
+    static Parser getDefaultParser() {
+        return DEFAULT_CONTEXT.getGenericParser();
+    }
+
     static Message parse(String body, Parser parser) throws HL7Exception {
         return parser.parse(body);
     }
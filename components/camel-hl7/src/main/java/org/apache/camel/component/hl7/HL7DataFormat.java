@@ -46,6 +46,10 @@ import static org.apache.camel.component.hl7.HL7Constants.*;
  *   This operation will also enrich the message by adding the MSH fields (MSH-3 to MSH-12) as headers on the message.</li>
  * </ul>
  * <p/>
+ * When <tt>lazy</tt> is enabled, unmarshal returns a {@link HL7LazyMessage} that is only parsed into a HAPI message
+ * when needed, and marshal writes the original text if the message was not parsed. The message is then only
+ * validated when it is parsed.
+ * <p/>
  * Uses the <a href="http://hl7api.sourceforge.net/index.html">HAPI (HL7 API)</a> for HL7 parsing.
  * <p/>
  * Uses the default GenericParser from the HAPI API. This DataFormat <b>only</b> supports both the EDI based HL7
@@ -78,6 +82,7 @@ public class HL7DataFormat extends ServiceSupport implements DataFormat, DataFor
     private HapiContext hapiContext;
     private Parser parser;
     private boolean validate = true;
+    private boolean lazy;
     
     static {
         HEADER_MAP.put(HL7_SENDING_APPLICATION, "MSH-3");
@@ -100,6 +105,12 @@ public class HL7DataFormat extends ServiceSupport implements DataFormat, DataFor
     }
 
     public void marshal(Exchange exchange, Object body, OutputStream outputStream) throws Exception {
+        if (body instanceof HL7LazyMessage && !((HL7LazyMessage) body).isParsed()) {
+            // the message is unchanged so write the original text without encoding it again
+            HL7LazyMessage lazyMessage = (HL7LazyMessage) body;
+            outputStream.write(lazyMessage.getText().getBytes(HL7Charset.getCharsetName(lazyMessage, exchange)));
+            return;
+        }
         Message message = ExchangeHelper.convertToMandatoryType(exchange, Message.class, body);
         String charsetName = HL7Charset.getCharsetName(message, exchange);
         String encoded = HL7Converter.encode(message, parser);
@@ -110,6 +121,17 @@ public class HL7DataFormat extends ServiceSupport implements DataFormat, DataFor
         byte[] body = ExchangeHelper.convertToMandatoryType(exchange, byte[].class, inputStream);
         String charsetName = HL7Charset.getCharsetName(body, guessCharsetName(body, exchange));
         String bodyAsString = new String(body, charsetName);
+
+        if (lazy) {
+            HL7LazyMessage lazyMessage = new HL7LazyMessage(bodyAsString, parser);
+            for (Map.Entry<String, String> entry : HEADER_MAP.entrySet()) {
+                exchange.getOut().setHeader(entry.getKey(), lazyMessage.get(entry.getValue()));
+            }
+            exchange.getOut().setHeader(HL7_CONTEXT, hapiContext);
+            exchange.getOut().setHeader(Exchange.CHARSET_NAME, charsetName);
+            return lazyMessage;
+        }
+
         Message message = HL7Converter.parse(bodyAsString, parser);
 
         // add MSH fields as message out headers
@@ -130,6 +152,21 @@ public class HL7DataFormat extends ServiceSupport implements DataFormat, DataFor
         this.validate = validate;
     }
 
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * Whether to unmarshal to a {@link HL7LazyMessage} which only indexes the segments, and parses the HAPI message
+     * on demand. The MSH headers are populated from the index.
+     * <p/>
+     * The message is not validated on unmarshal, but when the HAPI message is parsed. The terser language
+     * evaluates simple paths against the index of a lazy message body, without parsing or validating it.
+     */
+    public void setLazy(boolean lazy) {
+        this.lazy = lazy;
+    }
+
     public HapiContext getHapiContext() {
         return hapiContext;
     }
@@ -0,0 +1,291 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.hl7;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import ca.uhn.hl7v2.HL7Exception;
+import ca.uhn.hl7v2.model.Message;
+import ca.uhn.hl7v2.parser.Parser;
+import ca.uhn.hl7v2.util.Terser;
+
+/**
+ * A lazily parsed ER7 (pipe-delimited) HL7 message.
+ * <p/>
+ * The message keeps the raw text and indexes the segment offsets on first access. Simple terser paths on the
+ * <tt>MSH</tt> and <tt>EVN</tt> segments, like <tt>MSH-9-1</tt> or <tt>EVN-2</tt>, are evaluated directly against the
+ * index, so routing on header fields does not require the HAPI object model. These segments are at the root of every
+ * HAPI message structure, so the index gives the same value as the {@link Terser}, as long as the segment occurs once.
+ * <p/>
+ * The full {@link Message} is only parsed when {@link #getMessage()} is called, or when a path cannot be answered from
+ * the index, in which case the regular HAPI {@link Terser} is used. This includes the paths on any other segment, as
+ * the Terser resolves them relative to the message structure and its groups, and the paths on repeated segments
+ * or with escaped values.
+ * <p/>
+ * The message is validated by the parser when it is parsed, so a lazily unmarshalled message is not validated until
+ * {@link #getMessage()} is called, or a path is evaluated with the Terser.
+ * <p/>
+ * As long as the HAPI message has not been parsed, {@link #encode()} returns the original text without re-encoding it.
+ */
+public class HL7LazyMessage {
+
+    // the segments at the root of every message structure, which are never part of a group
+    private static final String[] ROOT_SEGMENTS = {"MSH", "EVN"};
+    private static final Pattern SIMPLE_PATH = Pattern.compile("(?:/\\.)?([A-Z][A-Z0-9]{2})-(\\d+)(?:\\((\\d+)\\))?(?:-(\\d+))?(?:-(\\d+))?");
+
+    private final String text;
+    private final Parser parser;
+    private volatile Message message;
+
+    // the index, built on first access
+    private boolean indexed;
+    private boolean indexable;
+    private int[] segmentOffsets;
+    private int segmentCount;
+    private char fieldSeparator;
+    private char componentSeparator;
+    private char repetitionSeparator;
+    private char escapeCharacter;
+    private char subcomponentSeparator;
+
+    public HL7LazyMessage(String text) {
+        this(text, null);
+    }
+
+    /**
+     * @param text   the ER7 encoded message
+     * @param parser the parser to use when the full HAPI message is needed, or null to use a non-validating parser
+     */
+    public HL7LazyMessage(String text, Parser parser) {
+        this.text = text;
+        this.parser = parser;
+    }
+
+    public HL7LazyMessage(byte[] bytes, String charsetName, Parser parser) throws UnsupportedEncodingException {
+        this(new String(bytes, charsetName), parser);
+    }
+
+    /**
+     * Returns the value at the given terser path, for example <tt>MSH-9-1</tt>.
+     *
+     * @param path the terser path
+     * @return the value, or null if the field is empty
+     * @throws HL7Exception if the path is invalid, or the message cannot be parsed
+     */
+    public String get(String path) throws HL7Exception {
+        String spec = path.trim();
+        Matcher matcher = SIMPLE_PATH.matcher(spec);
+        if (isIndexable() && matcher.matches() && isRootSegment(matcher.group(1))) {
+            int segment = findSegment(matcher.group(1));
+            if (segment >= 0) {
+                int field = Integer.parseInt(matcher.group(2));
+                int repetition = matcher.group(3) == null ? 0 : Integer.parseInt(matcher.group(3));
+                int component = matcher.group(4) == null ? 1 : Integer.parseInt(matcher.group(4));
+                int subcomponent = matcher.group(5) == null ? 1 : Integer.parseInt(matcher.group(5));
+                String value = getValue(segment, field, repetition, component, subcomponent);
+                if (value == null || value.indexOf(escapeCharacter) < 0 || isMshEncodingField(segment, field)) {
+                    return value;
+                }
+                // escaped values are decoded by the HAPI parser
+            }
+        }
+        return new Terser(getMessage()).get(spec);
+    }
+
+    /**
+     * Returns the HAPI message, parsing it on first access.
+     */
+    public Message getMessage() throws HL7Exception {
+        Message answer = message;
+        if (answer == null) {
+            synchronized (this) {
+                answer = message;
+                if (answer == null) {
+                    answer = HL7Converter.parse(text, parser != null ? parser : HL7Converter.getDefaultParser());
+                    message = answer;
+                }
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Whether the HAPI message has been parsed
+     */
+    public boolean isParsed() {
+        return message != null;
+    }
+
+    /**
+     * Returns the encoded message - the original text unless the HAPI message has been parsed, as it may have been modified.
+     */
+    public String encode() throws HL7Exception {
+        Message parsed = message;
+        if (parsed == null) {
+            return text;
+        }
+        return parser != null ? HL7Converter.encode(parsed, parser) : parsed.encode();
+    }
+
+    /**
+     * Returns the original text of the message
+     */
+    public String getText() {
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    private synchronized boolean isIndexable() {
+        if (!indexed) {
+            index();
+            indexed = true;
+        }
+        return indexable;
+    }
+
+    private void index() {
+        if (text.length() < 8 || !text.startsWith("MSH")) {
+            return;
+        }
+        fieldSeparator = text.charAt(3);
+        componentSeparator = encodingCharacter(4, '^');
+        repetitionSeparator = encodingCharacter(5, '~');
+        escapeCharacter = encodingCharacter(6, '\\');
+        subcomponentSeparator = encodingCharacter(7, '&');
+
+        segmentOffsets = new int[32];
+        int start = 0;
+        int length = text.length();
+        for (int i = 0; i <= length; i++) {
+            if (i == length || text.charAt(i) == '\r' || text.charAt(i) == '\n') {
+                if (i > start) {
+                    if (segmentCount * 2 == segmentOffsets.length) {
+                        segmentOffsets = Arrays.copyOf(segmentOffsets, segmentOffsets.length * 2);
+                    }
+                    segmentOffsets[segmentCount * 2] = start;
+                    segmentOffsets[segmentCount * 2 + 1] = i;
+                    segmentCount++;
+                }
+                start = i + 1;
+            }
+        }
+        indexable = true;
+    }
+
+    private char encodingCharacter(int index, char defaultCharacter) {
+        char c = text.charAt(index);
+        return c == fieldSeparator || c == '\r' || c == '\n' ? defaultCharacter : c;
+    }
+
+    private static boolean isRootSegment(String name) {
+        for (String segment : ROOT_SEGMENTS) {
+            if (segment.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the only occurrence of the segment, or -1 if the segment is not present or is repeated
+     */
+    private int findSegment(String name) {
+        int answer = -1;
+        for (int i = 0; i < segmentCount; i++) {
+            int start = segmentOffsets[i * 2];
+            int end = segmentOffsets[i * 2 + 1];
+            if (end - start >= 3 && text.regionMatches(start, name, 0, 3) && (end - start == 3 || text.charAt(start + 3) == fieldSeparator)) {
+                if (answer >= 0) {
+                    return -1;
+                }
+                answer = i;
+            }
+        }
+        return answer;
+    }
+
+    private boolean isMshEncodingField(int segment, int field) {
+        return segment == 0 && (field == 1 || field == 2);
+    }
+
+    private String getValue(int segment, int field, int repetition, int component, int subcomponent) {
+        int start = segmentOffsets[segment * 2];
+        int end = segmentOffsets[segment * 2 + 1];
+
+        // MSH-1 is the field separator itself, so the fields of MSH are shifted by one
+        if (segment == 0 && field == 1) {
+            return String.valueOf(fieldSeparator);
+        }
+        int separators = segment == 0 ? field - 1 : field;
+
+        // locate the separator in front of the field
+        int separator = start + 3;
+        for (int i = 1; i < separators && separator >= 0; i++) {
+            separator = indexOf(fieldSeparator, separator + 1, end);
+        }
+        if (separator < 0 || separator >= end) {
+            return null;
+        }
+        int fieldStart = separator + 1;
+        int fieldEnd = indexOf(fieldSeparator, fieldStart, end);
+        int[] range = {fieldStart, fieldEnd < 0 ? end : fieldEnd};
+
+        if (!isMshEncodingField(segment, field)
+            && (!narrow(range, repetitionSeparator, repetition)
+                || !narrow(range, componentSeparator, component - 1)
+                || !narrow(range, subcomponentSeparator, subcomponent - 1))) {
+            return null;
+        }
+        return range[1] > range[0] ? text.substring(range[0], range[1]) : null;
+    }
+
+    /**
+     * Narrows the range to the n-th part delimited by the separator
+     *
+     * @return false if there is no such part
+     */
+    private boolean narrow(int[] range, char separator, int index) {
+        int partStart = range[0];
+        for (int i = 0; i < index; i++) {
+            int next = indexOf(separator, partStart, range[1]);
+            if (next < 0) {
+                return false;
+            }
+            partStart = next + 1;
+        }
+        int partEnd = indexOf(separator, partStart, range[1]);
+        range[0] = partStart;
+        range[1] = partEnd < 0 ? range[1] : partEnd;
+        return true;
+    }
+
+    private int indexOf(char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -37,8 +37,14 @@ public class TerserLanguage implements Language {
 
             @Override
             public Object evaluate(Exchange exchange) {
-                Message message = exchange.getIn().getBody(Message.class);
+                Object body = exchange.getIn().getBody();
                 try {
+                    // only a lazy message, such as from the data format with lazy enabled, is evaluated against
+                    // its segment index - other bodies are parsed and validated by the parser as usual
+                    if (body instanceof HL7LazyMessage) {
+                        return ((HL7LazyMessage) body).get(expression);
+                    }
+                    Message message = exchange.getIn().getBody(Message.class);
                     return new Terser(message).get(expression.trim());
                 } catch (HL7Exception e) {
                     throw ObjectHelper.wrapRuntimeCamelException(e);
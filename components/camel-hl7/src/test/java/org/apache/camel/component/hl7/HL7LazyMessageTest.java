@@ -0,0 +1,171 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.hl7;
+
+import ca.uhn.hl7v2.DefaultHapiContext;
+import ca.uhn.hl7v2.model.Message;
+import ca.uhn.hl7v2.util.Terser;
+import ca.uhn.hl7v2.validation.ValidationContext;
+import ca.uhn.hl7v2.validation.impl.ValidationContextFactory;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.Test;
+
+import static org.apache.camel.component.hl7.HL7.terser;
+
+/**
+ * Unit test for the lazily parsed HL7 message.
+ */
+public class HL7LazyMessageTest extends CamelTestSupport {
+
+    private static final String[] INDEXED_PATHS = {
+        "MSH-1", "MSH-2", "MSH-3", "MSH-4-1", "MSH-7", "MSH-9", "MSH-9-1", "MSH-9-2", "MSH-10", "MSH-12", "MSH-18",
+        "/.MSH-9-2", "EVN-1", "EVN-2"
+    };
+
+    private static final String[] PATHS = {
+        "PID-3", "PID-3-1", "PID-3-4", "PID-3(1)-1", "PID-3(2)-1", "PID-4-1", "PID-5-1", "PID-5-2", "PID-5-1-1",
+        "PID-11-1", "PID-30", "/.PID-5-2"
+    };
+
+    @Test
+    public void testIndexMatchesTerser() throws Exception {
+        HL7LazyMessage lazyMessage = new HL7LazyMessage(createHL7AsString());
+        Terser terser = createTerser(createHL7AsString());
+
+        for (String path : INDEXED_PATHS) {
+            assertEquals("Value of " + path, terser.get(path), lazyMessage.get(path));
+        }
+        assertFalse("Simple paths on MSH and EVN should be evaluated without parsing the message", lazyMessage.isParsed());
+
+        for (String path : PATHS) {
+            assertEquals("Value of " + path, terser.get(path), lazyMessage.get(path));
+        }
+    }
+
+    @Test
+    public void testGroupedSegmentsMatchTerser() throws Exception {
+        HL7LazyMessage lazyMessage = new HL7LazyMessage(createORUAsString());
+        Terser terser = createTerser(createORUAsString());
+
+        // PID and OBX are part of groups in ORU_R01, and OBX is repeated
+        for (String path : new String[] {"MSH-9-2", "PID-3-1", "PID-5-1", "OBR-4-1", "OBX-3-1", "OBX-5"}) {
+            assertEquals("Value of " + path, terser.get(path), lazyMessage.get(path));
+        }
+        assertTrue(lazyMessage.isParsed());
+    }
+
+    @Test
+    public void testUnsupportedPathParsesMessage() throws Exception {
+        HL7LazyMessage lazyMessage = new HL7LazyMessage(createHL7AsString());
+
+        assertEquals("Doe", lazyMessage.get("/PID-5-1"));
+        assertTrue(lazyMessage.isParsed());
+    }
+
+    @Test
+    public void testEscapedValueParsesMessage() throws Exception {
+        HL7LazyMessage lazyMessage = new HL7LazyMessage(createHL7AsString().replace("Main St", "Main\\T\\St"));
+
+        assertEquals("123 Main&St", lazyMessage.get("PID-11-1"));
+        assertTrue(lazyMessage.isParsed());
+    }
+
+    @Test
+    public void testEncodeReturnsOriginalText() throws Exception {
+        HL7LazyMessage lazyMessage = new HL7LazyMessage(createHL7AsString());
+        assertSame(lazyMessage.getText(), lazyMessage.encode());
+
+        Message message = lazyMessage.getMessage();
+        new Terser(message).set("PID-5-1", "Smith");
+        assertTrue(lazyMessage.encode().contains("Smith^John"));
+    }
+
+    @Test
+    public void testLazyUnmarshalAndMarshal() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:lazy");
+        mock.expectedMessageCount(1);
+        mock.expectedHeaderReceived(HL7Constants.HL7_MESSAGE_TYPE, "ADT");
+        mock.expectedHeaderReceived(HL7Constants.HL7_TRIGGER_EVENT, "A01");
+        mock.expectedHeaderReceived(HL7Constants.HL7_MESSAGE_CONTROL, "MSG00001");
+
+        template.sendBody("direct:lazy", createHL7AsString());
+
+        assertMockEndpointsSatisfied();
+        assertEquals(createHL7AsString(), mock.getExchanges().get(0).getIn().getBody(String.class));
+        HL7LazyMessage lazyMessage = mock.getExchanges().get(0).getProperty("lazyMessage", HL7LazyMessage.class);
+        assertFalse("Routing on MSH fields should not parse the message", lazyMessage.isParsed());
+    }
+
+    @Test
+    public void testTerserOnStringBody() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:terser");
+        mock.expectedBodiesReceived("123456");
+
+        template.sendBody("direct:terser", createHL7AsString());
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testConvertToMessage() throws Exception {
+        HL7LazyMessage lazyMessage = context.getTypeConverter().convertTo(HL7LazyMessage.class, createHL7AsString().getBytes("UTF-8"));
+        Message message = context.getTypeConverter().convertTo(Message.class, lazyMessage);
+
+        assertEquals("ADT_A01", message.getName());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        final HL7DataFormat lazy = new HL7DataFormat();
+        lazy.setLazy(true);
+
+        return new RouteBuilder() {
+            public void configure() throws Exception {
+                from("direct:lazy")
+                    .unmarshal(lazy)
+                    .setProperty("lazyMessage", body())
+                    .filter(terser("MSH-9-2").isEqualTo("A01"))
+                    .marshal(lazy)
+                    .to("mock:lazy");
+
+                from("direct:terser").transform(terser("PID-3-1")).to("mock:terser");
+            }
+        };
+    }
+
+    private static Terser createTerser(String text) throws Exception {
+        DefaultHapiContext context = new DefaultHapiContext((ValidationContext) ValidationContextFactory.noValidation());
+        return new Terser(context.getGenericParser().parse(text));
+    }
+
+    private static String createORUAsString() {
+        return "MSH|^~\\&|LAB|MYFACILITY|MYCLIENT|MYCLIENTAPP|20071231235900||ORU^R01|MSG00002|P|2.4\r"
+            + "PID|||123456^^^HOSP^MR||Doe^John\r"
+            + "OBR|1||5555|GLU^Glucose\r"
+            + "OBX|1|NM|GLU^Glucose||105|mg/dl\r"
+            + "OBX|2|NM|NA^Sodium||140|mmol/l\r";
+    }
+
+    private static String createHL7AsString() {
+        return "MSH|^~\\&|MYSENDER|MYFACILITY^1.2.3^ISO|MYCLIENT|MYCLIENTAPP|20071231235900||ADT^A01|MSG00001|P|2.4\r"
+            + "EVN|A01|20071231235900\r"
+            + "PID|||123456^^^HOSP^MR~654321^^^OTHER~777||Doe^John^^^Mr||19700101|M|||123 Main St^^Springfield^IL^62701\r"
+            + "PV1||I|W^389^1\r";
+    }
+}
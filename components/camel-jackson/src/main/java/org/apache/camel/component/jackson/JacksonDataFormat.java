@@ -24,12 +24,17 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.type.CollectionType;
 import com.fasterxml.jackson.module.jaxb.JaxbAnnotationModule;
@@ -39,7 +44,9 @@ import org.apache.camel.Exchange;
 import org.apache.camel.spi.DataFormat;
 import org.apache.camel.spi.DataFormatName;
 import org.apache.camel.support.ServiceSupport;
+import org.apache.camel.support.SynchronizationAdapter;
 import org.apache.camel.util.CamelContextHelper;
+import org.apache.camel.util.IOHelper;
 import org.apache.camel.util.ObjectHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -68,6 +75,10 @@ public class JacksonDataFormat extends ServiceSupport implements DataFormat, Dat
     private String enableFeatures;
     private String disableFeatures;
     private boolean enableJacksonTypeConverter;
+    private boolean lazyLoad;
+    private final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<Class<?>, ObjectReader>();
+    private final ConcurrentMap<Class<?>, ObjectReader> collectionReaders = new ConcurrentHashMap<Class<?>, ObjectReader>();
+    private volatile ObjectWriter writer;
 
     /**
      * Use the default Jackson {@link ObjectMapper} and {@link Map}
@@ -151,7 +162,12 @@ public class JacksonDataFormat extends ServiceSupport implements DataFormat, Dat
     }
 
     public void marshal(Exchange exchange, Object graph, OutputStream stream) throws Exception {
-        this.objectMapper.writerWithView(jsonView).writeValue(stream, graph);
+        ObjectWriter answer = writer;
+        if (answer == null) {
+            answer = objectMapper.writerWithView(jsonView);
+            writer = answer;
+        }
+        answer.writeValue(stream, graph);
     }
 
     public Object unmarshal(Exchange exchange, InputStream stream) throws Exception {
@@ -165,23 +181,69 @@ public class JacksonDataFormat extends ServiceSupport implements DataFormat, Dat
         if (type != null) {
             clazz = exchange.getContext().getClassResolver().resolveMandatoryClass(type);
         }
-        if (collectionType != null) {
-            CollectionType collType = objectMapper.getTypeFactory().constructCollectionType(collectionType, clazz);
-            return this.objectMapper.readValue(stream, collType);
-        } else {
-            return this.objectMapper.readValue(stream, clazz);
+        if (lazyLoad) {
+            // the elements of the array are read one at a time when iterating
+            final MappingIterator<Object> answer = getReader(clazz, null).readValues(stream);
+            exchange.addOnCompletion(new SynchronizationAdapter() {
+                @Override
+                public void onDone(Exchange exchange) {
+                    IOHelper.close(answer, "MappingIterator", LOG);
+                }
+            });
+            return answer;
         }
+        return getReader(clazz, collectionType).readValue(stream);
+    }
+
+    /**
+     * Gets the reader for the given unmarshal type, or for a collection of the given unmarshal type
+     * if a collection type is given, which is created once and then cached
+     */
+    private ObjectReader getReader(Class<?> clazz, Class<? extends Collection> collType) {
+        ConcurrentMap<Class<?>, ObjectReader> cache = collType != null ? collectionReaders : readers;
+        ObjectReader answer = cache.get(clazz);
+        if (answer == null) {
+            if (collType != null) {
+                CollectionType type = objectMapper.getTypeFactory().constructCollectionType(collType, clazz);
+                answer = objectMapper.readerFor(type);
+            } else {
+                answer = objectMapper.readerFor(clazz);
+            }
+            ObjectReader existing = cache.putIfAbsent(clazz, answer);
+            if (existing != null) {
+                answer = existing;
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Clears the cached readers and writer, so they are created again using the current configuration
+     */
+    private void clearReadersAndWriter() {
+        readers.clear();
+        collectionReaders.clear();
+        writer = null;
     }
 
     // Properties
     // -------------------------------------------------------------------------
 
+    /**
+     * Gets the Jackson mapper.
+     * <p/>
+     * The readers and writer are created from the mapper when first used and are then cached,
+     * so the mapper should be configured before the data format is in use. Changes made to the mapper
+     * afterwards, such as using <tt>getObjectMapper().configure(...)</tt>, are only used when the data format
+     * is restarted or the mapper is set again using {@link #setObjectMapper(ObjectMapper)}.
+     */
     public ObjectMapper getObjectMapper() {
         return this.objectMapper;
     }
 
     public void setObjectMapper(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
+        clearReadersAndWriter();
     }
 
     public Class<?> getUnmarshalType() {
@@ -198,6 +260,7 @@ public class JacksonDataFormat extends ServiceSupport implements DataFormat, Dat
 
     public void setCollectionType(Class<? extends Collection> collectionType) {
         this.collectionType = collectionType;
+        clearReadersAndWriter();
     }
 
     public Class<?> getJsonView() {
@@ -206,6 +269,7 @@ public class JacksonDataFormat extends ServiceSupport implements DataFormat, Dat
 
     public void setJsonView(Class<?> jsonView) {
         this.jsonView = jsonView;
+        clearReadersAndWriter();
     }
 
     public String getInclude() {
@@ -327,6 +391,22 @@ public class JacksonDataFormat extends ServiceSupport implements DataFormat, Dat
         this.enableJacksonTypeConverter = enableJacksonTypeConverter;
     }
 
+    public boolean isLazyLoad() {
+        return lazyLoad;
+    }
+
+    /**
+     * Whether to unmarshal a JSON array lazily, by returning an iterator which reads the elements of the array
+     * one at a time when iterating, instead of reading the whole array into memory. This allows to split big
+     * JSON arrays with streaming. The elements are unmarshalled to the unmarshal type, and the collection type
+     * is not used.
+     * <p/>
+     * By default this option is <tt>false</tt>.
+     */
+    public void setLazyLoad(boolean lazyLoad) {
+        this.lazyLoad = lazyLoad;
+    }
+
     public String getEnableFeatures() {
         return enableFeatures;
     }
@@ -401,6 +481,9 @@ public class JacksonDataFormat extends ServiceSupport implements DataFormat, Dat
 
     @Override
     protected void doStart() throws Exception {
+        // the mapper may be configured differently from a previous start
+        clearReadersAndWriter();
+
         if (objectMapper == null) {
             objectMapper = new ObjectMapper();
         }
@@ -0,0 +1,48 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.jackson;
+
+import java.io.ByteArrayOutputStream;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.Test;
+
+public class JacksonChangeViewTest extends CamelTestSupport {
+
+    @Test
+    public void testChangeViewAfterMarshal() throws Exception {
+        JacksonDataFormat format = new JacksonDataFormat(TestPojoView.class, Views.Age.class);
+        format.setCamelContext(context);
+        format.start();
+
+        Exchange exchange = new DefaultExchange(context);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        format.marshal(exchange, new TestPojoView(), out);
+        assertEquals("{\"age\":30,\"height\":190}", out.toString());
+
+        // the cached writer must not be used for the new view
+        format.setJsonView(Views.Weight.class);
+        out = new ByteArrayOutputStream();
+        format.marshal(exchange, new TestPojoView(), out);
+        assertEquals("{\"height\":190,\"weight\":70}", out.toString());
+
+        format.stop();
+    }
+
+}
@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.jackson;
+
+import java.io.ByteArrayInputStream;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.Test;
+
+public class JacksonLazyLoadTest extends CamelTestSupport {
+
+    @Test
+    public void testSplitLazyLoadedArray() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:pojo");
+        mock.expectedMessageCount(1000);
+        mock.allMessages().body().isInstanceOf(TestPojo.class);
+
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            if (i > 0) {
+                json.append(",");
+            }
+            json.append("{\"name\":\"Camel").append(i).append("\"}");
+        }
+        json.append("]");
+        template.sendBody("direct:split", new ByteArrayInputStream(json.toString().getBytes()));
+
+        assertMockEndpointsSatisfied();
+
+        assertEquals("Camel0", mock.getReceivedExchanges().get(0).getIn().getBody(TestPojo.class).getName());
+        assertEquals("Camel999", mock.getReceivedExchanges().get(999).getIn().getBody(TestPojo.class).getName());
+    }
+
+    @Test
+    public void testSplitLazyLoadedEmptyArray() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:pojo");
+        mock.expectedMessageCount(0);
+
+        template.sendBody("direct:split", "[]");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+
+            @Override
+            public void configure() throws Exception {
+                JacksonDataFormat format = new JacksonDataFormat(TestPojo.class);
+                format.setLazyLoad(true);
+
+                from("direct:split").unmarshal(format)
+                    .split(body()).streaming()
+                        .to("mock:pojo");
+            }
+        };
+    }
+
+}
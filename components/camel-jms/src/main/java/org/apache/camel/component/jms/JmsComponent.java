@@ -16,7 +16,9 @@
  */
 package org.apache.camel.component.jms;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import javax.jms.ConnectionFactory;
 import javax.jms.ExceptionListener;
@@ -25,9 +27,12 @@ import javax.jms.Session;
 import org.apache.camel.CamelContext;
 import org.apache.camel.Endpoint;
 import org.apache.camel.LoggingLevel;
+import org.apache.camel.component.jms.reply.ReplyManager;
 import org.apache.camel.impl.UriEndpointComponent;
 import org.apache.camel.spi.HeaderFilterStrategy;
 import org.apache.camel.spi.HeaderFilterStrategyAware;
+import org.apache.camel.util.ObjectHelper;
+import org.apache.camel.util.ServiceHelper;
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
@@ -56,6 +61,7 @@ public class JmsComponent extends UriEndpointComponent implements ApplicationCon
     private HeaderFilterStrategy headerFilterStrategy;
     private ExecutorService asyncStartStopExecutorService;
     private MessageCreatedStrategy messageCreatedStrategy;
+    private final Map<SharedReplyManagerKey, SharedReplyManager> sharedReplyManagers = new HashMap<SharedReplyManagerKey, SharedReplyManager>();
 
     public JmsComponent() {
         super(JmsEndpoint.class);
@@ -653,9 +659,11 @@ public class JmsComponent extends UriEndpointComponent implements ApplicationCon
 
     /**
      * Allows for explicitly specifying which kind of strategy to use for replyTo queues when doing request/reply over JMS.
-     * Possible values are: Temporary, Shared, or Exclusive.
+     * Possible values are: Temporary, Shared, Exclusive, or SharedExclusive.
      * By default Camel will use temporary queues. However if replyTo has been configured, then Shared is used by default.
      * This option allows you to use exclusive queues instead of shared ones.
+     * SharedExclusive lets all the producers in the CamelContext which uses the same replyTo queue and connection factory share a single
+     * reply consumer, which consumes the queue exclusively without using JMS message selectors.
      * See Camel JMS documentation for more details, and especially the notes about the implications if running in a clustered environment,
      * and the fact that Shared reply queues has lower performance than its alternatives Temporary and Exclusive.
      */
@@ -703,6 +711,20 @@ public class JmsComponent extends UriEndpointComponent implements ApplicationCon
         getConfiguration().setIncludeSentJMSMessageID(includeSentJMSMessageID);
     }
 
+    /**
+     * Only applicable when sending to JMS destination using InOnly (eg fire and forget).
+     * Enabling this option will send a message body which is a <tt>java.util.List</tt> as a batch, where each element
+     * of the list is sent as its own JMS message using the same JMS session and producer.
+     * The batch is sent in a transacted session and committed together, so either all or none of the messages are sent.
+     * Messages which are not sent as a batch do not use a transacted session, unless transacted is enabled.
+     * When includeSentJMSMessageID is enabled, the JMSMessageID header is set on the elements which are Camel Exchanges or Messages.
+     * The elements can be Camel Exchanges or Messages, such as the grouped exchanges from the Aggregator
+     * with a completion interval, or else the element is used as the message body.
+     */
+    public void setBatchSend(boolean batchSend) {
+        getConfiguration().setBatchSend(batchSend);
+    }
+
     /**
      * Whether to include all JMSXxxx properties when mapping from JMS to Camel Message.
      * Setting this to true will include properties such as JMSXAppID, and JMSXUserID etc.
@@ -834,6 +856,17 @@ public class JmsComponent extends UriEndpointComponent implements ApplicationCon
         }
     }
 
+    @Override
+    protected void doStop() throws Exception {
+        synchronized (sharedReplyManagers) {
+            for (SharedReplyManager shared : sharedReplyManagers.values()) {
+                ServiceHelper.stopService(shared.replyManager);
+            }
+            sharedReplyManagers.clear();
+        }
+        super.doStop();
+    }
+
     @Override
     protected void doShutdown() throws Exception {
         if (asyncStartStopExecutorService != null) {
@@ -843,6 +876,47 @@ public class JmsComponent extends UriEndpointComponent implements ApplicationCon
         super.doShutdown();
     }
 
+    /**
+     * Gets the reply manager which is shared by the producers using the replyTo queue of the given endpoint,
+     * creating it using the factory if its the first producer to use the queue.
+     * <p/>
+     * The reply manager is shared per connection factory and replyTo queue, and as its configured from the endpoint
+     * of the first producer, the other producers must use the same reply consumer configuration.
+     */
+    protected ReplyManager acquireSharedReplyManager(JmsEndpoint endpoint, Callable<ReplyManager> factory) throws Exception {
+        SharedReplyManagerKey key = new SharedReplyManagerKey(endpoint);
+        synchronized (sharedReplyManagers) {
+            SharedReplyManager shared = sharedReplyManagers.get(key);
+            if (shared == null) {
+                shared = new SharedReplyManager(endpoint, factory.call());
+                sharedReplyManagers.put(key, shared);
+            } else if (!shared.isCompatible(endpoint)) {
+                throw new IllegalArgumentException("The SharedExclusive replyTo queue: " + endpoint.getReplyTo()
+                        + " is already in use by endpoint: " + shared.endpoint.getEndpointUri()
+                        + " with a different reply consumer configuration than endpoint: " + endpoint.getEndpointUri());
+            }
+            shared.references++;
+            return shared.replyManager;
+        }
+    }
+
+    /**
+     * Releases the reply manager which is shared by the producers using the replyTo queue of the given endpoint,
+     * and stops it when it is no longer in use by any producer.
+     */
+    protected void releaseSharedReplyManager(JmsEndpoint endpoint) throws Exception {
+        SharedReplyManagerKey key = new SharedReplyManagerKey(endpoint);
+        ReplyManager stop = null;
+        synchronized (sharedReplyManagers) {
+            SharedReplyManager shared = sharedReplyManagers.get(key);
+            if (shared != null && --shared.references <= 0) {
+                sharedReplyManagers.remove(key);
+                stop = shared.replyManager;
+            }
+        }
+        ServiceHelper.stopService(stop);
+    }
+
     protected synchronized ExecutorService getAsyncStartStopExecutorService() {
         if (asyncStartStopExecutorService == null) {
             // use a cached thread pool for async start tasks as they can run for a while, and we need a dedicated thread
@@ -999,4 +1073,57 @@ public class JmsComponent extends UriEndpointComponent implements ApplicationCon
         return new JmsConfiguration();
     }
 
+    private static final class SharedReplyManagerKey {
+        private final ConnectionFactory connectionFactory;
+        private final String replyTo;
+
+        SharedReplyManagerKey(JmsEndpoint endpoint) {
+            this.connectionFactory = endpoint.getConnectionFactory();
+            this.replyTo = endpoint.getReplyTo();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SharedReplyManagerKey)) {
+                return false;
+            }
+            SharedReplyManagerKey that = (SharedReplyManagerKey) o;
+            // the same queue name on another connection factory may be another broker, so compare by identity
+            return connectionFactory == that.connectionFactory && replyTo.equals(that.replyTo);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(connectionFactory) + replyTo.hashCode();
+        }
+    }
+
+    private static final class SharedReplyManager {
+        private final JmsEndpoint endpoint;
+        private final ReplyManager replyManager;
+        private int references;
+
+        SharedReplyManager(JmsEndpoint endpoint, ReplyManager replyManager) {
+            this.endpoint = endpoint;
+            this.replyManager = replyManager;
+        }
+
+        /**
+         * Whether the given endpoint would configure the reply consumer the same way as the endpoint
+         * which created the shared reply manager.
+         */
+        boolean isCompatible(JmsEndpoint other) {
+            return ObjectHelper.equal(endpoint.getClientId(), other.getClientId())
+                    && ObjectHelper.equal(endpoint.getReplyToCacheLevelName(), other.getReplyToCacheLevelName())
+                    && endpoint.getDestinationResolver() == other.getDestinationResolver()
+                    && endpoint.getReplyToConcurrentConsumers() == other.getReplyToConcurrentConsumers()
+                    && endpoint.getReplyToMaxConcurrentConsumers() == other.getReplyToMaxConcurrentConsumers()
+                    && endpoint.getReplyToOnTimeoutMaxConcurrentConsumers() == other.getReplyToOnTimeoutMaxConcurrentConsumers()
+                    && endpoint.getRequestTimeoutCheckerInterval() == other.getRequestTimeoutCheckerInterval();
+        }
+    }
+
 }
@@ -16,6 +16,7 @@
  */
 package org.apache.camel.component.jms;
 
+import java.util.List;
 import javax.jms.ConnectionFactory;
 import javax.jms.Destination;
 import javax.jms.ExceptionListener;
@@ -366,9 +367,11 @@ public class JmsConfiguration implements Cloneable {
     private boolean disableTimeToLive;
     @UriParam(label = "producer",
             description = "Allows for explicitly specifying which kind of strategy to use for replyTo queues when doing request/reply over JMS."
-                    + " Possible values are: Temporary, Shared, or Exclusive."
+                    + " Possible values are: Temporary, Shared, Exclusive, or SharedExclusive."
                     + " By default Camel will use temporary queues. However if replyTo has been configured, then Shared is used by default."
                     + " This option allows you to use exclusive queues instead of shared ones."
+                    + " SharedExclusive lets all the producers in the CamelContext which uses the same replyTo queue and connection factory share a single"
+                    + " reply consumer, which consumes the queue exclusively without using JMS message selectors."
                     + " See Camel JMS documentation for more details, and especially the notes about the implications if running in a clustered environment,"
                     + " and the fact that Shared reply queues has lower performance than its alternatives Temporary and Exclusive.")
     private ReplyToType replyToType;
@@ -404,6 +407,16 @@ public class JmsConfiguration implements Cloneable {
                     + " Enabling this option will enrich the Camel Exchange with the actual JMSMessageID"
                     + " that was used by the JMS client when the message was sent to the JMS destination.")
     private boolean includeSentJMSMessageID;
+    @UriParam(label = "producer",
+            description = "Only applicable when sending to JMS destination using InOnly (eg fire and forget)."
+                    + " Enabling this option will send a message body which is a java.util.List as a batch, where each element"
+                    + " of the list is sent as its own JMS message using the same JMS session and producer."
+                    + " The batch is sent in a transacted session and committed together, so either all or none of the messages are sent."
+                    + " Messages which are not sent as a batch do not use a transacted session, unless transacted is enabled."
+                    + " When includeSentJMSMessageID is enabled, the JMSMessageID header is set on the elements which are Camel Exchanges or Messages."
+                    + " The elements can be Camel Exchanges or Messages, such as the grouped exchanges from the Aggregator"
+                    + " with a completion interval, or else the element is used as the message body.")
+    private boolean batchSend;
     @UriParam(label = "consumer,advanced",
             description = "Specifies what default TaskExecutor type to use in the DefaultMessageListenerContainer,"
                     + " for both consumer endpoints and the ReplyTo consumer of producer endpoints."
@@ -489,6 +502,68 @@ public class JmsConfiguration implements Cloneable {
             }, false);
         }
 
+        public void sendBatch(final String destinationName,
+                              final List<MessageCreator> messageCreators,
+                              final List<MessageSentCallback> callbacks) throws JmsException {
+            execute(new SessionCallback<Object>() {
+                public Object doInJms(Session session) throws JMSException {
+                    Destination destination = resolveDestinationName(session, destinationName);
+                    return doSendBatchToDestination(destination, messageCreators, callbacks, session);
+                }
+            }, false);
+        }
+
+        public void sendBatch(final Destination destination,
+                              final List<MessageCreator> messageCreators,
+                              final List<MessageSentCallback> callbacks) throws JmsException {
+            execute(new SessionCallback<Object>() {
+                public Object doInJms(Session session) throws JMSException {
+                    return doSendBatchToDestination(destination, messageCreators, callbacks, session);
+                }
+            }, false);
+        }
+
+        private Object doSendBatchToDestination(final Destination destination,
+                                                final List<MessageCreator> messageCreators,
+                                                final List<MessageSentCallback> callbacks,
+                                                final Session session) throws JMSException {
+
+            Assert.notNull(messageCreators, "MessageCreators must not be null");
+            // use the same producer for all the messages in the batch
+            MessageProducer producer = createProducer(session, destination);
+            try {
+                for (int i = 0; i < messageCreators.size(); i++) {
+                    Message message = messageCreators.get(i).createMessage(session);
+                    doSend(producer, message);
+                    MessageSentCallback callback = callbacks != null ? callbacks.get(i) : null;
+                    if (message != null && callback != null) {
+                        callback.sent(session, message, destination);
+                    }
+                }
+                // Check commit - avoid commit call within a JTA transaction.
+                if (session.getTransacted() && isSessionLocallyTransacted(session)) {
+                    // Transacted session created by this template -> commit the batch.
+                    JmsUtils.commitIfNecessary(session);
+                }
+            } catch (JMSException e) {
+                rollbackIfLocallyTransacted(session);
+                throw e;
+            } catch (RuntimeException e) {
+                rollbackIfLocallyTransacted(session);
+                throw e;
+            } finally {
+                JmsUtils.closeMessageProducer(producer);
+            }
+            return null;
+        }
+
+        private void rollbackIfLocallyTransacted(Session session) throws JMSException {
+            // do not send any of the messages in the batch
+            if (session.getTransacted() && isSessionLocallyTransacted(session)) {
+                JmsUtils.rollbackIfNecessary(session);
+            }
+        }
+
         private Object doSendToDestination(final Destination destination,
                                            final MessageCreator messageCreator,
                                            final MessageSentCallback callback,
@@ -1887,9 +1962,11 @@ public class JmsConfiguration implements Cloneable {
 
     /**
      * Allows for explicitly specifying which kind of strategy to use for replyTo queues when doing request/reply over JMS.
-     * Possible values are: Temporary, Shared, or Exclusive.
+     * Possible values are: Temporary, Shared, Exclusive, or SharedExclusive.
      * By default Camel will use temporary queues. However if replyTo has been configured, then Shared is used by default.
      * This option allows you to use exclusive queues instead of shared ones.
+     * SharedExclusive lets all the producers in the CamelContext which uses the same replyTo queue and connection factory share a single
+     * reply consumer, which consumes the queue exclusively without using JMS message selectors.
      * See Camel JMS documentation for more details, and especially the notes about the implications if running in a clustered environment,
      * and the fact that Shared reply queues has lower performance than its alternatives Temporary and Exclusive.
      */
@@ -1968,6 +2045,24 @@ public class JmsConfiguration implements Cloneable {
         this.includeSentJMSMessageID = includeSentJMSMessageID;
     }
 
+    public boolean isBatchSend() {
+        return batchSend;
+    }
+
+    /**
+     * Only applicable when sending to JMS destination using InOnly (eg fire and forget).
+     * Enabling this option will send a message body which is a <tt>java.util.List</tt> as a batch, where each element
+     * of the list is sent as its own JMS message using the same JMS session and producer.
+     * The batch is sent in a transacted session and committed together, so either all or none of the messages are sent.
+     * Messages which are not sent as a batch do not use a transacted session, unless transacted is enabled.
+     * When includeSentJMSMessageID is enabled, the JMSMessageID header is set on the elements which are Camel Exchanges or Messages.
+     * The elements can be Camel Exchanges or Messages, such as the grouped exchanges from the Aggregator
+     * with a completion interval, or else the element is used as the message body.
+     */
+    public void setBatchSend(boolean batchSend) {
+        this.batchSend = batchSend;
+    }
+
     public DefaultTaskExecutorType getDefaultTaskExecutorType() {
         return defaultTaskExecutorType;
     }
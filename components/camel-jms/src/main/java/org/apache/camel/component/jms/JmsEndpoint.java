@@ -1205,6 +1205,16 @@ public class JmsEndpoint extends DefaultEndpoint implements AsyncEndpoint, Heade
         configuration.setIncludeSentJMSMessageID(includeSentJMSMessageID);
     }
 
+    @ManagedAttribute
+    public boolean isBatchSend() {
+        return configuration.isBatchSend();
+    }
+
+    @ManagedAttribute
+    public void setBatchSend(boolean batchSend) {
+        configuration.setBatchSend(batchSend);
+    }
+
     @ManagedAttribute
     public boolean isIncludeAllJMSXProperties() {
         return configuration.isIncludeAllJMSXProperties();
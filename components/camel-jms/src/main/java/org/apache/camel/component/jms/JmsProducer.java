@@ -16,6 +16,10 @@
  */
 package org.apache.camel.component.jms;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
@@ -36,12 +40,14 @@ import org.apache.camel.component.jms.reply.ReplyManager;
 import org.apache.camel.component.jms.reply.TemporaryQueueReplyManager;
 import org.apache.camel.component.jms.reply.UseMessageIdAsCorrelationIdMessageSentCallback;
 import org.apache.camel.impl.DefaultAsyncProducer;
+import org.apache.camel.impl.DefaultMessage;
 import org.apache.camel.spi.UuidGenerator;
 import org.apache.camel.util.ObjectHelper;
 import org.apache.camel.util.ServiceHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.jms.core.JmsOperations;
+import org.springframework.jms.core.JmsTemplate;
 import org.springframework.jms.core.MessageCreator;
 import org.springframework.jms.support.JmsUtils;
 
@@ -58,6 +64,7 @@ public class JmsProducer extends DefaultAsyncProducer {
     private final JmsEndpoint endpoint;
     private final AtomicBoolean started = new AtomicBoolean(false);
     private JmsOperations inOnlyTemplate;
+    private JmsOperations inOnlyBatchTemplate;
     private JmsOperations inOutTemplate;
     private UuidGenerator uuidGenerator;
     private ReplyManager replyManager;
@@ -97,7 +104,17 @@ public class JmsProducer extends DefaultAsyncProducer {
                         }
                     }
 
-                    if (endpoint.getReplyTo() != null) {
+                    if (endpoint.getReplyTo() != null && isSharedExclusiveReplyTo()) {
+                        final String replyTo = endpoint.getReplyTo();
+                        replyManager = endpoint.getComponent().acquireSharedReplyManager(endpoint, new Callable<ReplyManager>() {
+                            public ReplyManager call() throws Exception {
+                                return createReplyManager(replyTo);
+                            }
+                        });
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("Using shared JmsReplyManager: {} to process replies from: {}", replyManager, replyTo);
+                        }
+                    } else if (endpoint.getReplyTo() != null) {
                         replyManager = createReplyManager(endpoint.getReplyTo());
                         if (LOG.isDebugEnabled()) {
                             LOG.debug("Using JmsReplyManager: {} to process replies from: {}", replyManager, endpoint.getReplyTo());
@@ -125,7 +142,13 @@ public class JmsProducer extends DefaultAsyncProducer {
                     LOG.debug("Stopping JmsReplyManager: {} from processing replies from: {}", replyManager,
                             endpoint.getReplyTo() != null ? endpoint.getReplyTo() : "temporary queue");
                 }
-                ServiceHelper.stopService(replyManager);
+                if (endpoint.getReplyTo() != null && isSharedExclusiveReplyTo()) {
+                    // the reply manager is stopped when no longer in use by any producer
+                    endpoint.getComponent().releaseSharedReplyManager(endpoint);
+                } else {
+                    ServiceHelper.stopService(replyManager);
+                }
+                replyManager = null;
             }
         } catch (Exception e) {
             throw ObjectHelper.wrapRuntimeCamelException(e);
@@ -134,6 +157,11 @@ public class JmsProducer extends DefaultAsyncProducer {
         }
     }
 
+    private boolean isSharedExclusiveReplyTo() {
+        // the reply manager can only be shared when we have a component to keep track of it
+        return ReplyToType.SharedExclusive.name().equals(endpoint.getReplyToType()) && endpoint.getComponent() != null;
+    }
+
     public boolean process(Exchange exchange, AsyncCallback callback) {
         // deny processing if we are not started
         if (!isRunAllowed()) {
@@ -293,10 +321,51 @@ public class JmsProducer extends DefaultAsyncProducer {
             destinationName = null;
         }
         final String to = destinationName != null ? destinationName : "" + destination;
+
+        if (endpoint.getConfiguration().isBatchSend() && in.getBody() instanceof List) {
+            List<?> batch = in.getBody(List.class);
+            List<MessageSentCallback> messageSentCallbacks = getEndpoint().getConfiguration().isIncludeSentJMSMessageID()
+                    ? createBatchMessageSentCallbacks(batch) : null;
+            doSendBatch(destinationName, destination, createBatchMessageCreators(exchange, batch, to), messageSentCallbacks);
+
+            // after sending then set the OUT message id to the JMSMessageID so its identical
+            for (Object element : batch) {
+                if (element instanceof Exchange) {
+                    setMessageId((Exchange) element);
+                }
+            }
+            setMessageId(exchange);
+
+            // we are synchronous so return true
+            callback.done(true);
+            return true;
+        }
+
         MessageSentCallback messageSentCallback = getEndpoint().getConfiguration().isIncludeSentJMSMessageID()
                 ? new InOnlyMessageSentCallback(exchange) : null;
 
-        MessageCreator messageCreator = new MessageCreator() {
+        MessageCreator messageCreator = createInOnlyMessageCreator(exchange, in, to);
+
+        doSend(false, destinationName, destination, messageCreator, messageSentCallback);
+
+        // after sending then set the OUT message id to the JMSMessageID so its identical
+        setMessageId(exchange);
+
+        // we are synchronous so return true
+        callback.done(true);
+        return true;
+    }
+
+    /**
+     * Creates the {@link MessageCreator} which creates the JMS message to send using InOnly
+     *
+     * @param exchange the exchange
+     * @param in       the message to send
+     * @param to       the destination used for logging
+     * @return the message creator
+     */
+    protected MessageCreator createInOnlyMessageCreator(final Exchange exchange, final org.apache.camel.Message in, final String to) {
+        return new MessageCreator() {
             public Message createMessage(Session session) throws JMSException {
                 Message answer = endpoint.getBinding().makeJmsMessage(exchange, in, session, null);
 
@@ -314,7 +383,7 @@ public class JmsProducer extends DefaultAsyncProducer {
                     // if the binding did not create the reply to then we have to try to create it here
                     if (jmsReplyTo == null) {
                         // prefer reply to from header over endpoint configured
-                        jmsReplyTo = exchange.getIn().getHeader("JMSReplyTo", String.class);
+                        jmsReplyTo = in.getHeader("JMSReplyTo", String.class);
                         if (jmsReplyTo == null) {
                             jmsReplyTo = endpoint.getReplyTo();
                         }
@@ -364,15 +433,35 @@ public class JmsProducer extends DefaultAsyncProducer {
                 return answer;
             }
         };
+    }
 
-        doSend(false, destinationName, destination, messageCreator, messageSentCallback);
-
-        // after sending then set the OUT message id to the JMSMessageID so its identical
-        setMessageId(exchange);
-
-        // we are synchronous so return true
-        callback.done(true);
-        return true;
+    /**
+     * Creates the {@link MessageCreator}s for each of the elements in the batch to send.
+     *
+     * @param exchange the exchange
+     * @param batch    the elements to send, which can be exchanges, messages or message bodies
+     * @param to       the destination used for logging
+     * @return the message creators
+     */
+    protected List<MessageCreator> createBatchMessageCreators(Exchange exchange, List<?> batch, String to) {
+        List<MessageCreator> answer = new ArrayList<MessageCreator>(batch.size());
+        for (Object element : batch) {
+            if (element instanceof Exchange) {
+                // such as the grouped exchanges from the aggregator
+                Exchange batchExchange = (Exchange) element;
+                answer.add(createInOnlyMessageCreator(batchExchange, batchExchange.getIn(), to));
+            } else if (element instanceof org.apache.camel.Message) {
+                answer.add(createInOnlyMessageCreator(exchange, (org.apache.camel.Message) element, to));
+            } else {
+                // the element is the body and we use the headers from the exchange
+                DefaultMessage message = new DefaultMessage();
+                message.setExchange(exchange);
+                message.setHeaders(new HashMap<String, Object>(exchange.getIn().getHeaders()));
+                message.setBody(element);
+                answer.add(createInOnlyMessageCreator(exchange, message, to));
+            }
+        }
+        return answer;
     }
 
     /**
@@ -419,6 +508,61 @@ public class JmsProducer extends DefaultAsyncProducer {
         }
     }
 
+    /**
+     * Creates the {@link MessageSentCallback}s which sets the <tt>JMSMessageID</tt> header on the elements
+     * in the batch, which are exchanges or messages.
+     *
+     * @param batch the elements to send, which can be exchanges, messages or message bodies
+     * @return the callbacks, in the same order as the elements, with <tt>null</tt> for message bodies
+     */
+    protected List<MessageSentCallback> createBatchMessageSentCallbacks(List<?> batch) {
+        List<MessageSentCallback> answer = new ArrayList<MessageSentCallback>(batch.size());
+        for (Object element : batch) {
+            if (element instanceof Exchange) {
+                answer.add(new InOnlyMessageSentCallback((Exchange) element));
+            } else if (element instanceof org.apache.camel.Message) {
+                final org.apache.camel.Message message = (org.apache.camel.Message) element;
+                answer.add(new MessageSentCallback() {
+                    public void sent(Session session, Message jmsMessage, Destination destination) {
+                        String id = JmsMessageHelper.getJMSMessageID(jmsMessage);
+                        if (id != null) {
+                            message.setHeader("JMSMessageID", id);
+                        }
+                    }
+                });
+            } else {
+                // the message is created from the body so there is no message to set the header on
+                answer.add(null);
+            }
+        }
+        return answer;
+    }
+
+    /**
+     * Sends the batch of messages using the InOnly batch JmsTemplate, in the same session which is committed
+     * when all the messages has been sent.
+     *
+     * @param destinationName      the destination name
+     * @param destination          the destination (if no name provided)
+     * @param messageCreators      the creators to create the {@link Message}s to send
+     * @param messageSentCallbacks optional callbacks for each of the messages when they have been sent
+     */
+    protected void doSendBatch(String destinationName, Destination destination, List<MessageCreator> messageCreators,
+                               List<MessageSentCallback> messageSentCallbacks) {
+        CamelJmsTemplate template = (CamelJmsTemplate) getInOnlyBatchTemplate();
+
+        LOG.debug("Sending batch of {} messages", messageCreators.size());
+
+        // destination should be preferred
+        if (destination != null) {
+            template.sendBatch(destination, messageCreators, messageSentCallbacks);
+        } else if (destinationName != null) {
+            template.sendBatch(destinationName, messageCreators, messageSentCallbacks);
+        } else {
+            throw new IllegalArgumentException("Neither destination nor destinationName is specified on this endpoint: " + endpoint);
+        }
+    }
+
     protected Destination resolveOrCreateDestination(String destinationName, Session session)
         throws JMSException {
         Destination dest = null;
@@ -476,6 +620,19 @@ public class JmsProducer extends DefaultAsyncProducer {
         this.inOnlyTemplate = inOnlyTemplate;
     }
 
+    /**
+     * Gets the template used for sending batches, which uses a transacted session so the batch is committed together
+     */
+    protected JmsOperations getInOnlyBatchTemplate() {
+        if (inOnlyBatchTemplate == null) {
+            JmsTemplate template = (JmsTemplate) endpoint.createInOnlyTemplate();
+            template.setSessionTransacted(true);
+            template.setSessionAcknowledgeMode(Session.SESSION_TRANSACTED);
+            inOnlyBatchTemplate = template;
+        }
+        return inOnlyBatchTemplate;
+    }
+
     public JmsOperations getInOutTemplate() {
         if (inOutTemplate == null) {
             inOutTemplate = endpoint.createInOutTemplate();
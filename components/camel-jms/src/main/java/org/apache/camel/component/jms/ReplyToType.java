@@ -18,9 +18,14 @@ package org.apache.camel.component.jms;
 
 /**
  * Types for replyTo queues
+ * <p/>
+ * <tt>SharedExclusive</tt> is a fixed reply queue which is shared by all the producers in the same CamelContext
+ * which uses the same replyTo queue and connection factory. The producers use a single reply manager which consumes
+ * from the queue exclusively, so no JMS message selectors are needed. As the reply manager is configured from the first
+ * producer, the producers must use the same reply consumer options.
  *
  * @version 
  */
 public enum ReplyToType {
-    Temporary, Shared, Exclusive
+    Temporary, Shared, Exclusive, SharedExclusive
 }
@@ -19,16 +19,19 @@ package org.apache.camel.component.jms.reply;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 
-import org.apache.camel.support.DefaultTimeoutMap;
+import org.apache.camel.support.HashedWheelTimeoutMap;
 
 /**
  * A {@link org.apache.camel.TimeoutMap} which is used to track reply messages which
  * has been timed out, and thus should trigger the waiting {@link org.apache.camel.Exchange} to
  * timeout as well.
+ * <p/>
+ * The map is backed by a hashed timing wheel, so looking up the correlation id when a reply arrives does not
+ * take any lock, and the timeout checker only visits the requests which are due to time out.
  *
  * @version 
  */
-public class CorrelationTimeoutMap extends DefaultTimeoutMap<String, ReplyHandler> {
+public class CorrelationTimeoutMap extends HashedWheelTimeoutMap<String, ReplyHandler> {
 
     private CorrelationListener listener;
     private ExecutorService executorService;
@@ -144,7 +144,8 @@ public class QueueReplyManager extends ReplyManagerSupport {
             // shared is not as fast as temporary or exclusive, so log this so the end user may be aware of this
             log.warn("{} is using a shared reply queue, which is not as fast as alternatives."
                     + " See more detail at the section 'Request-reply over JMS' at http://camel.apache.org/jms", endpoint);
-        } else if (ReplyToType.Exclusive == type) {
+        } else if (ReplyToType.Exclusive == type || ReplyToType.SharedExclusive == type) {
+            // shared exclusive is also consuming from the queue exclusively, but on behalf of all the producers using the queue
             answer = new ExclusiveQueueMessageListenerContainer(endpoint);
             // must use cache level consumer for exclusive as there is no message selector
             answer.setCacheLevel(DefaultMessageListenerContainer.CACHE_CONSUMER);
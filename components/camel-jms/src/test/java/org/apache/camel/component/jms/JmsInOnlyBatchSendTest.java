@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.jms;
+
+import java.util.Arrays;
+import javax.jms.ConnectionFactory;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Message;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.impl.DefaultMessage;
+import org.apache.camel.processor.aggregate.GroupedExchangeAggregationStrategy;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.Test;
+
+import static org.apache.camel.component.jms.JmsComponent.jmsComponentAutoAcknowledge;
+
+/**
+ *
+ */
+public class JmsInOnlyBatchSendTest extends CamelTestSupport {
+
+    @Test
+    public void testBatchSendList() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("A", "B", "C");
+        mock.allMessages().header("foo").isEqualTo("123");
+
+        template.sendBodyAndHeader("direct:start", Arrays.asList("A", "B", "C"), "foo", "123");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testBatchSendNotList() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("Hello World");
+
+        template.sendBody("direct:start", "Hello World");
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testBatchSendAggregated() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("X", "Y", "Z");
+        mock.message(0).header("id").isEqualTo(1);
+        mock.message(1).header("id").isEqualTo(2);
+        mock.message(2).header("id").isEqualTo(3);
+
+        template.sendBodyAndHeader("direct:aggregate", "X", "id", 1);
+        template.sendBodyAndHeader("direct:aggregate", "Y", "id", 2);
+        template.sendBodyAndHeader("direct:aggregate", "Z", "id", 3);
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testBatchSendIncludeSentJMSMessageID() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedBodiesReceived("A", "B");
+
+        Message a = new DefaultMessage();
+        a.setBody("A");
+        Message b = new DefaultMessage();
+        b.setBody("B");
+        template.sendBody("direct:id", Arrays.asList(a, b));
+
+        assertMockEndpointsSatisfied();
+
+        assertEquals(mock.getReceivedExchanges().get(0).getIn().getHeader("JMSMessageID"), a.getHeader("JMSMessageID"));
+        assertEquals(mock.getReceivedExchanges().get(1).getIn().getHeader("JMSMessageID"), b.getHeader("JMSMessageID"));
+        assertNotNull(a.getHeader("JMSMessageID"));
+    }
+
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext camelContext = super.createCamelContext();
+        ConnectionFactory connectionFactory = CamelJmsTestHelper.createConnectionFactory();
+        camelContext.addComponent("activemq", jmsComponentAutoAcknowledge(connectionFactory));
+        return camelContext;
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:start")
+                    .to("activemq:queue:foo?batchSend=true");
+
+                from("direct:id")
+                    .to("activemq:queue:foo?batchSend=true&includeSentJMSMessageID=true");
+
+                // group the exchanges within a time window and send them as a batch
+                from("direct:aggregate")
+                    .aggregate(constant(true), new GroupedExchangeAggregationStrategy()).completionInterval(500)
+                        .to("activemq:queue:foo?batchSend=true");
+
+                from("activemq:queue:foo")
+                    .to("mock:result");
+            }
+        };
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.jms;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import javax.jms.ConnectionFactory;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.apache.camel.util.ObjectHelper;
+import org.junit.Test;
+
+import static org.apache.camel.component.jms.JmsComponent.jmsComponentAutoAcknowledge;
+
+/**
+ * Using a shared exclusive fixed replyTo queue lets producers to different destinations
+ * share the same reply queue, without using JMS message selectors.
+ *
+ * @version 
+ */
+public class JmsRequestReplySharedExclusiveReplyToTest extends CamelTestSupport {
+
+    @Test
+    public void testJmsRequestReplySharedExclusiveFixedReplyTo() throws Exception {
+        List<Future<Object>> foo = new ArrayList<Future<Object>>();
+        List<Future<Object>> bar = new ArrayList<Future<Object>>();
+        for (int i = 0; i < 10; i++) {
+            foo.add(template.asyncRequestBody("activemq:queue:foo?replyTo=baz&replyToType=SharedExclusive", "A" + i));
+            bar.add(template.asyncRequestBody("activemq:queue:bar?replyTo=baz&replyToType=SharedExclusive", "B" + i));
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("Hello A" + i, foo.get(i).get());
+            assertEquals("Bye B" + i, bar.get(i).get());
+        }
+    }
+
+    @Test
+    public void testJmsRequestReplySharedExclusiveConflictingConfiguration() throws Exception {
+        assertEquals("Hello A", template.requestBody("activemq:queue:foo?replyTo=baz&replyToType=SharedExclusive", "A"));
+
+        try {
+            template.requestBody("activemq:queue:bar?replyTo=baz&replyToType=SharedExclusive&replyToConcurrentConsumers=2", "B");
+            fail("Should have thrown an exception");
+        } catch (Exception e) {
+            IllegalArgumentException iae = ObjectHelper.getException(IllegalArgumentException.class, e);
+            assertNotNull(iae);
+            assertTrue(iae.getMessage().startsWith("The SharedExclusive replyTo queue: baz is already in use by endpoint"));
+        }
+    }
+
+    protected CamelContext createCamelContext() throws Exception {
+        CamelContext camelContext = super.createCamelContext();
+        ConnectionFactory connectionFactory = CamelJmsTestHelper.createConnectionFactory();
+        camelContext.addComponent("activemq", jmsComponentAutoAcknowledge(connectionFactory));
+        return camelContext;
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("activemq:queue:foo")
+                    .transform(body().prepend("Hello "));
+
+                from("activemq:queue:bar")
+                    .transform(body().prepend("Bye "));
+            }
+        };
+    }
+}
@@ -93,6 +93,15 @@ public class MllpEndpoint extends DefaultEndpoint {
     @UriParam(label = "codec")
     String charsetName;
 
+    @UriParam(label = "advanced")
+    boolean nio;
+
+    @UriParam(label = "advanced", defaultValue = "10")
+    int workerPoolSize = 10;
+
+    @UriParam(label = "advanced", defaultValue = "10485760")
+    int maxFrameSize = 10485760;
+
     public MllpEndpoint(String uri, MllpComponent component) {
         super(uri, component);
     }
@@ -129,7 +138,12 @@ public class MllpEndpoint extends DefaultEndpoint {
 
     public Consumer createConsumer(Processor processor) throws Exception {
         LOG.trace("({}).createConsumer(processor)", this.getEndpointKey());
-        Consumer consumer = new MllpTcpServerConsumer(this, processor);
+        Consumer consumer;
+        if (nio) {
+            consumer = new MllpNioTcpServerConsumer(this, processor);
+        } else {
+            consumer = new MllpTcpServerConsumer(this, processor);
+        }
         configureConsumer(consumer);
         return consumer;
     }
@@ -341,4 +355,50 @@ public class MllpEndpoint extends DefaultEndpoint {
         this.autoAck = autoAck;
     }
 
+    public boolean isNio() {
+        return nio;
+    }
+
+    /**
+     * Use a single selector thread for all client connections instead of a thread per connection
+     *
+     * MLLP Consumers only
+     *
+     * @param nio enabled if true, otherwise a thread is started for each client connection
+     */
+    public void setNio(boolean nio) {
+        this.nio = nio;
+    }
+
+    public int getWorkerPoolSize() {
+        return workerPoolSize;
+    }
+
+    /**
+     * The number of threads processing received messages when the NIO consumer is used
+     *
+     * MLLP Consumers only
+     *
+     * @param workerPoolSize the maximum number of messages processed concurrently
+     */
+    public void setWorkerPoolSize(int workerPoolSize) {
+        this.workerPoolSize = workerPoolSize;
+    }
+
+    public int getMaxFrameSize() {
+        return maxFrameSize;
+    }
+
+    /**
+     * The maximum size in bytes of a received MLLP frame when the NIO consumer is used - the connection is closed
+     * when a client sends a larger frame
+     *
+     * MLLP Consumers only
+     *
+     * @param maxFrameSize the maximum size of a received frame, including the MLLP envelope
+     */
+    public void setMaxFrameSize(int maxFrameSize) {
+        this.maxFrameSize = maxFrameSize;
+    }
+
 }
@@ -0,0 +1,615 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.mllp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.BindException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangePattern;
+import org.apache.camel.Message;
+import org.apache.camel.Processor;
+import org.apache.camel.component.mllp.impl.MllpBufferPool;
+import org.apache.camel.component.mllp.impl.MllpConsumerSupport;
+import org.apache.camel.impl.DefaultConsumer;
+import org.apache.camel.processor.mllp.Hl7AcknowledgementGenerator;
+
+import static org.apache.camel.component.mllp.MllpConstants.MLLP_ACKNOWLEDGEMENT;
+import static org.apache.camel.component.mllp.MllpConstants.MLLP_CLOSE_CONNECTION_AFTER_SEND;
+import static org.apache.camel.component.mllp.MllpConstants.MLLP_CLOSE_CONNECTION_BEFORE_SEND;
+import static org.apache.camel.component.mllp.MllpConstants.MLLP_LOCAL_ADDRESS;
+import static org.apache.camel.component.mllp.MllpConstants.MLLP_REMOTE_ADDRESS;
+import static org.apache.camel.component.mllp.MllpConstants.MLLP_RESET_CONNECTION_AFTER_SEND;
+import static org.apache.camel.component.mllp.MllpConstants.MLLP_RESET_CONNECTION_BEFORE_SEND;
+import static org.apache.camel.component.mllp.MllpEndpoint.END_OF_BLOCK;
+import static org.apache.camel.component.mllp.MllpEndpoint.END_OF_DATA;
+import static org.apache.camel.component.mllp.MllpEndpoint.START_OF_BLOCK;
+
+/**
+ * The MLLP consumer using a single selector thread for all client connections.
+ * <p/>
+ * MLLP frames are assembled into pooled buffers on the selector thread, and complete frames are dispatched to a bounded
+ * worker pool.  Reads are suspended on a connection while its message is processed, so messages on a connection are
+ * processed in order and at most one message per connection is queued for the workers.  The acknowledgement is written
+ * by the selector thread, after which reading resumes.  A frame larger than the maxFrameSize of the endpoint closes
+ * the connection.
+ * <p/>
+ * The acknowledgement handling and the connection control exchange properties are the same as for the
+ * {@link MllpTcpServerConsumer}.
+ */
+public class MllpNioTcpServerConsumer extends DefaultConsumer {
+    static final int DEFAULT_BUFFER_SIZE = 8192;
+    static final long SELECT_TIMEOUT = 500;
+
+    final MllpEndpoint endpoint;
+    final Hl7AcknowledgementGenerator acknowledgementGenerator = new Hl7AcknowledgementGenerator();
+    final Queue<Connection> pendingConnections = new ConcurrentLinkedQueue<>();
+
+    MllpBufferPool bufferPool;
+    ServerSocketChannel serverChannel;
+    Selector selector;
+    ExecutorService selectorExecutor;
+    ExecutorService workerPool;
+    volatile boolean running;
+
+    public MllpNioTcpServerConsumer(MllpEndpoint endpoint, Processor processor) {
+        super(endpoint, processor);
+        log.trace("MllpNioTcpServerConsumer(endpoint, processor)");
+        this.endpoint = endpoint;
+    }
+
+    @Override
+    protected void doStart() throws Exception {
+        log.debug("doStart() - binding server channel");
+
+        bufferPool = new MllpBufferPool(DEFAULT_BUFFER_SIZE, endpoint.getWorkerPoolSize());
+        selector = Selector.open();
+
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        if (null != endpoint.receiveBufferSize) {
+            serverChannel.setOption(StandardSocketOptions.SO_RCVBUF, endpoint.receiveBufferSize);
+        }
+        serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, endpoint.reuseAddress);
+
+        InetSocketAddress socketAddress;
+        if (null == endpoint.getHostname()) {
+            socketAddress = new InetSocketAddress(endpoint.getPort());
+        } else {
+            socketAddress = new InetSocketAddress(endpoint.getHostname(), endpoint.getPort());
+        }
+        long startTicks = System.currentTimeMillis();
+
+        boolean bound = false;
+        do {
+            try {
+                serverChannel.bind(socketAddress, endpoint.backlog);
+                bound = true;
+            } catch (BindException bindException) {
+                if (System.currentTimeMillis() > startTicks + endpoint.getBindTimeout()) {
+                    log.error("Failed to bind to address {} within timeout {}", socketAddress, endpoint.getBindTimeout());
+                    serverChannel.close();
+                    selector.close();
+                    throw bindException;
+                } else {
+                    log.warn("Failed to bind to address {} - retrying in {} milliseconds", socketAddress, endpoint.getBindRetryInterval());
+                    Thread.sleep(endpoint.getBindRetryInterval());
+                }
+            }
+        } while (!bound);
+
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        workerPool = endpoint.getCamelContext().getExecutorServiceManager().newFixedThreadPool(this, "MllpNioWorker", endpoint.getWorkerPoolSize());
+        selectorExecutor = endpoint.getCamelContext().getExecutorServiceManager().newSingleThreadExecutor(this, "MllpNioSelector");
+
+        running = true;
+        selectorExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                selectLoop();
+            }
+        });
+
+        super.doStart();
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        log.debug("doStop()");
+
+        // stop accepting new connections, and let the messages in progress be acknowledged
+        if (null != serverChannel) {
+            closeQuietly(serverChannel);
+        }
+        if (null != workerPool) {
+            endpoint.getCamelContext().getExecutorServiceManager().shutdownGraceful(workerPool);
+            workerPool = null;
+        }
+
+        running = false;
+        if (null != selector) {
+            selector.wakeup();
+        }
+        if (null != selectorExecutor) {
+            endpoint.getCamelContext().getExecutorServiceManager().shutdownGraceful(selectorExecutor);
+            selectorExecutor = null;
+        }
+
+        super.doStop();
+    }
+
+    public MllpBufferPool getBufferPool() {
+        return bufferPool;
+    }
+
+    /**
+     * The main select loop - handles accepts, reads, pending writes and receive timeouts
+     */
+    void selectLoop() {
+        log.debug("Starting selector thread");
+        long lastTimeoutCheck = System.currentTimeMillis();
+        try {
+            while (running) {
+                selector.select(SELECT_TIMEOUT);
+
+                Connection pending;
+                while (null != (pending = pendingConnections.poll())) {
+                    try {
+                        complete(pending);
+                    } catch (RuntimeException ex) {
+                        handleUnexpectedException(pending, ex);
+                    }
+                }
+
+                Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+                while (selectedKeys.hasNext()) {
+                    SelectionKey key = selectedKeys.next();
+                    selectedKeys.remove();
+                    select(key);
+                }
+
+                long now = System.currentTimeMillis();
+                if (now - lastTimeoutCheck >= SELECT_TIMEOUT) {
+                    checkReceiveTimeouts(now);
+                    lastTimeoutCheck = now;
+                }
+            }
+        } catch (Exception ex) {
+            log.error("Unexpected exception in selector thread - closing all connections", ex);
+        } finally {
+            log.debug("Selector thread finished - closing connections");
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection) {
+                    ((Connection) key.attachment()).close();
+                }
+                closeQuietly(key.channel());
+            }
+            closeQuietly(selector);
+        }
+    }
+
+    /**
+     * Handle a selected key - an unexpected exception only resets the connection of the key, so the selector thread
+     * keeps serving the other connections
+     */
+    void select(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        try {
+            if (key.isAcceptable()) {
+                accept();
+            } else if (key.isReadable()) {
+                read((Connection) key.attachment());
+            } else if (key.isWritable()) {
+                write((Connection) key.attachment());
+            }
+        } catch (IOException ioEx) {
+            // only accepting connections throws - the server channel remains registered
+            log.warn("Exception encountered accepting connections", ioEx);
+        } catch (RuntimeException ex) {
+            handleUnexpectedException(key.attachment() instanceof Connection ? (Connection) key.attachment() : null, ex);
+        }
+    }
+
+    void handleUnexpectedException(Connection connection, RuntimeException ex) {
+        log.error("Unexpected exception in selector thread - resetting connection", ex);
+        handleException(ex);
+        if (null != connection) {
+            connection.reset();
+        }
+    }
+
+    void accept() throws IOException {
+        SocketChannel channel;
+        while (null != (channel = serverChannel.accept())) {
+            log.debug("Accepted connection from {}", channel.getRemoteAddress());
+            try {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.SO_KEEPALIVE, endpoint.keepAlive);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, endpoint.tcpNoDelay);
+                if (null != endpoint.receiveBufferSize) {
+                    channel.setOption(StandardSocketOptions.SO_RCVBUF, endpoint.receiveBufferSize);
+                }
+                if (null != endpoint.sendBufferSize) {
+                    channel.setOption(StandardSocketOptions.SO_SNDBUF, endpoint.sendBufferSize);
+                }
+                Connection connection = new Connection(channel);
+                connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            } catch (IOException ioEx) {
+                log.warn("Exception encountered configuring accepted connection - closing connection", ioEx);
+                closeQuietly(channel);
+            }
+        }
+    }
+
+    void read(Connection connection) {
+        if (null == connection.inbound) {
+            connection.inbound = bufferPool.acquire();
+        } else if (!connection.inbound.hasRemaining()) {
+            int capacity = connection.inbound.capacity();
+            if (capacity >= endpoint.getMaxFrameSize()) {
+                log.error("The MLLP frame exceeds the maximum frame size of {} bytes - closing connection and eating data", endpoint.getMaxFrameSize());
+                handleException(new MllpCorruptFrameException("The MLLP frame exceeds the maximum frame size of " + endpoint.getMaxFrameSize() + " bytes", connection.payload()));
+                connection.close();
+                return;
+            }
+            // the frame does not fit in the buffer - grow it, up to the maximum frame size
+            ByteBuffer larger = ByteBuffer.allocate((int) Math.min((long) capacity * 2, endpoint.getMaxFrameSize()));
+            connection.inbound.flip();
+            larger.put(connection.inbound);
+            bufferPool.release(connection.inbound);
+            connection.inbound = larger;
+        }
+
+        int bytesRead;
+        try {
+            bytesRead = connection.channel.read(connection.inbound);
+        } catch (IOException ioEx) {
+            handleException(new MllpException("Exception encountered reading from the connection", connection.payload(), ioEx));
+            connection.reset();
+            return;
+        }
+
+        if (bytesRead < 0) {
+            if (connection.inbound.position() > 0) {
+                handleException(new MllpCorruptFrameException("END_OF_STREAM read while looking for the end of the MLLP frame", connection.payload()));
+                connection.reset();
+            } else {
+                log.debug("Connection closed by the client");
+                connection.close();
+            }
+            return;
+        }
+
+        connection.lastRead = System.currentTimeMillis();
+        decode(connection);
+    }
+
+    /**
+     * Look for a complete MLLP frame in the inbound buffer of the connection, and dispatch it to the worker pool.
+     */
+    void decode(Connection connection) {
+        ByteBuffer inbound = connection.inbound;
+        if (null == inbound) {
+            return;
+        }
+        byte[] data = inbound.array();
+        int limit = inbound.position();
+
+        if (!connection.inFrame) {
+            int start = 0;
+            while (start < limit && START_OF_BLOCK != data[start]) {
+                ++start;
+            }
+            if (start > 0) {
+                log.warn("The beginning of the MLLP frame was preceded by out-of-frame data - eating data");
+                handleException(new MllpCorruptFrameException("The beginning of the MLLP frame was preceded by out-of-frame data", Arrays.copyOf(data, start)));
+                consume(connection, start);
+                limit = inbound.position();
+            }
+            if (0 == limit) {
+                releaseInbound(connection);
+                return;
+            }
+            connection.inFrame = true;
+            connection.scanIndex = 1;
+        }
+
+        for (int i = connection.scanIndex; i < limit; ++i) {
+            if (START_OF_BLOCK == data[i]) {
+                log.error("A new MLLP frame was opened before the previous frame was closed - resetting connection and eating data");
+                handleException(new MllpCorruptFrameException("A new MLLP frame was opened before the previous frame was closed", connection.payload()));
+                connection.reset();
+                return;
+            } else if (END_OF_BLOCK == data[i]) {
+                if (i + 1 >= limit) {
+                    // wait for the END_OF_DATA byte
+                    connection.scanIndex = i;
+                    return;
+                }
+                if (END_OF_DATA != data[i + 1]) {
+                    log.error("The MLLP frame was partially closed - END_OF_BLOCK was not followed by END_OF_DATA - resetting connection and eating data");
+                    handleException(new MllpCorruptFrameException("The MLLP frame was partially closed - END_OF_BLOCK was not followed by END_OF_DATA", connection.payload()));
+                    connection.reset();
+                    return;
+                }
+
+                byte[] hl7MessageBytes = Arrays.copyOfRange(data, 1, i);
+                consume(connection, i + 2);
+                connection.inFrame = false;
+                connection.scanIndex = 0;
+                if (0 == inbound.position()) {
+                    releaseInbound(connection);
+                }
+
+                dispatch(connection, hl7MessageBytes);
+                return;
+            }
+        }
+        connection.scanIndex = limit;
+    }
+
+    void dispatch(final Connection connection, final byte[] hl7MessageBytes) {
+        // suspend reading until the acknowledgement has been written
+        connection.busy = true;
+        connection.key.interestOps(0);
+        workerPool.execute(new Runnable() {
+            @Override
+            public void run() {
+                process(connection, hl7MessageBytes);
+            }
+        });
+    }
+
+    /**
+     * Process a received message and queue the acknowledgement - called on a worker thread
+     */
+    void process(Connection connection, byte[] hl7MessageBytes) {
+        log.debug("Populating the exchange with received message");
+        Exchange exchange = endpoint.createExchange(ExchangePattern.InOut);
+        Message message = exchange.getIn();
+        message.setBody(hl7MessageBytes, byte[].class);
+
+        Socket socket = connection.channel.socket();
+        message.setHeader(MLLP_LOCAL_ADDRESS, socket.getLocalAddress().toString());
+        message.setHeader(MLLP_REMOTE_ADDRESS, socket.getRemoteSocketAddress());
+
+        MllpConsumerSupport.populateHl7DataHeaders(exchange, message, hl7MessageBytes);
+
+        log.debug("Calling processor");
+        try {
+            getProcessor().process(exchange);
+
+            // Check BEFORE_SEND Properties
+            if (exchange.getProperty(MLLP_RESET_CONNECTION_BEFORE_SEND, boolean.class)) {
+                queue(connection, null, true, false);
+                return;
+            } else if (exchange.getProperty(MLLP_CLOSE_CONNECTION_BEFORE_SEND, boolean.class)) {
+                queue(connection, null, false, true);
+                return;
+            }
+
+            byte[] acknowledgementMessageBytes = MllpConsumerSupport.createAcknowledgement(exchange, hl7MessageBytes, endpoint.autoAck, acknowledgementGenerator);
+            if (null == acknowledgementMessageBytes) {
+                getExceptionHandler().handleException("Unable to acknowledge the received message - resetting connection", exchange, exchange.getException());
+                queue(connection, null, true, false);
+                return;
+            }
+            exchange.getIn().setHeader(MLLP_ACKNOWLEDGEMENT, acknowledgementMessageBytes);
+
+            ByteBuffer outbound = ByteBuffer.allocate(acknowledgementMessageBytes.length + 3);
+            outbound.put((byte) START_OF_BLOCK).put(acknowledgementMessageBytes).put((byte) END_OF_BLOCK).put((byte) END_OF_DATA);
+            outbound.flip();
+
+            log.debug("Queueing Acknowledgement");
+            queue(connection, outbound,
+                    exchange.getProperty(MLLP_RESET_CONNECTION_AFTER_SEND, boolean.class),
+                    exchange.getProperty(MLLP_CLOSE_CONNECTION_AFTER_SEND, boolean.class));
+        } catch (Exception e) {
+            exchange.setException(e);
+            handleException(e);
+            queue(connection, null, true, false);
+        }
+    }
+
+    /**
+     * Hand the connection back to the selector thread, which writes the acknowledgement (if any) and then resets,
+     * closes or resumes reading from the connection - called on a worker thread
+     */
+    void queue(Connection connection, ByteBuffer outbound, boolean reset, boolean close) {
+        connection.outbound = outbound;
+        connection.resetAfterSend = reset;
+        connection.closeAfterSend = close;
+        pendingConnections.add(connection);
+        selector.wakeup();
+    }
+
+    /**
+     * Complete the processing of a message queued by a worker thread
+     */
+    void complete(Connection connection) {
+        if (null != connection.outbound) {
+            write(connection);
+        } else if (connection.resetAfterSend) {
+            connection.reset();
+        } else if (connection.closeAfterSend) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Write the pending acknowledgement of the connection, and resume reading once it has been written
+     */
+    void write(Connection connection) {
+        if (null == connection.outbound || !connection.channel.isOpen()) {
+            return;
+        }
+
+        try {
+            connection.channel.write(connection.outbound);
+        } catch (IOException ioEx) {
+            log.error("Error writing MLLP payload - resetting connection");
+            handleException(new MllpWriteException("Error writing MLLP payload", connection.outbound.array(), ioEx));
+            connection.reset();
+            return;
+        }
+
+        if (connection.outbound.hasRemaining()) {
+            connection.key.interestOps(SelectionKey.OP_WRITE);
+            return;
+        }
+
+        connection.outbound = null;
+        if (connection.resetAfterSend) {
+            connection.reset();
+        } else if (connection.closeAfterSend) {
+            connection.close();
+        } else {
+            connection.busy = false;
+            connection.lastRead = System.currentTimeMillis();
+            connection.key.interestOps(SelectionKey.OP_READ);
+            // the client may have pipelined the next message
+            decode(connection);
+        }
+    }
+
+    void checkReceiveTimeouts(long now) {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection) {
+                Connection connection = (Connection) key.attachment();
+                try {
+                    if (!connection.busy && connection.inFrame && now - connection.lastRead > endpoint.getReceiveTimeout()) {
+                        log.error("Timeout looking for the end of the MLLP frame - resetting connection and eating data");
+                        handleException(new MllpTimeoutException("Timeout looking for the end of the MLLP frame", connection.payload()));
+                        connection.reset();
+                    }
+                } catch (RuntimeException ex) {
+                    handleUnexpectedException(connection, ex);
+                }
+            }
+        }
+    }
+
+    void consume(Connection connection, int count) {
+        ByteBuffer inbound = connection.inbound;
+        inbound.flip();
+        inbound.position(count);
+        inbound.compact();
+    }
+
+    void releaseInbound(Connection connection) {
+        bufferPool.release(connection.inbound);
+        connection.inbound = null;
+    }
+
+    void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ioEx) {
+            log.debug("Exception encountered closing {} - ignoring", closeable, ioEx);
+        }
+    }
+
+    /**
+     * The state of a client connection
+     */
+    class Connection {
+        final SocketChannel channel;
+        SelectionKey key;
+
+        // only accessed by the selector thread
+        ByteBuffer inbound;
+        boolean inFrame;
+        int scanIndex;
+        long lastRead = System.currentTimeMillis();
+        volatile boolean busy;
+
+        // set by the worker thread before the connection is queued for the selector thread
+        ByteBuffer outbound;
+        boolean closeAfterSend;
+        boolean resetAfterSend;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * @return the payload of the partially received frame, if any
+         */
+        byte[] payload() {
+            if (null == inbound || inbound.position() <= 1) {
+                return null;
+            }
+            return Arrays.copyOfRange(inbound.array(), 1, inbound.position());
+        }
+
+        void close() {
+            releaseBuffer();
+            if (channel.isOpen()) {
+                try {
+                    channel.shutdownInput();
+                    channel.shutdownOutput();
+                } catch (ClosedChannelException ignore) {
+                    // already closed
+                } catch (IOException ioEx) {
+                    log.warn("Exception encountered shutting down the client connection", ioEx);
+                }
+                closeQuietly(channel);
+            }
+        }
+
+        void reset() {
+            releaseBuffer();
+            if (channel.isOpen()) {
+                try {
+                    channel.setOption(StandardSocketOptions.SO_LINGER, 0);
+                } catch (IOException ioEx) {
+                    log.warn("Exception encountered setting SO_LINGER to 0 on the connection to force a reset", ioEx);
+                }
+                closeQuietly(channel);
+            }
+        }
+
+        /**
+         * Return the frame buffer to the pool - must be called on the selector thread
+         */
+        void releaseBuffer() {
+            if (null != inbound) {
+                releaseInbound(this);
+            }
+            inFrame = false;
+            scanIndex = 0;
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.mllp.impl;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Message;
+import org.apache.camel.component.mllp.MllpInvalidAcknowledgementException;
+import org.apache.camel.processor.mllp.Hl7AcknowledgementGenerationException;
+import org.apache.camel.processor.mllp.Hl7AcknowledgementGenerator;
+import org.apache.camel.util.IOHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.apache.camel.component.mllp.MllpConstants.MLLP_ACKNOWLEDGEMENT;
+import static org.apache.camel.component.mllp.MllpConstants.MLLP_ACKNOWLEDGEMENT_TYPE;
+import static org.apache.camel.component.mllp.MllpConstants.MLLP_CHARSET;
+import static org.apache.camel.component.mllp.MllpConstants.MLLP_EVENT_TYPE;
+import static org.apache.camel.component.mllp.MllpConstants.MLLP_MESSAGE_CONTROL;
+import static org.apache.camel.component.mllp.MllpConstants.MLLP_MESSAGE_TYPE;
+import static org.apache.camel.component.mllp.MllpConstants.MLLP_PROCESSING_ID;
+import static org.apache.camel.component.mllp.MllpConstants.MLLP_RECEIVING_APPLICATION;
+import static org.apache.camel.component.mllp.MllpConstants.MLLP_RECEIVING_FACILITY;
+import static org.apache.camel.component.mllp.MllpConstants.MLLP_SECURITY;
+import static org.apache.camel.component.mllp.MllpConstants.MLLP_SENDING_APPLICATION;
+import static org.apache.camel.component.mllp.MllpConstants.MLLP_SENDING_FACILITY;
+import static org.apache.camel.component.mllp.MllpConstants.MLLP_TIMESTAMP;
+import static org.apache.camel.component.mllp.MllpConstants.MLLP_TRIGGER_EVENT;
+import static org.apache.camel.component.mllp.MllpConstants.MLLP_VERSION_ID;
+import static org.apache.camel.component.mllp.MllpEndpoint.SEGMENT_DELIMITER;
+
+/**
+ * Supplies the HL7 handling shared by the MLLP consumers - populating the message headers from the MSH segment and
+ * determining the acknowledgement for a processed exchange.
+ * <p/>
+ * The methods do not depend on the transport, so they are used by both the Socket-based and the NIO-based consumer.
+ */
+public final class MllpConsumerSupport {
+    private static final Logger LOG = LoggerFactory.getLogger(MllpConsumerSupport.class);
+
+    private MllpConsumerSupport() {
+    }
+
+    /**
+     * Determine the acknowledgement for a processed exchange.
+     * <p/>
+     * The acknowledgement is taken from the MLLP_ACKNOWLEDGEMENT exchange property if present; otherwise one is generated
+     * when automatic acknowledgement is enabled.  The MLLP_ACKNOWLEDGEMENT_TYPE header is set on the in message.
+     *
+     * @param exchange                 the processed exchange
+     * @param hl7MessageBytes          the received HL7 message
+     * @param autoAck                  true if an acknowledgement should be generated when none is supplied
+     * @param acknowledgementGenerator the generator used for automatic acknowledgements
+     * @return the acknowledgement payload, or null if no acknowledgement should be sent - in which case an exception
+     *         is set on the exchange
+     * @throws Hl7AcknowledgementGenerationException if the acknowledgement could not be generated
+     */
+    public static byte[] createAcknowledgement(Exchange exchange, byte[] hl7MessageBytes, boolean autoAck, Hl7AcknowledgementGenerator acknowledgementGenerator)
+        throws Hl7AcknowledgementGenerationException {
+        byte[] acknowledgementMessageBytes = exchange.getProperty(MLLP_ACKNOWLEDGEMENT, byte[].class);
+        String acknowledgementMessageType = null;
+        if (null == acknowledgementMessageBytes) {
+            if (!autoAck) {
+                exchange.setException(new MllpInvalidAcknowledgementException("Automatic Acknowledgement is disabled and the "
+                        + MLLP_ACKNOWLEDGEMENT + " exchange property is null or cannot be converted to byte[]"));
+                return null;
+            }
+
+            String acknowledgmentTypeProperty = exchange.getProperty(MLLP_ACKNOWLEDGEMENT_TYPE, String.class);
+            if (null == acknowledgmentTypeProperty) {
+                if (null == exchange.getException()) {
+                    acknowledgementMessageType = "AA";
+                    acknowledgementMessageBytes = acknowledgementGenerator.generateApplicationAcceptAcknowledgementMessage(hl7MessageBytes);
+                } else {
+                    acknowledgementMessageType = "AE";
+                    acknowledgementMessageBytes = acknowledgementGenerator.generateApplicationErrorAcknowledgementMessage(hl7MessageBytes);
+                }
+            } else {
+                switch (acknowledgmentTypeProperty) {
+                case "AA":
+                    acknowledgementMessageType = "AA";
+                    acknowledgementMessageBytes = acknowledgementGenerator.generateApplicationAcceptAcknowledgementMessage(hl7MessageBytes);
+                    break;
+                case "AE":
+                    acknowledgementMessageType = "AE";
+                    acknowledgementMessageBytes = acknowledgementGenerator.generateApplicationErrorAcknowledgementMessage(hl7MessageBytes);
+                    break;
+                case "AR":
+                    acknowledgementMessageType = "AR";
+                    acknowledgementMessageBytes = acknowledgementGenerator.generateApplicationRejectAcknowledgementMessage(hl7MessageBytes);
+                    break;
+                default:
+                    exchange.setException(new Hl7AcknowledgementGenerationException("Unsupported acknowledgment type: " + acknowledgmentTypeProperty));
+                    return null;
+                }
+            }
+        } else {
+            final byte bM = 77;
+            final byte bS = 83;
+            final byte bA = 65;
+            final byte bE = 69;
+            final byte bR = 82;
+
+            final byte fieldSeparator = hl7MessageBytes[3];
+            // Acknowledgment is specified in exchange property - determine the acknowledgement type
+            for (int i = 0; i < hl7MessageBytes.length; ++i) {
+                if (SEGMENT_DELIMITER == i) {
+                    if (i + 7 < hl7MessageBytes.length // Make sure we don't run off the end of the message
+                            && bM == hl7MessageBytes[i + 1] && bS == hl7MessageBytes[i + 2] && bA == hl7MessageBytes[i + 3] && fieldSeparator == hl7MessageBytes[i + 4]) {
+                        if (fieldSeparator != hl7MessageBytes[i + 7]) {
+                            LOG.warn("MSA-1 is longer than 2-bytes - ignoring trailing bytes");
+                        }
+                        // Found MSA - pull acknowledgement bytes
+                        byte[] acknowledgmentTypeBytes = new byte[2];
+                        acknowledgmentTypeBytes[0] = hl7MessageBytes[i + 5];
+                        acknowledgmentTypeBytes[1] = hl7MessageBytes[i + 6];
+                        acknowledgementMessageType = exchange.getContext().getTypeConverter().convertTo(String.class, exchange, acknowledgmentTypeBytes);
+
+                        // Verify it's a valid acknowledgement code
+                        if (bA != acknowledgmentTypeBytes[0]) {
+                            switch (acknowledgementMessageBytes[1]) {
+                            case bA:
+                            case bR:
+                            case bE:
+                                break;
+                            default:
+                                LOG.warn("Invalid acknowledgement type [" + acknowledgementMessageType + "] found in message - should be AA, AE or AR");
+                            }
+                        }
+
+                        // if the MLLP_ACKNOWLEDGEMENT_TYPE property is set on the exchange, make sure it matches
+                        String acknowledgementTypeProperty = exchange.getProperty(MLLP_ACKNOWLEDGEMENT_TYPE, String.class);
+                        if (null != acknowledgementTypeProperty && !acknowledgementTypeProperty.equals(acknowledgementMessageType)) {
+                            LOG.warn("Acknowledgement type found in message [" + acknowledgementMessageType + "] does not match "
+                                    + MLLP_ACKNOWLEDGEMENT_TYPE + " exchange property value [" + acknowledgementTypeProperty + "] - using value found in message");
+                        }
+                    }
+                }
+            }
+        }
+
+        exchange.getIn().setHeader(MLLP_ACKNOWLEDGEMENT_TYPE, acknowledgementMessageType);
+        return acknowledgementMessageBytes;
+    }
+
+    /**
+     * Populate the MLLP message headers from the fields of the MSH segment.
+     *
+     * @param exchange        the exchange, used to determine the charset
+     * @param message         the message to populate
+     * @param hl7MessageBytes the received HL7 message
+     */
+    public static void populateHl7DataHeaders(Exchange exchange, Message message, byte[] hl7MessageBytes) {
+        // Find the end of the MSH and indexes of the fields in the MSH to populate message headers
+        final byte fieldSeparator = hl7MessageBytes[3];
+        int endOfMSH = -1;
+        List<Integer> fieldSeparatorIndexes = new ArrayList<>(10);  // We need at least 10 fields to create the acknowledgment
+
+        for (int i = 0; i < hl7MessageBytes.length; ++i) {
+            if (fieldSeparator == hl7MessageBytes[i]) {
+                fieldSeparatorIndexes.add(i);
+            } else if (SEGMENT_DELIMITER == hl7MessageBytes[i]) {
+                // If the MSH Segment doesn't have a trailing field separator, add one so the field can be extracted into a header
+                if (fieldSeparator != hl7MessageBytes[i - 1]) {
+                    fieldSeparatorIndexes.add(i);
+                }
+                endOfMSH = i;
+                break;
+            }
+        }
+
+        if (-1 == endOfMSH) {
+            LOG.error("Population of message headers failed - unable to find the end of the MSH segment");
+        } else {
+            LOG.debug("Populating the message headers");
+            Charset charset = Charset.forName(IOHelper.getCharsetName(exchange));
+
+            for (int i = 2; i < fieldSeparatorIndexes.size(); ++i) {
+                int startingFieldSeparatorIndex = fieldSeparatorIndexes.get(i - 1);
+                int endingFieldSeparatorIndex = fieldSeparatorIndexes.get(i);
+
+                // Only populate the header if there's data in the HL7 field
+                if (endingFieldSeparatorIndex - startingFieldSeparatorIndex > 1) {
+                    String headerName = null;
+                    switch (i) {
+                    case 2: // MSH-3
+                        headerName = MLLP_SENDING_APPLICATION;
+                        break;
+                    case 3: // MSH-4
+                        headerName = MLLP_SENDING_FACILITY;
+                        break;
+                    case 4: // MSH-5
+                        headerName = MLLP_RECEIVING_APPLICATION;
+                        break;
+                    case 5: // MSH-6
+                        headerName = MLLP_RECEIVING_FACILITY;
+                        break;
+                    case 6: // MSH-7
+                        headerName = MLLP_TIMESTAMP;
+                        break;
+                    case 7: // MSH-8
+                        headerName = MLLP_SECURITY;
+                        break;
+                    case 8: // MSH-9
+                        headerName = MLLP_MESSAGE_TYPE;
+                        break;
+                    case 9: // MSH-10
+                        headerName = MLLP_MESSAGE_CONTROL;
+                        break;
+                    case 10: // MSH-11
+                        headerName = MLLP_PROCESSING_ID;
+                        break;
+                    case 11: // MSH-12
+                        headerName = MLLP_VERSION_ID;
+                        break;
+                    case 17: // MSH-18
+                        headerName = MLLP_CHARSET;
+                        break;
+                    default:
+                        // Not processing this field
+                        continue;
+                    }
+
+                    String headerValue = new String(hl7MessageBytes, startingFieldSeparatorIndex + 1,
+                            endingFieldSeparatorIndex - startingFieldSeparatorIndex - 1,
+                            charset);
+                    message.setHeader(headerName, headerValue);
+
+                    // For MSH-9, set a couple more headers
+                    if (i == 8) {
+                        // final byte componentSeparator = hl7MessageBytes[4];
+                        String componentSeparator = new String(hl7MessageBytes, 4, 1, charset);
+                        String[] components = headerValue.split(String.format("\\Q%s\\E", componentSeparator), 3);
+                        message.setHeader(MLLP_EVENT_TYPE, components[0]);
+                        if (2 <= components.length) {
+                            message.setHeader(MLLP_TRIGGER_EVENT, components[1]);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
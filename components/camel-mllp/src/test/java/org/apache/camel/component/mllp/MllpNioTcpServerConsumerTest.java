@@ -0,0 +1,218 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.mllp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.camel.EndpointInject;
+import org.apache.camel.LoggingLevel;
+import org.apache.camel.builder.NotifyBuilder;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.test.AvailablePortFinder;
+import org.apache.camel.test.junit.rule.mllp.MllpClientResource;
+import org.apache.camel.test.junit.rule.mllp.MllpJUnitResourceException;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.apache.camel.test.mllp.Hl7MessageGenerator.generateMessage;
+
+public class MllpNioTcpServerConsumerTest extends CamelTestSupport {
+    @Rule
+    public MllpClientResource mllpClient = new MllpClientResource();
+
+    @EndpointInject(uri = "mock://result")
+    MockEndpoint result;
+
+    @Override
+    protected RouteBuilder createRouteBuilder() {
+
+        mllpClient.setMllpHost("localhost");
+        mllpClient.setMllpPort(AvailablePortFinder.getNextAvailable());
+
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                String routeId = "mllp-nio-test-receiver-route";
+
+                fromF("mllp://%s:%d?nio=true&workerPoolSize=4&receiveTimeout=1000&maxFrameSize=65536", mllpClient.getMllpHost(), mllpClient.getMllpPort())
+                        .routeId(routeId)
+                        .log(LoggingLevel.INFO, routeId, "Test route received message")
+                        .to(result);
+            }
+        };
+    }
+
+    @Test
+    public void testNioConsumerSelected() throws Exception {
+        assertIsInstanceOf(MllpNioTcpServerConsumer.class, context.getRoute("mllp-nio-test-receiver-route").getConsumer());
+    }
+
+    @Test
+    public void testReceiveMultipleMessages() throws Exception {
+        result.expectedMessageCount(5);
+
+        mllpClient.connect();
+
+        for (int i = 1; i <= 5; ++i) {
+            String acknowledgement = mllpClient.sendMessageAndWaitForAcknowledgement(generateMessage(i), 10000);
+            assertTrue("Should be acknowledgment for message " + i, acknowledgement.contains(String.format("MSA|AA|%05d", i)));
+        }
+
+        assertMockEndpointsSatisfied(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testMessageSplitAcrossPackets() throws Exception {
+        result.expectedMessageCount(1);
+
+        mllpClient.connect();
+        mllpClient.sendFramedDataInMultiplePackets(generateMessage(), (byte) '|');
+        String acknowledgement = mllpClient.receiveFramedData(10000);
+
+        assertTrue("Should be an application accept acknowledgment", acknowledgement.contains("MSA|AA|"));
+        assertMockEndpointsSatisfied(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testManyConcurrentConnections() throws Exception {
+        int connectionCount = 50;
+        result.expectedMessageCount(connectionCount);
+
+        List<MllpClientResource> clients = new ArrayList<>(connectionCount);
+        try {
+            for (int i = 0; i < connectionCount; ++i) {
+                MllpClientResource client = new MllpClientResource(mllpClient.getMllpHost(), mllpClient.getMllpPort());
+                client.connect();
+                clients.add(client);
+            }
+            // send everything first, so the messages are processed concurrently by the worker pool
+            for (int i = 0; i < connectionCount; ++i) {
+                clients.get(i).sendFramedData(generateMessage(i + 1));
+            }
+            for (int i = 0; i < connectionCount; ++i) {
+                String acknowledgement = clients.get(i).receiveFramedData(10000);
+                assertTrue("Should be acknowledgment for message " + (i + 1), acknowledgement.contains(String.format("MSA|AA|%05d", i + 1)));
+            }
+        } finally {
+            for (MllpClientResource client : clients) {
+                client.disconnect();
+            }
+        }
+
+        assertMockEndpointsSatisfied(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testOpenMllpEnvelopeWithReset() throws Exception {
+        result.expectedMessageCount(2);
+        NotifyBuilder done = new NotifyBuilder(context).whenDone(2).create();
+
+        mllpClient.connect();
+        mllpClient.setSoTimeout(5000);
+
+        String acknowledgement1 = mllpClient.sendMessageAndWaitForAcknowledgement(generateMessage(1));
+
+        // the frame is never closed - the consumer resets the connection once the receive timeout expires
+        mllpClient.setSendEndOfBlock(false);
+        mllpClient.setSendEndOfData(false);
+        try {
+            mllpClient.sendMessageAndWaitForAcknowledgement(generateMessage(2));
+            fail("Should not receive an acknowledgement for an unterminated frame");
+        } catch (MllpJUnitResourceException expectedEx) {
+            log.info("Expected exception reading response");
+        }
+        mllpClient.disconnect();
+        mllpClient.connect();
+
+        mllpClient.setSendEndOfBlock(true);
+        mllpClient.setSendEndOfData(true);
+        String acknowledgement3 = mllpClient.sendMessageAndWaitForAcknowledgement(generateMessage(3));
+
+        assertTrue("Exchanges did not complete", done.matches(10, TimeUnit.SECONDS));
+        assertMockEndpointsSatisfied(10, TimeUnit.SECONDS);
+
+        assertTrue("Should be acknowledgment for message 1", acknowledgement1.contains("MSA|AA|00001"));
+        assertTrue("Should be acknowledgment for message 3", acknowledgement3.contains("MSA|AA|00003"));
+    }
+
+    @Test
+    public void testFrameLargerThanMaxFrameSize() throws Exception {
+        result.expectedMessageCount(1);
+
+        mllpClient.connect();
+        mllpClient.setSoTimeout(5000);
+
+        // the frame is never closed, and grows past the maximum frame size
+        StringBuilder payload = new StringBuilder(generateMessage(1)).append("NTE|1||");
+        while (payload.length() < 70000) {
+            payload.append("Oversized frame ");
+        }
+        mllpClient.setSendEndOfBlock(false);
+        mllpClient.setSendEndOfData(false);
+        try {
+            mllpClient.sendMessageAndWaitForAcknowledgement(payload.toString());
+            fail("Should not receive an acknowledgement for an oversized frame");
+        } catch (MllpJUnitResourceException expectedEx) {
+            log.info("Expected exception reading response");
+        }
+        mllpClient.disconnect();
+
+        // the selector thread still serves new connections
+        mllpClient.connect();
+        mllpClient.setSendEndOfBlock(true);
+        mllpClient.setSendEndOfData(true);
+        String acknowledgement = mllpClient.sendMessageAndWaitForAcknowledgement(generateMessage(2), 10000);
+        assertTrue("Should be acknowledgment for message 2", acknowledgement.contains("MSA|AA|00002"));
+
+        assertMockEndpointsSatisfied(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testBuffersReturnedToPool() throws Exception {
+        result.expectedMessageCount(3);
+
+        mllpClient.connect();
+        for (int i = 1; i <= 3; ++i) {
+            mllpClient.sendMessageAndWaitForAcknowledgement(generateMessage(i), 10000);
+        }
+        assertMockEndpointsSatisfied(10, TimeUnit.SECONDS);
+
+        MllpNioTcpServerConsumer consumer = (MllpNioTcpServerConsumer) context.getRoute("mllp-nio-test-receiver-route").getConsumer();
+        assertEquals("The frame buffer should have been returned to the pool", 1, consumer.getBufferPool().getPooledBuffers());
+    }
+
+    @Test
+    public void testBufferReturnedToPoolWhenConnectionDropped() throws Exception {
+        mllpClient.connect();
+
+        // the client drops the connection in the middle of a frame
+        mllpClient.setSendEndOfBlock(false);
+        mllpClient.setSendEndOfData(false);
+        mllpClient.sendFramedData(generateMessage());
+        mllpClient.disconnect();
+
+        MllpNioTcpServerConsumer consumer = (MllpNioTcpServerConsumer) context.getRoute("mllp-nio-test-receiver-route").getConsumer();
+        for (int i = 0; i < 50 && consumer.getBufferPool().getPooledBuffers() == 0; ++i) {
+            Thread.sleep(100);
+        }
+        assertEquals("The frame buffer should have been returned to the pool", 1, consumer.getBufferPool().getPooledBuffers());
+    }
+}
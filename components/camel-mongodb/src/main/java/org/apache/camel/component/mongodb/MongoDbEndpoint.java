@@ -100,6 +100,12 @@ public class MongoDbEndpoint extends DefaultEndpoint {
 
     @UriParam
     private MongoDbOutputType outputType;
+    @UriParam(label = "producer")
+    private int writeBatchSize;
+    @UriParam(label = "producer", defaultValue = "100")
+    private long writeBatchTimeout = 100L;
+    @UriParam(label = "producer", defaultValue = "true")
+    private boolean writeBatchOrdered = true;
 
     private MongoDatabase mongoDatabase;
     private MongoCollection<BasicDBObject> mongoCollection;
@@ -173,6 +179,10 @@ public class MongoDbEndpoint extends DefaultEndpoint {
                     || !ObjectHelper.isEmpty(tailTrackCollection) || !ObjectHelper.isEmpty(tailTrackField) || cursorRegenerationDelay != 1000L) {
                 throw new IllegalArgumentException("consumerType, tailTracking, cursorRegenerationDelay options cannot appear on a producer endpoint");
             }
+            if (writeBatchSize > 0 && writeBatchTimeout <= 0) {
+                // a partial batch would otherwise only be written when the producer is stopped
+                throw new IllegalArgumentException("writeBatchTimeout must be a positive value when writeBatchSize is set");
+            }
         } else if (role == 'C') {
             if (!ObjectHelper.isEmpty(operation) || dynamicity || outputType != null) {
                 throw new IllegalArgumentException("operation, dynamicity, outputType "
@@ -641,6 +651,49 @@ public class MongoDbEndpoint extends DefaultEndpoint {
         this.outputType = outputType;
     }
 
+    public int getWriteBatchSize() {
+        return writeBatchSize;
+    }
+
+    /**
+     * The maximum number of insert, save and update operations which are collected and written in a single bulk write.
+     * Each exchange is completed when the bulk write it is part of has been executed. Is disabled by default (0).
+     * The List variant of insert is not batched.
+     *
+     * @param writeBatchSize the maximum number of operations in a bulk write
+     */
+    public void setWriteBatchSize(int writeBatchSize) {
+        this.writeBatchSize = writeBatchSize;
+    }
+
+    public long getWriteBatchTimeout() {
+        return writeBatchTimeout;
+    }
+
+    /**
+     * The time in millis after which the collected operations are written, if the write batch size has not been reached.
+     * Must be a positive value when writeBatchSize is set.
+     *
+     * @param writeBatchTimeout the timeout in millis
+     */
+    public void setWriteBatchTimeout(long writeBatchTimeout) {
+        this.writeBatchTimeout = writeBatchTimeout;
+    }
+
+    public boolean isWriteBatchOrdered() {
+        return writeBatchOrdered;
+    }
+
+    /**
+     * Whether the operations of a bulk write are executed in order, which stops at the first failed operation.
+     * Unordered bulk writes allow the server to execute the operations in parallel, and continue after failures.
+     *
+     * @param writeBatchOrdered whether the bulk writes are ordered
+     */
+    public void setWriteBatchOrdered(boolean writeBatchOrdered) {
+        this.writeBatchOrdered = writeBatchOrdered;
+    }
+
     public MongoDatabase getMongoDatabase() {
         return mongoDatabase;
     }
@@ -18,27 +18,41 @@ package org.apache.camel.component.mongodb;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.mongodb.BasicDBList;
 import com.mongodb.BasicDBObject;
 import com.mongodb.DBObject;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoNamespace;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
 import com.mongodb.client.AggregateIterable;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.UpdateOneModel;
 import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
 
+import org.apache.camel.AsyncCallback;
 import org.apache.camel.Exchange;
 import org.apache.camel.InvalidPayloadException;
 import org.apache.camel.Processor;
 import org.apache.camel.TypeConverter;
-import org.apache.camel.impl.DefaultProducer;
+import org.apache.camel.impl.DefaultAsyncProducer;
 import org.apache.camel.util.MessageHelper;
 import org.apache.camel.util.ObjectHelper;
 import org.bson.conversions.Bson;
@@ -47,11 +61,16 @@ import org.slf4j.LoggerFactory;
 
 /**
  * The MongoDb producer.
+ * <p/>
+ * When a write batch size is configured, the insert, save and update operations are collected per collection
+ * and executed as a single bulk write, and each exchange is completed asynchronously with its own result.
  */
-public class MongoDbProducer extends DefaultProducer {
+public class MongoDbProducer extends DefaultAsyncProducer {
     private static final Logger LOG = LoggerFactory.getLogger(MongoDbProducer.class);
     private final Map<MongoDbOperation, Processor> operations = new HashMap<>();
+    private final Map<MongoNamespace, WriteBatch> writeBatches = new LinkedHashMap<>();
     private MongoDbEndpoint endpoint;
+    private ScheduledExecutorService writeBatchExecutor;
 
     {
         bind(MongoDbOperation.aggregate, createDoAggregate());
@@ -73,7 +92,26 @@ public class MongoDbProducer extends DefaultProducer {
         this.endpoint = endpoint;
     }
 
-    public void process(Exchange exchange) throws Exception {
+    public boolean process(Exchange exchange, AsyncCallback callback) {
+        try {
+            MongoDbOperation operation = resolveOperation(exchange);
+            if (endpoint.getWriteBatchSize() > 0) {
+                PendingWrite write = createPendingWrite(operation, exchange, callback);
+                if (write != null) {
+                    // the exchange is completed when the bulk write it is part of has been executed
+                    addToWriteBatch(calculateCollection(exchange), write);
+                    return false;
+                }
+            }
+            invokeOperation(operation, exchange);
+        } catch (Exception e) {
+            exchange.setException(MongoDbComponent.wrapInCamelMongoDbException(e));
+        }
+        callback.done(true);
+        return true;
+    }
+
+    private MongoDbOperation resolveOperation(Exchange exchange) {
         MongoDbOperation operation = endpoint.getOperation();
         Object header = exchange.getIn().getHeader(MongoDbConstants.OPERATION_HEADER);
         if (header != null) {
@@ -89,13 +127,7 @@ public class MongoDbProducer extends DefaultProducer {
                 throw new CamelMongoDbException("Operation specified on header is not supported. Value: " + header, e);
             }
         }
-
-        try {
-            invokeOperation(operation, exchange);
-        } catch (Exception e) {
-            throw MongoDbComponent.wrapInCamelMongoDbException(e);
-        }
-
+        return operation;
     }
 
     /**
@@ -113,6 +145,27 @@ public class MongoDbProducer extends DefaultProducer {
         }
     }
 
+    @Override
+    protected void doStart() throws Exception {
+        super.doStart();
+        if (endpoint.getWriteBatchSize() > 0) {
+            // the endpoint validates that the timeout is positive, so a partial batch is always written
+            writeBatchExecutor = endpoint.getCamelContext().getExecutorServiceManager().newSingleThreadScheduledExecutor(this, "MongoDbWriteBatch");
+            writeBatchExecutor.scheduleWithFixedDelay(this::flushWriteBatches, endpoint.getWriteBatchTimeout(), endpoint.getWriteBatchTimeout(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        if (writeBatchExecutor != null) {
+            endpoint.getCamelContext().getExecutorServiceManager().shutdownGraceful(writeBatchExecutor);
+            writeBatchExecutor = null;
+        }
+        // write what is pending so no exchanges are left waiting
+        flushWriteBatches();
+        super.doStop();
+    }
+
     private MongoDbProducer bind(MongoDbOperation operation, Function<Exchange, Object> mongoDbFunction) {
         operations.put(operation, wrap(mongoDbFunction, operation));
         return this;
@@ -252,6 +305,169 @@ public class MongoDbProducer extends DefaultProducer {
         }
     }
 
+    // --------- Write batching -----------------------
+
+    /**
+     * Creates the write for the bulk write, or <tt>null</tt> if the operation is not batched.
+     */
+    private PendingWrite createPendingWrite(MongoDbOperation operation, Exchange exchange, AsyncCallback callback) throws Exception {
+        if (MongoDbOperation.insert.equals(operation)) {
+            DBObject insertObject = exchange.getIn().getBody(DBObject.class);
+            if (insertObject == null) {
+                // the List variant is inserted as is
+                return null;
+            }
+            return new PendingWrite(exchange, callback, operation, new InsertOneModel<>((BasicDBObject) insertObject), insertObject);
+        } else if (MongoDbOperation.save.equals(operation)) {
+            BasicDBObject saveObj;
+            try {
+                saveObj = exchange.getIn().getMandatoryBody(BasicDBObject.class);
+            } catch (InvalidPayloadException e) {
+                throw new CamelMongoDbException("Body incorrect type for save", e);
+            }
+            BasicDBObject queryObject = new BasicDBObject("_id", saveObj.get("_id"));
+            return new PendingWrite(exchange, callback, operation, new ReplaceOneModel<>(queryObject, saveObj, new UpdateOptions().upsert(true)), saveObj);
+        } else if (MongoDbOperation.update.equals(operation)) {
+            List<BasicDBObject> saveObj;
+            try {
+                saveObj = exchange.getIn().getMandatoryBody((Class<List<BasicDBObject>>) (Class<?>) List.class);
+            } catch (InvalidPayloadException e) {
+                throw new CamelMongoDbException("Invalid payload for update", e);
+            }
+            if (saveObj.size() != 2) {
+                throw new CamelMongoDbException("MongoDB operation = insert, failed because body is not a List of DBObject objects with size = 2");
+            }
+            Boolean multi = exchange.getIn().getHeader(MongoDbConstants.MULTIUPDATE, Boolean.class);
+            Boolean upsert = exchange.getIn().getHeader(MongoDbConstants.UPSERT, Boolean.class);
+            UpdateOptions options = new UpdateOptions();
+            if (upsert != null) {
+                options.upsert(true);
+            }
+            WriteModel<BasicDBObject> model = multi == null
+                    ? new UpdateOneModel<>(saveObj.get(0), saveObj.get(1), options) : new UpdateManyModel<>(saveObj.get(0), saveObj.get(1), options);
+            return new PendingWrite(exchange, callback, operation, model, null);
+        }
+        return null;
+    }
+
+    private void addToWriteBatch(MongoCollection<BasicDBObject> dbCol, PendingWrite write) {
+        WriteBatch full = null;
+        synchronized (writeBatches) {
+            WriteBatch batch = writeBatches.computeIfAbsent(dbCol.getNamespace(), ns -> new WriteBatch(dbCol));
+            batch.writes.add(write);
+            if (batch.writes.size() >= endpoint.getWriteBatchSize()) {
+                full = writeBatches.remove(dbCol.getNamespace());
+            }
+        }
+        if (full != null) {
+            executeWriteBatch(full);
+        }
+    }
+
+    private void flushWriteBatches() {
+        List<WriteBatch> batches;
+        synchronized (writeBatches) {
+            batches = new ArrayList<>(writeBatches.values());
+            writeBatches.clear();
+        }
+        for (WriteBatch batch : batches) {
+            executeWriteBatch(batch);
+        }
+    }
+
+    private void executeWriteBatch(WriteBatch batch) {
+        List<WriteModel<BasicDBObject>> models = batch.writes.stream().map(write -> write.model).collect(Collectors.toList());
+        LOG.debug("Executing bulk write of {} operations on {}", models.size(), batch.collection.getNamespace());
+
+        BulkWriteResult result = null;
+        MongoBulkWriteException bulkFailure = null;
+        Exception failure = null;
+        try {
+            result = batch.collection.bulkWrite(models, new BulkWriteOptions().ordered(endpoint.isWriteBatchOrdered()));
+        } catch (MongoBulkWriteException e) {
+            bulkFailure = e;
+            result = e.getWriteResult();
+        } catch (Exception e) {
+            failure = e;
+        }
+
+        Map<Integer, BulkWriteError> errors = new HashMap<>();
+        int firstError = Integer.MAX_VALUE;
+        if (bulkFailure != null) {
+            for (BulkWriteError error : bulkFailure.getWriteErrors()) {
+                errors.put(error.getIndex(), error);
+                firstError = Math.min(firstError, error.getIndex());
+            }
+        }
+
+        for (int i = 0; i < batch.writes.size(); i++) {
+            PendingWrite write = batch.writes.get(i);
+            Exception cause = failure;
+            if (bulkFailure != null) {
+                BulkWriteError error = errors.get(i);
+                if (error != null) {
+                    cause = new CamelMongoDbException("MongoDB operation = " + write.operation + " failed in bulk write: " + error.getMessage(), bulkFailure);
+                } else if (endpoint.isWriteBatchOrdered() && i > firstError) {
+                    cause = new CamelMongoDbException("MongoDB operation = " + write.operation + " was not executed as an earlier operation in the ordered bulk write failed", bulkFailure);
+                } else if (bulkFailure.getWriteConcernError() != null) {
+                    cause = bulkFailure;
+                }
+            }
+            write.done(result, cause);
+        }
+    }
+
+    /**
+     * The operations to execute in a bulk write on a collection.
+     */
+    private static final class WriteBatch {
+        private final MongoCollection<BasicDBObject> collection;
+        private final List<PendingWrite> writes = new ArrayList<>();
+
+        WriteBatch(MongoCollection<BasicDBObject> collection) {
+            this.collection = collection;
+        }
+    }
+
+    /**
+     * An operation waiting in a write batch, which completes its exchange with the result of the bulk write.
+     */
+    private final class PendingWrite {
+        private final Exchange exchange;
+        private final AsyncCallback callback;
+        private final MongoDbOperation operation;
+        private final WriteModel<BasicDBObject> model;
+        private final DBObject document;
+
+        PendingWrite(Exchange exchange, AsyncCallback callback, MongoDbOperation operation, WriteModel<BasicDBObject> model, DBObject document) {
+            this.exchange = exchange;
+            this.callback = callback;
+            this.operation = operation;
+            this.model = model;
+            this.document = document;
+        }
+
+        void done(BulkWriteResult result, Exception cause) {
+            try {
+                if (cause != null) {
+                    exchange.setException(MongoDbComponent.wrapInCamelMongoDbException(cause));
+                } else {
+                    if (document != null) {
+                        exchange.getIn().setHeader(MongoDbConstants.OID, document.get("_id"));
+                    }
+                    copyHeaders(exchange);
+                    moveBodyToOutIfResultIsReturnedAsHeader(exchange, operation);
+                    // an inserted document is returned as is, otherwise the result of the bulk write
+                    processAndTransferResult(MongoDbOperation.insert.equals(operation) ? document : result, exchange, operation);
+                }
+            } catch (Exception e) {
+                exchange.setException(e);
+            } finally {
+                callback.done(false);
+            }
+        }
+    }
+
     private Function<Exchange, Object> createDoGetColStats() {
         return exch ->
                 calculateDb(exch).runCommand(createCollStatsCommand(calculateCollectionName(exch)));
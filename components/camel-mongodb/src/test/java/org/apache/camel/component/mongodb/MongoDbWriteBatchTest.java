@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.mongodb;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+
+import com.mongodb.DBObject;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.Test;
+
+public class MongoDbWriteBatchTest extends AbstractMongoDbTest {
+
+    @Test
+    public void testInsertInBatch() throws Exception {
+        assertEquals(0, testCollection.count());
+
+        List<Future<Object>> futures = new ArrayList<Future<Object>>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(template.asyncRequestBody("direct:batch", "{\"scientist\":\"newton" + i + "\"}"));
+        }
+
+        // the 10th insert fills the batch, so all exchanges complete without waiting for the timeout
+        for (Future<Object> future : futures) {
+            Object result = future.get(10, TimeUnit.SECONDS);
+            assertTrue("Result is not of type DBObject", result instanceof DBObject);
+            assertNotNull("Inserted document should have an id", ((DBObject) result).get("_id"));
+        }
+        assertEquals(10, testCollection.count());
+    }
+
+    @Test
+    public void testBatchTimeout() throws Exception {
+        Object result = template.requestBody("direct:timeout", "{\"scientist\":\"newton\"}");
+        assertTrue("Result is not of type DBObject", result instanceof DBObject);
+        assertEquals(1, testCollection.count());
+    }
+
+    @Test
+    public void testUnorderedBatchFailure() throws Exception {
+        Future<Object> first = template.asyncRequestBody("direct:unordered", "{\"_id\":\"newton\"}");
+        Future<Object> duplicate = template.asyncRequestBody("direct:unordered", "{\"_id\":\"newton\"}");
+        Future<Object> other = template.asyncRequestBody("direct:unordered", "{\"_id\":\"einstein\"}");
+
+        assertNotNull(other.get(10, TimeUnit.SECONDS));
+
+        // whichever of the two documents with the same id is written last fails, without failing the others
+        int failures = 0;
+        for (Future<Object> future : asList(first, duplicate)) {
+            try {
+                assertNotNull(future.get(10, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                extractAndAssertCamelMongoDbException(e.getCause(), "failed in bulk write");
+                failures++;
+            }
+        }
+        assertEquals(1, failures);
+        assertEquals(2, testCollection.count());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            public void configure() {
+                from("direct:batch").to("mongodb:myDb?database=test&collection=camelTest&operation=insert&writeBatchSize=10&writeBatchTimeout=60000");
+                from("direct:timeout").to("mongodb:myDb?database=test&collection=camelTest&operation=insert&writeBatchSize=100&writeBatchTimeout=100");
+                from("direct:unordered")
+                    .to("mongodb:myDb?database=test&collection=camelTest&operation=insert&writeBatchSize=3&writeBatchTimeout=60000&writeBatchOrdered=false");
+            }
+        };
+    }
+}
@@ -271,6 +271,11 @@ public class DefaultNettyHttpBinding implements NettyHttpBinding, Cloneable {
         if (configuration.isDisableStreamCache()) {
             // keep the body as is, and use type converters
             answer.setBody(response.content());
+        } else if (configuration.isBufferPassThrough()) {
+            // facade the netty buffer as stream cache, which is released when the exchange is done
+            NettyChannelBufferStreamCache cache = new NettyChannelBufferStreamCache(response.content());
+            exchange.addOnCompletion(new NettyChannelBufferStreamCacheOnCompletion(cache));
+            answer.setBody(cache);
         } else {
             // stores as byte array as the netty ByteBuf will be freed when the producer is done, and then we can no longer access the message body
             response.retain();
@@ -363,6 +368,9 @@ public class DefaultNettyHttpBinding implements NettyHttpBinding, Cloneable {
 
         if (body instanceof ByteBuf) {
             buffer = (ByteBuf) body;
+        } else if (body instanceof NettyChannelBufferStreamCache) {
+            // pass on the netty buffer without copying it
+            buffer = ((NettyChannelBufferStreamCache) body).retainedContent();
         } else {
             // try to convert to buffer first
             buffer = message.getBody(ByteBuf.class);
@@ -479,6 +487,9 @@ public class DefaultNettyHttpBinding implements NettyHttpBinding, Cloneable {
             ByteBuf buffer;
             if (body instanceof ByteBuf) {
                 buffer = (ByteBuf) body;
+            } else if (body instanceof NettyChannelBufferStreamCache) {
+                // pass on the netty buffer without copying it
+                buffer = ((NettyChannelBufferStreamCache) body).retainedContent();
             } else {
                 // try to convert to buffer first
                 buffer = message.getBody(ByteBuf.class);
@@ -21,6 +21,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
 import org.apache.camel.Exchange;
 import org.apache.camel.StreamCache;
 import org.apache.camel.util.IOHelper;
@@ -33,11 +34,13 @@ import org.apache.camel.util.IOHelper;
 public final class NettyChannelBufferStreamCache extends InputStream implements StreamCache {
 
     private final ByteBuf buffer;
+    private final int startIndex;
 
     public NettyChannelBufferStreamCache(ByteBuf buffer) {
         // retain the buffer so we keep it in use until we release it when we are done
         this.buffer = buffer.retain();
         this.buffer.markReaderIndex();
+        this.startIndex = buffer.readerIndex();
     }
 
     @Override
@@ -47,7 +50,10 @@ public final class NettyChannelBufferStreamCache extends InputStream implements
 
     @Override
     public int read() throws IOException {
-        return buffer.readByte();
+        if (!buffer.isReadable()) {
+            return -1;
+        }
+        return buffer.readByte() & 0xff;
     }
 
     @Override
@@ -58,14 +64,14 @@ public final class NettyChannelBufferStreamCache extends InputStream implements
     @Override
     public int read(byte[] b, int off, int len) throws IOException {
         // are we at end, then return -1
-        if (buffer.readerIndex() == buffer.capacity()) {
+        if (!buffer.isReadable()) {
             return -1;
         }
 
         // ensure we don't read more than what we have in the buffer
+        // (pooled buffers may have a larger capacity than their content)
         int before = buffer.readerIndex();
-        int max = buffer.capacity() - before;
-        len = Math.min(max, len);
+        len = Math.min(buffer.readableBytes(), len);
 
         buffer.readBytes(b, off, len);
         return buffer.readerIndex() - before;
@@ -103,6 +109,31 @@ public final class NettyChannelBufferStreamCache extends InputStream implements
         return buffer.readableBytes();
     }
 
+    /**
+     * Returns the entire content as a buffer with its own reference count, which shares the memory of this cache.
+     * <p/>
+     * The returned buffer holds a reference to the cached buffer until it is released, which Netty does when the buffer
+     * has been written. This allows the body to be passed on to another Netty channel without copying it, even if this
+     * cache is released before the write completes.
+     */
+    public ByteBuf retainedContent() {
+        ByteBuf content = buffer.duplicate();
+        content.readerIndex(startIndex);
+        CompositeByteBuf answer = content.alloc().compositeBuffer(1);
+        answer.addComponent(content.retain());
+        answer.writerIndex(answer.capacity());
+        return answer;
+    }
+
+    /**
+     * Returns the entire content as a byte array, without changing the read position of the stream.
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[buffer.writerIndex() - startIndex];
+        buffer.getBytes(startIndex, bytes);
+        return bytes;
+    }
+
     /**
      * Release the buffer when we are done using it.
      */
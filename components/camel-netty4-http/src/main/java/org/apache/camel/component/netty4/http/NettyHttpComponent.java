@@ -141,6 +141,8 @@ public class NettyHttpComponent extends NettyComponent implements HeaderFilterSt
         // validate config
         config.validateConfiguration();
 
+        configureAllocator(config);
+
         // create the address uri which includes the remainder parameters (which
         // is not configuration parameters for this component)
         URI u = new URI(UnsafeUriCharactersEncoder.encodeHttpURI(remaining));
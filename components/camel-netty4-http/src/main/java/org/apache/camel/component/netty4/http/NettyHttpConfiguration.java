@@ -57,6 +57,8 @@ public class NettyHttpConfiguration extends NettyConfiguration {
     private boolean bridgeEndpoint;
     @UriParam(label = "advanced")
     private boolean disableStreamCache;
+    @UriParam(label = "producer,advanced")
+    private boolean bufferPassThrough;
     @UriParam(label = "consumer", defaultValue = "true")
     private boolean send503whenSuspended = true;
     @UriParam(label = "consumer,advanced", defaultValue = "" + 1024 * 1024)
@@ -258,6 +260,20 @@ public class NettyHttpConfiguration extends NettyConfiguration {
         this.disableStreamCache = disableStreamCache;
     }
 
+    public boolean isBufferPassThrough() {
+        return bufferPassThrough;
+    }
+
+    /**
+     * Whether the producer should keep the response body as the pooled Netty buffer (as stream cache) instead of
+     * copying it into a byte array. The buffer is released when the exchange is done, so the body must not be
+     * accessed after the routing has completed. When the body is sent by a netty4-http consumer or producer the
+     * buffer is passed on without copying, which avoids heap allocations per request in proxy routes.
+     */
+    public void setBufferPassThrough(boolean bufferPassThrough) {
+        this.bufferPassThrough = bufferPassThrough;
+    }
+
     public boolean isSend503whenSuspended() {
         return send503whenSuspended;
     }
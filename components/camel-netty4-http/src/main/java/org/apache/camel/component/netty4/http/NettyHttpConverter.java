@@ -108,6 +108,21 @@ public final class NettyHttpConverter {
         return NettyConverter.toByteArray(response.content(), exchange);
     }
 
+    @Converter
+    public static byte[] toBytes(NettyChannelBufferStreamCache cache) {
+        return cache.toByteArray();
+    }
+
+    @Converter
+    public static String toString(NettyChannelBufferStreamCache cache, Exchange exchange) {
+        // use type converter as it can handle encoding set on the Exchange
+        byte[] bytes = cache.toByteArray();
+        if (exchange != null) {
+            return exchange.getContext().getTypeConverter().convertTo(String.class, exchange, bytes);
+        }
+        return new String(bytes, Charset.defaultCharset());
+    }
+
     @Converter
     public static InputStream toInputStream(FullHttpResponse response, Exchange exchange) {
         return NettyConverter.toInputStream(response.content(), exchange);
@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.netty4.http;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.junit.Test;
+
+public class NettyHttpBufferPassThroughTest extends BaseNettyTest {
+
+    private int port1;
+    private int port2;
+
+    @Test
+    public void testProxyPassThrough() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:backend");
+        mock.expectedBodiesReceived("World");
+
+        String reply = template.requestBody("netty4-http:http://localhost:" + port1 + "/foo", "World", String.class);
+        assertEquals("Bye World", reply);
+
+        assertMockEndpointsSatisfied();
+    }
+
+    @Test
+    public void testProxyPassThroughLargeBody() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            sb.append("Hello World ").append(i).append('\n');
+        }
+        String body = sb.toString();
+
+        String reply = template.requestBody("netty4-http:http://localhost:" + port1 + "/foo", body, String.class);
+        assertEquals("Bye " + body, reply);
+    }
+
+    @Test
+    public void testStreamCacheReadAndReset() throws Exception {
+        String reply = template.requestBody("netty4-http:http://localhost:" + port1 + "/read", "Camel", String.class);
+        assertEquals("Camel", reply);
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                port1 = getPort();
+                port2 = getNextPort();
+
+                // the request body is passed on to the backend as the netty buffer, and the reply is
+                // kept as the netty buffer which is passed on to the client
+                from("netty4-http:http://0.0.0.0:" + port1 + "/foo")
+                        .to("netty4-http:http://localhost:" + port2 + "/bar?bridgeEndpoint=true&bufferPassThrough=true")
+                        .process(new Processor() {
+                            @Override
+                            public void process(Exchange exchange) throws Exception {
+                                assertIsInstanceOf(NettyChannelBufferStreamCache.class, exchange.getIn().getBody());
+                            }
+                        });
+
+                from("netty4-http:http://0.0.0.0:" + port2 + "/bar")
+                        .to("mock:backend")
+                        .transform().simple("Bye ${body}");
+
+                // read the stream fully, then reset it and send it back as is
+                from("netty4-http:http://0.0.0.0:" + port1 + "/read")
+                        .process(new Processor() {
+                            @Override
+                            public void process(Exchange exchange) throws Exception {
+                                NettyChannelBufferStreamCache cache = exchange.getIn().getBody(NettyChannelBufferStreamCache.class);
+                                while (cache.read() != -1) {
+                                    // consume
+                                }
+                                assertEquals(-1, cache.read(new byte[16], 0, 16));
+                                assertEquals("Camel", exchange.getIn().getBody(String.class));
+                                cache.reset();
+                            }
+                        });
+            }
+        };
+    }
+
+}
@@ -22,6 +22,7 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
@@ -139,6 +140,10 @@ public class ClientModeTCPNettyServerBootstrapFactory extends ServiceSupport imp
         clientBootstrap.option(ChannelOption.TCP_NODELAY, configuration.isTcpNoDelay());
         clientBootstrap.option(ChannelOption.SO_REUSEADDR, configuration.isReuseAddress());
         clientBootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, configuration.getConnectTimeout());
+        ByteBufAllocator allocator = NettyHelper.getAllocator(configuration);
+        if (allocator != null) {
+            clientBootstrap.option(ChannelOption.ALLOCATOR, allocator);
+        }
 
         
         LOG.debug("Created ClientBootstrap {}", clientBootstrap);
@@ -0,0 +1,461 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.netty4;
+
+import java.net.ConnectException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.pool.ChannelHealthChecker;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.concurrent.ScheduledFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A non blocking {@link ChannelPool} used by the {@link NettyProducer} to pool its client channels.
+ * <p/>
+ * All the pool state is confined to a single {@link EventExecutor}, so acquiring and releasing channels
+ * never blocks or synchronizes the calling thread. Acquiring a channel returns a {@link Future} which is
+ * completed when an idle channel passed the health check, or a new channel has been connected.
+ * If the pool is exhausted the acquire is either queued until a channel is released, or fails with
+ * a {@link NoSuchElementException} when the pending acquire queue is full.
+ * <p/>
+ * Idle channels are evicted in the background when they are no longer active, or have been idle for longer
+ * than the configured minimum evictable idle time, while keeping at least the minimum number of idle channels.
+ */
+public class NettyChannelPool implements ChannelPool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NettyChannelPool.class);
+    private static final long EVICTION_INTERVAL = 30 * 1000L;
+
+    private final NettyProducer producer;
+    private final EventExecutor executor;
+    private final ChannelHealthChecker healthChecker;
+    private final int maxActive;
+    private final int minIdle;
+    private final int maxIdle;
+    private final int maxPendingAcquires;
+    private final long minEvictableIdle;
+
+    // the pool state which is only accessed from the executor
+    private final Deque<IdleChannel> idleChannels = new ArrayDeque<IdleChannel>();
+    private final Set<Channel> acquiredChannels = new HashSet<Channel>();
+    private final Queue<Promise<Channel>> pendingAcquires = new ArrayDeque<Promise<Channel>>();
+    private int connecting;
+    private boolean closed;
+    private ScheduledFuture<?> evictionTask;
+
+    // statistics which can be read from any thread
+    private volatile int numActive;
+    private volatile int numIdle;
+    private volatile int numPending;
+    private volatile long createdCount;
+    private volatile long destroyedCount;
+    private volatile long acquiredCount;
+    private volatile long acquireFailedCount;
+    private volatile long evictedCount;
+
+    public NettyChannelPool(NettyProducer producer, EventExecutor executor, ChannelHealthChecker healthChecker) {
+        NettyConfiguration configuration = producer.getConfiguration();
+        this.producer = producer;
+        this.executor = executor;
+        this.healthChecker = healthChecker;
+        this.maxActive = configuration.getProducerPoolMaxActive();
+        this.minIdle = configuration.getProducerPoolMinIdle();
+        this.maxIdle = configuration.getProducerPoolMaxIdle();
+        this.maxPendingAcquires = configuration.getProducerPoolMaxPendingAcquires();
+        this.minEvictableIdle = configuration.getProducerPoolMinEvictableIdle();
+
+        this.evictionTask = executor.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                evict();
+            }
+        }, EVICTION_INTERVAL, EVICTION_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Future<Channel> acquire() {
+        return acquire(executor.<Channel>newPromise());
+    }
+
+    @Override
+    public Future<Channel> acquire(final Promise<Channel> promise) {
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                doAcquire(promise);
+            }
+        });
+        return promise;
+    }
+
+    @Override
+    public Future<Void> release(Channel channel) {
+        return release(channel, executor.<Void>newPromise());
+    }
+
+    @Override
+    public Future<Void> release(final Channel channel, final Promise<Void> promise) {
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                doRelease(channel);
+                promise.trySuccess(null);
+            }
+        });
+        return promise;
+    }
+
+    @Override
+    public void close() {
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                doClose();
+            }
+        });
+    }
+
+    /**
+     * Number of channels which are acquired or being connected
+     */
+    public int getNumActive() {
+        return numActive;
+    }
+
+    /**
+     * Number of idle channels in the pool
+     */
+    public int getNumIdle() {
+        return numIdle;
+    }
+
+    /**
+     * Number of acquires waiting for a channel to be released
+     */
+    public int getNumPendingAcquires() {
+        return numPending;
+    }
+
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    public long getDestroyedCount() {
+        return destroyedCount;
+    }
+
+    public long getAcquiredCount() {
+        return acquiredCount;
+    }
+
+    public long getAcquireFailedCount() {
+        return acquireFailedCount;
+    }
+
+    public long getEvictedCount() {
+        return evictedCount;
+    }
+
+    @Override
+    public String toString() {
+        return "NettyChannelPool[active=" + numActive + ", idle=" + numIdle + ", pending=" + numPending + "]";
+    }
+
+    private void execute(Runnable task) {
+        if (executor.inEventLoop()) {
+            task.run();
+        } else {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // the executor is shutting down, so there is no other thread accessing the pool state
+                task.run();
+            }
+        }
+    }
+
+    private boolean hasCapacity() {
+        return maxActive < 0 || acquiredChannels.size() + connecting + idleChannels.size() < maxActive;
+    }
+
+    private void doAcquire(Promise<Channel> promise) {
+        if (closed) {
+            acquireFailed(promise, new IllegalStateException("Channel pool is closed"));
+            return;
+        }
+
+        // prefer the most recently used channel as its the most likely to still be healthy
+        IdleChannel idle = idleChannels.pollLast();
+        if (idle != null) {
+            updateStatistics();
+            checkHealth(idle.channel, promise);
+        } else if (hasCapacity()) {
+            connect(promise);
+        } else if (pendingAcquires.size() < maxPendingAcquires) {
+            LOG.trace("Pool exhausted, waiting for a channel to be released");
+            pendingAcquires.add(promise);
+            updateStatistics();
+        } else {
+            acquireFailed(promise, new NoSuchElementException("Pool exhausted"));
+        }
+    }
+
+    private void checkHealth(final Channel channel, final Promise<Channel> promise) {
+        Future<Boolean> future = healthChecker.isHealthy(channel);
+        if (future.isDone()) {
+            onHealthChecked(channel, future, promise);
+        } else {
+            future.addListener(new FutureListener<Boolean>() {
+                @Override
+                public void operationComplete(final Future<Boolean> future) throws Exception {
+                    execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            onHealthChecked(channel, future, promise);
+                        }
+                    });
+                }
+            });
+        }
+    }
+
+    private void onHealthChecked(Channel channel, Future<Boolean> future, Promise<Channel> promise) {
+        if (future.isSuccess() && future.getNow()) {
+            LOG.trace("Acquired channel from pool {}", channel);
+            acquired(channel, promise);
+        } else {
+            LOG.trace("Channel {} failed health check, destroying it", channel);
+            destroy(channel);
+            doAcquire(promise);
+        }
+    }
+
+    private void connect(final Promise<Channel> promise) {
+        final ChannelFuture future;
+        try {
+            future = producer.openConnection();
+        } catch (Throwable e) {
+            connectFailed(promise, e);
+            return;
+        }
+        connecting++;
+        updateStatistics();
+
+        future.addListener(new ChannelFutureListener() {
+            @Override
+            public void operationComplete(final ChannelFuture future) throws Exception {
+                execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        connecting--;
+                        if (future.isSuccess()) {
+                            Channel channel = future.channel();
+                            createdCount++;
+                            LOG.trace("Created channel: {}", channel);
+                            // to keep track of all channels in use
+                            producer.getAllChannels().add(channel);
+                            if (closed) {
+                                destroy(channel);
+                                acquireFailed(promise, new IllegalStateException("Channel pool is closed"));
+                            } else {
+                                acquired(channel, promise);
+                            }
+                        } else {
+                            connectFailed(promise, future.cause());
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private void connectFailed(Promise<Channel> promise, Throwable cause) {
+        ConnectException exception = new ConnectException("Cannot connect to " + producer.getConfiguration().getAddress());
+        if (cause != null) {
+            exception.initCause(cause);
+        }
+        acquireFailed(promise, exception);
+        // a connection slot is free again
+        runPendingAcquires();
+    }
+
+    private void acquired(Channel channel, Promise<Channel> promise) {
+        acquiredChannels.add(channel);
+        updateStatistics();
+        if (promise.trySuccess(channel)) {
+            acquiredCount++;
+        } else {
+            // the acquire was cancelled so put the channel back to the pool
+            doRelease(channel);
+        }
+    }
+
+    private void acquireFailed(Promise<Channel> promise, Throwable cause) {
+        acquireFailedCount++;
+        updateStatistics();
+        promise.tryFailure(cause);
+    }
+
+    private void doRelease(Channel channel) {
+        if (!acquiredChannels.remove(channel)) {
+            // not acquired from this pool (or already released)
+            return;
+        }
+
+        if (closed || !channel.isActive()) {
+            // only put the connected channel back to the pool
+            LOG.trace("Invalidating channel from pool {}", channel);
+            destroy(channel);
+        } else {
+            Promise<Channel> pending = pollPendingAcquire();
+            if (pending != null) {
+                // hand over the channel directly to the next in line
+                acquired(channel, pending);
+            } else if (maxIdle < 0 || idleChannels.size() < maxIdle) {
+                LOG.trace("Putting channel back to pool {}", channel);
+                idleChannels.offerLast(new IdleChannel(channel, System.currentTimeMillis()));
+            } else {
+                LOG.trace("Pool has reached max idle, destroying channel {}", channel);
+                destroy(channel);
+            }
+        }
+
+        updateStatistics();
+        runPendingAcquires();
+    }
+
+    private Promise<Channel> pollPendingAcquire() {
+        Promise<Channel> promise = pendingAcquires.poll();
+        while (promise != null && promise.isDone()) {
+            // skip acquires which has been cancelled
+            promise = pendingAcquires.poll();
+        }
+        return promise;
+    }
+
+    private void runPendingAcquires() {
+        while (!pendingAcquires.isEmpty() && (!idleChannels.isEmpty() || hasCapacity())) {
+            Promise<Channel> promise = pollPendingAcquire();
+            if (promise != null) {
+                doAcquire(promise);
+            }
+        }
+        updateStatistics();
+    }
+
+    private void destroy(Channel channel) {
+        LOG.trace("Destroying channel: {}", channel);
+        destroyedCount++;
+        if (channel.isOpen()) {
+            NettyHelper.close(channel);
+        }
+        producer.getAllChannels().remove(channel);
+    }
+
+    private void evict() {
+        if (closed) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        // the oldest idle channels are at the head of the deque
+        Iterator<IdleChannel> it = idleChannels.iterator();
+        while (it.hasNext()) {
+            IdleChannel idle = it.next();
+            boolean expired = minEvictableIdle > 0 && now - idle.since >= minEvictableIdle && idleChannels.size() > minIdle;
+            if (expired || !idle.channel.isActive()) {
+                it.remove();
+                evictedCount++;
+                destroy(idle.channel);
+            }
+        }
+
+        // ensure we have the minimum number of idle channels
+        int missing = minIdle - idleChannels.size() - connecting;
+        for (int i = 0; i < missing && hasCapacity(); i++) {
+            Promise<Channel> promise = executor.newPromise();
+            promise.addListener(new FutureListener<Channel>() {
+                @Override
+                public void operationComplete(Future<Channel> future) throws Exception {
+                    if (future.isSuccess()) {
+                        release(future.getNow());
+                    }
+                }
+            });
+            connect(promise);
+        }
+
+        updateStatistics();
+        LOG.trace("Evicted idle channels: {}", this);
+    }
+
+    private void doClose() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (evictionTask != null) {
+            evictionTask.cancel(false);
+            evictionTask = null;
+        }
+
+        Promise<Channel> pending = pollPendingAcquire();
+        while (pending != null) {
+            acquireFailed(pending, new IllegalStateException("Channel pool is closed"));
+            pending = pollPendingAcquire();
+        }
+        for (IdleChannel idle : idleChannels) {
+            destroy(idle.channel);
+        }
+        idleChannels.clear();
+        updateStatistics();
+    }
+
+    private void updateStatistics() {
+        numActive = acquiredChannels.size() + connecting;
+        numIdle = idleChannels.size();
+        numPending = pendingAcquires.size();
+    }
+
+    private static final class IdleChannel {
+        private final Channel channel;
+        private final long since;
+
+        private IdleChannel(Channel channel, long since) {
+            this.channel = channel;
+            this.since = since;
+        }
+    }
+
+}
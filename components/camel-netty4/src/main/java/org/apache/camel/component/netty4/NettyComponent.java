@@ -19,8 +19,11 @@ package org.apache.camel.component.netty4;
 import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ThreadFactory;
 
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.util.concurrent.DefaultEventExecutorGroup;
 import io.netty.util.concurrent.EventExecutorGroup;
 
@@ -34,6 +37,8 @@ public class NettyComponent extends UriEndpointComponent {
     private NettyConfiguration configuration;
     private int maximumPoolSize = 16;
     private volatile EventExecutorGroup executorService;
+    // allocators are shared by the endpoints as each arena allocates its own memory chunks
+    private final ConcurrentMap<String, ByteBufAllocator> allocators = new ConcurrentHashMap<String, ByteBufAllocator>();
 
     public NettyComponent() {
         super(NettyEndpoint.class);
@@ -84,9 +89,35 @@ public class NettyComponent extends UriEndpointComponent {
 
         NettyEndpoint nettyEndpoint = new NettyEndpoint(remaining, this, config);
         setProperties(nettyEndpoint.getConfiguration(), parameters);
+        configureAllocator(nettyEndpoint.getConfiguration());
         return nettyEndpoint;
     }
 
+    /**
+     * Configures the endpoint to use the allocator shared by the endpoints of this component with the same arena settings,
+     * unless a custom allocator has been configured.
+     */
+    protected void configureAllocator(NettyServerBootstrapConfiguration configuration) {
+        if (configuration.getAllocator() != null) {
+            return;
+        }
+        if (configuration.getAllocatorHeapArenas() < 0 && configuration.getAllocatorDirectArenas() < 0) {
+            // use Netty's default allocator
+            return;
+        }
+
+        String key = configuration.getAllocatorHeapArenas() + ":" + configuration.getAllocatorDirectArenas();
+        ByteBufAllocator answer = allocators.get(key);
+        if (answer == null) {
+            answer = NettyHelper.createAllocator(configuration);
+            ByteBufAllocator existing = allocators.putIfAbsent(key, answer);
+            if (existing != null) {
+                answer = existing;
+            }
+        }
+        configuration.setAllocator(answer);
+    }
+
     /**
      * Parses the configuration
      *
@@ -150,6 +181,9 @@ public class NettyComponent extends UriEndpointComponent {
             executorService = null;
         }
 
+        // the endpoints keep using their allocator, but new endpoints should not share it after a restart
+        allocators.clear();
+
         super.doStop();
     }
 
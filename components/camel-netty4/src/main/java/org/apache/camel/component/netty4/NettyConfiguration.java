@@ -96,6 +96,8 @@ public class NettyConfiguration extends NettyServerBootstrapConfiguration implem
     private int producerPoolMaxIdle = 100;
     @UriParam(label = "producer,advanced", defaultValue = "" + 5 * 60 * 1000L)
     private long producerPoolMinEvictableIdle = 5 * 60 * 1000L;
+    @UriParam(label = "producer,advanced")
+    private int producerPoolMaxPendingAcquires;
     @UriParam(label = "producer,advanced", defaultValue = "true")
     private boolean producerPoolEnabled = true;
     @UriParam(label = "producer,advanced")
@@ -566,6 +568,18 @@ public class NettyConfiguration extends NettyServerBootstrapConfiguration implem
         this.producerPoolMinEvictableIdle = producerPoolMinEvictableIdle;
     }
 
+    public int getProducerPoolMaxPendingAcquires() {
+        return producerPoolMaxPendingAcquires;
+    }
+
+    /**
+     * Sets the maximum number of requests which can wait for a channel to be released back to the producer pool, when the pool is exhausted.
+     * Waiting requests do not block any threads. By default no requests wait, and the request fails if the pool is exhausted.
+     */
+    public void setProducerPoolMaxPendingAcquires(int producerPoolMaxPendingAcquires) {
+        this.producerPoolMaxPendingAcquires = producerPoolMaxPendingAcquires;
+    }
+
     public boolean isProducerPoolEnabled() {
         return producerPoolEnabled;
     }
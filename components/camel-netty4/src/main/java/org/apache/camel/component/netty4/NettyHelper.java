@@ -19,10 +19,13 @@ package org.apache.camel.component.netty4;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.DefaultAddressedEnvelope;
+import io.netty.util.internal.PlatformDependent;
 
 import org.apache.camel.Exchange;
 import org.apache.camel.NoTypeConversionAvailableException;
@@ -125,4 +128,44 @@ public final class NettyHelper {
         }
     }
 
+    /**
+     * Gets the buffer allocator to use for the given configuration.
+     * <p/>
+     * The endpoints created by {@link NettyComponent} has the allocator shared by the endpoints of the component
+     * with the same arena settings. Otherwise a new allocator is created when the number of arenas is configured.
+     *
+     * @param configuration the configuration
+     * @return the allocator, or <tt>null</tt> to use Netty's default allocator
+     */
+    public static ByteBufAllocator getAllocator(NettyServerBootstrapConfiguration configuration) {
+        if (configuration.getAllocator() != null) {
+            return configuration.getAllocator();
+        }
+        return createAllocator(configuration);
+    }
+
+    /**
+     * Creates a pooled buffer allocator with the number of arenas of the given configuration.
+     *
+     * @param configuration the configuration
+     * @return the pooled allocator with the configured number of arenas, or <tt>null</tt> if the number of arenas is not configured
+     */
+    public static ByteBufAllocator createAllocator(NettyServerBootstrapConfiguration configuration) {
+        int heapArenas = configuration.getAllocatorHeapArenas();
+        int directArenas = configuration.getAllocatorDirectArenas();
+        if (heapArenas < 0 && directArenas < 0) {
+            return null;
+        }
+        if (heapArenas < 0) {
+            heapArenas = PooledByteBufAllocator.defaultNumHeapArena();
+        }
+        if (directArenas < 0) {
+            directArenas = PooledByteBufAllocator.defaultNumDirectArena();
+        }
+
+        LOG.debug("Creating PooledByteBufAllocator with {} heap arenas and {} direct arenas", heapArenas, directArenas);
+        return new PooledByteBufAllocator(PlatformDependent.directBufferPreferred(), heapArenas, directArenas,
+                PooledByteBufAllocator.defaultPageSize(), PooledByteBufAllocator.defaultMaxOrder());
+    }
+
 }
@@ -16,14 +16,14 @@
  */
 package org.apache.camel.component.netty4;
 
-import java.net.ConnectException;
 import java.net.InetSocketAddress;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
@@ -35,35 +35,42 @@ import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.ChannelGroupFuture;
 import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.channel.pool.ChannelHealthChecker;
+import io.netty.channel.pool.ChannelPool;
 import io.netty.channel.socket.nio.NioDatagramChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
 import io.netty.util.concurrent.ImmediateEventExecutor;
 import org.apache.camel.AsyncCallback;
 import org.apache.camel.CamelContext;
 import org.apache.camel.CamelExchangeException;
 import org.apache.camel.Exchange;
+import org.apache.camel.api.management.ManagedAttribute;
+import org.apache.camel.api.management.ManagedResource;
 import org.apache.camel.impl.DefaultAsyncProducer;
 import org.apache.camel.support.SynchronizationAdapter;
 import org.apache.camel.util.CamelLogger;
 import org.apache.camel.util.ExchangeHelper;
 import org.apache.camel.util.IOHelper;
-import org.apache.commons.pool.ObjectPool;
-import org.apache.commons.pool.PoolableObjectFactory;
-import org.apache.commons.pool.impl.GenericObjectPool;
+import org.apache.camel.util.ObjectHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+@ManagedResource(description = "Managed NettyProducer")
 public class NettyProducer extends DefaultAsyncProducer {
     private static final Logger LOG = LoggerFactory.getLogger(NettyProducer.class);
+    private static final AttributeKey<NettyCamelState> STATE_KEY = AttributeKey.valueOf("NettyCamelState");
     private final ChannelGroup allChannels = new DefaultChannelGroup("NettyProducer", ImmediateEventExecutor.INSTANCE);
     private CamelContext context;
     private NettyConfiguration configuration;
     private ClientInitializerFactory pipelineFactory;
     private CamelLogger noReplyLogger;
     private EventLoopGroup workerGroup;
-    private ObjectPool<Channel> pool;
-    private Map<Channel, NettyCamelState> nettyCamelStatesMap = new ConcurrentHashMap<Channel, NettyCamelState>();
+    private ByteBufAllocator allocator;
+    private ChannelPool pool;
 
     public NettyProducer(NettyEndpoint nettyEndpoint, NettyConfiguration configuration) {
         super(nettyEndpoint);
@@ -100,29 +107,20 @@ public class NettyProducer extends DefaultAsyncProducer {
                 .withWorkerCount(configuration.getWorkerCount())
                 .withName("NettyClientTCPWorker").build();
         }
+        allocator = NettyHelper.getAllocator(configuration);
         
         if (configuration.isProducerPoolEnabled()) {
-            // setup pool where we want an unbounded pool, which allows the pool to shrink on no demand
-            GenericObjectPool.Config config = new GenericObjectPool.Config();
-            config.maxActive = configuration.getProducerPoolMaxActive();
-            config.minIdle = configuration.getProducerPoolMinIdle();
-            config.maxIdle = configuration.getProducerPoolMaxIdle();
-            // we should test on borrow to ensure the channel is still valid
-            config.testOnBorrow = true;
-            // only evict channels which are no longer valid
-            config.testWhileIdle = true;
-            // run eviction every 30th second
-            config.timeBetweenEvictionRunsMillis = 30 * 1000L;
-            config.minEvictableIdleTimeMillis = configuration.getProducerPoolMinEvictableIdle();
-            config.whenExhaustedAction = GenericObjectPool.WHEN_EXHAUSTED_FAIL;
-            pool = new GenericObjectPool<Channel>(new NettyProducerPoolableObjectFactory(), config);
+            // setup non blocking pool which is bound to one of the event loops, and which checks the channel is still
+            // active when acquired, and evicts channels which are no longer valid or have been idle for too long
+            pool = new NettyChannelPool(this, getWorkerGroup().next(), ChannelHealthChecker.ACTIVE);
 
             if (LOG.isDebugEnabled()) {
-                LOG.debug("Created NettyProducer pool[maxActive={}, minIdle={}, maxIdle={}, minEvictableIdleTimeMillis={}] -> {}",
-                        new Object[]{config.maxActive, config.minIdle, config.maxIdle, config.minEvictableIdleTimeMillis, pool});
+                LOG.debug("Created NettyProducer pool[maxActive={}, minIdle={}, maxIdle={}, maxPendingAcquires={}, minEvictableIdleTimeMillis={}] -> {}",
+                        new Object[]{configuration.getProducerPoolMaxActive(), configuration.getProducerPoolMinIdle(), configuration.getProducerPoolMaxIdle(),
+                            configuration.getProducerPoolMaxPendingAcquires(), configuration.getProducerPoolMinEvictableIdle(), pool});
             }
         } else {
-            pool = new SharedSingletonObjectPool<Channel>(new NettyProducerPoolableObjectFactory());
+            pool = new SharedSingletonChannelPool(this, getWorkerGroup().next());
             if (LOG.isDebugEnabled()) {
                 LOG.info("Created NettyProducer shared singleton pool -> {}", pool);
             }
@@ -138,8 +136,12 @@ public class NettyProducer extends DefaultAsyncProducer {
 
         if (!configuration.isLazyChannelCreation()) {
             // ensure the connection can be established when we start up
-            Channel channel = pool.borrowObject();
-            pool.returnObject(channel);
+            Future<Channel> future = pool.acquire().awaitUninterruptibly();
+            if (!future.isSuccess()) {
+                Throwable cause = future.cause();
+                throw cause instanceof Exception ? (Exception) cause : ObjectHelper.wrapRuntimeCamelException(cause);
+            }
+            pool.release(future.getNow());
         }
     }
 
@@ -151,20 +153,18 @@ public class NettyProducer extends DefaultAsyncProducer {
         ChannelGroupFuture future = allChannels.close();
         future.awaitUninterruptibly();
 
+        if (pool != null) {
+            LOG.debug("Stopping producer with channel pool {}", pool);
+            pool.close();
+            pool = null;
+        }
+
         // and then shutdown the thread pools
         if (workerGroup != null) {
             workerGroup.shutdownGracefully();
             workerGroup = null;
         }
 
-        if (pool != null) {
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("Stopping producer with channel pool[active={}, idle={}]", pool.getNumActive(), pool.getNumIdle());
-            }
-            pool.close();
-            pool = null;
-        }
-
         super.doStop();
     }
 
@@ -196,35 +196,49 @@ public class NettyProducer extends DefaultAsyncProducer {
             exchange.setProperty(Exchange.CHARSET_NAME, IOHelper.normalizeCharset(getConfiguration().getCharsetName()));
         }
 
-        if (LOG.isTraceEnabled()) {
-            LOG.trace("Pool[active={}, idle={}]", pool.getNumActive(), pool.getNumIdle());
-        }
+        LOG.trace("Pool {}", pool);
 
-        // get a channel from the pool
-        Channel existing = null;
-        try {
-            if (getConfiguration().isReuseChannel()) {
-                existing = exchange.getProperty(NettyConstants.NETTY_CHANNEL, Channel.class);
-            }
-            if (existing == null) {
-                existing = pool.borrowObject();
-                if (existing != null) {
-                    LOG.trace("Got channel from pool {}", existing);
-                }
+        // reuse the channel from the exchange
+        if (getConfiguration().isReuseChannel()) {
+            Channel existing = exchange.getProperty(NettyConstants.NETTY_CHANNEL, Channel.class);
+            if (existing != null) {
+                processWithChannel(exchange, callback, existing, body);
+                return false;
             }
-        } catch (Exception e) {
-            exchange.setException(e);
-            callback.done(true);
-            return true;
         }
 
-        // we must have a channel
-        if (existing == null) {
-            exchange.setException(new CamelExchangeException("Cannot get channel from pool", exchange));
-            callback.done(true);
-            return true;
+        // get a channel from the pool, which does not block if a new channel must be connected
+        Future<Channel> future = pool.acquire();
+        if (future.isDone() && future.isSuccess()) {
+            LOG.trace("Got channel from pool {}", future.getNow());
+            processWithChannel(exchange, callback, future.getNow(), body);
+        } else {
+            // the pool completes the acquire on its own thread, so always signal a failure asynchronously,
+            // even if the acquire has already failed (eg connection refused) before we get here
+            final Object request = body;
+            future.addListener(new FutureListener<Channel>() {
+                @Override
+                public void operationComplete(Future<Channel> future) throws Exception {
+                    if (!future.isSuccess()) {
+                        exchange.setException(future.cause());
+                        callback.done(false);
+                        return;
+                    }
+                    LOG.trace("Got channel from pool {}", future.getNow());
+                    processWithChannel(exchange, callback, future.getNow(), request);
+                }
+            });
         }
 
+        // continue routing asynchronously
+        return false;
+    }
+
+    /**
+     * Sends the body using the given channel, and signals the callback when done.
+     */
+    protected void processWithChannel(final Exchange exchange, final AsyncCallback callback, Channel existing, Object body) {
+
         // remember channel so we can reuse it
         if (getConfiguration().isReuseChannel() && exchange.getProperty(NettyConstants.NETTY_CHANNEL) == null) {
             final Channel channel = existing;
@@ -252,19 +266,8 @@ public class NettyProducer extends DefaultAsyncProducer {
                         NettyHelper.close(channel);
                     }
 
-                    try {
-                        // Only put the connected channel back to the pool
-                        if (channel.isActive()) {
-                            LOG.trace("Putting channel back to pool {}", channel);
-                            pool.returnObject(channel);
-                        } else {
-                            // and if its not active then invalidate it
-                            LOG.trace("Invalidating channel from pool {}", channel);
-                            pool.invalidateObject(channel);
-                        }
-                    } catch (Exception e) {
-                        LOG.warn("Error returning channel to pool " + channel + ". This exception will be ignored.", e);
-                    }
+                    // put back in pool, which invalidates the channel if its no longer active
+                    releaseChannel(channel);
                 }
             });
         }
@@ -298,6 +301,11 @@ public class NettyProducer extends DefaultAsyncProducer {
                 LOG.trace("Operation complete {}", channelFuture);
                 if (!channelFuture.isSuccess()) {
                     // no success then exit, (any exception has been handled by ClientChannelHandler#exceptionCaught)
+                    // but the channel may have been closed before the state was set, so ensure the callback is signalled
+                    if (exchange.getException() == null) {
+                        exchange.setException(new CamelExchangeException("Cannot write body to channel " + channel, exchange, channelFuture.cause()));
+                    }
+                    producerCallback.done(false);
                     return;
                 }
 
@@ -332,9 +340,6 @@ public class NettyProducer extends DefaultAsyncProducer {
                 }
             }
         });
-
-        // continue routing asynchronously
-        return false;
     }
 
     /**
@@ -362,7 +367,7 @@ public class NettyProducer extends DefaultAsyncProducer {
      * To get the {@link NettyCamelState} from the given channel.
      */
     public NettyCamelState getState(Channel channel) {
-        return nettyCamelStatesMap.get(channel);
+        return channel.attr(STATE_KEY).get();
     }
 
     /**
@@ -370,14 +375,17 @@ public class NettyProducer extends DefaultAsyncProducer {
      * when no longer needed
      */
     public void removeState(Channel channel) {
-        nettyCamelStatesMap.remove(channel);
+        channel.attr(STATE_KEY).remove();
     }
 
     /**
-     * Put the {@link NettyCamelState} into the map use the given channel as the key
+     * Put the {@link NettyCamelState} as attribute on the given channel.
+     * <p/>
+     * The state is kept on the channel and not on this producer, as a reused channel may be used by
+     * another producer than the one whose handler reads the reply.
      */
     public void putState(Channel channel, NettyCamelState state) {
-        nettyCamelStatesMap.put(channel, state);
+        channel.attr(STATE_KEY).set(state);
     }
 
     protected EventLoopGroup getWorkerGroup() {
@@ -405,6 +413,9 @@ public class NettyProducer extends DefaultAsyncProducer {
             clientBootstrap.option(ChannelOption.TCP_NODELAY, configuration.isTcpNoDelay());
             clientBootstrap.option(ChannelOption.SO_REUSEADDR, configuration.isReuseAddress());
             clientBootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, configuration.getConnectTimeout());
+            if (allocator != null) {
+                clientBootstrap.option(ChannelOption.ALLOCATOR, allocator);
+            }
 
             //TODO need to check it later
             // set any additional netty options
@@ -436,6 +447,9 @@ public class NettyProducer extends DefaultAsyncProducer {
             connectionlessClientBootstrap.option(ChannelOption.SO_BROADCAST, configuration.isBroadcast());
             connectionlessClientBootstrap.option(ChannelOption.SO_SNDBUF, configuration.getSendBufferSize());
             connectionlessClientBootstrap.option(ChannelOption.SO_RCVBUF, configuration.getReceiveBufferSize());
+            if (allocator != null) {
+                connectionlessClientBootstrap.option(ChannelOption.ALLOCATOR, allocator);
+            }
 
             //TODO need to check it later
             // set any additional netty options
@@ -457,7 +471,7 @@ public class NettyProducer extends DefaultAsyncProducer {
                 answer = connectionlessClientBootstrap.connect(new InetSocketAddress(configuration.getHost(), configuration.getPort()));
             } else {
                 // bind and store channel so we can close it when stopping
-                answer = connectionlessClientBootstrap.bind(new InetSocketAddress(0)).sync();
+                answer = connectionlessClientBootstrap.bind(new InetSocketAddress(0));
                 Channel channel = answer.channel();
                 allChannels.add(channel);
             }
@@ -470,32 +484,6 @@ public class NettyProducer extends DefaultAsyncProducer {
         }
     }
 
-    protected Channel openChannel(ChannelFuture channelFuture) throws Exception {
-        // blocking for channel to be done
-        if (LOG.isTraceEnabled()) {
-            LOG.trace("Waiting for operation to complete {} for {} millis", channelFuture, configuration.getConnectTimeout());
-        }
-
-        // wait for the channel to be open (see io.netty.channel.ChannelFuture javadoc for example/recommendation)
-        channelFuture.awaitUninterruptibly();
-
-        if (!channelFuture.isDone() || !channelFuture.isSuccess()) {
-            ConnectException cause = new ConnectException("Cannot connect to " + configuration.getAddress());
-            if (channelFuture.cause() != null) {
-                cause.initCause(channelFuture.cause());
-            }
-            throw cause;
-        }
-        Channel answer = channelFuture.channel();
-        // to keep track of all channels in use
-        allChannels.add(answer);
-
-        if (LOG.isDebugEnabled()) {
-            LOG.debug("Creating connector to address: {}", configuration.getAddress());
-        }
-        return answer;
-    }
-
     public NettyConfiguration getConfiguration() {
         return configuration;
     }
@@ -509,6 +497,54 @@ public class NettyProducer extends DefaultAsyncProducer {
         return allChannels;
     }
 
+    private void releaseChannel(Channel channel) {
+        ChannelPool current = pool;
+        if (current != null) {
+            LOG.trace("Putting channel back to pool {}", channel);
+            current.release(channel);
+        }
+    }
+
+    @ManagedAttribute(description = "Number of channels acquired from the pool")
+    public int getPoolActive() {
+        return pool instanceof NettyChannelPool ? ((NettyChannelPool) pool).getNumActive() : 0;
+    }
+
+    @ManagedAttribute(description = "Number of idle channels in the pool")
+    public int getPoolIdle() {
+        return pool instanceof NettyChannelPool ? ((NettyChannelPool) pool).getNumIdle() : 0;
+    }
+
+    @ManagedAttribute(description = "Number of acquires waiting for a channel to be released to the pool")
+    public int getPoolPendingAcquires() {
+        return pool instanceof NettyChannelPool ? ((NettyChannelPool) pool).getNumPendingAcquires() : 0;
+    }
+
+    @ManagedAttribute(description = "Total number of channels created by the pool")
+    public long getPoolCreatedCount() {
+        return pool instanceof NettyChannelPool ? ((NettyChannelPool) pool).getCreatedCount() : 0;
+    }
+
+    @ManagedAttribute(description = "Total number of channels destroyed by the pool")
+    public long getPoolDestroyedCount() {
+        return pool instanceof NettyChannelPool ? ((NettyChannelPool) pool).getDestroyedCount() : 0;
+    }
+
+    @ManagedAttribute(description = "Total number of channels acquired from the pool")
+    public long getPoolAcquiredCount() {
+        return pool instanceof NettyChannelPool ? ((NettyChannelPool) pool).getAcquiredCount() : 0;
+    }
+
+    @ManagedAttribute(description = "Total number of failed attempts to acquire a channel from the pool")
+    public long getPoolAcquireFailedCount() {
+        return pool instanceof NettyChannelPool ? ((NettyChannelPool) pool).getAcquireFailedCount() : 0;
+    }
+
+    @ManagedAttribute(description = "Total number of idle channels evicted from the pool")
+    public long getPoolEvictedCount() {
+        return pool instanceof NettyChannelPool ? ((NettyChannelPool) pool).getEvictedCount() : 0;
+    }
+
     /**
      * Callback that ensures the channel is returned to the pool when we are done.
      */
@@ -516,6 +552,7 @@ public class NettyProducer extends DefaultAsyncProducer {
 
         private final Channel channel;
         private final AsyncCallback callback;
+        private final AtomicBoolean done = new AtomicBoolean();
 
         private NettyProducerCallback(Channel channel, AsyncCallback callback) {
             this.channel = channel;
@@ -524,19 +561,14 @@ public class NettyProducer extends DefaultAsyncProducer {
 
         @Override
         public void done(boolean doneSync) {
-            // put back in pool
+            // the callback can be signalled from both the channel handler and the write listener
+            if (!done.compareAndSet(false, true)) {
+                LOG.trace("Callback already done for channel {}", channel);
+                return;
+            }
             try {
-                // Only put the connected channel back to the pool
-                if (channel.isActive()) {
-                    LOG.trace("Putting channel back to pool {}", channel);
-                    pool.returnObject(channel);
-                } else {
-                    // and if its not active then invalidate it
-                    LOG.trace("Invalidating channel from pool {}", channel);
-                    pool.invalidateObject(channel);
-                }
-            } catch (Exception e) {
-                LOG.warn("Error returning channel to pool " + channel + ". This exception will be ignored.", e);
+                // put back in pool, which invalidates the channel if its no longer active
+                releaseChannel(channel);
             } finally {
                 // ensure we call the delegated callback
                 callback.done(doneSync);
@@ -544,47 +576,4 @@ public class NettyProducer extends DefaultAsyncProducer {
         }
     }
 
-    /**
-     * Object factory to create {@link Channel} used by the pool.
-     */
-    private final class NettyProducerPoolableObjectFactory implements PoolableObjectFactory<Channel> {
-
-        @Override
-        public Channel makeObject() throws Exception {
-            ChannelFuture channelFuture = openConnection();
-            Channel answer = openChannel(channelFuture);
-            LOG.trace("Created channel: {}", answer);
-            return answer;
-        }
-
-        @Override
-        public void destroyObject(Channel channel) throws Exception {
-            LOG.trace("Destroying channel: {}", channel);
-            if (channel.isOpen()) {
-                NettyHelper.close(channel);
-            }
-            allChannels.remove(channel);
-        }
-
-        @Override
-        public boolean validateObject(Channel channel) {
-            // we need a connected channel to be valid
-            boolean answer = channel.isActive();
-            LOG.trace("Validating channel: {} -> {}", channel, answer);
-            return answer;
-        }
-
-        @Override
-        public void activateObject(Channel channel) throws Exception {
-            // noop
-            LOG.trace("activateObject channel: {} -> {}", channel);
-        }
-
-        @Override
-        public void passivateObject(Channel channel) throws Exception {
-            // noop
-            LOG.trace("passivateObject channel: {} -> {}", channel);
-        }
-    }
-
 }
@@ -19,6 +19,7 @@ package org.apache.camel.component.netty4;
 import java.io.File;
 import java.util.Map;
 
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.handler.ssl.SslHandler;
@@ -96,6 +97,16 @@ public class NettyServerBootstrapConfiguration implements Cloneable {
     @UriParam(label = "advanced")
     protected boolean nativeTransport;
     @UriParam(label = "consumer,advanced")
+    protected boolean reusePort;
+    @UriParam(label = "consumer,advanced")
+    protected int tcpFastOpen;
+    @UriParam(label = "advanced", defaultValue = "-1")
+    protected int allocatorHeapArenas = -1;
+    @UriParam(label = "advanced", defaultValue = "-1")
+    protected int allocatorDirectArenas = -1;
+    @UriParam(label = "advanced")
+    protected ByteBufAllocator allocator;
+    @UriParam(label = "consumer,advanced")
     protected EventLoopGroup bossGroup;
     @UriParam(label = "consumer,advanced")
     protected EventLoopGroup workerGroup;
@@ -479,6 +490,70 @@ public class NettyServerBootstrapConfiguration implements Cloneable {
         this.nativeTransport = nativeTransport;
     }
 
+    public boolean isReusePort() {
+        return reusePort;
+    }
+
+    /**
+     * Whether the server should bind one server channel per boss thread to the same port using SO_REUSEPORT,
+     * which lets the kernel load balance incoming connections across multiple acceptors.
+     * This requires the native transport (epoll) to be enabled, and the number of acceptors is configured using the bossCount option.
+     */
+    public void setReusePort(boolean reusePort) {
+        this.reusePort = reusePort;
+    }
+
+    public int getTcpFastOpen() {
+        return tcpFastOpen;
+    }
+
+    /**
+     * To enable TCP_FASTOPEN on the server socket with the given queue length of pending fast open requests.
+     * This requires the native transport (epoll) to be enabled, and support from the host operating system.
+     * Setting a value of 0 (the default) disables fast open.
+     */
+    public void setTcpFastOpen(int tcpFastOpen) {
+        this.tcpFastOpen = tcpFastOpen;
+    }
+
+    public int getAllocatorHeapArenas() {
+        return allocatorHeapArenas;
+    }
+
+    /**
+     * The number of heap arenas of the pooled buffer allocator used by the channels.
+     * Setting this or the allocatorDirectArenas option uses a dedicated PooledByteBufAllocator, which is shared by all
+     * endpoints of the component with the same arena settings. The default value of -1 uses Netty's default.
+     */
+    public void setAllocatorHeapArenas(int allocatorHeapArenas) {
+        this.allocatorHeapArenas = allocatorHeapArenas;
+    }
+
+    public int getAllocatorDirectArenas() {
+        return allocatorDirectArenas;
+    }
+
+    /**
+     * The number of direct arenas of the pooled buffer allocator used by the channels.
+     * Setting this or the allocatorHeapArenas option uses a dedicated PooledByteBufAllocator, which is shared by all
+     * endpoints of the component with the same arena settings. The default value of -1 uses Netty's default.
+     */
+    public void setAllocatorDirectArenas(int allocatorDirectArenas) {
+        this.allocatorDirectArenas = allocatorDirectArenas;
+    }
+
+    public ByteBufAllocator getAllocator() {
+        return allocator;
+    }
+
+    /**
+     * To use a custom ByteBufAllocator for the channels, instead of the allocator configured by the
+     * allocatorHeapArenas and allocatorDirectArenas options.
+     */
+    public void setAllocator(ByteBufAllocator allocator) {
+        this.allocator = allocator;
+    }
+
     public EventLoopGroup getBossGroup() {
         return bossGroup;
     }
@@ -593,6 +668,16 @@ public class NettyServerBootstrapConfiguration implements Cloneable {
             isCompatible = false;
         } else if (backlog != other.backlog) {
             isCompatible = false;
+        } else if (nativeTransport != other.nativeTransport) {
+            isCompatible = false;
+        } else if (reusePort != other.reusePort) {
+            isCompatible = false;
+        } else if (tcpFastOpen != other.tcpFastOpen) {
+            isCompatible = false;
+        } else if (allocatorHeapArenas != other.allocatorHeapArenas) {
+            isCompatible = false;
+        } else if (allocatorDirectArenas != other.allocatorDirectArenas) {
+            isCompatible = false;
         } else if (serverInitializerFactory != other.serverInitializerFactory) {
             isCompatible = false;
         } else if (nettyServerBootstrapFactory != other.nettyServerBootstrapFactory) {
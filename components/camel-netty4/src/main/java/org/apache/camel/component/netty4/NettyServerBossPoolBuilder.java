@@ -17,6 +17,7 @@
 package org.apache.camel.component.netty4;
 
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
 import io.netty.channel.epoll.EpollEventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import org.apache.camel.util.concurrent.CamelThreadFactory;
@@ -74,6 +75,8 @@ public final class NettyServerBossPoolBuilder {
      */
     public EventLoopGroup build() {
         if (nativeTransport) {
+            // fail fast with the cause if the native library cannot be loaded on this platform
+            Epoll.ensureAvailability();
             return new EpollEventLoopGroup(bossCount, new CamelThreadFactory(pattern, name, false));
         } else {
             return new NioEventLoopGroup(bossCount, new CamelThreadFactory(pattern, name, false));
@@ -17,6 +17,7 @@
 package org.apache.camel.component.netty4;
 
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
 import io.netty.channel.epoll.EpollEventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import org.apache.camel.util.concurrent.CamelThreadFactory;
@@ -75,6 +76,8 @@ public final class NettyWorkerPoolBuilder {
     public EventLoopGroup build() {
         int count = workerCount > 0 ? workerCount : NettyHelper.DEFAULT_IO_THREADS;
         if (nativeTransport) {
+            // fail fast with the cause if the native library cannot be loaded on this platform
+            Epoll.ensureAvailability();
             workerPool = new EpollEventLoopGroup(count, new CamelThreadFactory(pattern, name, false));
         } else {
             workerPool = new NioEventLoopGroup(count, new CamelThreadFactory(pattern, name, false));
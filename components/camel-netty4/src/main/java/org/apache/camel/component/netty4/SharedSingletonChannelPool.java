@@ -0,0 +1,134 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.netty4;
+
+import java.net.ConnectException;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.FutureListener;
+import io.netty.util.concurrent.Promise;
+
+/**
+ * A {@link ChannelPool} that uses a single shared channel, which is used when the producer pool is disabled.
+ * <p/>
+ * The channel is connected on first acquire, and all acquires share the same connect while its in progress.
+ * If the channel is no longer active, then a new channel is connected on the next acquire.
+ */
+public class SharedSingletonChannelPool implements ChannelPool {
+
+    private final NettyProducer producer;
+    private final EventExecutor executor;
+    private Promise<Channel> shared;
+
+    public SharedSingletonChannelPool(NettyProducer producer, EventExecutor executor) {
+        this.producer = producer;
+        this.executor = executor;
+    }
+
+    @Override
+    public Future<Channel> acquire() {
+        return acquire(executor.<Channel>newPromise());
+    }
+
+    @Override
+    public Future<Channel> acquire(final Promise<Channel> promise) {
+        final Promise<Channel> current = getOrConnect();
+        if (current.isDone()) {
+            complete(current, promise);
+        } else {
+            current.addListener(new CompletePromiseListener(promise));
+        }
+        return promise;
+    }
+
+    @Override
+    public Future<Void> release(Channel channel) {
+        return release(channel, executor.<Void>newPromise());
+    }
+
+    @Override
+    public Future<Void> release(Channel channel, Promise<Void> promise) {
+        // the channel is shared so its not released
+        return promise.setSuccess(null);
+    }
+
+    @Override
+    public synchronized void close() {
+        shared = null;
+    }
+
+    private synchronized Promise<Channel> getOrConnect() {
+        Promise<Channel> current = shared;
+        if (current != null && (!current.isDone() || (current.isSuccess() && current.getNow().isActive()))) {
+            return current;
+        }
+
+        final Promise<Channel> answer = executor.newPromise();
+        shared = answer;
+        try {
+            producer.openConnection().addListener(new ChannelFutureListener() {
+                @Override
+                public void operationComplete(ChannelFuture future) throws Exception {
+                    if (future.isSuccess()) {
+                        producer.getAllChannels().add(future.channel());
+                        answer.trySuccess(future.channel());
+                    } else {
+                        answer.tryFailure(connectException(future.cause()));
+                    }
+                }
+            });
+        } catch (Throwable e) {
+            answer.tryFailure(connectException(e));
+        }
+        return answer;
+    }
+
+    private ConnectException connectException(Throwable cause) {
+        ConnectException exception = new ConnectException("Cannot connect to " + producer.getConfiguration().getAddress());
+        if (cause != null) {
+            exception.initCause(cause);
+        }
+        return exception;
+    }
+
+    private static void complete(Future<Channel> future, Promise<Channel> promise) {
+        if (future.isSuccess()) {
+            promise.trySuccess(future.getNow());
+        } else {
+            promise.tryFailure(future.cause());
+        }
+    }
+
+    private static final class CompletePromiseListener implements FutureListener<Channel> {
+        private final Promise<Channel> promise;
+
+        private CompletePromiseListener(Promise<Channel> promise) {
+            this.promise = promise;
+        }
+
+        @Override
+        public void operationComplete(Future<Channel> future) throws Exception {
+            complete(future, promise);
+        }
+    }
+
+}
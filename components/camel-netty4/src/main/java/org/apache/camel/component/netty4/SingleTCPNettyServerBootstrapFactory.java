@@ -17,15 +17,19 @@
 package org.apache.camel.component.netty4;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ThreadFactory;
 
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.EpollChannelOption;
 import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
@@ -52,7 +56,7 @@ public class SingleTCPNettyServerBootstrapFactory extends ServiceSupport impleme
     private NettyServerBootstrapConfiguration configuration;
     private ChannelInitializer<Channel> pipelineFactory;
     private ServerBootstrap serverBootstrap;
-    private Channel channel;
+    private final List<Channel> channels = new ArrayList<Channel>();
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
 
@@ -110,7 +114,8 @@ public class SingleTCPNettyServerBootstrapFactory extends ServiceSupport impleme
 
     @Override
     protected void doResume() throws Exception {
-        if (channel != null) {
+        for (int i = 0; i < channels.size(); i++) {
+            Channel channel = channels.get(i);
             LOG.debug("ServerBootstrap binding to {}:{}", configuration.getHost(), configuration.getPort());
             ChannelFuture future = channel.bind(new InetSocketAddress(configuration.getHost(), configuration.getPort()));
             future.awaitUninterruptibly();
@@ -119,6 +124,7 @@ public class SingleTCPNettyServerBootstrapFactory extends ServiceSupport impleme
                 allChannels.remove(channel);
                 future = serverBootstrap.bind(new InetSocketAddress(configuration.getHost(), configuration.getPort())).sync();
                 channel = future.channel();
+                channels.set(i, channel);
                 allChannels.add(channel);
             }
         }
@@ -126,7 +132,7 @@ public class SingleTCPNettyServerBootstrapFactory extends ServiceSupport impleme
 
     @Override
     protected void doSuspend() throws Exception {
-        if (channel != null) {
+        for (Channel channel : channels) {
             LOG.debug("ServerBootstrap unbinding from {}:{}", configuration.getHost(), configuration.getPort());
             //TODO need to check if it's good way to unbinding the channel
             ChannelFuture future = channel.close();
@@ -172,6 +178,26 @@ public class SingleTCPNettyServerBootstrapFactory extends ServiceSupport impleme
         if (configuration.getBacklog() > 0) {
             serverBootstrap.option(ChannelOption.SO_BACKLOG, configuration.getBacklog());
         }
+        ByteBufAllocator allocator = NettyHelper.getAllocator(configuration);
+        if (allocator != null) {
+            serverBootstrap.option(ChannelOption.ALLOCATOR, allocator);
+            serverBootstrap.childOption(ChannelOption.ALLOCATOR, allocator);
+        }
+
+        // number of server channels bound to the port, which can only be more than one with SO_REUSEPORT
+        int acceptors = 1;
+        if (configuration.isReusePort() || configuration.getTcpFastOpen() > 0) {
+            if (!configuration.isNativeTransport()) {
+                throw new IllegalArgumentException("The reusePort and tcpFastOpen options require nativeTransport to be enabled");
+            }
+            if (configuration.isReusePort()) {
+                serverBootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+                acceptors = Math.max(1, configuration.getBossCount());
+            }
+            if (configuration.getTcpFastOpen() > 0) {
+                serverBootstrap.option(EpollChannelOption.TCP_FASTOPEN, configuration.getTcpFastOpen());
+            }
+        }
 
         Map<String, Object> options = configuration.getOptions();
         if (options != null) {
@@ -196,10 +222,17 @@ public class SingleTCPNettyServerBootstrapFactory extends ServiceSupport impleme
         LOG.debug("Created ServerBootstrap {}", serverBootstrap);
 
         LOG.info("ServerBootstrap binding to {}:{}", configuration.getHost(), configuration.getPort());
-        ChannelFuture channelFuture = serverBootstrap.bind(new InetSocketAddress(configuration.getHost(), configuration.getPort())).sync();
-        channel = channelFuture.channel();
-        // to keep track of all channels in use
-        allChannels.add(channel);
+        for (int i = 0; i < acceptors; i++) {
+            // with SO_REUSEPORT each bound channel is registered with its own boss thread
+            ChannelFuture channelFuture = serverBootstrap.bind(new InetSocketAddress(configuration.getHost(), configuration.getPort())).sync();
+            Channel channel = channelFuture.channel();
+            channels.add(channel);
+            // to keep track of all channels in use
+            allChannels.add(channel);
+        }
+        if (acceptors > 1) {
+            LOG.info("ServerBootstrap bound {} acceptors to {}:{} using SO_REUSEPORT", new Object[]{acceptors, configuration.getHost(), configuration.getPort()});
+        }
     }
 
     protected void stopServerBootstrap() {
@@ -208,6 +241,7 @@ public class SingleTCPNettyServerBootstrapFactory extends ServiceSupport impleme
         
         LOG.trace("Closing {} channels", allChannels.size());
         allChannels.close().awaitUninterruptibly();
+        channels.clear();
 
         // and then shutdown the thread pools
         if (bossGroup != null) {
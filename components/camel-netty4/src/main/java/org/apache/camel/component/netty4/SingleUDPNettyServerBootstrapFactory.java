@@ -22,6 +22,7 @@ import java.util.Map;
 import java.util.concurrent.ThreadFactory;
 
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
@@ -141,6 +142,10 @@ public class SingleUDPNettyServerBootstrapFactory extends ServiceSupport impleme
         bootstrap.option(ChannelOption.SO_RCVBUF, configuration.getReceiveBufferSize());
         bootstrap.option(ChannelOption.SO_BROADCAST, configuration.isBroadcast());
         bootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, configuration.getConnectTimeout());
+        ByteBufAllocator allocator = NettyHelper.getAllocator(configuration);
+        if (allocator != null) {
+            bootstrap.option(ChannelOption.ALLOCATOR, allocator);
+        }
         
         // only set this if user has specified
         if (configuration.getReceiveBufferSizePredictor() > 0) {
@@ -0,0 +1,115 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.netty4;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.epoll.Epoll;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class NettyNativeTransportTest extends BaseNettyTest {
+
+    @Test
+    public void testReusePortMultipleAcceptors() throws Exception {
+        Assume.assumeTrue(Epoll.isAvailable());
+
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("netty4:tcp://localhost:{{port}}?textline=true&sync=true&nativeTransport=true&reusePort=true&bossCount=4")
+                    .transform().simple("Bye ${body}");
+            }
+        });
+
+        for (int i = 0; i < 20; i++) {
+            String reply = template.requestBody("netty4:tcp://localhost:{{port}}?textline=true&sync=true&nativeTransport=true",
+                    "World " + i, String.class);
+            assertEquals("Bye World " + i, reply);
+        }
+    }
+
+    @Test
+    public void testTcpFastOpenAndAllocator() throws Exception {
+        Assume.assumeTrue(Epoll.isAvailable());
+
+        context.addRoutes(new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("netty4:tcp://localhost:{{port}}?textline=true&sync=true&nativeTransport=true&tcpFastOpen=16"
+                        + "&allocatorHeapArenas=2&allocatorDirectArenas=2")
+                    .transform().simple("Bye ${body}");
+            }
+        });
+
+        String reply = template.requestBody("netty4:tcp://localhost:{{port}}?textline=true&sync=true&nativeTransport=true"
+                + "&allocatorHeapArenas=2&allocatorDirectArenas=2", "Camel", String.class);
+        assertEquals("Bye Camel", reply);
+    }
+
+    @Test
+    public void testReusePortRequiresNativeTransport() throws Exception {
+        try {
+            context.addRoutes(new RouteBuilder() {
+                @Override
+                public void configure() throws Exception {
+                    from("netty4:tcp://localhost:{{port}}?textline=true&reusePort=true").to("mock:result");
+                }
+            });
+            fail("Should have thrown an exception");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("nativeTransport"));
+        }
+    }
+
+    @Test
+    public void testAllocatorShared() throws Exception {
+        NettyEndpoint endpoint = context.getEndpoint("netty4:tcp://localhost:{{port}}?textline=true", NettyEndpoint.class);
+        assertNull(endpoint.getConfiguration().getAllocator());
+        assertNull(NettyHelper.getAllocator(endpoint.getConfiguration()));
+
+        NettyEndpoint first = context.getEndpoint("netty4:tcp://localhost:{{port}}?allocatorHeapArenas=1&allocatorDirectArenas=3", NettyEndpoint.class);
+        ByteBufAllocator allocator = first.getConfiguration().getAllocator();
+        assertIsInstanceOf(PooledByteBufAllocator.class, allocator);
+        assertSame(allocator, NettyHelper.getAllocator(first.getConfiguration()));
+
+        // the endpoints of the component with the same arena settings share the allocator
+        NettyEndpoint second = context.getEndpoint("netty4:tcp://localhost:{{port}}?textline=true&allocatorHeapArenas=1&allocatorDirectArenas=3",
+                NettyEndpoint.class);
+        assertSame(allocator, second.getConfiguration().getAllocator());
+
+        // and the allocators are no longer shared when the component has been stopped
+        NettyComponent component = context.getComponent("netty4", NettyComponent.class);
+        component.stop();
+        component.start();
+        NettyEndpoint third = context.getEndpoint("netty4:tcp://localhost:{{port}}?sync=false&allocatorHeapArenas=1&allocatorDirectArenas=3",
+                NettyEndpoint.class);
+        assertNotSame(allocator, third.getConfiguration().getAllocator());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        // the routes are added by the tests as they depend on the native transport being available
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+            }
+        };
+    }
+
+}
@@ -0,0 +1,122 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.netty4;
+
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.Test;
+
+public class NettyProducerChannelPoolTest extends BaseNettyTest {
+
+    @Override
+    protected boolean useJmx() {
+        return true;
+    }
+
+    @Test
+    public void testPendingAcquires() throws Exception {
+        List<Future<String>> replies = new ArrayList<Future<String>>();
+        for (int i = 0; i < 5; i++) {
+            replies.add(template.asyncRequestBody("direct:pending", "World " + i, String.class));
+        }
+        for (int i = 0; i < 5; i++) {
+            assertEquals("Bye World " + i, replies.get(i).get());
+        }
+
+        // all the requests used the same channel
+        ObjectName on = findProducer("localhost");
+        MBeanServer mbeanServer = context.getManagementStrategy().getManagementAgent().getMBeanServer();
+        assertEquals(1L, mbeanServer.getAttribute(on, "PoolCreatedCount"));
+        assertEquals(5L, mbeanServer.getAttribute(on, "PoolAcquiredCount"));
+        assertEquals(0L, mbeanServer.getAttribute(on, "PoolAcquireFailedCount"));
+        assertEquals(0, mbeanServer.getAttribute(on, "PoolActive"));
+        assertEquals(1, mbeanServer.getAttribute(on, "PoolIdle"));
+        assertEquals(0, mbeanServer.getAttribute(on, "PoolPendingAcquires"));
+    }
+
+    @Test
+    public void testPoolExhausted() throws Exception {
+        Future<String> first = template.asyncRequestBody("direct:exhausted", "World", String.class);
+        // wait for the first request to have acquired the only channel
+        ObjectName on = findProducer("127.0.0.1");
+        MBeanServer mbeanServer = context.getManagementStrategy().getManagementAgent().getMBeanServer();
+        for (int i = 0; i < 50 && (Integer) mbeanServer.getAttribute(on, "PoolActive") == 0; i++) {
+            Thread.sleep(20);
+        }
+
+        try {
+            template.requestBody("direct:exhausted", "Camel", String.class);
+            fail("Should have thrown an exception");
+        } catch (Exception e) {
+            assertIsInstanceOf(NoSuchElementException.class, e.getCause());
+        }
+
+        assertEquals("Bye World", first.get());
+        assertEquals(1L, mbeanServer.getAttribute(on, "PoolAcquireFailedCount"));
+    }
+
+    @Test
+    public void testConnectFailure() throws Exception {
+        Future<String> reply = template.asyncRequestBody("netty4:tcp://localhost:" + (getPort() + 1) + "?textline=true&sync=true", "World", String.class);
+        try {
+            reply.get();
+            fail("Should have thrown an exception");
+        } catch (ExecutionException e) {
+            assertIsInstanceOf(ConnectException.class, e.getCause().getCause());
+        }
+    }
+
+    private ObjectName findProducer(String host) throws Exception {
+        MBeanServer mbeanServer = context.getManagementStrategy().getManagementAgent().getMBeanServer();
+        Set<ObjectName> set = mbeanServer.queryNames(new ObjectName("*:type=producers,*"), null);
+        for (ObjectName on : set) {
+            if (("tcp://" + host + ":" + getPort()).equals(mbeanServer.getAttribute(on, "EndpointUri"))) {
+                return on;
+            }
+        }
+        fail("Cannot find producer for host " + host);
+        return null;
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("direct:pending")
+                    .to("netty4:tcp://localhost:{{port}}?textline=true&sync=true&producerPoolMaxActive=1&producerPoolMaxPendingAcquires=10");
+
+                from("direct:exhausted")
+                    .to("netty4:tcp://127.0.0.1:{{port}}?textline=true&sync=true&producerPoolMaxActive=1");
+
+                from("netty4:tcp://localhost:{{port}}?textline=true&sync=true")
+                    .delay(200)
+                    .transform().simple("Bye ${body}");
+            }
+        };
+    }
+
+}
@@ -50,6 +50,10 @@ public abstract class DefaultSqlEndpoint extends DefaultPollingEndpoint {
     private boolean transacted;
     @UriParam(label = "producer", description = "Enables or disables batch mode")
     private boolean batch;
+    @UriParam(label = "producer", description = "When using batch mode then the batch is executed, and committed if not part of a transaction,"
+            + " each time this number of rows has been added. This allows to insert a large or streaming message body in chunks with constant memory usage."
+            + " The default value of 0 executes the entire batch at once.")
+    private int batchSize;
     @UriParam(label = "consumer", description = "Sets the maximum number of messages to poll")
     private int maxMessagesPerPoll;
     @UriParam(label = "consumer,advanced",
@@ -78,6 +82,18 @@ public abstract class DefaultSqlEndpoint extends DefaultPollingEndpoint {
     private int expectedUpdateCount = -1;
     @UriParam(label = "consumer", description = "Sets whether to break batch if onConsume failed.")
     private boolean breakBatchOnConsumeFail;
+    @UriParam(label = "consumer", description = "Whether to execute the onConsume and onConsumeFailed queries for all the rows in the batch at once"
+            + " using JDBC batching, instead of executing the query after each row has been processed.")
+    private boolean batchOnConsume;
+    @UriParam(label = "consumer", description = "Enables keyset pagination by tracking the last key from this column of the processed rows."
+            + " The key is used as the value of the parameters in the query, which should select the rows with a greater key"
+            + " in key order, such as: select * from projects where id > # order by id. The key moves past a failed row when"
+            + " onConsumeFailed has been executed for it, or breakBatchOnConsumeFail is disabled. Otherwise a poll stops at"
+            + " the first failed row which is then polled again.")
+    private String keysetColumn;
+    @UriParam(label = "consumer", description = "The initial key to use when using keysetColumn, which should be lower than any key in the table."
+            + " The value is converted to the type of the parameters in the query by the JDBC driver.")
+    private String keysetInitialValue;
     @UriParam(defaultValue = "true", description = "Whether to allow using named parameters in the queries.")
     private boolean allowNamedParameters = true;
     @UriParam(label = "producer,advanced",
@@ -162,6 +178,21 @@ public abstract class DefaultSqlEndpoint extends DefaultPollingEndpoint {
         this.batch = batch;
     }
 
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * When using batch mode then the batch is executed, and committed if not part of a transaction,
+     * each time this number of rows has been added. This allows to insert a large or streaming message body
+     * in chunks with constant memory usage.
+     * <p/>
+     * The default value of 0 executes the entire batch at once.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
     public int getMaxMessagesPerPoll() {
         return maxMessagesPerPoll;
     }
@@ -201,6 +232,9 @@ public abstract class DefaultSqlEndpoint extends DefaultPollingEndpoint {
 
     /**
      * After processing each row then this query can be executed, if the Exchange was processed successfully, for example to mark the row as processed. The query can have parameter.
+     * <p/>
+     * The onConsume, onConsumeFailed and onConsumeBatchComplete queries are executed using the connection of the poll,
+     * unless outputType is StreamList.
      */
     public void setOnConsume(String onConsume) {
         this.onConsume = onConsume;
@@ -228,6 +262,52 @@ public abstract class DefaultSqlEndpoint extends DefaultPollingEndpoint {
         this.onConsumeBatchComplete = onConsumeBatchComplete;
     }
 
+    public boolean isBatchOnConsume() {
+        return batchOnConsume;
+    }
+
+    /**
+     * Whether to execute the onConsume and onConsumeFailed queries for all the rows in the batch at once
+     * using JDBC batching, instead of executing the query after each row has been processed.
+     */
+    public void setBatchOnConsume(boolean batchOnConsume) {
+        this.batchOnConsume = batchOnConsume;
+    }
+
+    public String getKeysetColumn() {
+        return keysetColumn;
+    }
+
+    /**
+     * Enables keyset pagination by tracking the last key from this column of the processed rows.
+     * The key is used as the value of the parameters in the query, which should select the rows with a greater key
+     * in key order, such as: <tt>select * from projects where id > # order by id</tt>
+     * <p/>
+     * Use this together with maxMessagesPerPoll to page through large tables without scanning the rows which
+     * has already been processed.
+     * <p/>
+     * The key moves past a row which has failed when the onConsumeFailed query has been executed for the row,
+     * or when breakBatchOnConsumeFail is disabled, in which case the failure is handled like any other consumer error.
+     * With breakBatchOnConsumeFail enabled and no onConsumeFailed query, a poll stops at the first failed row,
+     * which is then polled again by the next poll. A failure executing the onConsume or onConsumeFailed query with
+     * breakBatchOnConsumeFail enabled also fails the poll, so the rows are polled again.
+     */
+    public void setKeysetColumn(String keysetColumn) {
+        this.keysetColumn = keysetColumn;
+    }
+
+    public String getKeysetInitialValue() {
+        return keysetInitialValue;
+    }
+
+    /**
+     * The initial key to use when using keysetColumn, which should be lower than any key in the table.
+     * The value is converted to the type of the parameters in the query by the JDBC driver.
+     */
+    public void setKeysetInitialValue(String keysetInitialValue) {
+        this.keysetInitialValue = keysetInitialValue;
+    }
+
     public boolean isAllowNamedParameters() {
         return allowNamedParameters;
     }
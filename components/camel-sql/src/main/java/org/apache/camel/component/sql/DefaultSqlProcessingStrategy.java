@@ -18,7 +18,12 @@ package org.apache.camel.component.sql;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.camel.Exchange;
 import org.slf4j.Logger;
@@ -29,7 +34,7 @@ import org.springframework.jdbc.core.PreparedStatementCallback;
 /**
  *
  */
-public class DefaultSqlProcessingStrategy implements SqlProcessingStrategy {
+public class DefaultSqlProcessingStrategy implements SqlBatchProcessingStrategy {
 
     private static final Logger LOG = LoggerFactory.getLogger(DefaultSqlProcessingStrategy.class);
     private final SqlPrepareStatementStrategy sqlPrepareStatementStrategy;
@@ -65,6 +70,59 @@ public class DefaultSqlProcessingStrategy implements SqlProcessingStrategy {
         });
     }
 
+    @Override
+    public int[] commitBatch(final DefaultSqlEndpoint endpoint, final List<Exchange> exchanges, final List<Object> data,
+                             final JdbcTemplate jdbcTemplate, final String query) throws Exception {
+        // the query is prepared for each exchange as dynamic IN lists may expand to a different number of parameters,
+        // and the rows which end up with the same prepared query are executed together as one batch
+        final Map<String, List<Integer>> rowsByQuery = new LinkedHashMap<String, List<Integer>>();
+        for (int i = 0; i < exchanges.size(); i++) {
+            String preparedQuery = sqlPrepareStatementStrategy.prepareQuery(query, endpoint.isAllowNamedParameters(), exchanges.get(i));
+            List<Integer> rows = rowsByQuery.get(preparedQuery);
+            if (rows == null) {
+                rows = new ArrayList<Integer>();
+                rowsByQuery.put(preparedQuery, rows);
+            }
+            rows.add(i);
+        }
+
+        final int[] answer = new int[exchanges.size()];
+        for (Map.Entry<String, List<Integer>> entry : rowsByQuery.entrySet()) {
+            final String preparedQuery = entry.getKey();
+            final List<Integer> rows = entry.getValue();
+
+            jdbcTemplate.execute(preparedQuery, new PreparedStatementCallback<Void>() {
+                public Void doInPreparedStatement(PreparedStatement ps) throws SQLException {
+                    int expected = ps.getParameterMetaData().getParameterCount();
+
+                    List<Integer> batched = new ArrayList<Integer>(rows.size());
+                    for (int row : rows) {
+                        Iterator<?> iterator = sqlPrepareStatementStrategy.createPopulateIterator(query, preparedQuery, expected, exchanges.get(row), data.get(row));
+                        if (iterator != null) {
+                            sqlPrepareStatementStrategy.populateStatement(ps, iterator, expected);
+                            ps.addBatch();
+                            batched.add(row);
+                        }
+                    }
+
+                    if (!batched.isEmpty()) {
+                        LOG.trace("Execute batch query {} with {} rows", query, batched.size());
+                        int[] updateCounts = ps.executeBatch();
+                        if (LOG.isTraceEnabled()) {
+                            LOG.trace("Update counts {}", Arrays.toString(updateCounts));
+                        }
+                        for (int i = 0; i < batched.size() && i < updateCounts.length; i++) {
+                            answer[batched.get(i)] = updateCounts[i];
+                        }
+                    }
+                    return null;
+                };
+            });
+        }
+
+        return answer;
+    }
+
     @Override
     public int commitBatchComplete(final DefaultSqlEndpoint endpoint, final JdbcTemplate jdbcTemplate, final String query) throws Exception {
         final String preparedQuery = sqlPrepareStatementStrategy.prepareQuery(query, endpoint.isAllowNamedParameters(), null);
@@ -0,0 +1,43 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.sql;
+
+import java.util.List;
+
+import org.apache.camel.Exchange;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Extended processing strategy for dealing with SQL when consuming, which is able to execute the
+ * <tt>onConsume</tt> and <tt>onConsumeFailed</tt> queries for all the rows in the batch using JDBC batching.
+ */
+public interface SqlBatchProcessingStrategy extends SqlProcessingStrategy {
+
+    /**
+     * Commit callback if there are a query to be run after processing, which is executed once for all the given rows.
+     *
+     * @param endpoint     the endpoint
+     * @param exchanges    The exchanges after they have been processed
+     * @param data         The original data delivered to the route, in the same order as the exchanges
+     * @param jdbcTemplate The JDBC template
+     * @param query        The SQL query to execute
+     * @return the update count for each of the rows, in the same order as the exchanges
+     * @throws Exception can be thrown in case of error
+     */
+    int[] commitBatch(DefaultSqlEndpoint endpoint, List<Exchange> exchanges, List<Object> data, JdbcTemplate jdbcTemplate, String query) throws Exception;
+
+}
@@ -27,6 +27,12 @@ public final class SqlConstants {
 
     public static final String SQL_ROW_COUNT = "CamelSqlRowCount";
 
+    /**
+     * <tt>List<Integer></tt> output header with the update count of each executed chunk
+     * when using batch mode with the option batchSize
+     */
+    public static final String SQL_BATCH_UPDATE_COUNTS = "CamelSqlBatchUpdateCounts";
+
     /**
      * Boolean input header.
      * Set its value to true to retrieve generated keys, default is false
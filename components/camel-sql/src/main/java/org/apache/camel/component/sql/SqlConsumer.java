@@ -16,11 +16,16 @@
  */
 package org.apache.camel.component.sql;
 
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 
 import org.apache.camel.Exchange;
@@ -30,12 +35,14 @@ import org.apache.camel.Processor;
 import org.apache.camel.RollbackExchangeException;
 import org.apache.camel.impl.ScheduledBatchPollingConsumer;
 import org.apache.camel.util.CastUtils;
+import org.apache.camel.util.IntrospectionSupport;
 import org.apache.camel.util.ObjectHelper;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.PreparedStatementCallback;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
 
 import static org.springframework.jdbc.support.JdbcUtils.closeResultSet;
 
@@ -56,6 +63,10 @@ public class SqlConsumer extends ScheduledBatchPollingConsumer {
     private boolean routeEmptyResultSet;
     private int expectedUpdateCount = -1;
     private boolean breakBatchOnConsumeFail;
+    private boolean batchOnConsume;
+    private String keysetColumn;
+    private volatile Object lastKey;
+    private JdbcTemplate consumeJdbcTemplate;
 
     private static final class DataHolder {
         private Exchange exchange;
@@ -98,6 +109,18 @@ public class SqlConsumer extends ScheduledBatchPollingConsumer {
 
         String placeholder = getEndpoint().isUsePlaceholder() ? getEndpoint().getPlaceholder() : null;
         resolvedQuery = SqlHelper.resolveQuery(getEndpoint().getCamelContext(), query, placeholder);
+
+        if (keysetColumn != null) {
+            if (getEndpoint().getOutputType() == SqlOutputType.StreamList) {
+                throw new IllegalArgumentException("Option keysetColumn is not supported with outputType=StreamList");
+            }
+            if (namedJdbcTemplate != null) {
+                throw new IllegalArgumentException("Option keysetColumn is not supported with a named parameter query");
+            }
+            if (lastKey == null) {
+                throw new IllegalArgumentException("Option keysetInitialValue must be configured when using keysetColumn");
+            }
+        }
     }
 
     @Override
@@ -114,6 +137,15 @@ public class SqlConsumer extends ScheduledBatchPollingConsumer {
             public Integer doInPreparedStatement(PreparedStatement ps) throws SQLException, DataAccessException {
                 Queue<DataHolder> answer = new LinkedList<DataHolder>();
 
+                if (keysetColumn != null) {
+                    // the last seen key is used as the value for the parameters in the query
+                    ParameterMetaData meta = ps.getParameterMetaData();
+                    int expected = meta.getParameterCount();
+                    for (int i = 1; i <= expected; i++) {
+                        setKeyParameter(ps, meta, i);
+                    }
+                }
+
                 log.debug("Executing query: {}", preparedQuery);
                 ResultSet rs = ps.executeQuery();
                 SqlOutputType outputType = getEndpoint().getOutputType();
@@ -150,12 +182,17 @@ public class SqlConsumer extends ScheduledBatchPollingConsumer {
                         // no data
                         return 0;
                     } else {
+                        if (closeEager && jdbcTemplate != null) {
+                            // the result set is closed so the on consume queries can reuse the connection of this poll
+                            consumeJdbcTemplate = createConsumeJdbcTemplate(ps.getConnection());
+                        }
                         int rows = processBatch(CastUtils.cast(answer));
                         return rows;
                     }
                 } catch (Exception e) {
                     throw ObjectHelper.wrapRuntimeCamelException(e);
                 } finally {
+                    consumeJdbcTemplate = null;
                     closeResultSet(rs);
                 }
             }
@@ -171,6 +208,38 @@ public class SqlConsumer extends ScheduledBatchPollingConsumer {
         return messagePolled;
     }
 
+    /**
+     * Creates the template to execute the on consume queries of a poll, which reuses the connection of the poll
+     * instead of obtaining a connection from the data source for each query.
+     */
+    private JdbcTemplate createConsumeJdbcTemplate(Connection con) {
+        JdbcTemplate template = new JdbcTemplate(new SingleConnectionDataSource(con, true));
+        template.setExceptionTranslator(jdbcTemplate.getExceptionTranslator());
+        template.setQueryTimeout(jdbcTemplate.getQueryTimeout());
+        return template;
+    }
+
+    private JdbcTemplate getConsumeJdbcTemplate() {
+        return consumeJdbcTemplate != null ? consumeJdbcTemplate : jdbcTemplate;
+    }
+
+    private void setKeyParameter(PreparedStatement ps, ParameterMetaData meta, int index) throws SQLException {
+        if (lastKey instanceof String) {
+            // the initial key is configured as a String so let the driver convert it to the type of the key column
+            int sqlType;
+            try {
+                sqlType = meta.getParameterType(index);
+            } catch (SQLException e) {
+                log.debug("Cannot get the type of parameter {} so the key is set without a type due: {}", index, e.getMessage());
+                ps.setObject(index, lastKey);
+                return;
+            }
+            ps.setObject(index, lastKey, sqlType);
+        } else {
+            ps.setObject(index, lastKey);
+        }
+    }
+
     private void addListToQueue(Object data, Queue<DataHolder> answer) {
         if (data instanceof List) {
             // create a list of exchange objects with the data
@@ -215,6 +284,15 @@ public class SqlConsumer extends ScheduledBatchPollingConsumer {
             log.debug("Limiting to maximum messages to poll " + maxMessagesPerPoll + " as there was more messages in this poll.");
         }
 
+        // the rows to execute onConsume/onConsumeFailed for when using batch on consume
+        boolean batching = batchOnConsume && namedJdbcTemplate == null && sqlProcessingStrategy instanceof SqlBatchProcessingStrategy;
+        List<Exchange> completedExchanges = batching ? new ArrayList<Exchange>() : null;
+        List<Object> completedData = batching ? new ArrayList<Object>() : null;
+        List<Exchange> failedExchanges = batching ? new ArrayList<Exchange>() : null;
+        List<Object> failedData = batching ? new ArrayList<Object>() : null;
+        Object batchLastKey = null;
+        int processed = 0;
+
         for (int index = 0; index < total && isBatchAllowed(); index++) {
             // only loop if we are started (allowed to run)
             DataHolder holder = ObjectHelper.cast(DataHolder.class, exchanges.poll());
@@ -235,6 +313,7 @@ public class SqlConsumer extends ScheduledBatchPollingConsumer {
             } catch (Exception e) {
                 exchange.setException(e);
             }
+            processed++;
 
             if (getEndpoint().isTransacted() && exchange.isFailed()) {
                 // break out as we are transacted and should rollback
@@ -246,6 +325,25 @@ public class SqlConsumer extends ScheduledBatchPollingConsumer {
                 }
             }
 
+            if (batching) {
+                // defer the on consume until the end of the batch
+                if (data != null && exchange.isFailed() && onConsumeFailed != null) {
+                    failedExchanges.add(exchange);
+                    failedData.add(data);
+                } else if (data != null && !exchange.isFailed() && onConsume != null) {
+                    completedExchanges.add(exchange);
+                    completedData.add(data);
+                }
+                if (keysetColumn != null && data != null) {
+                    if (isKeysetRetry(exchange)) {
+                        // stop at the failed row so it is polled again, as the key must not move past it
+                        break;
+                    }
+                    batchLastKey = extractKey(data);
+                }
+                continue;
+            }
+
             // pick the on consume to use
             String sql = exchange.isFailed() ? onConsumeFailed : onConsume;
             try {
@@ -256,7 +354,7 @@ public class SqlConsumer extends ScheduledBatchPollingConsumer {
                         SqlNamedProcessingStrategy namedProcessingStrategy = (SqlNamedProcessingStrategy) sqlProcessingStrategy;
                         updateCount = namedProcessingStrategy.commit(getEndpoint(), exchange, data, namedJdbcTemplate, parameterSource, sql);
                     } else {
-                        updateCount = sqlProcessingStrategy.commit(getEndpoint(), exchange, data, jdbcTemplate, sql);
+                        updateCount = sqlProcessingStrategy.commit(getEndpoint(), exchange, data, getConsumeJdbcTemplate(), sql);
                     }
                     if (expectedUpdateCount > -1 && updateCount != expectedUpdateCount) {
                         String msg = "Expected update count " + expectedUpdateCount + " but was " + updateCount + " executing query: " + sql;
@@ -270,6 +368,29 @@ public class SqlConsumer extends ScheduledBatchPollingConsumer {
                     handleException("Error executing onConsume/onConsumeFailed query " + sql, e);
                 }
             }
+
+            if (keysetColumn != null && data != null) {
+                if (isKeysetRetry(exchange)) {
+                    // stop at the failed row so it is polled again, as the key must not move past it
+                    break;
+                }
+                // the row has been consumed or its failure handled so we can move past its key
+                lastKey = extractKey(data);
+            }
+        }
+
+        if (processed < total) {
+            // the remaining rows are not processed in this poll
+            pendingExchanges = 0;
+        }
+
+        if (batching) {
+            // a failure is thrown when breakBatchOnConsumeFail is enabled so the key is not moved past the rows
+            commitBatch(completedExchanges, completedData, onConsume);
+            commitBatch(failedExchanges, failedData, onConsumeFailed);
+            if (batchLastKey != null) {
+                lastKey = batchLastKey;
+            }
         }
 
         try {
@@ -279,7 +400,7 @@ public class SqlConsumer extends ScheduledBatchPollingConsumer {
                     SqlNamedProcessingStrategy namedProcessingStrategy = (SqlNamedProcessingStrategy) sqlProcessingStrategy;
                     updateCount = namedProcessingStrategy.commitBatchComplete(getEndpoint(), namedJdbcTemplate, parameterSource, onConsumeBatchComplete);
                 } else {
-                    updateCount = sqlProcessingStrategy.commitBatchComplete(getEndpoint(), jdbcTemplate, onConsumeBatchComplete);
+                    updateCount = sqlProcessingStrategy.commitBatchComplete(getEndpoint(), getConsumeJdbcTemplate(), onConsumeBatchComplete);
                 }
                 log.debug("onConsumeBatchComplete update count {}", updateCount);
             }
@@ -294,6 +415,63 @@ public class SqlConsumer extends ScheduledBatchPollingConsumer {
         return total;
     }
 
+    /**
+     * Whether the failed exchange should be polled again, which is when there is no onConsumeFailed query
+     * to handle the failure and breakBatchOnConsumeFail is enabled.
+     */
+    private boolean isKeysetRetry(Exchange exchange) {
+        return exchange.isFailed() && onConsumeFailed == null && breakBatchOnConsumeFail;
+    }
+
+    private void commitBatch(List<Exchange> exchanges, List<Object> data, String sql) throws Exception {
+        if (exchanges.isEmpty()) {
+            return;
+        }
+
+        try {
+            SqlBatchProcessingStrategy batchProcessingStrategy = (SqlBatchProcessingStrategy) sqlProcessingStrategy;
+            int[] updateCounts = batchProcessingStrategy.commitBatch(getEndpoint(), exchanges, data, getConsumeJdbcTemplate(), sql);
+            if (expectedUpdateCount > -1) {
+                for (int updateCount : updateCounts) {
+                    // the driver may not be able to tell the update count of each row
+                    if (updateCount != Statement.SUCCESS_NO_INFO && updateCount != expectedUpdateCount) {
+                        String msg = "Expected update count " + expectedUpdateCount + " but was " + updateCount + " executing query: " + sql;
+                        throw new SQLException(msg);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            if (breakBatchOnConsumeFail) {
+                throw e;
+            } else {
+                handleException("Error executing onConsume/onConsumeFailed query " + sql, e);
+            }
+        }
+    }
+
+    /**
+     * Extracts the key from the row (or the last row if using a list) using the keyset column.
+     */
+    protected Object extractKey(Object data) throws Exception {
+        Object row = data;
+        if (row instanceof List) {
+            List<?> list = (List<?>) row;
+            row = list.isEmpty() ? null : list.get(list.size() - 1);
+        }
+
+        Object key;
+        if (row == null) {
+            key = null;
+        } else if (row instanceof Map) {
+            key = ((Map<?, ?>) row).get(keysetColumn);
+        } else {
+            key = IntrospectionSupport.getProperty(row, keysetColumn);
+        }
+
+        // keep the current key if the row has no key
+        return key != null ? key : lastKey;
+    }
+
     public String getOnConsume() {
         return onConsume;
     }
@@ -371,6 +549,40 @@ public class SqlConsumer extends ScheduledBatchPollingConsumer {
         this.breakBatchOnConsumeFail = breakBatchOnConsumeFail;
     }
 
+    public boolean isBatchOnConsume() {
+        return batchOnConsume;
+    }
+
+    /**
+     * Sets whether to execute the onConsume/onConsumeFailed queries for all the rows at the end of the batch
+     * using JDBC batching.
+     */
+    public void setBatchOnConsume(boolean batchOnConsume) {
+        this.batchOnConsume = batchOnConsume;
+    }
+
+    public String getKeysetColumn() {
+        return keysetColumn;
+    }
+
+    /**
+     * Sets the column to track the last key from, to use keyset pagination.
+     */
+    public void setKeysetColumn(String keysetColumn) {
+        this.keysetColumn = keysetColumn;
+    }
+
+    public Object getLastKey() {
+        return lastKey;
+    }
+
+    /**
+     * Sets the last key which has been processed, when using keyset pagination.
+     */
+    public void setLastKey(Object lastKey) {
+        this.lastKey = lastKey;
+    }
+
     @Override
     public void setMaxMessagesPerPoll(int maxMessagesPerPoll) {
         super.setMaxMessagesPerPoll(maxMessagesPerPoll);
@@ -56,6 +56,9 @@ public class SqlEndpoint extends DefaultSqlEndpoint {
         consumer.setExpectedUpdateCount(getExpectedUpdateCount());
         consumer.setUseIterator(isUseIterator());
         consumer.setRouteEmptyResultSet(isRouteEmptyResultSet());
+        consumer.setBatchOnConsume(isBatchOnConsume());
+        consumer.setKeysetColumn(getKeysetColumn());
+        consumer.setLastKey(getKeysetInitialValue());
         configureConsumer(consumer);
         return consumer;
     }
@@ -65,6 +68,7 @@ public class SqlEndpoint extends DefaultSqlEndpoint {
         SqlProducer result = new SqlProducer(this, query, getJdbcTemplate(), prepareStrategy, isBatch(),
                 isAlwaysPopulateStatement(), isUseMessageBodyForSql());
         result.setParametersCount(getParametersCount());
+        result.setBatchSize(getBatchSize());
         return result;
     }
 
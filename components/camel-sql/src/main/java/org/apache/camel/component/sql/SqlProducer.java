@@ -21,6 +21,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -31,6 +32,7 @@ import org.apache.camel.impl.DefaultProducer;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.PreparedStatementCallback;
 import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.datasource.DataSourceUtils;
 
 import static org.springframework.jdbc.support.JdbcUtils.closeConnection;
 import static org.springframework.jdbc.support.JdbcUtils.closeResultSet;
@@ -45,6 +47,7 @@ public class SqlProducer extends DefaultProducer {
     private final SqlPrepareStatementStrategy sqlPrepareStatementStrategy;
     private final boolean useMessageBodyForSql;
     private int parametersCount;
+    private int batchSize;
 
     public SqlProducer(SqlEndpoint endpoint, String query, JdbcTemplate jdbcTemplate, SqlPrepareStatementStrategy sqlPrepareStatementStrategy,
                        boolean batch, boolean alwaysPopulateStatement, boolean useMessageBodyForSql) {
@@ -105,9 +108,9 @@ public class SqlProducer extends DefaultProducer {
             }
         };
 
-        // special for processing stream list (batch not supported)
+        // special for processing stream list (batch inserts do not return a result set so they are executed as a regular batch)
         SqlOutputType outputType = getEndpoint().getOutputType();
-        if (outputType == SqlOutputType.StreamList) {
+        if (outputType == SqlOutputType.StreamList && !batch) {
             processStreamList(exchange, statementCreator, sql, preparedQuery);
             return;
         }
@@ -116,13 +119,17 @@ public class SqlProducer extends DefaultProducer {
         jdbcTemplate.execute(statementCreator, new PreparedStatementCallback<Map<?, ?>>() {
             public Map<?, ?> doInPreparedStatement(PreparedStatement ps) throws SQLException {
                 ResultSet rs = null;
+                List<Integer> chunkUpdateCounts = null;
                 try {
                     int expected = parametersCount > 0 ? parametersCount : ps.getParameterMetaData().getParameterCount();
 
                     // only populate if really needed
                     if (alwaysPopulateStatement || expected > 0) {
                         // transfer incoming message body data to prepared statement parameters, if necessary
-                        if (batch) {
+                        if (batch && batchSize > 0) {
+                            // the chunks are executed while populating so we can stream the rows
+                            chunkUpdateCounts = executeBatchInChunks(ps, exchange, sql, preparedQuery, expected);
+                        } else if (batch) {
                             Iterator<?> iterator;
                             if (useMessageBodyForSql) {
                                 iterator = exchange.getIn().getHeader(SqlConstants.SQL_PARAMETERS, Iterator.class);
@@ -150,13 +157,21 @@ public class SqlProducer extends DefaultProducer {
                     boolean isResultSet = false;
 
                     // execute the prepared statement and populate the outgoing message
-                    if (batch) {
-                        int[] updateCounts = ps.executeBatch();
+                    if (batch && batchSize > 0) {
+                        if (chunkUpdateCounts == null) {
+                            // no parameters to populate so execute as a single chunk
+                            chunkUpdateCounts = new ArrayList<Integer>();
+                            chunkUpdateCounts.add(sum(ps.executeBatch()));
+                        }
                         int total = 0;
-                        for (int count : updateCounts) {
+                        for (int count : chunkUpdateCounts) {
                             total += count;
                         }
                         exchange.getIn().setHeader(SqlConstants.SQL_UPDATE_COUNT, total);
+                        exchange.getIn().setHeader(SqlConstants.SQL_BATCH_UPDATE_COUNTS, chunkUpdateCounts);
+                    } else if (batch) {
+                        int[] updateCounts = ps.executeBatch();
+                        exchange.getIn().setHeader(SqlConstants.SQL_UPDATE_COUNT, sum(updateCounts));
                     } else {
                         isResultSet = ps.execute();
                         if (isResultSet) {
@@ -251,29 +266,14 @@ public class SqlProducer extends DefaultProducer {
             // only populate if really needed
             if (alwaysPopulateStatement || expected > 0) {
                 // transfer incoming message body data to prepared statement parameters, if necessary
-                if (batch) {
-                    Iterator<?> iterator;
-                    if (useMessageBodyForSql) {
-                        iterator = exchange.getIn().getHeader(SqlConstants.SQL_PARAMETERS, Iterator.class);
-                    } else {
-                        iterator = exchange.getIn().getBody(Iterator.class);
-                    }
-                    while (iterator != null && iterator.hasNext()) {
-                        Object value = iterator.next();
-                        Iterator<?> i = sqlPrepareStatementStrategy.createPopulateIterator(sql, preparedQuery, expected, exchange, value);
-                        sqlPrepareStatementStrategy.populateStatement(ps, i, expected);
-                        ps.addBatch();
-                    }
+                Object value;
+                if (useMessageBodyForSql) {
+                    value = exchange.getIn().getHeader(SqlConstants.SQL_PARAMETERS);
                 } else {
-                    Object value;
-                    if (useMessageBodyForSql) {
-                        value = exchange.getIn().getHeader(SqlConstants.SQL_PARAMETERS);
-                    } else {
-                        value = exchange.getIn().getBody();
-                    }
-                    Iterator<?> i = sqlPrepareStatementStrategy.createPopulateIterator(sql, preparedQuery, expected, exchange, value);
-                    sqlPrepareStatementStrategy.populateStatement(ps, i, expected);
+                    value = exchange.getIn().getBody();
                 }
+                Iterator<?> i = sqlPrepareStatementStrategy.createPopulateIterator(sql, preparedQuery, expected, exchange, value);
+                sqlPrepareStatementStrategy.populateStatement(ps, i, expected);
             }
 
             boolean isResultSet = ps.execute();
@@ -301,6 +301,109 @@ public class SqlProducer extends DefaultProducer {
         }
     }
 
+    /**
+     * Populates the batch from the message body (or parameters header) and executes it each time
+     * <tt>batchSize</tt> rows has been added, so the rows are streamed to the database and only one chunk
+     * is held in memory at any time.
+     * <p/>
+     * If the connection is not part of a Spring managed transaction then each chunk is committed on its own,
+     * and in case of failure the current chunk is rolled back, leaving any previously committed chunks as-is.
+     *
+     * @return the update count of each executed chunk
+     */
+    protected List<Integer> executeBatchInChunks(PreparedStatement ps, Exchange exchange, String sql, String preparedQuery, int expected) throws SQLException {
+        Iterator<?> iterator;
+        if (useMessageBodyForSql) {
+            iterator = exchange.getIn().getHeader(SqlConstants.SQL_PARAMETERS, Iterator.class);
+        } else {
+            iterator = exchange.getIn().getBody(Iterator.class);
+        }
+
+        List<Integer> chunkUpdateCounts = new ArrayList<Integer>();
+
+        Connection con = ps.getConnection();
+        boolean commitChunks = !DataSourceUtils.isConnectionTransactional(con, jdbcTemplate.getDataSource()) && con.getAutoCommit();
+        if (commitChunks) {
+            con.setAutoCommit(false);
+        }
+        Exception failure = null;
+        try {
+            int rows = 0;
+            while (iterator != null && iterator.hasNext()) {
+                Object value = iterator.next();
+                Iterator<?> i = sqlPrepareStatementStrategy.createPopulateIterator(sql, preparedQuery, expected, exchange, value);
+                sqlPrepareStatementStrategy.populateStatement(ps, i, expected);
+                ps.addBatch();
+                if (++rows == batchSize) {
+                    chunkUpdateCounts.add(executeChunk(ps, con, commitChunks));
+                    rows = 0;
+                }
+            }
+            // execute the remaining rows which did not fill up a complete chunk
+            if (rows > 0 || chunkUpdateCounts.isEmpty()) {
+                chunkUpdateCounts.add(executeChunk(ps, con, commitChunks));
+            }
+        } catch (SQLException e) {
+            failure = e;
+            if (commitChunks) {
+                rollback(con, e);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            failure = e;
+            if (commitChunks) {
+                rollback(con, e);
+            }
+            throw e;
+        } finally {
+            if (commitChunks) {
+                try {
+                    con.setAutoCommit(true);
+                } catch (SQLException e) {
+                    // do not hide the original failure
+                    if (failure == null) {
+                        throw e;
+                    }
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        return chunkUpdateCounts;
+    }
+
+    /**
+     * Rolls back the current chunk. If the rollback fails as well, then its exception is added as suppressed to the cause.
+     */
+    private void rollback(Connection con, Exception cause) {
+        try {
+            con.rollback();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    private int executeChunk(PreparedStatement ps, Connection con, boolean commit) throws SQLException {
+        int count = sum(ps.executeBatch());
+        if (commit) {
+            con.commit();
+        }
+        log.debug("Executed batch chunk with update count: {}", count);
+        return count;
+    }
+
+    private static int sum(int[] updateCounts) {
+        int total = 0;
+        for (int count : updateCounts) {
+            total += count;
+        }
+        return total;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
     public void setParametersCount(int parametersCount) {
         this.parametersCount = parametersCount;
     }
@@ -0,0 +1,338 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregate.jdbc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+
+import org.apache.camel.CamelContext;
+import org.apache.camel.Endpoint;
+import org.apache.camel.Exchange;
+import org.apache.camel.Message;
+import org.apache.camel.RuntimeExchangeException;
+import org.apache.camel.WrappedFile;
+import org.apache.camel.impl.DefaultExchange;
+import org.apache.camel.util.IOHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link JdbcCamelCodec} which stores the exchange in a compact binary format, instead of the Java serialization
+ * of a {@link org.apache.camel.impl.DefaultExchangeHolder}.
+ * <p/>
+ * The bodies, headers and properties of type String, byte[], Number, Character, Boolean and Date are written along
+ * with their type, so they are read back without Java serialization. Any other body is converted to a
+ * {@link Serializable} and serialized, and any other header is only serialized if serialized headers are allowed.
+ * The exchanges stored by the default {@link JdbcCamelCodec} can still be read.
+ */
+public class JdbcBinaryCamelCodec extends JdbcCamelCodec {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JdbcBinaryCamelCodec.class);
+
+    // Java serialization streams start with 0xACED so the binary format can be told apart
+    private static final short MAGIC = (short) 0xCA01;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte BYTES = 2;
+    private static final byte INTEGER = 3;
+    private static final byte LONG = 4;
+    private static final byte SHORT = 5;
+    private static final byte BYTE = 6;
+    private static final byte DOUBLE = 7;
+    private static final byte FLOAT = 8;
+    private static final byte BIG_DECIMAL = 9;
+    private static final byte BIG_INTEGER = 10;
+    private static final byte CHARACTER = 11;
+    private static final byte BOOLEAN = 12;
+    private static final byte DATE = 13;
+    private static final byte SERIALIZED = 14;
+
+    private static final String FROM_ENDPOINT = "CamelAggregatedFromEndpoint";
+
+    @Override
+    public byte[] marshallExchange(CamelContext camelContext, Exchange exchange, boolean allowSerializedHeaders) throws IOException {
+        // we do not support files
+        Object body = exchange.getIn().getBody();
+        if (body instanceof WrappedFile || body instanceof File) {
+            throw new RuntimeExchangeException("Message body of type " + body.getClass().getCanonicalName() + " is not supported by this marshaller.", exchange);
+        }
+
+        ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytesOut);
+        out.writeShort(MAGIC);
+        writeString(out, exchange.getExchangeId());
+
+        writeMessage(out, exchange, exchange.getIn(), allowSerializedHeaders);
+        out.writeBoolean(exchange.hasOut());
+        if (exchange.hasOut()) {
+            writeMessage(out, exchange, exchange.getOut(), allowSerializedHeaders);
+        }
+
+        // the aggregation properties are the only properties we want to retain
+        out.writeInt(6);
+        writeProperty(out, Exchange.AGGREGATED_SIZE, exchange.getProperty(Exchange.AGGREGATED_SIZE, Integer.class));
+        writeProperty(out, Exchange.AGGREGATED_TIMEOUT, exchange.getProperty(Exchange.AGGREGATED_TIMEOUT, Long.class));
+        writeProperty(out, Exchange.AGGREGATED_COMPLETED_BY, exchange.getProperty(Exchange.AGGREGATED_COMPLETED_BY, String.class));
+        writeProperty(out, Exchange.AGGREGATED_CORRELATION_KEY, exchange.getProperty(Exchange.AGGREGATED_CORRELATION_KEY, String.class));
+        writeProperty(out, Exchange.AGGREGATED_COLLECTION_GUARD, exchange.getProperty(Exchange.AGGREGATED_COLLECTION_GUARD, String.class));
+        writeProperty(out, FROM_ENDPOINT, exchange.getFromEndpoint() != null ? exchange.getFromEndpoint().getEndpointUri() : null);
+
+        writeSerialized(out, exchange.getException());
+
+        out.close();
+        return bytesOut.toByteArray();
+    }
+
+    @Override
+    public Exchange unmarshallExchange(CamelContext camelContext, byte[] buffer) throws IOException, ClassNotFoundException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(buffer));
+        if (buffer.length < 2 || in.readShort() != MAGIC) {
+            // stored by the default codec
+            return super.unmarshallExchange(camelContext, buffer);
+        }
+
+        Exchange answer = new DefaultExchange(camelContext);
+        answer.setExchangeId(readString(in));
+
+        readMessage(camelContext, in, answer.getIn());
+        if (in.readBoolean()) {
+            readMessage(camelContext, in, answer.getOut());
+        }
+
+        int properties = in.readInt();
+        for (int i = 0; i < properties; i++) {
+            String key = readString(in);
+            Object value = readValue(camelContext, in);
+            if (value != null) {
+                answer.setProperty(key, value);
+            }
+        }
+
+        answer.setException((Exception) readValue(camelContext, in));
+
+        // restore the from endpoint
+        String fromEndpointUri = (String) answer.removeProperty(FROM_ENDPOINT);
+        if (fromEndpointUri != null) {
+            Endpoint fromEndpoint = camelContext.hasEndpoint(fromEndpointUri);
+            if (fromEndpoint != null) {
+                answer.setFromEndpoint(fromEndpoint);
+            }
+        }
+        return answer;
+    }
+
+    private void writeMessage(DataOutputStream out, Exchange exchange, Message message, boolean allowSerializedHeaders) throws IOException {
+        Object body = message.getBody();
+        if (body != null && !isTyped(body)) {
+            Serializable converted = exchange.getContext().getTypeConverter().convertTo(Serializable.class, exchange, body);
+            if (converted == null) {
+                LOG.warn("Exchange body containing object: {} of type: {} cannot be serialized, it will be excluded by the codec.", body, body.getClass().getCanonicalName());
+            }
+            body = converted;
+        }
+        writeValue(out, body);
+
+        Map<String, Object> headers = message.hasHeaders() ? message.getHeaders() : null;
+        int count = 0;
+        if (headers != null) {
+            for (Object value : headers.values()) {
+                if (isHeaderValue(value, allowSerializedHeaders)) {
+                    count++;
+                }
+            }
+        }
+        out.writeInt(count);
+        if (count > 0) {
+            for (Map.Entry<String, Object> entry : headers.entrySet()) {
+                Object value = entry.getValue();
+                if (isHeaderValue(value, allowSerializedHeaders)) {
+                    writeString(out, entry.getKey());
+                    writeValue(out, value instanceof CharSequence ? value.toString() : value);
+                } else if (value != null) {
+                    LOG.debug("Exchange header: {} with object: {} is not a valid header type, it will be excluded by the codec.", entry.getKey(), value);
+                }
+            }
+        }
+
+        out.writeBoolean(message.isFault());
+    }
+
+    private void readMessage(CamelContext camelContext, DataInputStream in, Message message) throws IOException, ClassNotFoundException {
+        message.setBody(readValue(camelContext, in));
+        int headers = in.readInt();
+        for (int i = 0; i < headers; i++) {
+            String key = readString(in);
+            message.setHeader(key, readValue(camelContext, in));
+        }
+        message.setFault(in.readBoolean());
+    }
+
+    private void writeProperty(DataOutputStream out, String key, Object value) throws IOException {
+        writeString(out, key);
+        writeValue(out, value);
+    }
+
+    private static boolean isTyped(Object value) {
+        return value instanceof String || value instanceof byte[] || value instanceof Number
+                || value instanceof Character || value instanceof Boolean || value instanceof Date;
+    }
+
+    private static boolean isHeaderValue(Object value, boolean allowSerializedHeaders) {
+        if (value == null) {
+            return false;
+        }
+        return value instanceof String || value instanceof Number || value instanceof Character
+                || value instanceof CharSequence || value instanceof Boolean || value instanceof Date
+                || (allowSerializedHeaders && value instanceof Serializable);
+    }
+
+    private void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            out.writeByte(BYTES);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) value);
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(BIG_DECIMAL);
+            writeString(out, value.toString());
+        } else if (value instanceof BigInteger) {
+            out.writeByte(BIG_INTEGER);
+            writeString(out, value.toString());
+        } else if (value instanceof Character) {
+            out.writeByte(CHARACTER);
+            out.writeChar((Character) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value.getClass() == Date.class) {
+            out.writeByte(DATE);
+            out.writeLong(((Date) value).getTime());
+        } else {
+            writeSerialized(out, value);
+        }
+    }
+
+    private void writeSerialized(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+            return;
+        }
+        ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+        ObjectOutputStream objectOut = new ObjectOutputStream(bytesOut);
+        objectOut.writeObject(value);
+        objectOut.close();
+        byte[] bytes = bytesOut.toByteArray();
+        out.writeByte(SERIALIZED);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private Object readValue(CamelContext camelContext, DataInputStream in) throws IOException, ClassNotFoundException {
+        byte type = in.readByte();
+        switch (type) {
+        case NULL:
+            return null;
+        case STRING:
+            return readString(in);
+        case BYTES:
+            return readBytes(in);
+        case INTEGER:
+            return in.readInt();
+        case LONG:
+            return in.readLong();
+        case SHORT:
+            return in.readShort();
+        case BYTE:
+            return in.readByte();
+        case DOUBLE:
+            return in.readDouble();
+        case FLOAT:
+            return in.readFloat();
+        case BIG_DECIMAL:
+            return new BigDecimal(readString(in));
+        case BIG_INTEGER:
+            return new BigInteger(readString(in));
+        case CHARACTER:
+            return in.readChar();
+        case BOOLEAN:
+            return in.readBoolean();
+        case DATE:
+            return new Date(in.readLong());
+        case SERIALIZED:
+            ObjectInputStream objectIn = new ClassLoadingAwareObjectInputStream(camelContext, new ByteArrayInputStream(readBytes(in)));
+            try {
+                return objectIn.readObject();
+            } finally {
+                IOHelper.close(objectIn);
+            }
+        default:
+            throw new IOException("Unknown type " + type + " of stored value");
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return new String(readBytes(in), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
@@ -16,12 +16,23 @@
  */
 package org.apache.camel.processor.idempotent.jdbc;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.sql.DataSource;
 
+import org.apache.camel.api.management.ManagedAttribute;
 import org.apache.camel.api.management.ManagedOperation;
 import org.apache.camel.api.management.ManagedResource;
 import org.apache.camel.spi.IdempotentRepository;
 import org.apache.camel.support.ServiceSupport;
+import org.apache.camel.util.LRUCache;
+import org.apache.camel.util.concurrent.CamelThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -29,6 +40,8 @@ import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.transaction.support.TransactionTemplate;
 
 /**
@@ -52,6 +65,20 @@ public abstract class AbstractJdbcMessageIdRepository<T> extends ServiceSupport
     protected DataSource dataSource;
     protected Logger log = LoggerFactory.getLogger(getClass());
 
+    private int cacheSize;
+    private long writeBehindInterval;
+    private int writeBehindBatchSize = 1000;
+    private volatile LRUCache<T, Boolean> cache;
+    private final Set<T> pendingKeys = new LinkedHashSet<T>();
+    private final Object flushLock = new Object();
+    private ScheduledExecutorService flushExecutor;
+    private TransactionTemplate flushTransactionTemplate;
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushedKeys = new AtomicLong();
+    private final AtomicLong failedKeys = new AtomicLong();
+    private final AtomicLong lastFlushDuration = new AtomicLong();
+    private final AtomicLong totalFlushDuration = new AtomicLong();
+
     public AbstractJdbcMessageIdRepository() {
     }
 
@@ -103,6 +130,32 @@ public abstract class AbstractJdbcMessageIdRepository<T> extends ServiceSupport
      */
     protected abstract int delete();
 
+    /**
+     * Operation that inserts the key in a single statement only if it does not already exist,
+     * such as with a MERGE or an INSERT ... ON CONFLICT DO NOTHING statement.
+     * <p/>
+     * This default implementation is not supported, so the key is queried and then inserted.
+     *
+     * @param key  the key
+     * @return int number of rows inserted, or <tt>-1</tt> if not supported
+     */
+    protected int insertIfAbsent(final T key) {
+        return -1;
+    }
+
+    /**
+     * Operation that inserts the keys which are written behind.
+     * <p/>
+     * This default implementation inserts the keys one at a time.
+     *
+     * @param keys  the keys
+     */
+    protected void insert(final List<T> keys) {
+        for (T key : keys) {
+            insert(key);
+        }
+    }
+
     /**
      * Creates the transaction template
      */
@@ -115,18 +168,60 @@ public abstract class AbstractJdbcMessageIdRepository<T> extends ServiceSupport
 
     @Override
     protected void doStart() throws Exception {
+        if (cacheSize > 0) {
+            cache = new LRUCache<T, Boolean>(cacheSize);
+        }
+        if (writeBehindInterval > 0) {
+            // the keys are written in their own transaction, also when written in the thread adding the key
+            flushTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager(), transactionTemplate);
+            flushTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            flushExecutor = Executors.newSingleThreadScheduledExecutor(
+                    new CamelThreadFactory("Camel Thread ##counter# - #name#", "JdbcMessageIdRepositoryWriteBehind", true));
+            flushExecutor.scheduleWithFixedDelay(new Runnable() {
+                public void run() {
+                    try {
+                        flush();
+                    } catch (Throwable e) {
+                        log.warn("Error writing behind the keys of processor " + processorName + ". This exception is ignored.", e);
+                    }
+                }
+            }, writeBehindInterval, writeBehindInterval, TimeUnit.MILLISECONDS);
+        }
     }
 
     @Override
     protected void doStop() throws Exception {
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+            flushExecutor.awaitTermination(writeBehindInterval, TimeUnit.MILLISECONDS);
+            flushExecutor = null;
+        }
+        // write the remaining keys before stopping
+        flush();
+        flushTransactionTemplate = null;
+        cache = null;
     }
 
     @ManagedOperation(description = "Adds the key to the store")
     @Override
     public boolean add(final T key) {
+        if (isCached(key)) {
+            return false;
+        }
+
+        if (writeBehindInterval > 0) {
+            return addWriteBehind(key);
+        }
+
         // Run this in single transaction.
         Boolean rc = transactionTemplate.execute(new TransactionCallback<Boolean>() {
             public Boolean doInTransaction(TransactionStatus status) {
+                // the key is only cached when the transaction commits, which may be an outer transaction
+                cacheOnCommit(key);
+                int inserted = insertIfAbsent(key);
+                if (inserted >= 0) {
+                    return inserted > 0;
+                }
                 int count = queryForInt(key);
                 if (count == 0) {
                     insert(key);
@@ -139,9 +234,148 @@ public abstract class AbstractJdbcMessageIdRepository<T> extends ServiceSupport
         return rc.booleanValue();
     }
 
+    private boolean addWriteBehind(final T key) {
+        synchronized (pendingKeys) {
+            if (pendingKeys.contains(key)) {
+                return false;
+            }
+        }
+
+        int count = transactionTemplate.execute(new TransactionCallback<Integer>() {
+            public Integer doInTransaction(TransactionStatus status) {
+                int count = queryForInt(key);
+                if (count > 0) {
+                    cacheOnCommit(key);
+                }
+                return count;
+            }
+        });
+        if (count > 0) {
+            return false;
+        }
+
+        boolean full;
+        synchronized (pendingKeys) {
+            if (!pendingKeys.add(key)) {
+                return false;
+            }
+            full = pendingKeys.size() >= writeBehindBatchSize;
+        }
+        cache(key);
+        if (full) {
+            // the batch is full so write it in the calling thread, which bounds the pending keys
+            flush();
+        }
+        return true;
+    }
+
+    /**
+     * Writes the keys which are pending to be written behind to the store
+     */
+    @ManagedOperation(description = "Writes the pending keys to the store")
+    public void flush() {
+        // only one flush at a time, as the keys stay pending until they have been written
+        synchronized (flushLock) {
+            final List<T> keys;
+            synchronized (pendingKeys) {
+                if (pendingKeys.isEmpty()) {
+                    return;
+                }
+                keys = new ArrayList<T>(pendingKeys);
+            }
+            final TransactionTemplate template = flushTransactionTemplate != null ? flushTransactionTemplate : transactionTemplate;
+
+            long start = System.currentTimeMillis();
+            int failed = 0;
+            try {
+                template.execute(new TransactionCallback<Boolean>() {
+                    public Boolean doInTransaction(TransactionStatus status) {
+                        insert(keys);
+                        return Boolean.TRUE;
+                    }
+                });
+            } catch (RuntimeException e) {
+                // insert the keys one by one so a failing key does not lose the others
+                log.warn("Error writing behind " + keys.size() + " keys of processor " + processorName + ", inserting the keys one by one", e);
+                for (final T key : keys) {
+                    try {
+                        template.execute(new TransactionCallback<Boolean>() {
+                            public Boolean doInTransaction(TransactionStatus status) {
+                                return queryForInt(key) == 0 && insert(key) > 0;
+                            }
+                        });
+                    } catch (RuntimeException ex) {
+                        // the key is not stored so it must no longer be reported as present
+                        uncache(key);
+                        failed++;
+                        log.warn("Error writing behind the key " + key + " of processor " + processorName + ". The key is not stored.", ex);
+                    }
+                }
+            } finally {
+                synchronized (pendingKeys) {
+                    pendingKeys.removeAll(keys);
+                }
+                long duration = System.currentTimeMillis() - start;
+                lastFlushDuration.set(duration);
+                totalFlushDuration.addAndGet(duration);
+                flushCount.incrementAndGet();
+                flushedKeys.addAndGet(keys.size() - failed);
+                failedKeys.addAndGet(failed);
+            }
+        }
+    }
+
+    private boolean isCached(T key) {
+        LRUCache<T, Boolean> current = cache;
+        return current != null && current.get(key) != null;
+    }
+
+    private void cache(T key) {
+        LRUCache<T, Boolean> current = cache;
+        if (current != null) {
+            current.put(key, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Caches the key once the current transaction commits, so the key is not cached if it is rolled back.
+     * The key is cached right away when there is no transaction synchronization.
+     */
+    private void cacheOnCommit(final T key) {
+        if (cache == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    cache(key);
+                }
+            });
+        } else {
+            cache(key);
+        }
+    }
+
+    private void uncache(T key) {
+        LRUCache<T, Boolean> current = cache;
+        if (current != null) {
+            current.remove(key);
+        }
+    }
+
     @ManagedOperation(description = "Does the store contain the given key")
     @Override
     public boolean contains(final T key) {
+        if (isCached(key)) {
+            return true;
+        }
+        synchronized (pendingKeys) {
+            if (pendingKeys.contains(key)) {
+                return true;
+            }
+        }
+
         // Run this in single transaction.
         Boolean rc = transactionTemplate.execute(new TransactionCallback<Boolean>() {
             public Boolean doInTransaction(TransactionStatus status) {
@@ -160,6 +394,15 @@ public abstract class AbstractJdbcMessageIdRepository<T> extends ServiceSupport
     @ManagedOperation(description = "Remove the key from the store")
     @Override
     public boolean remove(final T key) {
+        uncache(key);
+        boolean pending;
+        synchronized (pendingKeys) {
+            pending = pendingKeys.remove(key);
+        }
+        if (pending) {
+            return true;
+        }
+
         Boolean rc = transactionTemplate.execute(new TransactionCallback<Boolean>() {
             public Boolean doInTransaction(TransactionStatus status) {
                 int updateCount = delete(key);
@@ -176,6 +419,13 @@ public abstract class AbstractJdbcMessageIdRepository<T> extends ServiceSupport
     @ManagedOperation(description = "Clear the store")
     @Override
     public void clear() {
+        LRUCache<T, Boolean> current = cache;
+        if (current != null) {
+            current.clear();
+        }
+        synchronized (pendingKeys) {
+            pendingKeys.clear();
+        }
         transactionTemplate.execute(new TransactionCallback<Boolean>() {
             public Boolean doInTransaction(TransactionStatus status) {
                 delete();
@@ -189,6 +439,94 @@ public abstract class AbstractJdbcMessageIdRepository<T> extends ServiceSupport
         return true;
     }
 
+    @ManagedAttribute(description = "Number of keys found in the local cache")
+    public long getCacheHits() {
+        LRUCache<T, Boolean> current = cache;
+        return current != null ? current.getHits() : 0;
+    }
+
+    @ManagedAttribute(description = "Number of keys not found in the local cache")
+    public long getCacheMisses() {
+        LRUCache<T, Boolean> current = cache;
+        return current != null ? current.getMisses() : 0;
+    }
+
+    @ManagedAttribute(description = "Number of keys pending to be written behind")
+    public int getPendingKeys() {
+        synchronized (pendingKeys) {
+            return pendingKeys.size();
+        }
+    }
+
+    @ManagedAttribute(description = "Number of writes of the pending keys")
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    @ManagedAttribute(description = "Number of keys written behind")
+    public long getFlushedKeys() {
+        return flushedKeys.get();
+    }
+
+    @ManagedAttribute(description = "Number of keys which failed to be written behind and are not stored")
+    public long getFailedKeys() {
+        return failedKeys.get();
+    }
+
+    @ManagedAttribute(description = "Duration in millis of the last write of the pending keys")
+    public long getLastFlushDuration() {
+        return lastFlushDuration.get();
+    }
+
+    @ManagedAttribute(description = "Total duration in millis of the writes of the pending keys")
+    public long getTotalFlushDuration() {
+        return totalFlushDuration.get();
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * Sets the maximum number of recently added keys to keep in a local cache, so duplicates of these keys
+     * are detected without querying the store. Is by default 0 which disables the cache.
+     * <p/>
+     * The cache is local so it should only be used when this repository is the only one adding the keys.
+     * When the key is added within a transaction, such as the transaction of a transacted route, the key
+     * is only cached once that transaction commits.
+     */
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public long getWriteBehindInterval() {
+        return writeBehindInterval;
+    }
+
+    /**
+     * Sets the interval in millis at which the added keys are written behind to the store in batches,
+     * instead of being inserted when added. A key is then only durable once written, so the keys added
+     * within the last interval are lost if the JVM crashes. Is by default 0 which inserts the keys when added.
+     * <p/>
+     * The keys are written in their own transaction, so they are not rolled back together with a transaction
+     * of the caller, such as the transaction of a transacted route.
+     */
+    public void setWriteBehindInterval(long writeBehindInterval) {
+        this.writeBehindInterval = writeBehindInterval;
+    }
+
+    public int getWriteBehindBatchSize() {
+        return writeBehindBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of keys pending to be written behind. When reached, the keys are written
+     * in the thread adding the key. Is by default 1000.
+     */
+    public void setWriteBehindBatchSize(int writeBehindBatchSize) {
+        this.writeBehindBatchSize = writeBehindBatchSize;
+    }
+
     public JdbcTemplate getJdbcTemplate() {
         return jdbcTemplate;
     }
@@ -17,6 +17,8 @@
 package org.apache.camel.processor.idempotent.jdbc;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
 import javax.sql.DataSource;
 
 import org.springframework.dao.DataAccessException;
@@ -35,6 +37,7 @@ public class JdbcMessageIdRepository extends AbstractJdbcMessageIdRepository<Str
     private String createString = "CREATE TABLE CAMEL_MESSAGEPROCESSED (processorName VARCHAR(255), messageId VARCHAR(100), createdAt TIMESTAMP)";
     private String queryString = "SELECT COUNT(*) FROM CAMEL_MESSAGEPROCESSED WHERE processorName = ? AND messageId = ?";
     private String insertString = "INSERT INTO CAMEL_MESSAGEPROCESSED (processorName, messageId, createdAt) VALUES (?, ?, ?)";
+    private String insertIfAbsentString;
     private String deleteString = "DELETE FROM CAMEL_MESSAGEPROCESSED WHERE processorName = ? AND messageId = ?";
     private String clearString = "DELETE FROM CAMEL_MESSAGEPROCESSED WHERE processorName = ?";
 
@@ -95,6 +98,24 @@ public class JdbcMessageIdRepository extends AbstractJdbcMessageIdRepository<Str
         return jdbcTemplate.update(insertString, processorName, key, new Timestamp(System.currentTimeMillis()));
     }
 
+    @Override
+    protected int insertIfAbsent(String key) {
+        if (insertIfAbsentString == null) {
+            return -1;
+        }
+        return jdbcTemplate.update(insertIfAbsentString, processorName, key, new Timestamp(System.currentTimeMillis()));
+    }
+
+    @Override
+    protected void insert(List<String> keys) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> args = new ArrayList<Object[]>(keys.size());
+        for (String key : keys) {
+            args.add(new Object[]{processorName, key, now});
+        }
+        jdbcTemplate.batchUpdate(insertString, args);
+    }
+
     @Override
     protected int delete(String key) {
         return jdbcTemplate.update(deleteString, processorName, key);
@@ -145,6 +166,21 @@ public class JdbcMessageIdRepository extends AbstractJdbcMessageIdRepository<Str
         this.insertString = insertString;
     }
 
+    public String getInsertIfAbsentString() {
+        return insertIfAbsentString;
+    }
+
+    /**
+     * Sets the statement which inserts the key only if it does not already exist, so the key is checked and
+     * inserted in a single statement instead of a query followed by an insert. The parameters are the
+     * processor name, the message id and the creation timestamp, as for the insert statement. For example
+     * <tt>INSERT INTO CAMEL_MESSAGEPROCESSED (processorName, messageId, createdAt) VALUES (?, ?, ?) ON CONFLICT DO NOTHING</tt>
+     * on PostgreSQL with a unique constraint on the processor name and message id.
+     */
+    public void setInsertIfAbsentString(String insertIfAbsentString) {
+        this.insertIfAbsentString = insertIfAbsentString;
+    }
+
     public String getDeleteString() {
         return deleteString;
     }
@@ -0,0 +1,131 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.sql;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+public class SqlConsumerKeysetOnConsumeFailedTest extends CamelTestSupport {
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private EmbeddedDatabase db;
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setUp() throws Exception {
+        db = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.DERBY).addScript("sql/createAndPopulateDatabaseKeyset.sql").build();
+
+        jdbcTemplate = new JdbcTemplate(db);
+
+        super.setUp();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        super.tearDown();
+
+        db.shutdown();
+    }
+
+    @Test
+    public void testKeysetMovesPastRowHandledByOnConsumeFailed() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(4);
+
+        assertMockEndpointsSatisfied();
+
+        // row 3 always fails, but as onConsumeFailed has been executed for it the key moves past it
+        List<Exchange> exchanges = mock.getReceivedExchanges();
+        assertEquals(1, exchanges.get(0).getIn().getBody(Map.class).get("ID"));
+        assertEquals(2, exchanges.get(1).getIn().getBody(Map.class).get("ID"));
+        assertEquals(4, exchanges.get(2).getIn().getBody(Map.class).get("ID"));
+        assertEquals(5, exchanges.get(3).getIn().getBody(Map.class).get("ID"));
+
+        // the onConsume of the first row is executed using the connection of the poll
+        assertEquals(exchanges.get(0).getIn().getHeader("connections"), exchanges.get(1).getIn().getHeader("connections"));
+
+        // some servers may be a bit slow for this
+        for (int i = 0; i < 5; i++) {
+            // give it a little time to update
+            Thread.sleep(1000);
+            int rows = jdbcTemplate.queryForObject("select count(*) from projects where license = 'BAD'", Integer.class);
+            if (rows == 1) {
+                break;
+            }
+        }
+        assertEquals("Should have marked the failed row", new Integer(1), jdbcTemplate.queryForObject("select count(*) from projects where license = 'BAD'", Integer.class));
+        assertEquals("Should have updated 4 rows", new Integer(4), jdbcTemplate.queryForObject("select count(*) from projects where processed = true", Integer.class));
+
+        // and the failed row should not be polled again
+        mock.reset();
+        mock.expectedMessageCount(0);
+        mock.setAssertPeriod(500);
+        assertMockEndpointsSatisfied();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                // count the connections obtained from the data source
+                DelegatingDataSource dataSource = new DelegatingDataSource(db) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        connections.incrementAndGet();
+                        return super.getConnection();
+                    }
+                };
+                getContext().getComponent("sql", SqlComponent.class).setDataSource(dataSource);
+
+                errorHandler(defaultErrorHandler().logStackTrace(false));
+
+                from("sql:select * from projects where id > # order by id?keysetColumn=id&keysetInitialValue=0&maxMessagesPerPoll=2"
+                    + "&breakBatchOnConsumeFail=true&onConsume=update projects set processed = true where id = :#id"
+                    + "&onConsumeFailed=update projects set license = 'BAD' where id = :#id&consumer.delay=100")
+                    .process(new Processor() {
+                        @Override
+                        public void process(Exchange exchange) throws Exception {
+                            exchange.getIn().setHeader("connections", connections.get());
+                            if (Integer.valueOf(3).equals(exchange.getIn().getBody(Map.class).get("ID"))) {
+                                throw new IllegalArgumentException("Forced failure of row 3");
+                            }
+                        }
+                    })
+                    .to("mock:result");
+            }
+        };
+    }
+}
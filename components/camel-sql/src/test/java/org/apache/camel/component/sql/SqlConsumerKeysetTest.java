@@ -0,0 +1,104 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.sql;
+
+import java.util.List;
+import java.util.Map;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+public class SqlConsumerKeysetTest extends CamelTestSupport {
+
+    private EmbeddedDatabase db;
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setUp() throws Exception {
+        db = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.DERBY).addScript("sql/createAndPopulateDatabaseKeyset.sql").build();
+
+        jdbcTemplate = new JdbcTemplate(db);
+
+        super.setUp();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        super.tearDown();
+
+        db.shutdown();
+    }
+
+    @Test
+    public void testKeysetConsume() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(5);
+
+        assertMockEndpointsSatisfied();
+
+        // each row should only be consumed once, even though the rows are not deleted
+        List<Exchange> exchanges = mock.getReceivedExchanges();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i + 1, exchanges.get(i).getIn().getBody(Map.class).get("ID"));
+        }
+
+        // the page size is 2 so we have 3 batches
+        assertEquals(2, exchanges.get(0).getProperty(Exchange.BATCH_SIZE));
+        assertEquals(1, exchanges.get(4).getProperty(Exchange.BATCH_SIZE));
+
+        // some servers may be a bit slow for this
+        for (int i = 0; i < 5; i++) {
+            // give it a little time to update
+            Thread.sleep(1000);
+            int rows = jdbcTemplate.queryForObject("select count(*) from projects where processed = true", Integer.class);
+            if (rows == 5) {
+                break;
+            }
+        }
+        assertEquals("Should have updated all 5 rows", new Integer(5), jdbcTemplate.queryForObject("select count(*) from projects where processed = true", Integer.class));
+
+        // and no more rows should be consumed
+        mock.reset();
+        mock.expectedMessageCount(0);
+        mock.setAssertPeriod(500);
+        assertMockEndpointsSatisfied();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                getContext().getComponent("sql", SqlComponent.class).setDataSource(db);
+
+                from("sql:select * from projects where id > # order by id?keysetColumn=id&keysetInitialValue=0&maxMessagesPerPoll=2"
+                    + "&batchOnConsume=true&onConsume=update projects set processed = true where id = :#id&consumer.delay=100")
+                    .to("mock:result");
+            }
+        };
+    }
+}
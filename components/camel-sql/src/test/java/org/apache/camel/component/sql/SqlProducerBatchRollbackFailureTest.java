@@ -0,0 +1,134 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.sql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.apache.camel.util.ObjectHelper;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+public class SqlProducerBatchRollbackFailureTest extends CamelTestSupport {
+
+    private EmbeddedDatabase db;
+
+    @Before
+    public void setUp() throws Exception {
+        db = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.DERBY).addScript("sql/createAndPopulateDatabase.sql").build();
+
+        super.setUp();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        super.tearDown();
+
+        db.shutdown();
+    }
+
+    @Test
+    public void testRollbackFailureDoesNotHideBatchFailure() throws Exception {
+        // the 2nd row has a duplicate key so the chunk fails
+        List<?> data = Arrays.asList(Arrays.asList(10, "a", "b"), Arrays.asList(1, "c", "d"));
+        try {
+            template.sendBody("direct:batch", data);
+            fail("Should have thrown exception");
+        } catch (Exception e) {
+            SQLException cause = ObjectHelper.getException(SQLException.class, e);
+            assertNotNull(cause);
+            // the failure of the batch is kept, and the failure of the rollback is added as suppressed
+            assertNotEquals("Rollback failed", cause.getMessage());
+            assertEquals(1, cause.getSuppressed().length);
+            assertEquals("Rollback failed", cause.getSuppressed()[0].getMessage());
+        }
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            public void configure() {
+                // a data source where rolling back fails
+                DelegatingDataSource dataSource = new DelegatingDataSource(db) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        return createConnection(super.getConnection());
+                    }
+                };
+                getContext().getComponent("sql", SqlComponent.class).setDataSource(dataSource);
+
+                errorHandler(noErrorHandler());
+
+                from("direct:batch")
+                    .to("sql:insert into projects values (#, #, #)?batch=true&batchSize=3");
+            }
+        };
+    }
+
+    private static Connection createConnection(final Connection target) {
+        return (Connection) Proxy.newProxyInstance(SqlProducerBatchRollbackFailureTest.class.getClassLoader(), new Class<?>[]{Connection.class},
+            new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    Object answer = invokeTarget(target, method, args);
+                    if ("rollback".equals(method.getName())) {
+                        throw new SQLException("Rollback failed");
+                    } else if (answer instanceof PreparedStatement) {
+                        // the producer gets the connection from the statement
+                        return createStatement((PreparedStatement) answer, (Connection) proxy);
+                    }
+                    return answer;
+                }
+            });
+    }
+
+    private static PreparedStatement createStatement(final PreparedStatement target, final Connection connection) {
+        return (PreparedStatement) Proxy.newProxyInstance(SqlProducerBatchRollbackFailureTest.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+            new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    if ("getConnection".equals(method.getName())) {
+                        return connection;
+                    }
+                    return invokeTarget(target, method, args);
+                }
+            });
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
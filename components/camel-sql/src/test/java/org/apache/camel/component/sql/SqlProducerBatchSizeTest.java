@@ -0,0 +1,163 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.sql;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.test.junit4.CamelTestSupport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+public class SqlProducerBatchSizeTest extends CamelTestSupport {
+
+    private EmbeddedDatabase db;
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setUp() throws Exception {
+        db = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.DERBY).addScript("sql/createAndPopulateDatabase.sql").build();
+
+        jdbcTemplate = new JdbcTemplate(db);
+
+        super.setUp();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        super.tearDown();
+
+        db.shutdown();
+    }
+
+    @Test
+    public void testBatchSize() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(1);
+        mock.expectedHeaderReceived(SqlConstants.SQL_UPDATE_COUNT, 7);
+        mock.expectedHeaderReceived(SqlConstants.SQL_BATCH_UPDATE_COUNTS, new ArrayList<Integer>(Arrays.asList(3, 3, 1)));
+
+        template.sendBody("direct:batch", new RowIterator(10, 7));
+
+        assertMockEndpointsSatisfied();
+
+        assertEquals(new Integer(10), jdbcTemplate.queryForObject("select count(*) from projects", Integer.class));
+        assertEquals("Project16", jdbcTemplate.queryForObject("select project from projects where id = 16", String.class));
+    }
+
+    @Test
+    public void testBatchSizeExactChunks() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:result");
+        mock.expectedMessageCount(1);
+        mock.expectedHeaderReceived(SqlConstants.SQL_UPDATE_COUNT, 6);
+        mock.expectedHeaderReceived(SqlConstants.SQL_BATCH_UPDATE_COUNTS, new ArrayList<Integer>(Arrays.asList(3, 3)));
+
+        template.sendBody("direct:batch", new RowIterator(10, 6));
+
+        assertMockEndpointsSatisfied();
+
+        assertEquals(new Integer(9), jdbcTemplate.queryForObject("select count(*) from projects", Integer.class));
+    }
+
+    @Test
+    public void testBatchSizeFailureKeepsCommittedChunks() throws Exception {
+        // the 5th row has a duplicate key so the 2nd chunk fails
+        List<?> data = Arrays.asList(Arrays.asList(10, "a", "b"), Arrays.asList(11, "c", "d"), Arrays.asList(12, "e", "f"),
+                Arrays.asList(13, "g", "h"), Arrays.asList(1, "i", "j"));
+        try {
+            template.sendBody("direct:batch", data);
+            fail("Should have thrown exception");
+        } catch (Exception e) {
+            // expected
+        }
+
+        assertEquals(new Integer(3), jdbcTemplate.queryForObject("select count(*) from projects where id between 10 and 12", Integer.class));
+        assertEquals(new Integer(0), jdbcTemplate.queryForObject("select count(*) from projects where id = 13", Integer.class));
+    }
+
+    @Test
+    public void testBatchSizeStreamList() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:stream");
+        mock.expectedMessageCount(1);
+        mock.expectedHeaderReceived(SqlConstants.SQL_UPDATE_COUNT, 4);
+
+        template.sendBody("direct:stream", new RowIterator(20, 4));
+
+        assertMockEndpointsSatisfied();
+
+        assertEquals(new Integer(7), jdbcTemplate.queryForObject("select count(*) from projects", Integer.class));
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            public void configure() {
+                getContext().getComponent("sql", SqlComponent.class).setDataSource(db);
+
+                errorHandler(noErrorHandler());
+
+                from("direct:batch")
+                    .to("sql:insert into projects values (#, #, #)?batch=true&batchSize=3")
+                    .to("mock:result");
+
+                from("direct:stream")
+                    .to("sql:insert into projects values (#, #, #)?batch=true&batchSize=3&outputType=StreamList")
+                    .to("mock:stream");
+            }
+        };
+    }
+
+    /**
+     * Generates the rows on demand to simulate a streaming message body
+     */
+    private static final class RowIterator implements Iterator<List<?>> {
+        private final int start;
+        private final int count;
+        private int index;
+
+        RowIterator(int start, int count) {
+            this.start = start;
+            this.count = count;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < count;
+        }
+
+        @Override
+        public List<?> next() {
+            int id = start + index++;
+            return Arrays.asList(id, "Project" + id, "ASF");
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
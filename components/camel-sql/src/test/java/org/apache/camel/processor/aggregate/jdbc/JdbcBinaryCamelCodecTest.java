@@ -0,0 +1,113 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.aggregate.jdbc;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.component.mock.MockEndpoint;
+import org.apache.camel.impl.DefaultExchange;
+import org.junit.Test;
+
+public class JdbcBinaryCamelCodecTest extends AbstractJdbcAggregationTestSupport {
+
+    @Override
+    void configureJdbcAggregationRepository() {
+        repo.setJdbcCamelCodec(new JdbcBinaryCamelCodec());
+    }
+
+    @Test
+    public void testExchangeSerialization() {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody("Hello World");
+        exchange.getIn().setHeader("name", "Olivier");
+        exchange.getIn().setHeader("number", 123);
+        exchange.getIn().setHeader("amount", new BigDecimal("12.50"));
+        exchange.getIn().setHeader("flag", true);
+        exchange.getIn().setHeader("object", new Object());
+        exchange.setProperty("quote", "Camel rocks");
+        exchange.setProperty(Exchange.AGGREGATED_SIZE, 3);
+
+        Date now = new Date();
+        exchange.getIn().setHeader("date", now);
+
+        repo.add(context, "foo", exchange);
+
+        Exchange actual = repo.get(context, "foo");
+        assertEquals(exchange.getExchangeId(), actual.getExchangeId());
+        assertEquals("Hello World", actual.getIn().getBody());
+        assertEquals("Olivier", actual.getIn().getHeader("name"));
+        assertEquals(123, actual.getIn().getHeader("number"));
+        assertEquals(new BigDecimal("12.50"), actual.getIn().getHeader("amount"));
+        assertEquals(Boolean.TRUE, actual.getIn().getHeader("flag"));
+        assertEquals(now, actual.getIn().getHeader("date"));
+        // only the valid header types are stored
+        assertNull(actual.getIn().getHeader("object"));
+        // we only store the aggregation properties
+        assertNull(actual.getProperty("quote"));
+        assertEquals(3, actual.getProperty(Exchange.AGGREGATED_SIZE));
+        assertFalse(actual.hasOut());
+        assertSame(context, actual.getContext());
+    }
+
+    @Test
+    public void testBytesBodyAndException() {
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody(new byte[]{1, 2, 3});
+        exchange.getOut().setBody("Bye World");
+        exchange.getOut().setHeader("name", "Thomas");
+        exchange.setException(new IllegalArgumentException("Forced"));
+
+        repo.add(context, "foo", exchange);
+
+        Exchange actual = repo.get(context, "foo");
+        assertArrayEquals(new byte[]{1, 2, 3}, actual.getIn().getBody(byte[].class));
+        assertEquals("Bye World", actual.getOut().getBody());
+        assertEquals("Thomas", actual.getOut().getHeader("name"));
+        assertIsInstanceOf(IllegalArgumentException.class, actual.getException());
+        assertEquals("Forced", actual.getException().getMessage());
+    }
+
+    @Test
+    public void testReadStoredByDefaultCodec() {
+        repo.setJdbcCamelCodec(new JdbcCamelCodec());
+        Exchange exchange = new DefaultExchange(context);
+        exchange.getIn().setBody("Hello World");
+        exchange.getIn().setHeader("name", "Olivier");
+        repo.add(context, "foo", exchange);
+
+        repo.setJdbcCamelCodec(new JdbcBinaryCamelCodec());
+        Exchange actual = repo.get(context, "foo");
+        assertEquals("Hello World", actual.getIn().getBody());
+        assertEquals("Olivier", actual.getIn().getHeader("name"));
+    }
+
+    @Test
+    public void testAggregate() throws Exception {
+        MockEndpoint mock = getMockEndpoint("mock:aggregated");
+        mock.expectedBodiesReceived("ABCDE");
+
+        template.sendBodyAndHeader("direct:start", "A", "id", 123);
+        template.sendBodyAndHeader("direct:start", "B", "id", 123);
+        template.sendBodyAndHeader("direct:start", "C", "id", 123);
+        template.sendBodyAndHeader("direct:start", "D", "id", 123);
+        template.sendBodyAndHeader("direct:start", "E", "id", 123);
+
+        assertMockEndpointsSatisfied();
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.idempotent.jdbc;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JdbcMessageIdRepositoryWriteBehindFailureTest {
+
+    private static final String COUNT_STRING = "SELECT COUNT(*) FROM CAMEL_MESSAGEPROCESSED WHERE processorName = 'myProcessorName'";
+
+    private EmbeddedDatabase dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private JdbcMessageIdRepository repository;
+
+    @Before
+    public void setUp() throws Exception {
+        dataSource = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.DERBY).generateUniqueName(true).build();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        repository = new JdbcMessageIdRepository(dataSource, "myProcessorName") {
+            @Override
+            protected int insert(String key) {
+                if ("poison".equals(key)) {
+                    throw new DataIntegrityViolationException("Cannot insert " + key);
+                }
+                return super.insert(key);
+            }
+
+            @Override
+            protected void insert(List<String> keys) {
+                if (keys.contains("poison")) {
+                    throw new DataIntegrityViolationException("Cannot insert the batch");
+                }
+                super.insert(keys);
+            }
+        };
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        repository.stop();
+        dataSource.shutdown();
+    }
+
+    @Test
+    public void testFailedKeyIsCounted() throws Exception {
+        repository.setCacheSize(100);
+        repository.setWriteBehindInterval(60000);
+        repository.start();
+
+        assertTrue(repository.add("key1"));
+        assertTrue(repository.add("poison"));
+        assertTrue(repository.add("key2"));
+
+        repository.flush();
+
+        // the other keys are still written when the batch fails
+        assertEquals(2, count());
+        assertEquals(0, repository.getPendingKeys());
+        assertEquals(2, repository.getFlushedKeys());
+        assertEquals(1, repository.getFailedKeys());
+        assertTrue(repository.contains("key1"));
+        assertFalse(repository.contains("poison"));
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject(COUNT_STRING, Integer.class);
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.processor.idempotent.jdbc;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JdbcMessageIdRepositoryWriteBehindTest {
+
+    private static final String COUNT_STRING = "SELECT COUNT(*) FROM CAMEL_MESSAGEPROCESSED WHERE processorName = 'myProcessorName'";
+
+    private EmbeddedDatabase dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private JdbcMessageIdRepository repository;
+
+    @Before
+    public void setUp() throws Exception {
+        dataSource = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.DERBY).generateUniqueName(true).build();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        repository = new JdbcMessageIdRepository(dataSource, "myProcessorName");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        repository.stop();
+        dataSource.shutdown();
+    }
+
+    @Test
+    public void testCache() throws Exception {
+        repository.setCacheSize(100);
+        repository.start();
+
+        assertTrue(repository.add("1"));
+        assertFalse(repository.add("1"));
+        assertTrue(repository.contains("1"));
+        assertEquals(2, repository.getCacheHits());
+        assertEquals(1, count());
+
+        assertTrue(repository.remove("1"));
+        assertFalse(repository.contains("1"));
+        assertEquals(0, count());
+    }
+
+    @Test
+    public void testCacheRolledBack() throws Exception {
+        repository.setCacheSize(100);
+        repository.start();
+
+        // add the key in an outer transaction which is rolled back
+        repository.getTransactionTemplate().execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                assertTrue(repository.add("1"));
+                status.setRollbackOnly();
+            }
+        });
+
+        // the key should not be cached as it was never committed
+        assertFalse(repository.contains("1"));
+        assertTrue(repository.add("1"));
+        assertEquals(1, count());
+    }
+
+    @Test
+    public void testWriteBehind() throws Exception {
+        repository.setWriteBehindInterval(60000);
+        repository.setWriteBehindBatchSize(10);
+        repository.start();
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(repository.add("key" + i));
+        }
+        assertFalse(repository.add("key3"));
+        assertTrue(repository.contains("key3"));
+        assertEquals(5, repository.getPendingKeys());
+        assertEquals(0, count());
+
+        repository.flush();
+        assertEquals(5, count());
+        assertEquals(0, repository.getPendingKeys());
+        assertEquals(1, repository.getFlushCount());
+        assertFalse(repository.add("key3"));
+
+        // the batch is written when full
+        for (int i = 5; i < 15; i++) {
+            assertTrue(repository.add("key" + i));
+        }
+        assertEquals(15, count());
+        assertEquals(2, repository.getFlushCount());
+        assertEquals(15, repository.getFlushedKeys());
+
+        // the pending keys are written on stop
+        assertTrue(repository.add("key15"));
+        repository.stop();
+        assertEquals(16, count());
+    }
+
+    @Test
+    public void testInsertIfAbsent() throws Exception {
+        repository.setInsertIfAbsentString("INSERT INTO CAMEL_MESSAGEPROCESSED (processorName, messageId, createdAt) "
+                + "SELECT v.p, v.m, v.c FROM (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(100)), CAST(? AS TIMESTAMP))) AS v(p, m, c) "
+                + "WHERE NOT EXISTS (SELECT 1 FROM CAMEL_MESSAGEPROCESSED t WHERE t.processorName = v.p AND t.messageId = v.m)");
+        repository.start();
+
+        assertTrue(repository.add("1"));
+        assertFalse(repository.add("1"));
+        assertTrue(repository.add("2"));
+        assertEquals(2, count());
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject(COUNT_STRING, Integer.class);
+    }
+}
@@ -46,7 +46,7 @@ import org.apache.camel.util.MessageHelper;
 import org.apache.camel.util.ObjectHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.xnio.ChannelListener;
+import org.xnio.channels.Channels;
 import org.xnio.channels.StreamSourceChannel;
 
 /**
@@ -83,9 +83,14 @@ public class DefaultUndertowHttpBinding implements UndertowHttpBinding {
         populateCamelHeaders(httpExchange, result.getHeaders(), exchange);
 
         //extract body if the method is allowed to have one
-        //body is extracted as byte[] then auto TypeConverter kicks in
+        //body is extracted as byte[] then auto TypeConverter kicks in, unless the consumer
+        //has switched the exchange to blocking mode to stream the request body
         if (Methods.POST.equals(httpExchange.getRequestMethod()) || Methods.PUT.equals(httpExchange.getRequestMethod())) {
-            result.setBody(readFromChannel(httpExchange.getRequestChannel()));
+            if (httpExchange.isBlocking()) {
+                result.setBody(httpExchange.getInputStream());
+            } else {
+                result.setBody(readFromChannel(httpExchange.getRequestChannel(), httpExchange.getRequestContentLength()));
+            }
         } else {
             result.setBody(null);
         }
@@ -100,7 +105,12 @@ public class DefaultUndertowHttpBinding implements UndertowHttpBinding {
         //retrieve response headers
         populateCamelHeaders(clientExchange.getResponse(), result.getHeaders(), exchange);
 
-        result.setBody(readFromChannel(clientExchange.getResponseChannel()));
+        // the producer reads the response body without blocking before mapping the response
+        byte[] body = clientExchange.getAttachment(UndertowHelper.RESPONSE_BODY);
+        if (body == null) {
+            body = readFromChannel(clientExchange.getResponseChannel(), -1);
+        }
+        result.setBody(body);
 
         return result;
     }
@@ -323,42 +333,16 @@ public class DefaultUndertowHttpBinding implements UndertowHttpBinding {
         return body;
     }
 
-    private byte[] readFromChannel(StreamSourceChannel source) throws IOException {
-        final ByteArrayOutputStream out = new ByteArrayOutputStream();
-        final ByteBuffer buffer = ByteBuffer.wrap(new byte[1024]);
-
-        for (;;) {
-            int res = source.read(buffer);
-            if (res == -1) {
-                return out.toByteArray();
-            } else if (res == 0) {
-                source.getReadSetter().set(new ChannelListener<StreamSourceChannel>() {
-                    @Override
-                    public void handleEvent(StreamSourceChannel channel) {
-                        for (;;) {
-                            try {
-                                int res = channel.read(buffer);
-                                if (res == -1 || res == 0) {
-                                    out.toByteArray();
-                                    return;
-                                } else {
-                                    buffer.flip();
-                                    out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.arrayOffset() + buffer.limit());
-                                    buffer.clear();
-                                }
-                            } catch (IOException e) {
-                                LOG.error("Exception reading from channel {}", e);
-                            }
-                        }
-                    }
-                });
-                source.resumeReads();
-                return out.toByteArray();
-            } else {
-                buffer.flip();
-                out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.arrayOffset() + buffer.limit());
-                buffer.clear();
-            }
+    private byte[] readFromChannel(StreamSourceChannel source, long contentLength) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(contentLength > 0 && contentLength < Integer.MAX_VALUE ? (int) contentLength : 1024);
+        final ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+        //the channel is read from a worker thread so it is safe to block until data is available
+        while (Channels.readBlocking(source, buffer) != -1) {
+            buffer.flip();
+            out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            buffer.clear();
         }
+        return out.toByteArray();
     }
 }
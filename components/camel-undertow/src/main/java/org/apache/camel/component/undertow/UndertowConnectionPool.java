@@ -0,0 +1,278 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.undertow;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+
+import io.undertow.client.ClientCallback;
+import io.undertow.client.ClientConnection;
+import io.undertow.client.UndertowClient;
+import io.undertow.connector.ByteBufferPool;
+import org.apache.camel.util.IOHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xnio.OptionMap;
+import org.xnio.XnioWorker;
+import org.xnio.ssl.XnioSsl;
+
+/**
+ * A pool of open {@link ClientConnection}s to the same server, so the connections can be reused by the following requests.
+ * <p/>
+ * Connecting is non-blocking, and the callback is invoked from the XNIO I/O thread when a new connection is established.
+ * A connection which supports multiplexing (HTTP/2) is shared by the concurrent requests instead of being
+ * borrowed by a single request at a time.
+ * <p/>
+ * The number of open connections can be limited, in which case a request waits without blocking until a connection
+ * is released by another request, and its callback is then invoked from the I/O thread releasing the connection.
+ */
+public class UndertowConnectionPool {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UndertowConnectionPool.class);
+
+    private final Object lock = new Object();
+    // the following are guarded by the lock
+    private final Deque<ClientConnection> connections = new ArrayDeque<ClientConnection>();
+    private final Queue<ClientCallback<ClientConnection>> waiting = new ArrayDeque<ClientCallback<ClientConnection>>();
+    private int idle;
+    private int open;
+
+    private final UndertowClient client;
+    private final URI uri;
+    private final XnioWorker worker;
+    private final XnioSsl ssl;
+    private final ByteBufferPool bufferPool;
+    private final OptionMap options;
+    private final int maxIdle;
+    private final int maxConnections;
+
+    public UndertowConnectionPool(UndertowClient client, URI uri, XnioWorker worker, XnioSsl ssl, ByteBufferPool bufferPool,
+                                  OptionMap options, int maxIdle) {
+        this(client, uri, worker, ssl, bufferPool, options, maxIdle, 0);
+    }
+
+    public UndertowConnectionPool(UndertowClient client, URI uri, XnioWorker worker, XnioSsl ssl, ByteBufferPool bufferPool,
+                                  OptionMap options, int maxIdle, int maxConnections) {
+        this.client = client;
+        this.uri = uri;
+        this.worker = worker;
+        this.ssl = ssl;
+        this.bufferPool = bufferPool;
+        this.options = options;
+        this.maxIdle = maxIdle;
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * Acquires a connection, which is either an idle connection from the pool, or a new connection.
+     * If the maximum number of connections are open, then the request waits until a connection is released.
+     *
+     * @param callback the callback which is invoked with the connection, or if the connection could not be established
+     */
+    public void acquire(final ClientCallback<ClientConnection> callback) {
+        ClientConnection connection;
+        synchronized (lock) {
+            connection = pollConnection();
+            if (connection == null) {
+                if (maxConnections > 0 && open >= maxConnections) {
+                    LOG.trace("Waiting for a connection to: {} as {} connections are open", uri, open);
+                    waiting.add(callback);
+                    return;
+                }
+                open++;
+            }
+        }
+
+        if (connection != null) {
+            LOG.trace("Reusing connection: {}", connection);
+            callback.completed(connection);
+        } else {
+            connect(callback);
+        }
+    }
+
+    /**
+     * Releases the connection after the request has completed.
+     *
+     * @param connection the connection
+     * @param reuse      whether the connection can be reused, which requires that the response has been fully read
+     */
+    public void release(ClientConnection connection, boolean reuse) {
+        ClientCallback<ClientConnection> waiter = null;
+        boolean close = true;
+        synchronized (lock) {
+            if (connection.isMultiplexingSupported()) {
+                // a shared connection is kept in the pool until its closed
+                if (reuse && connection.isOpen()) {
+                    return;
+                }
+                connections.remove(connection);
+            } else if (reuse && connection.isOpen()) {
+                waiter = waiting.poll();
+                if (waiter != null) {
+                    // hand over the connection to the waiting request
+                    close = false;
+                } else if (idle < maxIdle) {
+                    // use the most recently used connection first
+                    idle++;
+                    connections.offerFirst(connection);
+                    return;
+                }
+            }
+            if (close) {
+                waiter = connectionClosed();
+            }
+        }
+
+        if (close) {
+            IOHelper.close(connection);
+            if (waiter != null) {
+                // the waiting request can open a new connection instead
+                connect(waiter);
+            }
+        } else {
+            LOG.trace("Reusing connection for waiting request: {}", connection);
+            waiter.completed(connection);
+        }
+    }
+
+    /**
+     * Closes all the connections in the pool, and fails the requests waiting for a connection.
+     */
+    public void close() {
+        List<ClientConnection> closing;
+        List<ClientCallback<ClientConnection>> waiters;
+        synchronized (lock) {
+            closing = new ArrayList<ClientConnection>(connections);
+            connections.clear();
+            waiters = new ArrayList<ClientCallback<ClientConnection>>(waiting);
+            waiting.clear();
+            open -= closing.size();
+            idle = 0;
+        }
+
+        for (ClientConnection connection : closing) {
+            IOHelper.close(connection);
+        }
+        for (ClientCallback<ClientConnection> waiter : waiters) {
+            waiter.failed(new IOException("The connection pool to " + uri + " has been closed"));
+        }
+    }
+
+    public int getIdleConnections() {
+        synchronized (lock) {
+            return idle;
+        }
+    }
+
+    public int getOpenConnections() {
+        synchronized (lock) {
+            return open;
+        }
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * Polls an open connection from the pool, and closes the connections which has been closed while they were in the pool.
+     * Must be invoked while holding the lock.
+     */
+    private ClientConnection pollConnection() {
+        ClientConnection connection;
+        while ((connection = connections.pollFirst()) != null) {
+            if (connection.isMultiplexingSupported()) {
+                if (connection.isOpen()) {
+                    // keep the connection in the pool so other requests can use it at the same time
+                    connections.offerLast(connection);
+                    return connection;
+                }
+            } else {
+                idle--;
+                if (connection.isOpen()) {
+                    return connection;
+                }
+            }
+            // the connection has been closed while it was in the pool
+            open--;
+            IOHelper.close(connection);
+        }
+        return null;
+    }
+
+    /**
+     * Accounts for a connection which is closed, and returns the waiting request which can open a new connection instead.
+     * Must be invoked while holding the lock.
+     */
+    private ClientCallback<ClientConnection> connectionClosed() {
+        open--;
+        ClientCallback<ClientConnection> waiter = waiting.poll();
+        if (waiter != null) {
+            open++;
+        }
+        return waiter;
+    }
+
+    private void connect(final ClientCallback<ClientConnection> callback) {
+        LOG.trace("Opening new connection to: {}", uri);
+        ClientCallback<ClientConnection> connected = new ClientCallback<ClientConnection>() {
+            @Override
+            public void completed(ClientConnection connection) {
+                List<ClientCallback<ClientConnection>> waiters = null;
+                if (connection.isMultiplexingSupported()) {
+                    synchronized (lock) {
+                        connections.offerLast(connection);
+                        // the waiting requests can share the connection
+                        if (!waiting.isEmpty()) {
+                            waiters = new ArrayList<ClientCallback<ClientConnection>>(waiting);
+                            waiting.clear();
+                        }
+                    }
+                }
+                callback.completed(connection);
+                if (waiters != null) {
+                    for (ClientCallback<ClientConnection> waiter : waiters) {
+                        waiter.completed(connection);
+                    }
+                }
+            }
+
+            @Override
+            public void failed(IOException e) {
+                ClientCallback<ClientConnection> waiter;
+                synchronized (lock) {
+                    waiter = connectionClosed();
+                }
+                callback.failed(e);
+                if (waiter != null) {
+                    connect(waiter);
+                }
+            }
+        };
+        if (ssl != null) {
+            client.connect(connected, uri, worker, ssl, bufferPool, options);
+        } else {
+            client.connect(connected, uri, worker, bufferPool, options);
+        }
+    }
+}
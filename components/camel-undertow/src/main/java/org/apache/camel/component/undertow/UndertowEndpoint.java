@@ -78,11 +78,19 @@ public class UndertowEndpoint extends DefaultEndpoint implements AsyncEndpoint,
     private Boolean tcpNoDelay = Boolean.TRUE;
     @UriParam(label = "producer", defaultValue = "true")
     private Boolean reuseAddresses = Boolean.TRUE;
+    @UriParam(label = "producer", defaultValue = "10")
+    private Integer connectionPoolSize = 10;
+    @UriParam(label = "producer")
+    private Integer maxConnections;
     @UriParam(label = "producer", prefix = "option.", multiValue = true)
     private Map<String, Object> options;
     @UriParam(label = "consumer",
             description = "Specifies whether to enable HTTP OPTIONS for this Servlet consumer. By default OPTIONS is turned off.")
     private boolean optionsEnabled;
+    @UriParam(label = "consumer",
+            description = "Whether the request body should be exposed as a stream instead of being read into memory."
+                    + " The InputStream reads directly from the connection and can only be read once, so enable stream caching if the body must be re-read.")
+    private boolean useStreaming;
 
     public UndertowEndpoint(String uri, UndertowComponent component) throws URISyntaxException {
         super(uri, component);
@@ -115,6 +123,18 @@ public class UndertowEndpoint extends DefaultEndpoint implements AsyncEndpoint,
         return true;
     }
 
+    public boolean isUseStreaming() {
+        return useStreaming;
+    }
+
+    /**
+     * Whether the request body should be exposed as a stream instead of being read into memory.
+     * The InputStream reads directly from the connection and can only be read once, so enable stream caching if the body must be re-read.
+     */
+    public void setUseStreaming(boolean useStreaming) {
+        this.useStreaming = useStreaming;
+    }
+
     @Override
     public boolean isLenientProperties() {
         // true to allow dynamic URI options to be configured and passed to external system for eg. the UndertowProducer
@@ -261,6 +281,31 @@ public class UndertowEndpoint extends DefaultEndpoint implements AsyncEndpoint,
         this.reuseAddresses = reuseAddresses;
     }
 
+    public Integer getConnectionPoolSize() {
+        return connectionPoolSize;
+    }
+
+    /**
+     * The maximum number of idle connections the producer keeps open to be reused by the following requests (HTTP keep-alive).
+     * Setting this to 0 will open a new connection for each request.
+     */
+    public void setConnectionPoolSize(Integer connectionPoolSize) {
+        this.connectionPoolSize = connectionPoolSize;
+    }
+
+    public Integer getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * The maximum number of connections the producer opens to the server. When all the connections are in use,
+     * then the following requests wait until a connection is released by a request which has completed.
+     * By default the number of connections is not limited.
+     */
+    public void setMaxConnections(Integer maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
     public Map<String, Object> getOptions() {
         return options;
     }
@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import io.undertow.util.AttachmentKey;
 import io.undertow.util.HttpString;
 import io.undertow.util.Methods;
 import org.apache.camel.Exchange;
@@ -34,6 +35,11 @@ import org.apache.camel.util.UnsafeUriCharactersEncoder;
  */
 public final class UndertowHelper {
 
+    /**
+     * The response body which the producer has read from the response channel of the client exchange
+     */
+    public static final AttachmentKey<byte[]> RESPONSE_BODY = AttachmentKey.create(byte[].class);
+
     private UndertowHelper() {
     }
 
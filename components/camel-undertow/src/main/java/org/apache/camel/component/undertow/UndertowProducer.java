@@ -16,15 +16,18 @@
  */
 package org.apache.camel.component.undertow;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import io.undertow.client.ClientCallback;
 import io.undertow.client.ClientConnection;
 import io.undertow.client.ClientExchange;
 import io.undertow.client.ClientRequest;
 import io.undertow.client.UndertowClient;
+import io.undertow.protocols.ssl.UndertowXnioSsl;
 import io.undertow.server.DefaultByteBufferPool;
 import io.undertow.util.Headers;
 import io.undertow.util.HttpString;
@@ -35,20 +38,25 @@ import org.apache.camel.Message;
 import org.apache.camel.TypeConverter;
 import org.apache.camel.impl.DefaultAsyncProducer;
 import org.apache.camel.util.ExchangeHelper;
-import org.apache.camel.util.IOHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.xnio.IoFuture;
+import org.xnio.ChannelExceptionHandler;
+import org.xnio.ChannelListener;
+import org.xnio.ChannelListeners;
 import org.xnio.OptionMap;
 import org.xnio.Xnio;
 import org.xnio.XnioWorker;
+import org.xnio.channels.StreamSinkChannel;
+import org.xnio.channels.StreamSourceChannel;
+import org.xnio.ssl.XnioSsl;
 
 /**
  * The Undertow producer.
- *
- * The implementation of Producer is considered as experimental. The Undertow client classes are not thread safe,
- * their purpose is for the reverse proxy usage inside Undertow itself. This may change in the future versions and
- * general purpose HTTP client wrapper will be added. Therefore this Producer may be changed too.
+ * <p/>
+ * The connections to the server are kept open and reused by the following requests (HTTP keep-alive), see the
+ * <tt>connectionPoolSize</tt> option. The number of open connections can be limited with the <tt>maxConnections</tt> option.
+ * The producer is fully asynchronous, as connecting, writing the request and reading the response is done without blocking,
+ * and the {@link AsyncCallback} is invoked from the XNIO I/O thread.
  */
 public class UndertowProducer extends DefaultAsyncProducer {
     private static final Logger LOG = LoggerFactory.getLogger(UndertowProducer.class);
@@ -56,6 +64,7 @@ public class UndertowProducer extends DefaultAsyncProducer {
     private XnioWorker worker;
     private DefaultByteBufferPool pool;
     private OptionMap options;
+    private UndertowConnectionPool connectionPool;
 
     public UndertowProducer(UndertowEndpoint endpoint, OptionMap options) {
         super(endpoint);
@@ -69,14 +78,8 @@ public class UndertowProducer extends DefaultAsyncProducer {
     }
 
     @Override
-    public boolean process(Exchange exchange, AsyncCallback callback) {
-        ClientConnection connection = null;
-
+    public boolean process(final Exchange exchange, final AsyncCallback callback) {
         try {
-            final UndertowClient client = UndertowClient.getInstance();
-
-            IoFuture<ClientConnection> connect = client.connect(endpoint.getHttpURI(), worker, pool, options);
-
             // creating the url to use takes 2-steps
             String url = UndertowHelper.createURL(exchange, getEndpoint());
             URI uri = UndertowHelper.createURI(exchange, url, getEndpoint());
@@ -86,7 +89,7 @@ public class UndertowProducer extends DefaultAsyncProducer {
             // what http method to use
             HttpString method = UndertowHelper.createMethod(exchange, endpoint, exchange.getIn().getBody() != null);
 
-            ClientRequest request = new ClientRequest();
+            final ClientRequest request = new ClientRequest();
             request.setProtocol(Protocols.HTTP_1_1);
             request.setPath(url);
             request.setMethod(method);
@@ -94,20 +97,43 @@ public class UndertowProducer extends DefaultAsyncProducer {
             Object body = getRequestBody(request, exchange);
 
             TypeConverter tc = endpoint.getCamelContext().getTypeConverter();
-            ByteBuffer bodyAsByte = tc.tryConvertTo(ByteBuffer.class, body);
+            final ByteBuffer bodyAsByte = tc.tryConvertTo(ByteBuffer.class, body);
 
             if (body != null) {
-                request.getRequestHeaders().put(Headers.CONTENT_LENGTH, bodyAsByte.array().length);
+                request.getRequestHeaders().put(Headers.CONTENT_LENGTH, bodyAsByte.remaining());
             }
 
             if (LOG.isDebugEnabled()) {
                 LOG.debug("Executing http {} method: {}", method, url);
             }
-            connection = connect.get();
-            connection.sendRequest(request, new UndertowProducerCallback(connection, bodyAsByte, exchange, callback));
+
+            connectionPool.acquire(new ClientCallback<ClientConnection>() {
+                @Override
+                public void completed(final ClientConnection connection) {
+                    final UndertowProducerCallback producerCallback = new UndertowProducerCallback(connection, bodyAsByte, exchange, callback);
+                    if (Thread.currentThread() == connection.getIoThread()) {
+                        producerCallback.sendRequest(request);
+                    } else {
+                        // the connection must only be used from its I/O thread
+                        connection.getIoThread().execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                producerCallback.sendRequest(request);
+                            }
+                        });
+                    }
+                }
+
+                @Override
+                public void failed(IOException e) {
+                    LOG.trace("failed: {}", e);
+                    exchange.setException(e);
+                    // make sure to call callback
+                    callback.done(false);
+                }
+            });
 
         } catch (Exception e) {
-            IOHelper.close(connection);
             exchange.setException(e);
             callback.done(true);
             return true;
@@ -117,6 +143,10 @@ public class UndertowProducer extends DefaultAsyncProducer {
         return false;
     }
 
+    public UndertowConnectionPool getConnectionPool() {
+        return connectionPool;
+    }
+
     private Object getRequestBody(ClientRequest request, Exchange camelExchange) {
         return endpoint.getUndertowHttpBinding().toHttpRequest(request, camelExchange.getIn());
     }
@@ -129,6 +159,15 @@ public class UndertowProducer extends DefaultAsyncProducer {
 
         worker = Xnio.getInstance().createWorker(options);
 
+        XnioSsl ssl = null;
+        if (endpoint.getSslContext() != null) {
+            ssl = new UndertowXnioSsl(worker.getXnio(), OptionMap.EMPTY, endpoint.getSslContext());
+        }
+        int poolSize = endpoint.getConnectionPoolSize() != null ? endpoint.getConnectionPoolSize() : 0;
+        int maxConnections = endpoint.getMaxConnections() != null ? endpoint.getMaxConnections() : 0;
+        connectionPool = new UndertowConnectionPool(UndertowClient.getInstance(), endpoint.getHttpURI(), worker, ssl, pool, options,
+                poolSize, maxConnections);
+
         LOG.debug("Created worker: {} with options: {}", worker, options);
     }
 
@@ -136,6 +175,10 @@ public class UndertowProducer extends DefaultAsyncProducer {
     protected void doStop() throws Exception {
         super.doStop();
 
+        if (connectionPool != null) {
+            connectionPool.close();
+        }
+
         if (worker != null && !worker.isShutdown()) {
             LOG.debug("Shutting down worker: {}", worker);
             worker.shutdown();
@@ -151,6 +194,7 @@ public class UndertowProducer extends DefaultAsyncProducer {
         private final ByteBuffer body;
         private final Exchange camelExchange;
         private final AsyncCallback callback;
+        private final AtomicBoolean done = new AtomicBoolean();
 
         UndertowProducerCallback(ClientConnection connection, ByteBuffer body, Exchange camelExchange, AsyncCallback callback) {
             this.connection = connection;
@@ -159,61 +203,151 @@ public class UndertowProducer extends DefaultAsyncProducer {
             this.callback = callback;
         }
 
+        void sendRequest(ClientRequest request) {
+            try {
+                connection.sendRequest(request, this);
+            } catch (Throwable e) {
+                camelExchange.setException(e);
+                done(false);
+            }
+        }
+
         @Override
         public void completed(final ClientExchange clientExchange) {
             clientExchange.setResponseListener(new ClientCallback<ClientExchange>() {
                 @Override
                 public void completed(ClientExchange clientExchange) {
                     LOG.trace("completed: {}", clientExchange);
-                    try {
-                        Message message = endpoint.getUndertowHttpBinding().toCamelMessage(clientExchange, camelExchange);
-                        if (ExchangeHelper.isOutCapable(camelExchange)) {
-                            camelExchange.setOut(message);
-                        } else {
-                            camelExchange.setIn(message);
-                        }
-                    } catch (Exception e) {
-                        camelExchange.setException(e);
-                    } finally {
-                        IOHelper.close(connection);
-                        // make sure to call callback
-                        callback.done(false);
-                    }
+                    // read the response without blocking, before its mapped to the camel message
+                    new ResponseBodyReader(clientExchange).handleEvent(clientExchange.getResponseChannel());
                 }
 
                 @Override
                 public void failed(IOException e) {
                     LOG.trace("failed: {}", e);
                     camelExchange.setException(e);
-                    try {
-                        IOHelper.close(connection);
-                    } finally {
-                        // make sure to call callback
-                        callback.done(false);
-                    }
+                    done(false);
                 }
             });
 
-            try {
-                //send body if exists
-                if (body != null) {
-                    clientExchange.getRequestChannel().write(body);
-                }
-            } catch (IOException e) {
-                camelExchange.setException(e);
-                IOHelper.close(connection);
-                // make sure to call callback
-                callback.done(false);
-            }
+            //send body if exists
+            new RequestBodyWriter(body).handleEvent(clientExchange.getRequestChannel());
         }
 
         @Override
         public void failed(IOException e) {
             LOG.trace("failed: {}", e);
             camelExchange.setException(e);
-            IOHelper.close(connection);
-            // make sure to call callback
-            callback.done(false);
+            done(false);
+        }
+
+        private void onResponse(ClientExchange clientExchange, byte[] responseBody) {
+            boolean reuse = false;
+            try {
+                clientExchange.putAttachment(UndertowHelper.RESPONSE_BODY, responseBody);
+                Message message = endpoint.getUndertowHttpBinding().toCamelMessage(clientExchange, camelExchange);
+                if (ExchangeHelper.isOutCapable(camelExchange)) {
+                    camelExchange.setOut(message);
+                } else {
+                    camelExchange.setIn(message);
+                }
+                // the response has been fully read so the connection can be used by the next request
+                reuse = true;
+            } catch (Exception e) {
+                camelExchange.setException(e);
+            } finally {
+                done(reuse);
+            }
+        }
+
+        private void done(boolean reuse) {
+            if (done.compareAndSet(false, true)) {
+                try {
+                    connectionPool.release(connection, reuse);
+                } finally {
+                    // make sure to call callback
+                    callback.done(false);
+                }
+            }
+        }
+
+        /**
+         * Writes the request body without blocking, and resumes writing when the channel is writable again.
+         */
+        private final class RequestBodyWriter implements ChannelListener<StreamSinkChannel> {
+
+            private final ByteBuffer buffer;
+
+            RequestBodyWriter(ByteBuffer buffer) {
+                this.buffer = buffer;
+            }
+
+            @Override
+            public void handleEvent(StreamSinkChannel channel) {
+                try {
+                    while (buffer != null && buffer.hasRemaining()) {
+                        if (channel.write(buffer) == 0) {
+                            channel.getWriteSetter().set(this);
+                            channel.resumeWrites();
+                            return;
+                        }
+                    }
+                    channel.suspendWrites();
+                    channel.shutdownWrites();
+                    if (!channel.flush()) {
+                        channel.getWriteSetter().set(ChannelListeners.<StreamSinkChannel>flushingChannelListener(null, new ChannelExceptionHandler<StreamSinkChannel>() {
+                            @Override
+                            public void handleException(StreamSinkChannel channel, IOException e) {
+                                camelExchange.setException(e);
+                                done(false);
+                            }
+                        }));
+                        channel.resumeWrites();
+                    }
+                } catch (IOException e) {
+                    camelExchange.setException(e);
+                    done(false);
+                }
+            }
+        }
+
+        /**
+         * Reads the response body without blocking, and resumes reading when there is more data available.
+         */
+        private final class ResponseBodyReader implements ChannelListener<StreamSourceChannel> {
+
+            private final ClientExchange clientExchange;
+            private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            private final ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+            ResponseBodyReader(ClientExchange clientExchange) {
+                this.clientExchange = clientExchange;
+            }
+
+            @Override
+            public void handleEvent(StreamSourceChannel channel) {
+                try {
+                    for (;;) {
+                        int res = channel.read(buffer);
+                        if (res == -1) {
+                            channel.suspendReads();
+                            onResponse(clientExchange, out.toByteArray());
+                            return;
+                        } else if (res == 0) {
+                            channel.getReadSetter().set(this);
+                            channel.resumeReads();
+                            return;
+                        } else {
+                            buffer.flip();
+                            out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                            buffer.clear();
+                        }
+                    }
+                } catch (IOException e) {
+                    camelExchange.setException(e);
+                    done(false);
+                }
+            }
         }
     }
 
@@ -26,7 +26,9 @@ import io.undertow.util.Headers;
 import io.undertow.util.HttpString;
 import io.undertow.util.Methods;
 import io.undertow.util.MimeMappings;
+import io.undertow.util.SameThreadExecutor;
 import io.undertow.util.StatusCodes;
+import org.apache.camel.AsyncCallback;
 import org.apache.camel.Exchange;
 import org.apache.camel.TypeConverter;
 import org.apache.camel.component.undertow.ExchangeHeaders;
@@ -47,7 +49,7 @@ public class HttpCamelHandler implements HttpHandler {
     private ConcurrentMap<String, UndertowConsumer> consumers = new ConcurrentHashMap<String, UndertowConsumer>();
 
     @Override
-    public void handleRequest(HttpServerExchange httpExchange) throws Exception {
+    public void handleRequest(final HttpServerExchange httpExchange) throws Exception {
         UndertowConsumer consumer = resolver.resolve(httpExchange, consumers);
 
         if (consumer == null) {
@@ -90,20 +92,69 @@ public class HttpCamelHandler implements HttpHandler {
             return;
         }
 
+        //in streaming mode the binding exposes the request channel as a blocking InputStream,
+        //which is safe as the exchange has been dispatched to a worker thread above
+        if (consumer.getEndpoint().isUseStreaming() && !httpExchange.isBlocking()) {
+            httpExchange.startBlocking();
+        }
+
         //create new Exchange
         //binding is used to extract header and payload(if available)
-        Exchange camelExchange = consumer.getEndpoint().createExchange(httpExchange);
+        final Exchange camelExchange = consumer.getEndpoint().createExchange(httpExchange);
 
         //Unit of Work to process the Exchange
         consumer.createUoW(camelExchange);
+
+        //keep the http exchange open when this handler returns, the reply is sent from the callback
+        //which may be invoked on another thread when the route continues asynchronously
+        final UndertowConsumer target = consumer;
+        httpExchange.dispatch(SameThreadExecutor.INSTANCE, new Runnable() {
+            @Override
+            public void run() {
+                processAsync(httpExchange, camelExchange, target);
+            }
+        });
+    }
+
+    private void processAsync(final HttpServerExchange httpExchange, final Exchange camelExchange, final UndertowConsumer consumer) {
+        AsyncCallback callback = new AsyncCallback() {
+            @Override
+            public void done(boolean doneSync) {
+                if (httpExchange.isBlocking() && httpExchange.isInIoThread()) {
+                    //in streaming mode the response is written with blocking IO, which must not happen on an IO thread
+                    httpExchange.dispatch(new Runnable() {
+                        @Override
+                        public void run() {
+                            completeExchange(httpExchange, camelExchange, consumer);
+                        }
+                    });
+                } else {
+                    completeExchange(httpExchange, camelExchange, consumer);
+                }
+            }
+        };
+
+        try {
+            consumer.getAsyncProcessor().process(camelExchange, callback);
+        } catch (Throwable e) {
+            // the async processor should not throw, but guard so the http exchange is always ended
+            camelExchange.setException(e);
+            callback.done(true);
+        }
+    }
+
+    private void completeExchange(HttpServerExchange httpExchange, Exchange camelExchange, UndertowConsumer consumer) {
         try {
-            consumer.getProcessor().process(camelExchange);
+            sendResponse(httpExchange, camelExchange, consumer);
         } catch (Exception e) {
-            consumer.getExceptionHandler().handleException(e);
+            consumer.getExceptionHandler().handleException("Error sending response", camelExchange, e);
+            httpExchange.endExchange();
         } finally {
             consumer.doneUoW(camelExchange);
         }
+    }
 
+    private void sendResponse(HttpServerExchange httpExchange, Exchange camelExchange, UndertowConsumer consumer) {
         Object body = getResponseBody(httpExchange, camelExchange, consumer);
         TypeConverter tc = consumer.getEndpoint().getCamelContext().getTypeConverter();
 
@@ -115,7 +166,6 @@ public class HttpCamelHandler implements HttpHandler {
             ByteBuffer bodyAsByteBuffer = tc.convertTo(ByteBuffer.class, body);
             httpExchange.getResponseSender().send(bodyAsByteBuffer);
         }
-        httpExchange.getResponseSender().close();
     }
 
     private Object getResponseBody(HttpServerExchange httpExchange, Exchange camelExchange, UndertowConsumer consumer) {
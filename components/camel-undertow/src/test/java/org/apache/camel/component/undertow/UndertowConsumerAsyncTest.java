@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.undertow;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.apache.camel.util.IOHelper;
+import org.junit.Test;
+
+public class UndertowConsumerAsyncTest extends BaseUndertowTest {
+
+    private static final String BIG = createBigBody();
+
+    @Test
+    public void testAsyncRoute() throws Exception {
+        String reply = template.requestBody("undertow:http://localhost:{{port}}/async", "Hello World", String.class);
+        assertEquals("Bye Hello World", reply);
+    }
+
+    @Test
+    public void testConcurrentAsyncRoute() throws Exception {
+        List<Future<String>> replies = new ArrayList<Future<String>>();
+        for (int i = 0; i < 20; i++) {
+            replies.add(template.asyncRequestBody("undertow:http://localhost:{{port}}/async", "Hello " + i, String.class));
+        }
+        for (int i = 0; i < 20; i++) {
+            assertEquals("Bye Hello " + i, replies.get(i).get());
+        }
+    }
+
+    @Test
+    public void testBufferedBigRequest() throws Exception {
+        String reply = template.requestBody("undertow:http://localhost:{{port}}/buffered", BIG, String.class);
+        assertEquals("byte[]:" + BIG.length(), reply);
+    }
+
+    @Test
+    public void testStreamingBigRequest() throws Exception {
+        String reply = template.requestBody("undertow:http://localhost:{{port}}/streaming", BIG, String.class);
+        assertEquals("stream:" + BIG.length(), reply);
+    }
+
+    private static String createBigBody() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            sb.append("Line ").append(i).append(" of the request body\n");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("undertow:http://localhost:{{port}}/async")
+                    .convertBodyTo(String.class)
+                    .delay(100).asyncDelayed()
+                    .transform(simple("Bye ${body}"));
+
+                from("undertow:http://localhost:{{port}}/buffered")
+                    .process(new Processor() {
+                        @Override
+                        public void process(Exchange exchange) throws Exception {
+                            byte[] body = (byte[]) exchange.getIn().getBody();
+                            exchange.getOut().setBody("byte[]:" + body.length);
+                        }
+                    });
+
+                from("undertow:http://localhost:{{port}}/streaming?useStreaming=true")
+                    .process(new Processor() {
+                        @Override
+                        public void process(Exchange exchange) throws Exception {
+                            Object body = exchange.getIn().getBody();
+                            assertTrue("Expected a stream body but was " + body, body instanceof InputStream);
+                            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                            IOHelper.copyAndCloseInput((InputStream) body, bos);
+                            exchange.getOut().setBody("stream:" + bos.size());
+                        }
+                    });
+            }
+        };
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.undertow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.ExchangePattern;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.Test;
+
+public class UndertowProducerConnectionPoolTest extends BaseUndertowTest {
+
+    private static final String BIG = createBigBody();
+
+    @Test
+    public void testConnectionReused() throws Exception {
+        UndertowEndpoint endpoint = context.getEndpoint("undertow:http://localhost:{{port}}/foo", UndertowEndpoint.class);
+        UndertowProducer producer = (UndertowProducer) endpoint.createProducer();
+        producer.start();
+        try {
+            for (int i = 0; i < 5; i++) {
+                Exchange exchange = endpoint.createExchange(ExchangePattern.InOut);
+                exchange.getIn().setBody("Hello " + i);
+                producer.process(exchange);
+
+                assertNull(exchange.getException());
+                assertEquals("Bye Hello " + i, exchange.getOut().getBody(String.class));
+                // the connection is kept open for the next request
+                assertEquals(1, producer.getConnectionPool().getIdleConnections());
+            }
+        } finally {
+            producer.stop();
+        }
+    }
+
+    @Test
+    public void testConnectionReusedBigResponse() throws Exception {
+        UndertowEndpoint endpoint = context.getEndpoint("undertow:http://localhost:{{port}}/big", UndertowEndpoint.class);
+        UndertowProducer producer = (UndertowProducer) endpoint.createProducer();
+        producer.start();
+        try {
+            for (int i = 0; i < 3; i++) {
+                Exchange exchange = endpoint.createExchange(ExchangePattern.InOut);
+                producer.process(exchange);
+
+                assertNull(exchange.getException());
+                assertEquals(BIG, exchange.getOut().getBody(String.class));
+                assertEquals(1, producer.getConnectionPool().getIdleConnections());
+            }
+        } finally {
+            producer.stop();
+        }
+    }
+
+    @Test
+    public void testConnectionPoolDisabled() throws Exception {
+        UndertowEndpoint endpoint = context.getEndpoint("undertow:http://localhost:{{port}}/foo?connectionPoolSize=0", UndertowEndpoint.class);
+        UndertowProducer producer = (UndertowProducer) endpoint.createProducer();
+        producer.start();
+        try {
+            Exchange exchange = endpoint.createExchange(ExchangePattern.InOut);
+            exchange.getIn().setBody("Hello World");
+            producer.process(exchange);
+
+            assertEquals("Bye Hello World", exchange.getOut().getBody(String.class));
+            assertEquals(0, producer.getConnectionPool().getIdleConnections());
+        } finally {
+            producer.stop();
+        }
+    }
+
+    @Test
+    public void testConcurrentRequests() throws Exception {
+        List<Future<String>> replies = new ArrayList<Future<String>>();
+        for (int i = 0; i < 20; i++) {
+            replies.add(template.asyncRequestBody("undertow:http://localhost:{{port}}/foo", "Hello " + i, String.class));
+        }
+        for (int i = 0; i < 20; i++) {
+            assertEquals("Bye Hello " + i, replies.get(i).get());
+        }
+    }
+
+    private static String createBigBody() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            sb.append("Line ").append(i).append(';');
+        }
+        return sb.toString();
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("undertow:http://localhost:{{port}}/foo")
+                    .transform().simple("Bye ${body}");
+
+                from("undertow:http://localhost:{{port}}/big")
+                    .transform().constant(BIG);
+            }
+        };
+    }
+}
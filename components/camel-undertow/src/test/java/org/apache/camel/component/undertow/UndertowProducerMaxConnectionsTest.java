@@ -0,0 +1,75 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.camel.component.undertow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.camel.Exchange;
+import org.apache.camel.Processor;
+import org.apache.camel.builder.RouteBuilder;
+import org.junit.Test;
+
+public class UndertowProducerMaxConnectionsTest extends BaseUndertowTest {
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+
+    @Test
+    public void testMaxConnections() throws Exception {
+        List<Future<String>> replies = new ArrayList<Future<String>>();
+        for (int i = 0; i < 10; i++) {
+            replies.add(template.asyncRequestBody("undertow:http://localhost:{{port}}/slow?maxConnections=2", "Hello " + i, String.class));
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals("Bye Hello " + i, replies.get(i).get());
+        }
+
+        // the requests must have waited for one of the 2 connections
+        assertTrue("Should not process more than 2 requests at the same time, was: " + maxActive.get(), maxActive.get() <= 2);
+
+        UndertowEndpoint endpoint = context.getEndpoint("undertow:http://localhost:{{port}}/slow?maxConnections=2", UndertowEndpoint.class);
+        assertEquals(2, endpoint.getMaxConnections().intValue());
+    }
+
+    @Override
+    protected RouteBuilder createRouteBuilder() throws Exception {
+        return new RouteBuilder() {
+            @Override
+            public void configure() throws Exception {
+                from("undertow:http://localhost:{{port}}/slow")
+                    .process(new Processor() {
+                        @Override
+                        public void process(Exchange exchange) throws Exception {
+                            int current = active.incrementAndGet();
+                            try {
+                                synchronized (maxActive) {
+                                    maxActive.set(Math.max(maxActive.get(), current));
+                                }
+                                Thread.sleep(50);
+                            } finally {
+                                active.decrementAndGet();
+                            }
+                        }
+                    })
+                    .transform().simple("Bye ${body}");
+            }
+        };
+    }
+}